@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.objcache.guava.GuavaObjectCacheFactory;
+import org.opendaylight.yangtools.objcache.sharded.ShardedObjectCache;
+import org.opendaylight.yangtools.objcache.sharded.ShardedObjectCache.ValueStrength;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of interning strings through an {@link ObjectCache} from 32 threads. Each thread looks up its own copies
+ * of a shared set of strings, in a random order skewed towards popular strings. GUAVA is the cache used
+ * by the object-cache-guava backend, SHARDED is the object-cache-sharded backend with its defaults, which hold
+ * values softly like the Guava one. SHARDED_BOUNDED holds values strongly and is bounded to half of the strings,
+ * using frequency admission.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(32)
+@Fork(1)
+public class ObjectCacheBenchmark {
+    public enum Backend {
+        GUAVA,
+        SHARDED,
+        SHARDED_BOUNDED
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private String[] keys;
+        private int counter;
+
+        @Setup(Level.Trial)
+        public void setup(final ObjectCacheBenchmark benchmark) {
+            final Random random = new Random(Thread.currentThread().getId());
+            keys = new String[LOOKUP_COUNT];
+            for (int i = 0; i < LOOKUP_COUNT; ++i) {
+                // Skewed towards lower indices, so some strings are much more popular than others. Distinct
+                // instances, so that the cache has to compare them.
+                final int index = random.nextInt(random.nextInt(benchmark.stringCount) + 1);
+                keys[i] = new StringBuilder(benchmark.strings[index]).toString();
+            }
+        }
+
+        String nextKey() {
+            return keys[counter++ & LOOKUP_COUNT - 1];
+        }
+    }
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int LOOKUP_COUNT = 65536;
+
+    @Param
+    private Backend backend;
+
+    @Param({ "1024", "65536" })
+    private int stringCount;
+
+    private String[] strings;
+    private ObjectCache cache;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        strings = new String[stringCount];
+        for (int i = 0; i < stringCount; ++i) {
+            strings[i] = "urn:opendaylight:benchmark:string:" + i;
+        }
+
+        switch (backend) {
+            case GUAVA:
+                cache = GuavaObjectCacheFactory.getInstance().getObjectCache(String.class);
+                break;
+            case SHARDED:
+                cache = ShardedObjectCache.builder().build();
+                break;
+            case SHARDED_BOUNDED:
+                cache = ShardedObjectCache.builder().setValueStrength(ValueStrength.STRONG)
+                    .setMaximumSize(stringCount / 2).setFrequencyAdmission(true).build();
+                break;
+            default:
+                throw new IllegalStateException("Unhandled backend " + backend);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache = null;
+        strings = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public String intern(final ThreadState state) {
+        return cache.getReference(state.nextKey());
+    }
+}
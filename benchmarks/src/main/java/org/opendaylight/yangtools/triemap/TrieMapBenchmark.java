@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.triemap;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link TrieMap#size()} and of sequential and parallel streams over entries of a {@link TrieMap} and
+ * its immutable snapshot, compared to {@link ConcurrentHashMap}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class TrieMapBenchmark {
+    public enum Implementation {
+        TRIEMAP,
+        TRIEMAP_SNAPSHOT,
+        CONCURRENTHASHMAP
+    }
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+
+    @Param({ "1000", "1000000" })
+    private int size;
+
+    @Param({ "TRIEMAP", "TRIEMAP_SNAPSHOT", "CONCURRENTHASHMAP" })
+    private Implementation implementation;
+
+    private Map<Integer, Long> map;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Map<Integer, Long> tmp = implementation == Implementation.CONCURRENTHASHMAP ? new ConcurrentHashMap<>()
+                : TrieMap.create();
+        for (int i = 0; i < size; ++i) {
+            tmp.put(i, Long.valueOf(i));
+        }
+        map = implementation == Implementation.TRIEMAP_SNAPSHOT ? ((TrieMap<Integer, Long>) tmp).immutableSnapshot()
+                : tmp;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public int size() {
+        return map.size();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public long sequentialSum() {
+        return map.entrySet().stream().mapToLong(Entry::getValue).sum();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public long parallelSum() {
+        return map.entrySet().parallelStream().mapToLong(Entry::getValue).sum();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.triemap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of bulk loads of 1M keys into a {@link TrieMap}, either built bottom-up or inserted one by one, and of
+ * {@link TrieMap#computeIfAbsent(Object, java.util.function.Function)} contended by multiple threads, compared to
+ * {@link ConcurrentHashMap}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class TrieMapBulkBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int BULK_SIZE = 1000000;
+
+    @Param({ "1024" })
+    private int contendedKeys;
+
+    @Param({ "TRIEMAP", "CONCURRENTHASHMAP" })
+    private String implementation;
+
+    private Map<Integer, Integer> source;
+    private ConcurrentMap<Integer, Integer> contended;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        source = new HashMap<>();
+        for (int i = 0; i < BULK_SIZE; ++i) {
+            source.put(i, i);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        contended = newMap();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Integer, Integer> copyOf() {
+        return "TRIEMAP".equals(implementation) ? TrieMap.copyOf(source) : new ConcurrentHashMap<>(source);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Integer, Integer> putAllNonEmpty() {
+        final ConcurrentMap<Integer, Integer> map = newMap();
+        map.put(-1, -1);
+        map.putAll(source);
+        return map;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Integer, Integer> putEach() {
+        final ConcurrentMap<Integer, Integer> map = newMap();
+        for (int i = 0; i < BULK_SIZE; ++i) {
+            map.put(i, i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @Threads(4)
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer contendedComputeIfAbsent() {
+        final int key = ThreadLocalRandom.current().nextInt(contendedKeys);
+        final Integer ret = contended.computeIfAbsent(key, Integer::valueOf);
+        if ((key & 7) == 0) {
+            // Keep some keys churning, so that the mapping function is actually invoked
+            contended.remove(key);
+        }
+        return ret;
+    }
+
+    private ConcurrentMap<Integer, Integer> newMap() {
+        return "TRIEMAP".equals(implementation) ? TrieMap.create() : new ConcurrentHashMap<>();
+    }
+}
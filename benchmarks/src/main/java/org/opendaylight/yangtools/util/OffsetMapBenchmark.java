@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link ImmutableOffsetMap#get(Object)}, compared to {@link ImmutableMap} and {@link HashMap}. Lookups
+ * are performed either with the very key instances the map was created with, as is typical for interned keys, or with
+ * equal copies. Creation of a map from a source with the same key set is measured as well, its footprint can be
+ * observed as allocation per operation by running with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class OffsetMapBenchmark {
+    public enum Implementation {
+        OFFSETMAP,
+        IMMUTABLEMAP,
+        HASHMAP
+    }
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+
+    @Param({ "2", "8", "32" })
+    private int size;
+
+    @Param({ "true", "false" })
+    private boolean sameKeys;
+
+    @Param({ "OFFSETMAP", "IMMUTABLEMAP", "HASHMAP" })
+    private Implementation implementation;
+
+    private Map<String, Object> source;
+    private Map<String, Object> map;
+    private String[] lookups;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final String[] keys = new String[size];
+        lookups = new String[size];
+        // Offset maps are created from unordered sources, do not let them copy the source first
+        source = implementation == Implementation.OFFSETMAP ? new HashMap<>() : new LinkedHashMap<>();
+        for (int i = 0; i < size; ++i) {
+            keys[i] = "key" + i;
+            lookups[i] = sameKeys ? keys[i] : new String(keys[i]);
+            source.put(keys[i], i);
+        }
+        map = create();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public Object get() {
+        final int offset = counter++;
+        return map.get(lookups[offset % lookups.length]);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public Map<String, Object> copy() {
+        return create();
+    }
+
+    private Map<String, Object> create() {
+        switch (implementation) {
+            case HASHMAP:
+                return new HashMap<>(source);
+            case IMMUTABLEMAP:
+                return ImmutableMap.copyOf(source);
+            case OFFSETMAP:
+                return ImmutableOffsetMap.unorderedCopyOf(source);
+            default:
+                throw new IllegalStateException("Unhandled implementation " + implementation);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.stream;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of walking a tree with {@link NormalizedNodeWriter}, comparing the iterative writer returned by
+ * {@link NormalizedNodeWriter#forStreamWriter(NormalizedNodeStreamWriter, boolean)} with the recursive walk
+ * implemented by the base class. The events are delivered to a writer which only counts them, so that the walk itself
+ * dominates. The DEEP tree is a chain of containers, each holding a leaf and the next container, the WIDE tree is
+ * a container with a single list of entries with a few leaves each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class NormalizedNodeWriterBenchmark {
+    public enum Shape {
+        DEEP,
+        WIDE
+    }
+
+    public enum Walk {
+        RECURSIVE,
+        ITERATIVE
+    }
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int DEPTH = 1000;
+    private static final int ENTRY_COUNT = 10000;
+    private static final int LEAF_COUNT = 5;
+
+    private static final QName TEST_QNAME = QName.create("urn:opendaylight:yangtools:benchmark:writer", "2018-01-01",
+        "test");
+    private static final QName ENTRY_QNAME = QName.create(TEST_QNAME, "entry");
+    private static final QName ID_QNAME = QName.create(TEST_QNAME, "id");
+    private static final QName LEAF_QNAME = QName.create(TEST_QNAME, "leaf");
+
+    @Param
+    private Shape shape;
+
+    @Param
+    private Walk walk;
+
+    private CountingStreamWriter counter;
+    private NormalizedNodeWriter writer;
+    private NormalizedNode<?, ?> data;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        counter = new CountingStreamWriter();
+        switch (walk) {
+            case RECURSIVE:
+                writer = new NormalizedNodeWriter(counter) {
+                    // Uses the recursive base class implementation
+                };
+                break;
+            case ITERATIVE:
+                writer = NormalizedNodeWriter.forStreamWriter(counter, false);
+                break;
+            default:
+                throw new IllegalStateException("Unhandled walk " + walk);
+        }
+
+        switch (shape) {
+            case DEEP:
+                data = createDeep();
+                break;
+            case WIDE:
+                data = createWide();
+                break;
+            default:
+                throw new IllegalStateException("Unhandled shape " + shape);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public long write() throws IOException {
+        writer.write(data);
+        return counter.events;
+    }
+
+    private static ContainerNode createDeep() {
+        final NodeIdentifier id = new NodeIdentifier(TEST_QNAME);
+        DataContainerChild<?, ?> child = ImmutableNodes.leafNode(LEAF_QNAME, 0);
+        for (int i = 1; i <= DEPTH; ++i) {
+            child = Builders.containerBuilder().withNodeIdentifier(id).withChild(child)
+                    .withChild(ImmutableNodes.leafNode(LEAF_QNAME, i)).build();
+        }
+        return (ContainerNode) child;
+    }
+
+    private static ContainerNode createWide() {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> map = ImmutableNodes.mapNodeBuilder(ENTRY_QNAME);
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> entry =
+                    ImmutableNodes.mapEntryBuilder(ENTRY_QNAME, ID_QNAME, i);
+            for (int l = 0; l < LEAF_COUNT; ++l) {
+                entry.withChild(ImmutableNodes.leafNode(QName.create(TEST_QNAME, "l" + l), "value " + i));
+            }
+            map.withChild(entry.build());
+        }
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TEST_QNAME))
+                .withChild(map.build()).build();
+    }
+
+    private static final class CountingStreamWriter implements NormalizedNodeStreamWriter {
+        long events;
+
+        @Override
+        public void leafNode(final NodeIdentifier name, final Object value) {
+            events++;
+        }
+
+        @Override
+        public void startLeafSet(final NodeIdentifier name, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void leafSetEntryNode(final QName name, final Object value) {
+            events++;
+        }
+
+        @Override
+        public void startContainerNode(final NodeIdentifier name, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void startMapNode(final NodeIdentifier name, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void startAugmentationNode(final AugmentationIdentifier identifier) {
+            events++;
+        }
+
+        @Override
+        public void anyxmlNode(final NodeIdentifier name, final Object value) {
+            events++;
+        }
+
+        @Override
+        public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint) {
+            events++;
+        }
+
+        @Override
+        public void endNode() {
+            events++;
+        }
+
+        @Override
+        public void close() {
+            // No-op
+        }
+
+        @Override
+        public void flush() {
+            // No-op
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.gson.stream.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.tree.BenchmarkModel;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of JSON parsing of a list with nested lists, comparing {@link JsonParserStream#parse(ByteBuffer)} to a Gson
+ * {@link JsonReader} on top of an {@link InputStreamReader}. The input is serialized during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms3g", "-Xmx3g" })
+public class JsonParserBenchmark {
+    public enum Input {
+        GSON,
+        BYTE_BUFFER
+    }
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int INNER_LIST_SIZE = 10;
+
+    @Param({ "50000" })
+    private int outerListSize;
+
+    @Param({ "GSON", "BYTE_BUFFER" })
+    private Input input;
+
+    private SchemaContext schemaContext;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        schemaContext = BenchmarkModel.createTestContext();
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < outerListSize; ++i) {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(
+                BenchmarkModel.INNER_LIST_QNAME);
+            for (int j = 0; j < INNER_LIST_SIZE; ++j) {
+                innerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                    BenchmarkModel.NAME_QNAME, j)
+                        .withChild(ImmutableNodes.leafNode(BenchmarkModel.NAME_QNAME, j))
+                        .withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "value " + i + "/" + j))
+                        .build());
+            }
+            outerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, i)
+                    .withChild(ImmutableNodes.leafNode(BenchmarkModel.ID_QNAME, i))
+                    .withChild(innerList.build()).build());
+        }
+        final ContainerNode data = Builders.containerBuilder()
+                .withNodeIdentifier(NodeIdentifier.create(BenchmarkModel.TEST_QNAME))
+                .withChild(outerList.build()).build();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                JSONNormalizedNodeStreamWriter.createExclusiveWriter(JSONCodecFactory.getShared(schemaContext),
+                    SchemaPath.ROOT, null, JsonWriterFactory.createJsonWriter(out)))) {
+            writer.write(data);
+        }
+        json = out.toByteArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        json = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public Object parse() throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (JsonParserStream parser = JsonParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result),
+                schemaContext)) {
+            switch (input) {
+                case GSON:
+                    parser.parse(new JsonReader(new InputStreamReader(new ByteArrayInputStream(json), UTF_8)));
+                    break;
+                case BYTE_BUFFER:
+                    parser.parse(ByteBuffer.wrap(json));
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled input " + input);
+            }
+        }
+        return result.getResult();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.ParallelNormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.tree.BenchmarkModel;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of JSON serialization of a large list with nested lists into direct UTF-8 output, comparing
+ * a {@link ParallelNormalizedNodeWriter} running with varying parallelism to a sequential {@link NormalizedNodeWriter},
+ * which is benchmarked as parallelism of 0. The output is discarded. Speedup is bounded by the number of available
+ * processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms3g", "-Xmx3g" })
+public class ParallelJsonWriterBenchmark {
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int INNER_LIST_SIZE = 10;
+
+    @Param({ "100000" })
+    private int outerListSize;
+
+    @Param({ "0", "1", "2", "4", "8", "16", "32" })
+    private int parallelism;
+
+    @Param({ "256" })
+    private int chunkSize;
+
+    private JSONCodecFactory codecs;
+    private ContainerNode data;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        codecs = JSONCodecFactory.getShared(BenchmarkModel.createTestContext());
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < outerListSize; ++i) {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(
+                BenchmarkModel.INNER_LIST_QNAME);
+            for (int j = 0; j < INNER_LIST_SIZE; ++j) {
+                innerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                    BenchmarkModel.NAME_QNAME, j)
+                        .withChild(ImmutableNodes.leafNode(BenchmarkModel.NAME_QNAME, j))
+                        .withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "value " + i + "/" + j))
+                        .build());
+            }
+            outerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, i)
+                    .withChild(ImmutableNodes.leafNode(BenchmarkModel.ID_QNAME, i))
+                    .withChild(innerList.build()).build());
+        }
+        data = Builders.containerBuilder().withNodeIdentifier(NodeIdentifier.create(BenchmarkModel.TEST_QNAME))
+                .withChild(outerList.build()).build();
+
+        if (parallelism != 0) {
+            pool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        data = null;
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public long write() throws IOException {
+        final CountingOutputStream out = new CountingOutputStream();
+        final NormalizedNodeStreamWriter streamWriter = JSONNormalizedNodeStreamWriter.createExclusiveWriter(codecs,
+            SchemaPath.ROOT, null, JsonWriterFactory.createJsonWriter(out));
+        try (NormalizedNodeWriter writer = pool == null ? NormalizedNodeWriter.forStreamWriter(streamWriter)
+                : ParallelNormalizedNodeWriter.create(streamWriter, true, pool, chunkSize)) {
+            writer.write(data);
+        }
+        return out.count;
+    }
+}
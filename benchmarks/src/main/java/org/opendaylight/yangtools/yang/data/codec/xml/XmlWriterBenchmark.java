@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.xml;
+
+import com.ctc.wstx.stax.WstxOutputFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.tree.BenchmarkModel;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of XML serialization of a list with nested lists through {@link XMLStreamNormalizedNodeStreamWriter},
+ * comparing the JDK and Woodstox StAX writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class XmlWriterBenchmark {
+    public enum Output {
+        JDK,
+        WOODSTOX
+    }
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int INNER_LIST_SIZE = 10;
+    private static final String JDK_FACTORY = "com.sun.xml.internal.stream.XMLOutputFactoryImpl";
+
+    @Param({ "1000" })
+    private int outerListSize;
+
+    @Param({ "JDK", "WOODSTOX" })
+    private Output output;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private XMLOutputFactory factory;
+    private SchemaContext context;
+    private ContainerNode data;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        context = BenchmarkModel.createTestContext();
+        switch (output) {
+            case JDK:
+                // Woodstox is on the classpath, hence XMLOutputFactory.newFactory() would pick it up
+                factory = (XMLOutputFactory) Class.forName(JDK_FACTORY).newInstance();
+                break;
+            case WOODSTOX:
+                factory = new WstxOutputFactory();
+                break;
+            default:
+                throw new IllegalStateException("Unhandled output " + output);
+        }
+        factory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, Boolean.TRUE);
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < outerListSize; ++i) {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(
+                BenchmarkModel.INNER_LIST_QNAME);
+            for (int j = 0; j < INNER_LIST_SIZE; ++j) {
+                innerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                    BenchmarkModel.NAME_QNAME, j)
+                        .withChild(ImmutableNodes.leafNode(BenchmarkModel.NAME_QNAME, j))
+                        .withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "value " + i + "/" + j))
+                        .build());
+            }
+            outerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, i)
+                    .withChild(ImmutableNodes.leafNode(BenchmarkModel.ID_QNAME, i))
+                    .withChild(innerList.build()).build());
+        }
+        data = Builders.containerBuilder().withNodeIdentifier(NodeIdentifier.create(BenchmarkModel.TEST_QNAME))
+                .withChild(outerList.build()).build();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public int write() throws IOException, XMLStreamException {
+        out.reset();
+        final XMLStreamWriter xmlWriter = factory.createXMLStreamWriter(out, "UTF-8");
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                XMLStreamNormalizedNodeStreamWriter.create(xmlWriter, context))) {
+            writer.write(data);
+        }
+        xmlWriter.close();
+        return out.size();
+    }
+}
@@ -13,10 +13,10 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
-import org.opendaylight.yangtools.yang.parser.rfc6020.repo.YangStatementStreamSource;
+import org.opendaylight.yangtools.yang.parser.impl.DefaultReactors;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.YangStatementStreamSource;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
 import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
-import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
 
 /**
  * @author Lukas Sedlak &lt;lsedlak@cisco.com&gt;
@@ -37,10 +37,15 @@ public class BenchmarkModel {
             .node(OUTER_LIST_QNAME).build();
 
     public static SchemaContext createTestContext() {
-        CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        return createTestContext("/odl-datastore-test.yang");
+    }
+
+    public static SchemaContext createTestContext(final String... resourceNames) {
+        CrossSourceStatementReactor.BuildAction reactor = DefaultReactors.defaultReactor().newBuild();
         try {
-            reactor.addSource(YangStatementStreamSource.create(
-                YangTextSchemaSource.forResource("/odl-datastore-test.yang")));
+            for (String resourceName : resourceNames) {
+                reactor.addSource(YangStatementStreamSource.create(YangTextSchemaSource.forResource(resourceName)));
+            }
             return reactor.buildEffective();
         } catch (IOException | YangSyntaxErrorException | ReactorException e) {
             throw new IllegalStateException(e);
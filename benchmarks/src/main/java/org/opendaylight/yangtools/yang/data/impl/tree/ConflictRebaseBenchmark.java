@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of contended transactions with and without rebasing of conflicting modifications. Each operation
+ * allocates a number of transactions from the same snapshot, each of which replaces the same outer list entry with
+ * a version containing a different inner list entry, and then attempts to commit them one after another. Committed
+ * and failed transactions are reported as auxiliary counters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ConflictRebaseBenchmark {
+    @State(Scope.Thread)
+    @AuxCounters
+    public static class Counters {
+        public long committed;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            committed = 0;
+            failed = 0;
+        }
+    }
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+
+    private static final YangInstanceIdentifier ENTRY_PATH = YangInstanceIdentifier.builder(
+        BenchmarkModel.OUTER_LIST_PATH).nodeWithKey(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, 0)
+            .build();
+    private static final MapEntryNode EMPTY_ENTRY = ImmutableNodes.mapEntry(BenchmarkModel.OUTER_LIST_QNAME,
+        BenchmarkModel.ID_QNAME, 0);
+
+    @Param({ "false", "true" })
+    public boolean rebase;
+
+    @Param({ "2", "8" })
+    public int contention;
+
+    private MapEntryNode[] entries;
+    private DataTree datastore;
+
+    public static void main(final String... args) throws IOException, RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + ConflictRebaseBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException {
+        entries = new MapEntryNode[contention];
+        for (int i = 0; i < contention; ++i) {
+            entries[i] = ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, 0)
+                    .withChild(ImmutableNodes.mapNodeBuilder(BenchmarkModel.INNER_LIST_QNAME)
+                        .withChild(ImmutableNodes.mapEntry(BenchmarkModel.INNER_LIST_QNAME, BenchmarkModel.NAME_QNAME,
+                            "name" + i)).build())
+                    .build();
+        }
+
+        datastore = new InMemoryDataTreeFactory().create(DataTreeConfiguration.builder(TreeType.OPERATIONAL)
+            .setMandatoryNodesValidation(true).setConflictRebase(rebase).build(), BenchmarkModel.createTestContext());
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(BenchmarkModel.TEST_PATH, ImmutableNodes.containerNode(BenchmarkModel.TEST_QNAME));
+        modification.write(BenchmarkModel.OUTER_LIST_PATH,
+            ImmutableNodes.mapNodeBuilder(BenchmarkModel.OUTER_LIST_QNAME).build());
+        modification.ready();
+        commit(modification);
+    }
+
+    @TearDown
+    public void tearDown() {
+        datastore = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public void contendedWrite(final Counters counters) throws DataValidationFailedException {
+        final DataTreeModification reset = datastore.takeSnapshot().newModification();
+        reset.write(ENTRY_PATH, EMPTY_ENTRY);
+        reset.ready();
+        commit(reset);
+
+        final DataTreeSnapshot snapshot = datastore.takeSnapshot();
+        final DataTreeModification[] modifications = new DataTreeModification[contention];
+        for (int i = 0; i < contention; ++i) {
+            modifications[i] = snapshot.newModification();
+            modifications[i].write(ENTRY_PATH, entries[i]);
+            modifications[i].ready();
+        }
+
+        for (DataTreeModification modification : modifications) {
+            try {
+                commit(modification);
+                counters.committed++;
+            } catch (DataValidationFailedException e) {
+                counters.failed++;
+            }
+        }
+    }
+
+    private void commit(final DataTreeModification modification) throws DataValidationFailedException {
+        datastore.validate(modification);
+        datastore.commit(datastore.prepare(modification));
+    }
+}
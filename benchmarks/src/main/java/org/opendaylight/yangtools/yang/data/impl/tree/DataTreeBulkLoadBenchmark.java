@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.TimeUnit;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeLoader;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark comparing populating a new data tree through {@link InMemoryDataTreeLoader} with writing and committing
+ * the same contents into an empty data tree. The contents are an outer list with the specified number of entries, each
+ * of which consists of two nodes, the entry and its key leaf. Each operation loads the complete data tree. The peak
+ * of heap surviving garbage collections during the operation and the heap retained by the loaded data tree are
+ * reported as auxiliary counters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class DataTreeBulkLoadBenchmark {
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters implements NotificationListener {
+        public long peakHeapMB;
+        public long retainedHeapMB;
+
+        private DataTree loaded;
+        // Notifications are delivered on a separate thread
+        private volatile long peakHeap;
+
+        void record(final DataTree tree) {
+            loaded = tree;
+        }
+
+        @Setup(Level.Invocation)
+        public void start() {
+            System.gc();
+            peakHeap = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) gc).addNotificationListener(this, null, null);
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void measure() throws ListenerNotFoundException {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) gc).removeNotificationListener(this);
+            }
+
+            System.gc();
+            final long retainedHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            retainedHeapMB = retainedHeap >> 20;
+            peakHeapMB = Math.max(peakHeap, retainedHeap) >> 20;
+            loaded = null;
+        }
+
+        @Override
+        public void handleNotification(final Notification notification, final Object handback) {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                // Heap which survived a collection is live at that point, track the maximum of that
+                long used = 0;
+                for (MemoryUsage usage : GarbageCollectionNotificationInfo.from(
+                        (CompositeData) notification.getUserData()).getGcInfo().getMemoryUsageAfterGc().values()) {
+                    used += usage.getUsed();
+                }
+                peakHeap = Math.max(peakHeap, used);
+            }
+        }
+    }
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final NodeIdentifier TEST_ID = new NodeIdentifier(BenchmarkModel.TEST_QNAME);
+    private static final NodeIdentifier OUTER_LIST_ID = new NodeIdentifier(BenchmarkModel.OUTER_LIST_QNAME);
+    private static final NodeIdentifier ID_ID = new NodeIdentifier(BenchmarkModel.ID_QNAME);
+
+    @Param({ "100000", "2500000" })
+    public int entries;
+
+    @Param({ "OPERATIONAL", "CONFIGURATION" })
+    public TreeType treeType;
+
+    private DataTreeConfiguration treeConfig;
+    private SchemaContext schemaContext;
+    private DataTree datastore;
+
+    public static void main(final String... args) throws IOException, RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + DataTreeBulkLoadBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        treeConfig = DataTreeConfiguration.builder(treeType).setMandatoryNodesValidation(true).build();
+        schemaContext = BenchmarkModel.createTestContext();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        datastore = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public DataTree streamLoad(final Counters counters) throws IOException {
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(treeConfig,
+            schemaContext);
+        final NormalizedNodeStreamWriter writer = loader.getWriter();
+        writer.startContainerNode(TEST_ID, 1);
+        writer.startMapNode(OUTER_LIST_ID, entries);
+        for (int i = 0; i < entries; ++i) {
+            writer.startMapEntryNode(new NodeIdentifierWithPredicates(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, i), 1);
+            writer.leafNode(ID_ID, i);
+            writer.endNode();
+        }
+        writer.endNode();
+        writer.endNode();
+
+        datastore = loader.build();
+        counters.record(datastore);
+        return datastore;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public DataTree writeCommit(final Counters counters) throws DataValidationFailedException {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> builder = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < entries; ++i) {
+            builder.withChild(ImmutableNodes.mapEntry(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, i));
+        }
+
+        datastore = new InMemoryDataTreeFactory().create(treeConfig, schemaContext);
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(BenchmarkModel.TEST_PATH, ImmutableNodes.containerNode(BenchmarkModel.TEST_QNAME));
+        modification.write(BenchmarkModel.OUTER_LIST_PATH, builder.build());
+        modification.ready();
+        datastore.validate(modification);
+        datastore.commit(datastore.prepare(modification));
+        counters.record(datastore);
+        return datastore;
+    }
+}
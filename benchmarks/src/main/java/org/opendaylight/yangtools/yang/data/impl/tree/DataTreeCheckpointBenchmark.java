@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.data.journal.DataTreeCheckpoint;
+import org.opendaylight.yangtools.yang.data.journal.DataTreeCheckpointStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of incremental {@link DataTreeCheckpointStore} checkpoints. Before each checkpoint a given percentage of
+ * outer list entries is modified, hence checkpoint time should be proportional to that percentage, with 100% being
+ * equivalent to a full checkpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class DataTreeCheckpointBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int OUTER_LIST_SIZE = 4096;
+    private static final int INNER_LIST_SIZE = 16;
+
+    @Param({ "1", "10", "50", "100" })
+    private int changedPercent;
+
+    private Path directory;
+    private DataTree tree;
+    private DataTreeCheckpointStore store;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, DataValidationFailedException {
+        tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_OPERATIONAL,
+            BenchmarkModel.createTestContext());
+
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < OUTER_LIST_SIZE; ++i) {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(
+                BenchmarkModel.INNER_LIST_QNAME);
+            for (int j = 0; j < INNER_LIST_SIZE; ++j) {
+                innerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                    BenchmarkModel.NAME_QNAME, j)
+                    .withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "value " + i + "/" + j))
+                    .build());
+            }
+            outerList.withChild(ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, i).withChild(innerList.build()).build());
+        }
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(BenchmarkModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(YangInstanceIdentifier.NodeIdentifier.create(BenchmarkModel.TEST_QNAME))
+            .withChild(outerList.build()).build());
+        commit(mod);
+
+        directory = Files.createTempDirectory("checkpoint-benchmark");
+        store = DataTreeCheckpointStore.open(directory, DataTreeCheckpointStore.DEFAULT_SPLIT_THRESHOLD,
+            Integer.MAX_VALUE, ForkJoinPool.commonPool());
+        store.checkpoint(tree.takeSnapshot());
+    }
+
+    @Setup(Level.Invocation)
+    public void modify() throws IOException, DataValidationFailedException {
+        // Keep the store from growing between invocations, outside of measurement
+        store.compact();
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        final int changed = OUTER_LIST_SIZE * changedPercent / 100;
+        for (int i = 0; i < changed; ++i) {
+            final int id = counter++ % OUTER_LIST_SIZE;
+            mod.write(YangInstanceIdentifier.builder(BenchmarkModel.OUTER_LIST_PATH)
+                .nodeWithKey(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, id)
+                .node(BenchmarkModel.INNER_LIST_QNAME)
+                .nodeWithKey(BenchmarkModel.INNER_LIST_QNAME, BenchmarkModel.NAME_QNAME, 0)
+                .node(BenchmarkModel.VALUE_QNAME).build(),
+                ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "modified " + counter));
+        }
+        commit(mod);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        store = null;
+        tree = null;
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public DataTreeCheckpoint checkpoint() throws IOException {
+        return store.checkpoint(tree.takeSnapshot());
+    }
+
+    private void commit(final DataTreeModification mod) throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+}
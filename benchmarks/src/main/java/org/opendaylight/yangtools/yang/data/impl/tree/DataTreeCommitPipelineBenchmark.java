@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.DataTreeCommitPipeline;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.DataTreeCommitPipeline.FailurePolicy;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of {@link DataTreeCommitPipeline} at various pipeline depths. Each operation writes a single outer list
+ * entry, keeping the pipeline full and retiring the oldest candidate before submitting a new one. Throughput is
+ * reported in committed modifications per millisecond, latency of submitting a modification is sampled.
+ *
+ * <p>
+ * With non-zero {@link #persistMicros} each candidate also has to be made durable by a simulated write-ahead log
+ * before it is committed. The log flushes all candidates appended since its last flush at once, taking the configured
+ * time regardless of how many of them there are, as a group commit would. Without pipelining there is only ever a
+ * single candidate to flush.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class DataTreeCommitPipelineBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int ENTRY_COUNT = 1024;
+
+    /**
+     * Simulated write-ahead log performing group commits. The flush only waits, hence it overlaps with preparation of
+     * further candidates even on a single CPU.
+     */
+    private static final class GroupCommitLog implements Runnable {
+        private final long flushNanos;
+
+        @GuardedBy("this")
+        private long appended;
+        @GuardedBy("this")
+        private long durable;
+        @GuardedBy("this")
+        private boolean running = true;
+
+        GroupCommitLog(final long flushNanos) {
+            this.flushNanos = flushNanos;
+        }
+
+        synchronized void append() {
+            appended++;
+            notifyAll();
+        }
+
+        synchronized void awaitDurable(final long sequence) throws InterruptedException {
+            while (durable < sequence) {
+                wait();
+            }
+        }
+
+        synchronized void stop() {
+            running = false;
+            notifyAll();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final long target;
+                synchronized (this) {
+                    while (running && appended == durable) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                    if (!running) {
+                        return;
+                    }
+                    target = appended;
+                }
+
+                LockSupport.parkNanos(flushNanos);
+
+                synchronized (this) {
+                    durable = target;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    @Param({ "1", "2", "4", "8", "16", "32", "64" })
+    public int depth;
+
+    @Param({ "0", "100" })
+    public int persistMicros;
+
+    private YangInstanceIdentifier[] paths;
+    private NormalizedNode<?, ?>[] entries;
+    private DataTree datastore;
+    private DataTreeCommitPipeline pipeline;
+    private GroupCommitLog log;
+    private Thread logThread;
+    private long retired;
+    private int counter;
+
+    public static void main(final String... args) throws IOException, RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + DataTreeCommitPipelineBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException {
+        paths = new YangInstanceIdentifier[ENTRY_COUNT];
+        entries = new NormalizedNode<?, ?>[ENTRY_COUNT];
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            paths[i] = YangInstanceIdentifier.builder(BenchmarkModel.OUTER_LIST_PATH)
+                    .nodeWithKey(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, i).build();
+            entries[i] = ImmutableNodes.mapEntry(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, i);
+        }
+
+        datastore = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_OPERATIONAL,
+            BenchmarkModel.createTestContext());
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(BenchmarkModel.TEST_PATH, ImmutableNodes.containerNode(BenchmarkModel.TEST_QNAME));
+        modification.write(BenchmarkModel.OUTER_LIST_PATH,
+            ImmutableNodes.mapNodeBuilder(BenchmarkModel.OUTER_LIST_QNAME).build());
+        modification.ready();
+        datastore.validate(modification);
+        datastore.commit(datastore.prepare(modification));
+
+        pipeline = DataTreeCommitPipeline.create(datastore, depth, FailurePolicy.CASCADE_ABORT);
+        retired = 0;
+        if (persistMicros != 0) {
+            log = new GroupCommitLog(TimeUnit.MICROSECONDS.toNanos(persistMicros));
+            logThread = new Thread(log, "group-commit-log");
+            logThread.setDaemon(true);
+            logThread.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        while (pipeline.size() != 0) {
+            retireNext();
+        }
+        if (log != null) {
+            log.stop();
+            logThread.join();
+            log = null;
+            logThread = null;
+        }
+        pipeline = null;
+        datastore = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public void pipelinedWrite() throws DataValidationFailedException, InterruptedException {
+        final int index = counter++ % ENTRY_COUNT;
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(paths[index], entries[index]);
+        modification.ready();
+
+        if (!pipeline.canSubmit()) {
+            retireNext();
+        }
+        pipeline.submit(modification);
+        if (log != null) {
+            log.append();
+        }
+    }
+
+    private void retireNext() throws InterruptedException {
+        if (log != null) {
+            log.awaitDurable(retired + 1);
+        }
+        pipeline.commitNext();
+        retired++;
+    }
+}
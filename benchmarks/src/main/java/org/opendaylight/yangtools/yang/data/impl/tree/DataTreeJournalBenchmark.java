@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.journal.DataTreeJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of {@link DataTreeJournal} appends. Each operation appends a candidate writing a single outer list entry
+ * and waits for it to become durable. Throughput is reported in commits per second, and should grow with the number
+ * of threads as concurrent appends are covered by a single force. Run via {@link #main(String...)} to get results for
+ * a range of thread counts.
+ *
+ * <p>
+ * The journal is created in a temporary directory under {@link #parentDirectory}, which defaults to the system
+ * temporary directory. That may well be a memory-backed file system, where forcing is free, hence results are only
+ * meaningful with a parent directory on the kind of storage the journal is meant for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+public class DataTreeJournalBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int ENTRY_COUNT = 1024;
+    private static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    @State(Scope.Thread)
+    public static class Committer {
+        private static final AtomicInteger OFFSET = new AtomicInteger();
+
+        private DataTreeCandidate[] candidates;
+        private int counter;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            // Give each thread distinct entries, so the journal does not see identical records
+            final int offset = OFFSET.getAndAdd(ENTRY_COUNT);
+            candidates = new DataTreeCandidate[ENTRY_COUNT];
+            for (int i = 0; i < ENTRY_COUNT; ++i) {
+                final int id = offset + i;
+                candidates[i] = DataTreeCandidates.fromNormalizedNode(
+                    YangInstanceIdentifier.builder(BenchmarkModel.OUTER_LIST_PATH)
+                        .nodeWithKey(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, id).build(),
+                    ImmutableNodes.mapEntry(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME, id));
+            }
+        }
+
+        DataTreeCandidate next() {
+            return candidates[counter++ % ENTRY_COUNT];
+        }
+    }
+
+    @Param({ "" })
+    public String parentDirectory;
+
+    private Path directory;
+    private DataTreeJournal journal;
+
+    public static void main(final String... args) throws IOException, RunnerException {
+        for (int threads : THREADS) {
+            Options opt = new OptionsBuilder()
+                .include(".*" + DataTreeJournalBenchmark.class.getSimpleName() + ".*")
+                .threads(threads)
+                .forks(1)
+                .build();
+
+            new Runner(opt).run();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = parentDirectory.isEmpty() ? Files.createTempDirectory("journal-benchmark")
+                : Files.createTempDirectory(Paths.get(parentDirectory), "journal-benchmark");
+        journal = DataTreeJournal.open(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        journal = null;
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public void append(final Committer committer) throws IOException {
+        journal.append(committer.next());
+    }
+}
@@ -23,6 +23,7 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailed
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.DataTreeStatistics;
 import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
@@ -34,6 +35,7 @@ import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -112,6 +114,12 @@ public class InMemoryDataTreeBenchmark {
         return outerListItems;
     }
 
+    /**
+     * Whether the data tree should report its metrics to a {@link DataTreeStatistics}.
+     */
+    @Param({ "false", "true" })
+    public boolean metrics;
+
     private SchemaContext schemaContext;
     private DataTree datastore;
 
@@ -127,9 +135,14 @@ public class InMemoryDataTreeBenchmark {
     @Setup(Level.Trial)
     public void setup() throws DataValidationFailedException, SourceException, ReactorException {
         schemaContext = BenchmarkModel.createTestContext();
-        final InMemoryDataTreeFactory factory = InMemoryDataTreeFactory.getInstance();
-        datastore = factory.create(DataTreeConfiguration.DEFAULT_CONFIGURATION);
-        datastore.setSchemaContext(schemaContext);
+        final InMemoryDataTreeFactory factory = new InMemoryDataTreeFactory();
+        if (metrics) {
+            datastore = factory.create(DataTreeConfiguration.DEFAULT_CONFIGURATION, schemaContext,
+                new DataTreeStatistics());
+        } else {
+            datastore = factory.create(DataTreeConfiguration.DEFAULT_CONFIGURATION);
+            datastore.setSchemaContext(schemaContext);
+        }
         final DataTreeSnapshot snapshot = datastore.takeSnapshot();
         initTestNode(snapshot);
     }
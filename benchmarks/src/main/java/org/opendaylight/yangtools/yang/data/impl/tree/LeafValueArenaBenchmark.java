@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.arena.LeafValueArena;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of a data tree holding its leaf values in a {@link LeafValueArena}, compared to regular leaf nodes. Each
+ * inner list entry has a key leaf and a string value leaf. Reads of random leaves are measured, heap retained by the tree
+ * and the duration of a full garbage collection with the tree in place are reported as auxiliary counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class LeafValueArenaBenchmark {
+    public enum Storage {
+        HEAP,
+        ARENA,
+        DIRECT_ARENA
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long retainedHeapMB;
+        public long fullGcMillis;
+
+        // Counters are reset after iteration setup, hence they are filled in at the end of each iteration
+        @TearDown(Level.Iteration)
+        public void record(final LeafValueArenaBenchmark benchmark) {
+            retainedHeapMB = benchmark.retainedHeap >> 20;
+            fullGcMillis = benchmark.fullGcMillis;
+        }
+    }
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int INNER_LIST_SIZE = 500;
+    private static final int READ_PATHS = 65536;
+
+    @Param({ "10000000" })
+    private int leafCount;
+
+    @Param({ "HEAP", "ARENA", "DIRECT_ARENA" })
+    private Storage storage;
+
+    private YangInstanceIdentifier[] paths;
+    private DataTreeSnapshot snapshot;
+    private DataTree tree;
+    private int counter;
+    private long retainedHeap;
+    private long fullGcMillis;
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException {
+        System.gc();
+        final long heapBefore = usedHeap();
+
+        final LeafValueArena arena = storage == Storage.ARENA ? LeafValueArena.create()
+                : storage == Storage.DIRECT_ARENA ? LeafValueArena.createDirect() : null;
+        final int outerListSize = leafCount / 2 / INNER_LIST_SIZE;
+        final CollectionNodeBuilder<MapEntryNode, MapNode> outerList = ImmutableNodes.mapNodeBuilder(
+            BenchmarkModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < outerListSize; ++i) {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> innerList = ImmutableNodes.mapNodeBuilder(
+                BenchmarkModel.INNER_LIST_QNAME);
+            for (int j = 0; j < INNER_LIST_SIZE; ++j) {
+                final MapEntryNode entry = ImmutableNodes.mapEntryBuilder(BenchmarkModel.INNER_LIST_QNAME,
+                    BenchmarkModel.NAME_QNAME, j)
+                        .withChild(ImmutableNodes.leafNode(BenchmarkModel.VALUE_QNAME, "value " + i + "/" + j))
+                        .build();
+                innerList.withChild(arena == null ? entry : (MapEntryNode) arena.compact(entry));
+            }
+            final MapEntryNode entry = ImmutableNodes.mapEntryBuilder(BenchmarkModel.OUTER_LIST_QNAME,
+                BenchmarkModel.ID_QNAME, i).withChild(innerList.build()).build();
+            outerList.withChild(arena == null ? entry : (MapEntryNode) arena.compact(entry));
+        }
+
+        tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_OPERATIONAL,
+            BenchmarkModel.createTestContext());
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(BenchmarkModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(NodeIdentifier.create(BenchmarkModel.TEST_QNAME))
+            .withChild(outerList.build()).build());
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        snapshot = tree.takeSnapshot();
+
+        final Random random = new Random(0);
+        paths = new YangInstanceIdentifier[READ_PATHS];
+        for (int i = 0; i < READ_PATHS; ++i) {
+            paths[i] = YangInstanceIdentifier.builder(BenchmarkModel.OUTER_LIST_PATH)
+                    .nodeWithKey(BenchmarkModel.OUTER_LIST_QNAME, BenchmarkModel.ID_QNAME,
+                        random.nextInt(outerListSize))
+                    .node(BenchmarkModel.INNER_LIST_QNAME)
+                    .nodeWithKey(BenchmarkModel.INNER_LIST_QNAME, BenchmarkModel.NAME_QNAME,
+                        random.nextInt(INNER_LIST_SIZE))
+                    .node(BenchmarkModel.VALUE_QNAME).build();
+        }
+
+        System.gc();
+        retainedHeap = usedHeap() - heapBefore;
+
+        // Setup garbage has been collected, time a collection which only has to trace the tree
+        final long gcBefore = gcMillis();
+        System.gc();
+        fullGcMillis = gcMillis() - gcBefore;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        snapshot = null;
+        tree = null;
+        paths = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public NormalizedNode<?, ?> read(final Counters counters) {
+        return snapshot.readNode(paths[counter++ & READ_PATHS - 1]).get();
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcMillis() {
+        long ret = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ret += Math.max(0, bean.getCollectionTime());
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of mandatory leaf enforcement on 100K list entries, each having 20 mandatory leaves, half of them in
+ * a nested non-presence container. It measures both writing complete entries and modifying an unrelated leaf in
+ * existing entries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class MandatoryLeafBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int ENTRY_COUNT = 100000;
+    private static final int MANDATORY_COUNT = 20;
+
+    private static final QName TEST_QNAME = QName.create("urn:opendaylight:yangtools:benchmark:mandatory",
+        "2018-01-01", "test");
+    private static final QName ENTRY_QNAME = QName.create(TEST_QNAME, "entry");
+    private static final QName ID_QNAME = QName.create(TEST_QNAME, "id");
+    private static final QName OTHER_QNAME = QName.create(TEST_QNAME, "other");
+    private static final QName NESTED_QNAME = QName.create(TEST_QNAME, "nested");
+    private static final YangInstanceIdentifier ENTRY_PATH = YangInstanceIdentifier.of(TEST_QNAME).node(ENTRY_QNAME);
+
+    private static final YangInstanceIdentifier[] ENTRY_PATHS = new YangInstanceIdentifier[ENTRY_COUNT];
+    private static final MapEntryNode[] ENTRIES = new MapEntryNode[ENTRY_COUNT];
+
+    static {
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            final NodeIdentifierWithPredicates id = new NodeIdentifierWithPredicates(ENTRY_QNAME, ID_QNAME, i);
+            ENTRY_PATHS[i] = ENTRY_PATH.node(id);
+
+            final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> entry =
+                    Builders.mapEntryBuilder().withNodeIdentifier(id).withChild(ImmutableNodes.leafNode(ID_QNAME, i));
+            final DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> nested =
+                    Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(NESTED_QNAME));
+            for (int m = 0; m < MANDATORY_COUNT; ++m) {
+                final QName leaf = QName.create(TEST_QNAME, "m" + m);
+                if (m < MANDATORY_COUNT / 2) {
+                    entry.withChild(ImmutableNodes.leafNode(leaf, "value"));
+                } else {
+                    nested.withChild(ImmutableNodes.leafNode(leaf, "value"));
+                }
+            }
+            ENTRIES[i] = entry.withChild(nested.build()).build();
+        }
+    }
+
+    private SchemaContext schemaContext;
+    private DataTree datastore;
+
+    public static void main(final String... args) throws IOException, RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + MandatoryLeafBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException {
+        schemaContext = BenchmarkModel.createTestContext("/mandatory-benchmark.yang");
+        datastore = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_CONFIGURATION, schemaContext);
+
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(ENTRY_PATH, ImmutableNodes.mapNodeBuilder(ENTRY_QNAME).build());
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            modification.write(ENTRY_PATHS[i], ENTRIES[i]);
+        }
+        commit(modification);
+    }
+
+    @TearDown
+    public void tearDown() {
+        schemaContext = null;
+        datastore = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public void write100KEntriesBenchmark() throws DataValidationFailedException {
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            modification.write(ENTRY_PATHS[i], ENTRIES[i]);
+        }
+        commit(modification);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public void modifyUnrelatedLeaf100KEntriesBenchmark() throws DataValidationFailedException {
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            modification.write(ENTRY_PATHS[i].node(OTHER_QNAME), ImmutableNodes.leafNode(OTHER_QNAME, "other"));
+        }
+        commit(modification);
+    }
+
+    private void commit(final DataTreeModification modification) throws DataValidationFailedException {
+        modification.ready();
+        datastore.validate(modification);
+        datastore.commit(datastore.prepare(modification));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of switching an InMemoryDataTree between two SchemaContexts which differ by a single module, followed
+ * by a modification of data belonging to an unchanged module.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class SchemaUpgradeBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+
+    private static final QName TEST_QNAME = QName.create("urn:opendaylight:yangtools:benchmark:mandatory",
+        "2018-01-01", "test");
+    private static final QName ENTRY_QNAME = QName.create(TEST_QNAME, "entry");
+    private static final QName ID_QNAME = QName.create(TEST_QNAME, "id");
+    private static final QName OTHER_QNAME = QName.create(TEST_QNAME, "other");
+    private static final YangInstanceIdentifier OTHER_PATH = YangInstanceIdentifier.of(TEST_QNAME).node(ENTRY_QNAME)
+            .node(new NodeIdentifierWithPredicates(ENTRY_QNAME, ID_QNAME, 0)).node(OTHER_QNAME);
+
+    private SchemaContext[] contexts;
+    private DataTree datastore;
+    private int counter;
+
+    public static void main(final String... args) throws IOException, RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + SchemaUpgradeBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException {
+        contexts = new SchemaContext[] {
+            BenchmarkModel.createTestContext("/odl-datastore-test.yang", "/mandatory-benchmark.yang"),
+            BenchmarkModel.createTestContext("/odl-datastore-test.yang", "/mandatory-benchmark.yang",
+                "/mount-benchmark.yang"),
+        };
+        datastore = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_CONFIGURATION, contexts[0]);
+
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(OTHER_PATH.getParent().getParent(), ImmutableNodes.mapNodeBuilder(ENTRY_QNAME).build());
+        final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> entry =
+                ImmutableNodes.mapEntryBuilder(ENTRY_QNAME, ID_QNAME, 0);
+        final DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> nested = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(QName.create(TEST_QNAME, "nested")));
+        for (int i = 0; i < 10; ++i) {
+            entry.withChild(ImmutableNodes.leafNode(QName.create(TEST_QNAME, "m" + i), "value"));
+            nested.withChild(ImmutableNodes.leafNode(QName.create(TEST_QNAME, "m" + (i + 10)), "value"));
+        }
+        modification.write(OTHER_PATH.getParent(), entry.withChild(nested.build()).build());
+        modification.ready();
+        datastore.validate(modification);
+        datastore.commit(datastore.prepare(modification));
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexts = null;
+        datastore = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public void switchSchemaAndModifyBenchmark() throws DataValidationFailedException {
+        datastore.setSchemaContext(contexts[++counter & 1]);
+
+        final DataTreeModification modification = datastore.takeSnapshot().newModification();
+        modification.write(OTHER_PATH, ImmutableNodes.leafNode(OTHER_QNAME, "value"));
+        modification.ready();
+        datastore.validate(modification);
+        datastore.prepare(modification);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.tree;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of a data tree storing only the values of leaf children, compared to regular leaf nodes. Each list entry
+ * has eleven leaves and a nested container with ten more leaves, all leaves of an entry share the same value. Reads
+ * of random leaves are measured, heap retained by the tree is reported as an auxiliary counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ValueOnlyLeavesBenchmark {
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long retainedHeapMB;
+
+        // Counters are reset after iteration setup, hence they are filled in at the end of each iteration
+        @TearDown(Level.Iteration)
+        public void record(final ValueOnlyLeavesBenchmark benchmark) {
+            retainedHeapMB = benchmark.retainedHeap >> 20;
+        }
+    }
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int ENTRY_COUNT = 200000;
+    private static final int LEAF_COUNT = 20;
+    private static final int READ_PATHS = 65536;
+
+    private static final QName TEST_QNAME = QName.create("urn:opendaylight:yangtools:benchmark:mandatory",
+        "2018-01-01", "test");
+    private static final QName ENTRY_QNAME = QName.create(TEST_QNAME, "entry");
+    private static final QName ID_QNAME = QName.create(TEST_QNAME, "id");
+    private static final QName NESTED_QNAME = QName.create(TEST_QNAME, "nested");
+    private static final YangInstanceIdentifier ENTRY_PATH = YangInstanceIdentifier.of(TEST_QNAME).node(ENTRY_QNAME);
+
+    @Param({ "false", "true" })
+    private boolean valueOnly;
+
+    private YangInstanceIdentifier[] paths;
+    private DataTreeSnapshot snapshot;
+    private DataTree tree;
+    private int counter;
+    private long retainedHeap;
+
+    @Setup(Level.Trial)
+    public void setup() throws DataValidationFailedException {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        final long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_OPERATIONAL.copyBuilder()
+            .setValueOnlyLeaves(valueOnly).build(), BenchmarkModel.createTestContext("/mandatory-benchmark.yang"));
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(ENTRY_PATH, ImmutableNodes.mapNodeBuilder(ENTRY_QNAME).build());
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            final NodeIdentifierWithPredicates id = new NodeIdentifierWithPredicates(ENTRY_QNAME, ID_QNAME, i);
+            mod.write(ENTRY_PATH.node(id), createEntry(id, i));
+        }
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        snapshot = tree.takeSnapshot();
+
+        final Random random = new Random(0);
+        paths = new YangInstanceIdentifier[READ_PATHS];
+        for (int i = 0; i < READ_PATHS; ++i) {
+            final int leaf = random.nextInt(LEAF_COUNT);
+            final YangInstanceIdentifier entry = ENTRY_PATH.node(new NodeIdentifierWithPredicates(ENTRY_QNAME,
+                ID_QNAME, random.nextInt(ENTRY_COUNT)));
+            paths[i] = (leaf < LEAF_COUNT / 2 ? entry : entry.node(NESTED_QNAME)).node(QName.create(TEST_QNAME,
+                "m" + leaf));
+        }
+
+        memory.gc();
+        retainedHeap = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        snapshot = null;
+        tree = null;
+        paths = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public NormalizedNode<?, ?> read(final Counters counters) {
+        return snapshot.readNode(paths[counter++ & READ_PATHS - 1]).get();
+    }
+
+    private static MapEntryNode createEntry(final NodeIdentifierWithPredicates id, final int value) {
+        final String str = "value " + value;
+        final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> entry =
+                Builders.mapEntryBuilder().withNodeIdentifier(id).withChild(ImmutableNodes.leafNode(ID_QNAME, value));
+        final DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> nested =
+                Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(NESTED_QNAME));
+        for (int m = 0; m < LEAF_COUNT; ++m) {
+            final QName leaf = QName.create(TEST_QNAME, "m" + m);
+            if (m < LEAF_COUNT / 2) {
+                entry.withChild(ImmutableNodes.leafNode(leaf, str));
+            } else {
+                nested.withChild(ImmutableNodes.leafNode(leaf, str));
+            }
+        }
+        return entry.withChild(nested.build()).build();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.tree.BenchmarkModel;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of instance-identifier string conversion of a working set of paths which fits into the cache, comparing
+ * a codec with a {@link StringInstanceIdentifierCache} to one without. The codec resolves prefixes as module names,
+ * like the JSON codec does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class StringInstanceIdentifierCodecBenchmark {
+    public enum Cache {
+        NONE,
+        CACHED
+    }
+
+    private static final class ModuleNameCodec extends AbstractModuleStringInstanceIdentifierCodec {
+        private final DataSchemaContextTree dataContextTree;
+        private final SchemaContext context;
+
+        ModuleNameCodec(final SchemaContext context) {
+            this.context = context;
+            this.dataContextTree = DataSchemaContextTree.from(context);
+        }
+
+        ModuleNameCodec(final SchemaContext context, final StringInstanceIdentifierCache cache) {
+            super(cache);
+            this.context = context;
+            this.dataContextTree = DataSchemaContextTree.from(context);
+        }
+
+        @Override
+        protected Module moduleForPrefix(@Nonnull final String prefix) {
+            final Iterator<Module> modules = context.findModules(prefix).iterator();
+            return modules.hasNext() ? modules.next() : null;
+        }
+
+        @Override
+        protected String prefixForNamespace(@Nonnull final URI namespace) {
+            final Iterator<Module> modules = context.findModules(namespace).iterator();
+            return modules.hasNext() ? modules.next().getName() : null;
+        }
+
+        @Nonnull
+        @Override
+        protected DataSchemaContextTree getDataContextTree() {
+            return dataContextTree;
+        }
+    }
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final int INNER_LIST_SIZE = 10;
+    private static final String PREFIX = "odl-datastore-test:";
+
+    @Param({ "2000" })
+    private int pathCount;
+
+    @Param({ "NONE", "CACHED" })
+    private Cache cache;
+
+    private AbstractStringInstanceIdentifierCodec codec;
+    private String[] strings;
+    private YangInstanceIdentifier[] paths;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final SchemaContext context = BenchmarkModel.createTestContext();
+        switch (cache) {
+            case NONE:
+                codec = new ModuleNameCodec(context);
+                break;
+            case CACHED:
+                codec = new ModuleNameCodec(context, StringInstanceIdentifierCache.create());
+                break;
+            default:
+                throw new IllegalStateException("Unhandled cache " + cache);
+        }
+
+        strings = new String[pathCount];
+        paths = new YangInstanceIdentifier[pathCount];
+        for (int i = 0; i < pathCount; ++i) {
+            // Fresh strings, so lookups cannot rely on identity
+            strings[i] = new StringBuilder().append('/').append(PREFIX).append("test/").append(PREFIX)
+                    .append("outer-list[").append(PREFIX).append("id='").append(i / INNER_LIST_SIZE).append("']/")
+                    .append(PREFIX).append("inner-list[").append(PREFIX).append("name='").append(i % INNER_LIST_SIZE)
+                    .append("']/").append(PREFIX).append("value").toString();
+            paths[i] = codec.deserialize(strings[i]);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public YangInstanceIdentifier deserialize() {
+        return codec.deserialize(strings[nextIndex()]);
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public String serialize() {
+        return codec.serialize(paths[nextIndex()]);
+    }
+
+    private int nextIndex() {
+        final int ret = next;
+        next = ret + 1 == pathCount ? 0 : ret + 1;
+        return ret;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.repo.util;
+
+import com.google.common.base.MoreObjects.ToStringHelper;
+import com.google.common.base.Optional;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+
+/**
+ * A minimal in-memory YANG text source used by schema source cache benchmarks.
+ */
+final class BenchmarkSource extends YangTextSchemaSource {
+    private final byte[] content;
+
+    BenchmarkSource(final SourceIdentifier identifier) {
+        super(identifier);
+        content = ("module " + identifier.getName() + " { namespace \"urn:" + identifier.getName()
+            + "\"; prefix p; }").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Optional<Long> sizeIfKnown() {
+        return Optional.of((long) content.length);
+    }
+
+    @Override
+    protected ToStringHelper addToStringAttributes(final ToStringHelper toStringHelper) {
+        return toStringHelper;
+    }
+
+    @Override
+    public InputStream openStream() {
+        return new ByteArrayInputStream(content);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.repo.util;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.repo.SharedSchemaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of concurrent {@link FilesystemSchemaSourceCache#getSource(SourceIdentifier)} throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(8)
+public class FilesystemSchemaSourceCacheBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+
+    @Param({ "100", "10000" })
+    public int sourceCount;
+
+    private FilesystemSchemaSourceCache<YangTextSchemaSource> cache;
+    private SourceIdentifier[] identifiers;
+    private File storageDir;
+
+    public static void main(final String... args) throws IOException, RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + FilesystemSchemaSourceCacheBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        storageDir = Files.createTempDir();
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> initial = new FilesystemSchemaSourceCache<>(
+                new SharedSchemaRepository("benchmark"), YangTextSchemaSource.class, storageDir);
+
+        identifiers = new SourceIdentifier[sourceCount];
+        for (int i = 0; i < sourceCount; ++i) {
+            identifiers[i] = RevisionSourceIdentifier.create("module" + i, Revision.of("2018-01-01"));
+            initial.offer(new BenchmarkSource(identifiers[i]));
+        }
+
+        // Measure a cache restored from the storage directory
+        cache = new FilesystemSchemaSourceCache<>(new SharedSchemaRepository("benchmark"), YangTextSchemaSource.class,
+                storageDir);
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (File file : storageDir.listFiles()) {
+            file.delete();
+        }
+        storageDir.delete();
+        cache = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public YangTextSchemaSource getSourceBenchmark() throws InterruptedException, ExecutionException {
+        return cache.getSource(identifiers[ThreadLocalRandom.current().nextInt(sourceCount)]).get();
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public byte[] getSourceAndReadBenchmark() throws InterruptedException, ExecutionException, IOException {
+        return cache.getSource(identifiers[ThreadLocalRandom.current().nextInt(sourceCount)]).get().read();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.repo.util;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.repo.SharedSchemaRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.AuxCounters.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of a bounded {@link InMemorySchemaSourceCache} with a 50K-source workload, where most requests target
+ * a small set of hot sources and misses are satisfied by offering the source again. The cache evicts either least
+ * recently used or least frequently used sources. Cache hits and misses are reported as auxiliary counters, memory
+ * allocation can be observed by running with {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(4)
+public class InMemorySchemaSourceCacheBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final int SOURCE_COUNT = 50000;
+    // 80% of requests target 20% of sources
+    private static final int HOT_SOURCE_COUNT = SOURCE_COUNT / 5;
+    private static final int HOT_PERCENTAGE = 80;
+
+    @State(Scope.Thread)
+    @AuxCounters(Type.EVENTS)
+    public static class Counters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * Cache capacity as a percentage of the number of all sources.
+     */
+    @Param({ "10", "50", "100" })
+    public int capacityPercentage;
+
+    @Param({ "LRU", "LFU" })
+    public String evictionPolicy;
+
+    private InMemorySchemaSourceCache<YangTextSchemaSource> cache;
+    private BenchmarkSource[] sources;
+
+    public static void main(final String... args) throws IOException, RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + InMemorySchemaSourceCacheBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sources = new BenchmarkSource[SOURCE_COUNT];
+        for (int i = 0; i < SOURCE_COUNT; ++i) {
+            final SourceIdentifier id = RevisionSourceIdentifier.create("module" + i, Revision.of("2018-01-01"));
+            sources[i] = new BenchmarkSource(id);
+        }
+
+        final SharedSchemaRepository repository = new SharedSchemaRepository("benchmark");
+        final long capacity = (long) SOURCE_COUNT * capacityPercentage / 100;
+        switch (evictionPolicy) {
+            case "LRU":
+                cache = InMemorySchemaSourceCache.createBoundedCache(repository, YangTextSchemaSource.class, capacity);
+                break;
+            case "LFU":
+                cache = InMemorySchemaSourceCache.createBoundedCache(repository, YangTextSchemaSource.class, capacity,
+                    SchemaSourceEvictionPolicy.leastFrequentlyUsed());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown eviction policy " + evictionPolicy);
+        }
+        for (BenchmarkSource source : sources) {
+            cache.offer(source);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        cache.close();
+        cache = null;
+    }
+
+    @Benchmark
+    @Warmup(iterations = WARMUP_ITERATIONS)
+    @Measurement(iterations = MEASUREMENT_ITERATIONS)
+    public YangTextSchemaSource getOrOfferBenchmark(final Counters counters) throws InterruptedException {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final BenchmarkSource source = sources[random.nextInt(100) < HOT_PERCENTAGE ? random.nextInt(HOT_SOURCE_COUNT)
+                : HOT_SOURCE_COUNT + random.nextInt(SOURCE_COUNT - HOT_SOURCE_COUNT)];
+        try {
+            final YangTextSchemaSource ret = cache.getSource(source.getIdentifier()).get();
+            counters.hits++;
+            return ret;
+        } catch (ExecutionException e) {
+            counters.misses++;
+            cache.offer(source);
+            return source;
+        }
+    }
+}
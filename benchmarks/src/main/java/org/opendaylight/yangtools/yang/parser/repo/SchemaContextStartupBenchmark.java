@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.repo;
+
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Futures;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactoryConfiguration;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.TextToASTTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of obtaining a {@link SchemaContext} for a set of generated modules right after JVM startup. Each
+ * measurement runs in a fresh JVM. {@link #coldStart()} parses all sources before assembling them.
+ * {@link #snapshotStart()} loads parsed sources from a snapshot directory populated by an earlier JVM, hence it
+ * skips parsing, but still runs the reactor. The warmup fork populates the snapshot directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 10, warmups = 1)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class SchemaContextStartupBenchmark {
+    private static final Revision REVISION = Revision.of("2018-01-01");
+
+    @Param({ "50", "500" })
+    public int moduleCount;
+
+    private List<YangTextSchemaSource> sources;
+    private List<SourceIdentifier> identifiers;
+    private Path snapshotDirectory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sources = new ArrayList<>(moduleCount);
+        identifiers = new ArrayList<>(moduleCount);
+        for (int i = 0; i < moduleCount; ++i) {
+            final String name = "module" + i;
+            final StringBuilder sb = new StringBuilder()
+                    .append("module ").append(name).append(" { namespace \"urn:").append(name).append("\"; ")
+                    .append("prefix m").append(i).append("; revision ").append(REVISION).append("; ");
+            if (i > 0) {
+                sb.append("import module").append(i - 1).append(" { prefix p; } ");
+            }
+            sb.append("typedef counter { type uint32 { range \"0..1000\"; } } ")
+                .append("container top { list entry { key id; leaf id { type string; } ")
+                .append("leaf value { type counter; } leaf-list tag { type string; } } } }");
+
+            final SourceIdentifier identifier = RevisionSourceIdentifier.create(name, REVISION);
+            identifiers.add(identifier);
+            sources.add(YangTextSchemaSource.delegateForByteSource(identifier,
+                ByteSource.wrap(sb.toString().getBytes(StandardCharsets.UTF_8))));
+        }
+
+        snapshotDirectory = Paths.get(System.getProperty("java.io.tmpdir"),
+            "yang-startup-benchmark-" + moduleCount);
+    }
+
+    @Benchmark
+    public SchemaContext coldStart() throws InterruptedException, ExecutionException {
+        final SharedSchemaRepository repository = new SharedSchemaRepository("benchmark");
+        return createSchemaContext(repository, TextToASTTransformer.create(repository, repository));
+    }
+
+    @Benchmark
+    public SchemaContext snapshotStart() throws InterruptedException, ExecutionException {
+        final SharedSchemaRepository repository = new SharedSchemaRepository("benchmark");
+        return createSchemaContext(repository, TextToASTTransformer.create(repository, repository,
+            snapshotDirectory));
+    }
+
+    private SchemaContext createSchemaContext(final SharedSchemaRepository repository,
+            final TextToASTTransformer transformer) throws InterruptedException, ExecutionException {
+        repository.registerSchemaSourceListener(transformer);
+        for (YangTextSchemaSource source : sources) {
+            repository.registerSchemaSource(id -> Futures.immediateFuture(source),
+                PotentialSchemaSource.create(source.getIdentifier(), YangTextSchemaSource.class,
+                    PotentialSchemaSource.Costs.IMMEDIATE.getValue()));
+        }
+        return repository.createSchemaContextFactory(SchemaContextFactoryConfiguration.getDefault())
+                .createSchemaContext(identifiers).get();
+    }
+}
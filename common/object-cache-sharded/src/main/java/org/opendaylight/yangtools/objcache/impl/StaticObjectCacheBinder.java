@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.impl;
+
+import org.opendaylight.yangtools.objcache.sharded.ShardedObjectCacheFactory;
+import org.opendaylight.yangtools.objcache.spi.AbstractObjectCacheBinder;
+
+public final class StaticObjectCacheBinder extends AbstractObjectCacheBinder {
+    private static final StaticObjectCacheBinder INSTANCE = new StaticObjectCacheBinder();
+
+    private StaticObjectCacheBinder() {
+        super(ShardedObjectCacheFactory.getInstance());
+    }
+
+    public static StaticObjectCacheBinder getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.sharded;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import javax.annotation.Nullable;
+
+/**
+ * An entry stored in a {@link CacheShard}. Entries act as both keys and values in the shard's map. They use identity
+ * equality, but report the hash code of the object they hold, even after it has been collected, so they can be
+ * found by {@link CacheShard.Probe}s and removed once their reference has been cleared.
+ *
+ * <p>
+ * Weak and soft entries are references themselves, so that an entry costs a single object.
+ */
+interface CacheEntry {
+    /**
+     * Return the cached object.
+     *
+     * @return Cached object, or null if it has been collected
+     */
+    @Nullable Object get();
+
+    /**
+     * Check whether this entry has been accessed since the last time this flag was cleared.
+     *
+     * @return True if this entry has been accessed
+     */
+    boolean isReferenced();
+
+    /**
+     * Set or clear the accessed flag. Updates are not synchronized, as the flag is only a hint for eviction.
+     *
+     * @param referenced New value of the flag
+     */
+    void setReferenced(boolean referenced);
+
+    final class Strong implements CacheEntry {
+        private final Object object;
+        private final int hash;
+        private boolean referenced;
+
+        Strong(final Object object, final int hash) {
+            this.object = object;
+            this.hash = hash;
+        }
+
+        @Override
+        public Object get() {
+            return object;
+        }
+
+        @Override
+        public boolean isReferenced() {
+            return referenced;
+        }
+
+        @Override
+        public void setReferenced(final boolean referenced) {
+            this.referenced = referenced;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            // Identity equality, see above
+            return this == obj;
+        }
+    }
+
+    final class Soft extends SoftReference<Object> implements CacheEntry {
+        private final int hash;
+        private boolean referenced;
+
+        Soft(final Object object, final int hash, final ReferenceQueue<Object> queue) {
+            super(object, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean isReferenced() {
+            return referenced;
+        }
+
+        @Override
+        public void setReferenced(final boolean referenced) {
+            this.referenced = referenced;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            // Identity equality, see above
+            return this == obj;
+        }
+    }
+
+    final class Weak extends WeakReference<Object> implements CacheEntry {
+        private final int hash;
+        private boolean referenced;
+
+        Weak(final Object object, final int hash, final ReferenceQueue<Object> queue) {
+            super(object, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean isReferenced() {
+            return referenced;
+        }
+
+        @Override
+        public void setReferenced(final boolean referenced) {
+            this.referenced = referenced;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            // Identity equality, see above
+            return this == obj;
+        }
+    }
+}
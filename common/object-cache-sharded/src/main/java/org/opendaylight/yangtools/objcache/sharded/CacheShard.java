@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.sharded;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.concepts.ProductAwareBuilder;
+import org.opendaylight.yangtools.objcache.sharded.ShardedObjectCache.ValueStrength;
+
+/**
+ * A single shard of a {@link ShardedObjectCache}. Cached objects are held in a {@link ConcurrentHashMap}, hence
+ * lookups do not need to lock. All modifications are performed with the shard lock held.
+ *
+ * <p>
+ * If the shard is bounded, its entries are also kept in a CLOCK queue: when the shard is full, entries are examined
+ * from the head of the queue, those which have been accessed since they were last examined are moved to the tail,
+ * the first one which has not been accessed is evicted. If frequency admission is enabled, a new object is cached
+ * only if it has been seen more frequently than the entry it would evict.
+ */
+final class CacheShard {
+    /**
+     * A lookup key. Probes are never stored in the map, they only know how to compare themselves with stored
+     * {@link CacheEntry}s.
+     */
+    abstract static class Probe {
+        private final int hash;
+
+        Probe(final int hash) {
+            this.hash = hash;
+        }
+
+        abstract boolean matches(Object object);
+
+        @Override
+        public final int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public final boolean equals(final Object obj) {
+            if (!(obj instanceof CacheEntry)) {
+                return false;
+            }
+            final Object object = ((CacheEntry) obj).get();
+            return object != null && matches(object);
+        }
+    }
+
+    static final class ObjectProbe extends Probe {
+        private final Object object;
+
+        ObjectProbe(final Object object) {
+            super(object.hashCode());
+            this.object = object;
+        }
+
+        @Override
+        boolean matches(final Object other) {
+            return object.equals(other);
+        }
+    }
+
+    static final class ProductProbe extends Probe {
+        private final ProductAwareBuilder<?> builder;
+
+        ProductProbe(final ProductAwareBuilder<?> builder) {
+            super(builder.productHashCode());
+            this.builder = builder;
+        }
+
+        @Override
+        boolean matches(final Object other) {
+            return builder.productEquals(other);
+        }
+    }
+
+    private final ConcurrentHashMap<Object, CacheEntry> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ValueStrength valueStrength;
+    private final StatsCounter stats;
+    private final int capacity;
+
+    // Non-null only if this shard is bounded, guarded by lock
+    private final ArrayDeque<CacheEntry> clock;
+    // Non-null only if frequency admission is enabled, guarded by lock
+    private final FrequencySketch sketch;
+
+    // Guarded by lock
+    private int size;
+
+    CacheShard(final ValueStrength valueStrength, final StatsCounter stats, final int capacity,
+            final boolean frequencyAdmission) {
+        this.valueStrength = requireNonNull(valueStrength);
+        this.stats = requireNonNull(stats);
+        this.capacity = capacity;
+        if (capacity != Integer.MAX_VALUE) {
+            clock = new ArrayDeque<>();
+            sketch = frequencyAdmission ? new FrequencySketch(capacity) : null;
+        } else {
+            clock = null;
+            sketch = null;
+        }
+    }
+
+    /**
+     * Look up a cached object.
+     *
+     * @param probe Lookup key
+     * @return Cached object, or null if there is no cached object matching the probe
+     */
+    @Nullable Object lookup(final Probe probe) {
+        final CacheEntry entry = map.get(probe);
+        if (entry == null) {
+            return null;
+        }
+        final Object existing = entry.get();
+        if (existing == null) {
+            // Cleared after it was matched
+            return null;
+        }
+
+        if (clock != null) {
+            if (!entry.isReferenced()) {
+                entry.setReferenced(true);
+            }
+            // Losing some accesses when the shard is busy is fine, the sketch is an estimate anyway
+            if (sketch != null && lock.tryLock()) {
+                try {
+                    sketch.increment(probe.hashCode());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        stats.recordHit();
+        return existing;
+    }
+
+    /**
+     * Cache an object, unless a matching object has been cached in the meantime.
+     *
+     * @param probe Lookup key matching the object
+     * @param object Object to cache
+     * @return Cached object matching the probe, or the object itself
+     */
+    Object insert(final Probe probe, final Object object) {
+        lock.lock();
+        try {
+            expungeCollected();
+
+            final CacheEntry entry = map.get(probe);
+            if (entry != null) {
+                final Object existing = entry.get();
+                if (existing != null) {
+                    stats.recordHit();
+                    return existing;
+                }
+            }
+
+            stats.recordMiss();
+            final int hash = probe.hashCode();
+            if (clock != null) {
+                if (sketch != null) {
+                    sketch.increment(hash);
+                }
+                if (size >= capacity && !makeRoom(hash)) {
+                    stats.recordRejection();
+                    return object;
+                }
+            }
+
+            final CacheEntry created = valueStrength.createEntry(object, hash, queue);
+            map.put(created, created);
+            size++;
+            if (clock != null) {
+                clock.addLast(created);
+                if (clock.size() - capacity > capacity) {
+                    // Entries removed by expungeCollected() are still queued, drop them
+                    clock.removeIf(queued -> map.get(queued) != queued);
+                }
+            }
+            return object;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the number of objects in this shard, including those which have been collected, but not yet removed.
+     *
+     * @return Number of objects
+     */
+    int size() {
+        return map.size();
+    }
+
+    private void expungeCollected() {
+        for (Reference<?> ref = queue.poll(); ref != null; ref = queue.poll()) {
+            if (remove((CacheEntry) ref)) {
+                stats.recordCollection();
+            }
+        }
+    }
+
+    private boolean makeRoom(final int candidateHash) {
+        while (true) {
+            final CacheEntry victim = clock.pollFirst();
+            if (victim == null) {
+                // Should not happen, but do not loop forever
+                return true;
+            }
+            if (map.get(victim) != victim) {
+                // Already removed
+                continue;
+            }
+            if (victim.get() == null) {
+                // Cleared, but not enqueued yet
+                remove(victim);
+                stats.recordCollection();
+                return true;
+            }
+            if (victim.isReferenced()) {
+                victim.setReferenced(false);
+                clock.addLast(victim);
+                continue;
+            }
+            if (sketch != null && sketch.frequency(candidateHash) <= sketch.frequency(victim.hashCode())) {
+                clock.addFirst(victim);
+                return false;
+            }
+
+            remove(victim);
+            stats.recordEviction();
+            return true;
+        }
+    }
+
+    private boolean remove(final CacheEntry entry) {
+        if (map.remove(entry, entry)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.sharded;
+
+/**
+ * A Count-Min sketch estimating how often an object, identified by its hash code, has been seen recently. Each
+ * estimate is the minimum of four 4-bit counters, hence it saturates at 15. Once the number of increments reaches
+ * ten times the number of counter words, all counters are halved, so that the sketch ages out old history.
+ *
+ * <p>
+ * This class is not thread-safe, users are expected to provide synchronization.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAXIMUM_SIZE = 1 << 24;
+    private static final int MINIMUM_SIZE = 8;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(final long capacity) {
+        final int size = Integer.highestOneBit((int) Math.min(Math.max(capacity, MINIMUM_SIZE), MAXIMUM_SIZE) - 1)
+                << 1;
+        table = new long[size];
+        sampleSize = size * 10;
+    }
+
+    /**
+     * Return the estimated number of occurrences of an object, saturated at 15.
+     *
+     * @param hash Hash code of the object
+     * @return Estimated frequency
+     */
+    int frequency(final int hash) {
+        final int spread = spread(hash);
+        final int start = (spread & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; ++i) {
+            final int index = indexOf(spread, i);
+            final int count = (int) (table[index] >>> ((start + i) << 2) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Record an occurrence of an object.
+     *
+     * @param hash Hash code of the object
+     */
+    void increment(final int hash) {
+        final int spread = spread(hash);
+        final int start = (spread & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; ++i) {
+            added |= incrementAt(indexOf(spread, i), start + i);
+        }
+
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(final int index, final int counter) {
+        final int offset = counter << 2;
+        final long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private int indexOf(final int spread, final int depth) {
+        long hash = (spread + SEEDS[depth]) * SEEDS[depth];
+        hash += hash >>> 32;
+        return (int) hash & (table.length - 1);
+    }
+
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; ++i) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = (additions - (odd >>> 2)) >>> 1;
+    }
+
+    private static int spread(final int hash) {
+        final int mixed = hash * 0x9e3779b9;
+        return mixed ^ (mixed >>> 16);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.sharded;
+
+import com.google.common.base.MoreObjects;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * A snapshot of {@link ShardedObjectCache} statistics. All counts are zero unless statistics recording has been
+ * enabled via {@link ShardedObjectCache.Builder#setRecordStats(boolean)}.
+ */
+public final class ObjectCacheStats implements Immutable {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long collectionCount;
+    private final long rejectionCount;
+
+    ObjectCacheStats(final long hitCount, final long missCount, final long evictionCount, final long collectionCount,
+            final long rejectionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.collectionCount = collectionCount;
+        this.rejectionCount = rejectionCount;
+    }
+
+    /**
+     * Return the number of lookups which returned a previously-cached object.
+     *
+     * @return Number of hits
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Return the number of lookups which did not find a cached object, including those whose object was not admitted
+     * into the cache.
+     *
+     * @return Number of misses
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Return the ratio of hits to all lookups, or 1.0 if there were no lookups.
+     *
+     * @return Hit rate
+     */
+    public double hitRate() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Return the number of objects evicted to make room for other objects.
+     *
+     * @return Number of evictions
+     */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Return the number of objects removed from the cache after being reclaimed by the garbage collector.
+     *
+     * @return Number of collected objects
+     */
+    public long collectionCount() {
+        return collectionCount;
+    }
+
+    /**
+     * Return the number of objects which were not admitted into the cache, as they were estimated to be used less
+     * frequently than the object they would have displaced.
+     *
+     * @return Number of rejected objects
+     */
+    public long rejectionCount() {
+        return rejectionCount;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("hits", hitCount).add("misses", missCount)
+                .add("evictions", evictionCount).add("collections", collectionCount)
+                .add("rejections", rejectionCount).toString();
+    }
+}
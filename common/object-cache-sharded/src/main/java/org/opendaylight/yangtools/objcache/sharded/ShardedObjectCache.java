@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.sharded;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import java.lang.ref.ReferenceQueue;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.ProductAwareBuilder;
+import org.opendaylight.yangtools.objcache.ObjectCache;
+import org.opendaylight.yangtools.objcache.sharded.CacheShard.ObjectProbe;
+import org.opendaylight.yangtools.objcache.sharded.CacheShard.Probe;
+import org.opendaylight.yangtools.objcache.sharded.CacheShard.ProductProbe;
+
+/**
+ * An {@link ObjectCache} spreading its objects across a power-of-two number of {@link CacheShard}s, selected by
+ * the object's hash code. Lookups of cached objects are lock-free, so that concurrent callers interning the same
+ * objects do not contend with each other. Unlike the Guava-based cache, a lookup does not allocate a reference
+ * object unless the object is actually cached.
+ *
+ * <p>
+ * The cache can be bounded, in which case each shard holds at most its share of the maximum size and evicts
+ * objects using the CLOCK algorithm. Objects can be held strongly, softly or weakly, see {@link ValueStrength}.
+ */
+public final class ShardedObjectCache implements ObjectCache {
+    /**
+     * How cached objects are referenced by the cache.
+     */
+    public enum ValueStrength {
+        /**
+         * Objects are held strongly, they are removed from the cache only when they are evicted. This should be used
+         * only with a bounded cache.
+         */
+        STRONG {
+            @Override
+            CacheEntry createEntry(final Object object, final int hash, final ReferenceQueue<Object> queue) {
+                return new CacheEntry.Strong(object, hash);
+            }
+        },
+        /**
+         * Objects are held through {@link java.lang.ref.SoftReference}s, hence they are reclaimed only when
+         * the JVM is running low on memory. This matches the Guava-based cache.
+         */
+        SOFT {
+            @Override
+            CacheEntry createEntry(final Object object, final int hash, final ReferenceQueue<Object> queue) {
+                return new CacheEntry.Soft(object, hash, queue);
+            }
+        },
+        /**
+         * Objects are held through {@link java.lang.ref.WeakReference}s, hence they are reclaimed as soon as they
+         * are not referenced from outside of the cache.
+         */
+        WEAK {
+            @Override
+            CacheEntry createEntry(final Object object, final int hash, final ReferenceQueue<Object> queue) {
+                return new CacheEntry.Weak(object, hash, queue);
+            }
+        };
+
+        abstract CacheEntry createEntry(Object object, int hash, ReferenceQueue<Object> queue);
+    }
+
+    public static final class Builder implements org.opendaylight.yangtools.concepts.Builder<ShardedObjectCache> {
+        private ValueStrength valueStrength = ValueStrength.SOFT;
+        private int shardCount = defaultShardCount();
+        private long maximumSize = -1;
+        private boolean frequencyAdmission;
+        private boolean recordStats;
+
+        Builder() {
+            // Hidden on purpose
+        }
+
+        /**
+         * Set the number of shards. It is rounded up to the nearest power of two. Defaults to four times
+         * the number of available processors.
+         *
+         * @param shardCount Number of shards
+         * @return This builder
+         * @throws IllegalArgumentException if shardCount is not positive or is larger than 2^30
+         */
+        public Builder setShardCount(final int shardCount) {
+            checkArgument(shardCount > 0 && shardCount <= MAXIMUM_SHARDS, "Invalid shard count %s", shardCount);
+            this.shardCount = shardCount;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of objects held by the cache. The limit is enforced per shard, each shard holding
+         * at most its even share of the maximum. The cache is unbounded by default.
+         *
+         * @param maximumSize Maximum number of objects
+         * @return This builder
+         * @throws IllegalArgumentException if maximumSize is not positive
+         */
+        public Builder setMaximumSize(final long maximumSize) {
+            checkArgument(maximumSize > 0, "Invalid maximum size %s", maximumSize);
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Set how cached objects are referenced. Defaults to {@link ValueStrength#SOFT}.
+         *
+         * @param valueStrength Value strength
+         * @return This builder
+         * @throws NullPointerException if valueStrength is null
+         */
+        public Builder setValueStrength(final ValueStrength valueStrength) {
+            this.valueStrength = requireNonNull(valueStrength);
+            return this;
+        }
+
+        /**
+         * Enable or disable frequency-based admission. When enabled, a full shard caches a new object only if
+         * the object has been requested more frequently than the object it would evict, otherwise the new object is
+         * returned without being cached. This protects the cache from being flushed by objects which are requested
+         * only once. It has no effect on an unbounded cache. Disabled by default.
+         *
+         * @param frequencyAdmission True to enable frequency-based admission
+         * @return This builder
+         */
+        public Builder setFrequencyAdmission(final boolean frequencyAdmission) {
+            this.frequencyAdmission = frequencyAdmission;
+            return this;
+        }
+
+        /**
+         * Enable or disable recording of statistics reported by {@link ShardedObjectCache#getStats()}. Disabled by
+         * default.
+         *
+         * @param recordStats True to enable statistics
+         * @return This builder
+         */
+        public Builder setRecordStats(final boolean recordStats) {
+            this.recordStats = recordStats;
+            return this;
+        }
+
+        @Override
+        public ShardedObjectCache build() {
+            return new ShardedObjectCache(this);
+        }
+    }
+
+    private static final int MAXIMUM_SHARDS = 1 << 30;
+
+    private final CacheShard[] shards;
+    private final StatsCounter stats;
+    private final int mask;
+
+    private ShardedObjectCache(final Builder builder) {
+        final int shardCount = builder.shardCount == 1 ? 1 : Integer.highestOneBit(builder.shardCount - 1) << 1;
+        final int capacity;
+        if (builder.maximumSize > 0) {
+            capacity = (int) Math.min((builder.maximumSize + shardCount - 1) / shardCount, Integer.MAX_VALUE - 1);
+        } else {
+            capacity = Integer.MAX_VALUE;
+        }
+
+        stats = builder.recordStats ? new StatsCounter() : StatsCounter.DISABLED;
+        shards = new CacheShard[shardCount];
+        for (int i = 0; i < shardCount; ++i) {
+            shards[i] = new CacheShard(builder.valueStrength, stats, capacity, builder.frequencyAdmission);
+        }
+        mask = shardCount - 1;
+    }
+
+    /**
+     * Return a new builder of caches.
+     *
+     * @return A new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getReference(final T object) {
+        if (object == null) {
+            return null;
+        }
+
+        final Probe probe = new ObjectProbe(object);
+        final CacheShard shard = shardFor(probe);
+        final Object existing = shard.lookup(probe);
+        return (T) (existing != null ? existing : shard.insert(probe, object));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <B extends ProductAwareBuilder<P>, P> P getProduct(@Nonnull final B builder) {
+        final Probe probe = new ProductProbe(builder);
+        final CacheShard shard = shardFor(probe);
+        final Object existing = shard.lookup(probe);
+        return (P) (existing != null ? existing : shard.insert(probe, requireNonNull(builder.build())));
+    }
+
+    /**
+     * Return a snapshot of this cache's statistics.
+     *
+     * @return Statistics snapshot
+     */
+    public ObjectCacheStats getStats() {
+        return stats.snapshot();
+    }
+
+    /**
+     * Return the approximate number of objects in this cache. The count may include objects which have been
+     * reclaimed by the garbage collector, but have not been removed yet.
+     *
+     * @return Approximate number of objects
+     */
+    public long estimatedSize() {
+        long ret = 0;
+        for (CacheShard shard : shards) {
+            ret += shard.size();
+        }
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("shards", shards.length).add("stats", stats.snapshot())
+                .toString();
+    }
+
+    private CacheShard shardFor(final Probe probe) {
+        // Mix the hash, so the shard index does not correlate with the bucket index within the shard's map
+        final int mixed = probe.hashCode() * 0x9e3779b9;
+        return shards[(mixed ^ (mixed >>> 16)) & mask];
+    }
+
+    private static int defaultShardCount() {
+        return Math.min(Runtime.getRuntime().availableProcessors() * 4, MAXIMUM_SHARDS);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.sharded;
+
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.objcache.ObjectCache;
+import org.opendaylight.yangtools.objcache.spi.IObjectCacheFactory;
+
+public final class ShardedObjectCacheFactory implements IObjectCacheFactory {
+    private static final ShardedObjectCacheFactory INSTANCE = new ShardedObjectCacheFactory();
+
+    // Soft values and no bound, matching the Guava-based cache
+    private final ShardedObjectCache cache = ShardedObjectCache.builder().setRecordStats(true).build();
+
+    private ShardedObjectCacheFactory() {
+        // Hidden on purpose
+    }
+
+    @Override
+    public ObjectCache getObjectCache(@Nonnull final Class<?> objClass) {
+        return cache;
+    }
+
+    /**
+     * Return the cache shared by all classes, for example to examine its statistics.
+     *
+     * @return Shared cache
+     */
+    public ShardedObjectCache getSharedCache() {
+        return cache;
+    }
+
+    /**
+     * Return a factory instance.
+     *
+     * @return A factory instance.
+     */
+    public static ShardedObjectCacheFactory getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.sharded;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics counters shared by all shards of a {@link ShardedObjectCache}. Counters are {@link LongAdder}s, so that
+ * concurrent hits do not contend on a single memory location.
+ */
+class StatsCounter {
+    private static final class Disabled extends StatsCounter {
+        @Override
+        void recordHit() {
+            // No-op
+        }
+
+        @Override
+        void recordMiss() {
+            // No-op
+        }
+
+        @Override
+        void recordEviction() {
+            // No-op
+        }
+
+        @Override
+        void recordCollection() {
+            // No-op
+        }
+
+        @Override
+        void recordRejection() {
+            // No-op
+        }
+    }
+
+    static final StatsCounter DISABLED = new Disabled();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder collectionCount = new LongAdder();
+    private final LongAdder rejectionCount = new LongAdder();
+
+    void recordHit() {
+        hitCount.increment();
+    }
+
+    void recordMiss() {
+        missCount.increment();
+    }
+
+    void recordEviction() {
+        evictionCount.increment();
+    }
+
+    void recordCollection() {
+        collectionCount.increment();
+    }
+
+    void recordRejection() {
+        rejectionCount.increment();
+    }
+
+    final ObjectCacheStats snapshot() {
+        return new ObjectCacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), collectionCount.sum(),
+            rejectionCount.sum());
+    }
+}
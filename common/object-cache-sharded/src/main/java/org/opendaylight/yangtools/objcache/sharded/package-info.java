@@ -0,0 +1,14 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+/**
+ * Object cache backed by a set of independently-locked shards. Lookups of cached objects do not take any locks,
+ * the shard lock is taken only when an object is inserted. Each shard can be bounded, in which case objects are
+ * evicted using the CLOCK algorithm and, optionally, admitted only when they are accessed more frequently than
+ * the object they would displace.
+ */
+package org.opendaylight.yangtools.objcache.sharded;
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.sharded;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FrequencySketchTest {
+    @Test
+    public void testIncrement() {
+        final FrequencySketch sketch = new FrequencySketch(64);
+        assertEquals(0, sketch.frequency(42));
+        sketch.increment(42);
+        sketch.increment(42);
+        assertEquals(2, sketch.frequency(42));
+    }
+
+    @Test
+    public void testSaturation() {
+        final FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 20; ++i) {
+            sketch.increment(42);
+        }
+        assertEquals(15, sketch.frequency(42));
+    }
+
+    @Test
+    public void testReset() {
+        final FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 10; ++i) {
+            sketch.increment(42);
+        }
+
+        // Enough distinct additions to trigger aging, halving the counters
+        for (int i = 0; i < 64 * 10; ++i) {
+            sketch.increment(i * 31 + 100);
+        }
+        assertTrue(sketch.frequency(42) < 10);
+    }
+}
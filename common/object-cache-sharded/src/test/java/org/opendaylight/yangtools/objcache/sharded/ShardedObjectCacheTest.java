@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.objcache.sharded;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.opendaylight.yangtools.concepts.ProductAwareBuilder;
+import org.opendaylight.yangtools.objcache.ObjectCache;
+import org.opendaylight.yangtools.objcache.ObjectCacheFactory;
+import org.opendaylight.yangtools.objcache.sharded.ShardedObjectCache.ValueStrength;
+
+public class ShardedObjectCacheTest {
+    private static final class StringBuilderProduct implements ProductAwareBuilder<String> {
+        private final String value;
+        private int buildCount;
+
+        StringBuilderProduct(final String value) {
+            this.value = value;
+        }
+
+        @Override
+        public int productHashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public boolean productEquals(final Object product) {
+            return value.equals(product);
+        }
+
+        @Override
+        @SuppressWarnings("RedundantStringConstructorCall")
+        public String build() {
+            buildCount++;
+            return new String(value);
+        }
+    }
+
+    @Test
+    public void testCorrectWiring() {
+        assertEquals(ShardedObjectCache.class, ObjectCacheFactory.getObjectCache(String.class).getClass());
+    }
+
+    @Test
+    public void testInitialReference() {
+        final ObjectCache cache = ShardedObjectCache.builder().build();
+        final String s1 = "abcd";
+        assertSame(s1, cache.getReference(s1));
+        assertNull(cache.getReference(null));
+    }
+
+    @Test
+    // This test is based on using different references
+    @SuppressWarnings("RedundantStringConstructorCall")
+    public void testMultipleReferences() {
+        final ShardedObjectCache cache = ShardedObjectCache.builder().setRecordStats(true).build();
+        final String s1 = "abcd";
+        final String s2 = new String(s1);
+
+        // Preliminary check
+        assertEquals(s1, s2);
+        assertNotSame(s1, s2);
+
+        assertSame(s1, cache.getReference(s1));
+        assertSame(s1, cache.getReference(s2));
+        assertNotSame(s2, cache.getReference(s2));
+
+        final ObjectCacheStats stats = cache.getStats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, cache.estimatedSize());
+    }
+
+    @Test
+    public void testProduct() {
+        final ShardedObjectCache cache = ShardedObjectCache.builder().build();
+        final StringBuilderProduct builder = new StringBuilderProduct("abcd");
+        final String product = cache.getProduct(builder);
+        assertEquals("abcd", product);
+        assertEquals(1, builder.buildCount);
+
+        // Subsequent lookups do not build the product
+        assertSame(product, cache.getProduct(builder));
+        assertEquals(1, builder.buildCount);
+        assertSame(product, cache.getReference("abcd"));
+    }
+
+    @Test
+    public void testEviction() {
+        final ShardedObjectCache cache = ShardedObjectCache.builder().setShardCount(1).setMaximumSize(4)
+                .setValueStrength(ValueStrength.STRONG).setRecordStats(true).build();
+        final Integer[] values = new Integer[6];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = new Integer(1000 + i);
+            assertSame(values[i], cache.getReference(values[i]));
+        }
+
+        final ObjectCacheStats stats = cache.getStats();
+        assertEquals(6, stats.missCount());
+        assertEquals(2, stats.evictionCount());
+        assertEquals(4, cache.estimatedSize());
+
+        // The two oldest entries have been evicted, the newest is still cached
+        assertNotSame(values[0], cache.getReference(new Integer(1000)));
+        assertSame(values[5], cache.getReference(new Integer(1005)));
+    }
+
+    @Test
+    public void testSecondChance() {
+        final ShardedObjectCache cache = ShardedObjectCache.builder().setShardCount(1).setMaximumSize(2)
+                .setValueStrength(ValueStrength.STRONG).build();
+        final Integer first = new Integer(1000);
+        final Integer second = new Integer(1001);
+        cache.getReference(first);
+        cache.getReference(second);
+
+        // Access the first entry, hence the second one should be evicted
+        cache.getReference(new Integer(1000));
+        cache.getReference(new Integer(1002));
+
+        assertSame(first, cache.getReference(new Integer(1000)));
+        assertNotSame(second, cache.getReference(new Integer(1001)));
+    }
+
+    @Test
+    public void testFrequencyAdmission() {
+        final ShardedObjectCache cache = ShardedObjectCache.builder().setShardCount(1).setMaximumSize(2)
+                .setValueStrength(ValueStrength.STRONG).setFrequencyAdmission(true).setRecordStats(true).build();
+        final Integer first = new Integer(1000);
+        final Integer second = new Integer(1001);
+        cache.getReference(first);
+        cache.getReference(second);
+        for (int i = 0; i < 5; ++i) {
+            cache.getReference(new Integer(1000));
+            cache.getReference(new Integer(1001));
+        }
+
+        // A one-off object is not admitted
+        final Integer third = new Integer(1002);
+        assertSame(third, cache.getReference(third));
+        assertEquals(1, cache.getStats().rejectionCount());
+        assertEquals(0, cache.getStats().evictionCount());
+        assertSame(first, cache.getReference(new Integer(1000)));
+        assertSame(second, cache.getReference(new Integer(1001)));
+        assertNotSame(third, cache.getReference(new Integer(1002)));
+    }
+
+    @Test
+    public void testShardCountRounding() {
+        assertTrue(ShardedObjectCache.builder().setShardCount(3).build().toString().contains("shards=4"));
+        assertTrue(ShardedObjectCache.builder().setShardCount(1).build().toString().contains("shards=1"));
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import javax.annotation.Nonnull;
 
@@ -42,7 +43,7 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
     static final class Ordered<K, V> extends ImmutableOffsetMap<K, V> {
         private static final long serialVersionUID = 1L;
 
-        Ordered(final Map<K, Integer> offsets, final V[] objects) {
+        Ordered(final OffsetTable<K> offsets, final V[] objects) {
             super(offsets, objects);
         }
 
@@ -62,7 +63,7 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
     static final class Unordered<K, V> extends ImmutableOffsetMap<K, V> {
         private static final long serialVersionUID = 1L;
 
-        Unordered(final Map<K, Integer> offsets, final V[] objects) {
+        Unordered(final OffsetTable<K> offsets, final V[] objects) {
             super(offsets, objects);
         }
 
@@ -74,7 +75,7 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
         @Override
         void setFields(final List<K> keys, final V[] values) throws IOException {
-            final Map<K, Integer> newOffsets = OffsetMapCache.unorderedOffsets(keys);
+            final OffsetTable<K> newOffsets = OffsetMapCache.unorderedOffsets(keys);
 
             setField(this, OFFSETS_FIELD, newOffsets);
             setField(this, ARRAY_FIELD, OffsetMapCache.adjustedArray(newOffsets, keys, values));
@@ -83,18 +84,18 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
     private static final long serialVersionUID = 1L;
 
-    private final transient Map<K, Integer> offsets;
+    private final transient OffsetTable<K> offsets;
     private final transient V[] objects;
     private transient int hashCode;
 
     /**
      * Construct a new instance backed by specified key-to-offset map and array of objects.
      *
-     * @param offsets Key-to-offset map, may not be null
+     * @param offsets Key-to-offset table, may not be null
      * @param objects Array of value object, may not be null. The array is stored as is, the caller
      *              is responsible for ensuring its contents remain unmodified.
      */
-    ImmutableOffsetMap(@Nonnull final Map<K, Integer> offsets, @Nonnull final V[] objects) {
+    ImmutableOffsetMap(@Nonnull final OffsetTable<K> offsets, @Nonnull final V[] objects) {
         this.offsets = requireNonNull(offsets);
         this.objects = requireNonNull(objects);
         checkArgument(offsets.size() == objects.length);
@@ -143,14 +144,8 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
             return SharedSingletonMap.orderedOf(e.getKey(), e.getValue());
         }
 
-        final Map<K, Integer> offsets = OffsetMapCache.orderedOffsets(map.keySet());
-        @SuppressWarnings("unchecked")
-        final V[] array = (V[]) new Object[offsets.size()];
-        for (Entry<K, V> e : map.entrySet()) {
-            array[offsets.get(e.getKey())] = e.getValue();
-        }
-
-        return new Ordered<>(offsets, array);
+        final OffsetTable<K> offsets = OffsetMapCache.orderedOffsets(map.keySet());
+        return new Ordered<>(offsets, fillArray(offsets, map));
     }
 
     /**
@@ -190,14 +185,17 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
             return SharedSingletonMap.unorderedOf(e.getKey(), e.getValue());
         }
 
-        final Map<K, Integer> offsets = OffsetMapCache.unorderedOffsets(map.keySet());
+        final OffsetTable<K> offsets = OffsetMapCache.unorderedOffsets(map.keySet());
+        return new Unordered<>(offsets, fillArray(offsets, map));
+    }
+
+    private static <K, V> V[] fillArray(final OffsetTable<K> offsets, final Map<K, V> map) {
         @SuppressWarnings("unchecked")
         final V[] array = (V[]) new Object[offsets.size()];
         for (Entry<K, V> e : map.entrySet()) {
-            array[offsets.get(e.getKey())] = e.getValue();
+            array[offsets.offsetOf(e.getKey())] = e.getValue();
         }
-
-        return new Unordered<>(offsets, array);
+        return array;
     }
 
     @Override
@@ -217,8 +215,8 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
         }
 
         int result = 0;
-        for (Entry<K, Integer> e : offsets.entrySet()) {
-            result += e.getKey().hashCode() ^ objects[e.getValue()].hashCode();
+        for (int i = 0; i < objects.length; ++i) {
+            result += offsets.keyAt(i).hashCode() ^ objects[i].hashCode();
         }
 
         hashCode = result;
@@ -255,8 +253,8 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
         try {
             // Ensure all objects are present
-            for (Entry<K, Integer> e : offsets.entrySet()) {
-                if (!objects[e.getValue()].equals(other.get(e.getKey()))) {
+            for (int i = 0; i < objects.length; ++i) {
+                if (!objects[i].equals(other.get(offsets.keyAt(i)))) {
                     return false;
                 }
             }
@@ -270,7 +268,7 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
     @Override
     public final boolean containsKey(final Object key) {
-        return offsets.containsKey(key);
+        return offsets.offsetOf(key) != -1;
     }
 
     @Override
@@ -285,8 +283,8 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
     @Override
     public final V get(final Object key) {
-        final Integer offset = offsets.get(key);
-        return offset == null ? null : objects[offset];
+        final int offset = offsets.offsetOf(key);
+        return offset == -1 ? null : objects[offset];
     }
 
     @Override
@@ -330,22 +328,19 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
     @Override
     public final String toString() {
         final StringBuilder sb = new StringBuilder("{");
-        final Iterator<K> it = offsets.keySet().iterator();
-        int offset = 0;
-        while (it.hasNext()) {
-            sb.append(it.next());
-            sb.append('=');
-            sb.append(objects[offset++]);
-
-            if (it.hasNext()) {
+        for (int i = 0; i < objects.length; ++i) {
+            if (i != 0) {
                 sb.append(", ");
             }
+            sb.append(offsets.keyAt(i));
+            sb.append('=');
+            sb.append(objects[i]);
         }
 
         return sb.append('}').toString();
     }
 
-    final Map<K, Integer> offsets() {
+    final OffsetTable<K> offsets() {
         return offsets;
     }
 
@@ -357,18 +352,21 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
         @Nonnull
         @Override
         public Iterator<Entry<K, V>> iterator() {
-            final Iterator<Entry<K, Integer>> it = offsets.entrySet().iterator();
-
             return new UnmodifiableIterator<Entry<K, V>>() {
+                private int offset;
+
                 @Override
                 public boolean hasNext() {
-                    return it.hasNext();
+                    return offset < objects.length;
                 }
 
                 @Override
                 public Entry<K, V> next() {
-                    final Entry<K, Integer> e = it.next();
-                    return new SimpleImmutableEntry<>(e.getKey(), objects[e.getValue()]);
+                    if (offset == objects.length) {
+                        throw new NoSuchElementException();
+                    }
+                    final int current = offset++;
+                    return new SimpleImmutableEntry<>(offsets.keyAt(current), objects[current]);
                 }
             };
         }
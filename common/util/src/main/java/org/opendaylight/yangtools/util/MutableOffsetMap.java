@@ -54,7 +54,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             super(OffsetMapCache.orderedOffsets(source.keySet()), source, new LinkedHashMap<>());
         }
 
-        Ordered(final Map<K, Integer> offsets, final V[] objects) {
+        Ordered(final OffsetTable<K> offsets, final V[] objects) {
             super(offsets, objects, new LinkedHashMap<>());
         }
 
@@ -69,7 +69,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         }
 
         @Override
-        UnmodifiableMapPhase<K, V> unmodifiedMap(final Map<K, Integer> offsetMap, final V[] values) {
+        UnmodifiableMapPhase<K, V> unmodifiedMap(final OffsetTable<K> offsetMap, final V[] values) {
             return new ImmutableOffsetMap.Ordered<>(offsetMap, values);
         }
 
@@ -88,7 +88,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             super(OffsetMapCache.unorderedOffsets(source.keySet()), source, new HashMap<>());
         }
 
-        Unordered(final Map<K, Integer> offsets, final V[] objects) {
+        Unordered(final OffsetTable<K> offsets, final V[] objects) {
             super(offsets, objects, new HashMap<>());
         }
 
@@ -99,12 +99,12 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
         @Override
         UnmodifiableMapPhase<K, V> modifiedMap(final List<K> keys, final V[] values) {
-            final Map<K, Integer> offsets = OffsetMapCache.unorderedOffsets(keys);
+            final OffsetTable<K> offsets = OffsetMapCache.unorderedOffsets(keys);
             return new ImmutableOffsetMap.Unordered<>(offsets, OffsetMapCache.adjustedArray(offsets, keys, values));
         }
 
         @Override
-        UnmodifiableMapPhase<K, V> unmodifiedMap(final Map<K, Integer> offsetMap, final V[] values) {
+        UnmodifiableMapPhase<K, V> unmodifiedMap(final OffsetTable<K> offsetMap, final V[] values) {
             return new ImmutableOffsetMap.Unordered<>(offsetMap, values);
         }
 
@@ -116,7 +116,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     private static final Object[] EMPTY_ARRAY = new Object[0];
     private static final Object REMOVED = new Object();
-    private final Map<K, Integer> offsets;
+    private final OffsetTable<K> offsets;
     private HashMap<K, V> newKeys;
     private Object[] objects;
     private int removed = 0;
@@ -126,7 +126,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     private transient volatile int modCount;
     private boolean needClone = true;
 
-    MutableOffsetMap(final Map<K, Integer> offsets, final V[] objects, final HashMap<K, V> newKeys) {
+    MutableOffsetMap(final OffsetTable<K> offsets, final V[] objects, final HashMap<K, V> newKeys) {
         verify(newKeys.isEmpty());
         this.offsets = requireNonNull(offsets);
         this.objects = requireNonNull(objects);
@@ -135,15 +135,15 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @SuppressWarnings("unchecked")
     MutableOffsetMap(final HashMap<K, V> newKeys) {
-        this(ImmutableMap.of(), (V[]) EMPTY_ARRAY, newKeys);
+        this(OffsetTable.empty(), (V[]) EMPTY_ARRAY, newKeys);
     }
 
     @SuppressWarnings("unchecked")
-    MutableOffsetMap(final Map<K, Integer> offsets, final Map<K, V> source, final HashMap<K, V> newKeys) {
+    MutableOffsetMap(final OffsetTable<K> offsets, final Map<K, V> source, final HashMap<K, V> newKeys) {
         this(offsets, (V[]) new Object[offsets.size()], newKeys);
 
         for (Entry<K, V> e : source.entrySet()) {
-            objects[offsets.get(e.getKey())] = requireNonNull(e.getValue());
+            objects[offsets.offsetOf(e.getKey())] = requireNonNull(e.getValue());
         }
 
         this.needClone = false;
@@ -185,7 +185,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     abstract UnmodifiableMapPhase<K, V> modifiedMap(List<K> keys, V[] values);
 
-    abstract UnmodifiableMapPhase<K, V> unmodifiedMap(Map<K, Integer> offsetMap, V[] values);
+    abstract UnmodifiableMapPhase<K, V> unmodifiedMap(OffsetTable<K> offsetMap, V[] values);
 
     abstract SharedSingletonMap<K, V> singletonMap();
 
@@ -201,8 +201,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @Override
     public final boolean containsKey(final Object key) {
-        final Integer offset = offsets.get(key);
-        if (offset != null) {
+        final int offset = offsets.offsetOf(key);
+        if (offset != -1) {
             final Object obj = objects[offset];
             if (!REMOVED.equals(obj)) {
                 return obj != null;
@@ -214,8 +214,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @Override
     public final V get(final Object key) {
-        final Integer offset = offsets.get(key);
-        if (offset != null) {
+        final int offset = offsets.offsetOf(key);
+        if (offset != -1) {
             final Object obj = objects[offset];
 
             /*
@@ -245,8 +245,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     @Override
     public final V put(final K key, final V value) {
         requireNonNull(value);
-        final Integer offset = offsets.get(requireNonNull(key));
-        if (offset != null) {
+        final int offset = offsets.offsetOf(requireNonNull(key));
+        if (offset != -1) {
             final Object obj = objects[offset];
 
             /*
@@ -278,8 +278,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @Override
     public final V remove(final Object key) {
-        final Integer offset = offsets.get(key);
-        if (offset != null) {
+        final int offset = offsets.offsetOf(key);
+        if (offset != -1) {
             final Object obj = objects[offset];
 
             /*
@@ -355,10 +355,10 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         final List<K> keyset = new ArrayList<>(s);
         if (removed != 0) {
             if (removed != offsets.size()) {
-                for (Entry<K, Integer> e : offsets.entrySet()) {
-                    final Object o = objects[e.getValue()];
+                for (int i = 0; i < objects.length; ++i) {
+                    final Object o = objects[i];
                     if (o != null && !REMOVED.equals(o)) {
-                        keyset.add(e.getKey());
+                        keyset.add(offsets.keyAt(i));
                     }
                 }
             }
@@ -373,8 +373,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         int offset = 0;
         if (removed != 0) {
             if (removed != offsets.size()) {
-                for (Entry<K, Integer> e : offsets.entrySet()) {
-                    final Object o = objects[e.getValue()];
+                for (Object o : objects) {
                     if (o != null && !REMOVED.equals(o)) {
                         @SuppressWarnings("unchecked")
                         final V v = (V) o;
@@ -413,10 +412,10 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     public final int hashCode() {
         int result = 0;
 
-        for (Entry<K, Integer> e : offsets.entrySet()) {
-            final Object v = objects[e.getValue()];
+        for (int i = 0; i < objects.length; ++i) {
+            final Object v = objects[i];
             if (v != null) {
-                result += e.getKey().hashCode() ^ v.hashCode();
+                result += offsets.keyAt(i).hashCode() ^ v.hashCode();
             }
         }
 
@@ -464,9 +463,9 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             }
 
             // Ensure all objects are present
-            for (Entry<K, Integer> e : offsets.entrySet()) {
-                final Object val = objects[e.getValue()];
-                if (val != null && !REMOVED.equals(val) && !val.equals(other.get(e.getKey()))) {
+            for (int i = 0; i < objects.length; ++i) {
+                final Object val = objects[i];
+                if (val != null && !REMOVED.equals(val) && !val.equals(other.get(offsets.keyAt(i)))) {
                     return false;
                 }
             }
@@ -587,7 +586,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     }
 
     private abstract class AbstractSetIterator<E> implements Iterator<E> {
-        private final Iterator<Entry<K, Integer>> oldIterator = offsets.entrySet().iterator();
+        private int oldOffset;
         private final Iterator<K> newIterator = newKeys.keySet().iterator();
         private int expectedModCount = modCount;
         private K currentKey;
@@ -598,11 +597,11 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         }
 
         private void updateNextKey() {
-            while (oldIterator.hasNext()) {
-                final Entry<K, Integer> e = oldIterator.next();
-                final Object obj = objects[e.getValue()];
+            while (oldOffset < offsets.size()) {
+                final Object obj = objects[oldOffset];
+                final K key = offsets.keyAt(oldOffset++);
                 if (obj != null && !REMOVED.equals(obj)) {
-                    nextKey = e.getKey();
+                    nextKey = key;
                     return;
                 }
             }
@@ -627,8 +626,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             requireNonNull(currentKey != null);
 
             checkModCount();
-            final Integer offset = offsets.get(currentKey);
-            if (offset != null) {
+            final int offset = offsets.offsetOf(currentKey);
+            if (offset != -1) {
                 cloneArray();
                 objects[offset] = removedObject();
                 removed++;
@@ -14,14 +14,10 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.collect.ImmutableSet;
 import java.lang.reflect.Array;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
 
@@ -30,25 +26,26 @@ final class OffsetMapCache {
      * Cache for offsets where order matters. The key is a List, which defines the iteration order. Since we want
      * to retain this order, it is okay to use a simple LoadingCache.
      */
-    private static final LoadingCache<List<?>, Map<?, Integer>> ORDERED_CACHE =
-            CacheBuilder.newBuilder().weakValues().build(new CacheLoader<List<?>, Map<?, Integer>>() {
+    private static final LoadingCache<List<?>, OffsetTable<?>> ORDERED_CACHE =
+            CacheBuilder.newBuilder().weakValues().build(new CacheLoader<List<?>, OffsetTable<?>>() {
                 @Override
-                public Map<?, Integer> load(@Nonnull final List<?> key) {
-                    return createMap(key);
+                public OffsetTable<?> load(@Nonnull final List<?> key) {
+                    return OffsetTable.of(key);
                 }
             });
     /*
      * Cache for offsets where order does not mapper. The key is a Set of elements. We use manual two-stage loading
-     * because of the nature of the objects we store as values, which is ImmutableMaps. An ImmutableMap, when queried
-     * for keys (as is done in ImmutableOffsetMap.keySet()), will instantiate an ImmutableSet to hold these keys. It
-     * would be wasteful to use one Set for lookup only to have the map have an exact copy.
+     * because of the nature of the objects we store as values, which is OffsetTables. An OffsetTable has a key set
+     * view (as returned by ImmutableOffsetMap.keySet()). It would be wasteful to use one Set for lookup only to have
+     * the table have an exact copy.
      *
      * We perform the first look up using a Set (which may come from the user, for example via
      * ImmutableOffsetMap.unorderedCopyOf()), hence potentially saving a copy operation. If we fail to find an entry,
-     * we construct the map and put it conditionally with Map.keySet() as the key. This will detect concurrent loading
-     * and also lead to the cache and the map sharing the same Set.
+     * we construct the table and put it conditionally with OffsetTable.keySet() as the key. This will detect concurrent
+     * loading and also lead to the cache and the table sharing the same Set. A key set of an existing table resolves
+     * to that table without a lookup.
      */
-    private static final Cache<Set<?>, Map<?, Integer>> UNORDERED_CACHE =
+    private static final Cache<Set<?>, OffsetTable<?>> UNORDERED_CACHE =
             CacheBuilder.newBuilder().weakValues().build();
 
     private OffsetMapCache() {
@@ -62,41 +59,42 @@ final class OffsetMapCache {
     }
 
     @SuppressWarnings("unchecked")
-    static <T> Map<T, Integer> orderedOffsets(final Collection<T> args) {
+    static <T> OffsetTable<T> orderedOffsets(final Collection<T> args) {
         if (args.size() == 1) {
             return unorderedOffsets(args);
         }
 
-        return (Map<T, Integer>) ORDERED_CACHE.getUnchecked(ImmutableList.copyOf(args));
+        return (OffsetTable<T>) ORDERED_CACHE.getUnchecked(ImmutableList.copyOf(args));
     }
 
-    static <T> Map<T, Integer> unorderedOffsets(final Collection<T> args) {
+    static <T> OffsetTable<T> unorderedOffsets(final Collection<T> args) {
         return unorderedOffsets(args instanceof Set ? (Set<T>)args : ImmutableSet.copyOf(args));
     }
 
     @SuppressWarnings("unchecked")
-    private static <T> Map<T, Integer> unorderedOffsets(final Set<T> args) {
-        final Map<T, Integer> existing = (Map<T, Integer>) UNORDERED_CACHE.getIfPresent(args);
+    private static <T> OffsetTable<T> unorderedOffsets(final Set<T> args) {
+        final OffsetTable<T> known = OffsetTable.forKeySet(args);
+        if (known != null) {
+            return known;
+        }
+
+        final OffsetTable<T> existing = (OffsetTable<T>) UNORDERED_CACHE.getIfPresent(args);
         if (existing != null) {
             return existing;
         }
 
-        final Map<T, Integer> newMap = createMap(args);
-        final Map<?, Integer> raced = UNORDERED_CACHE.asMap().putIfAbsent(newMap.keySet(), newMap);
-        return raced == null ? newMap : (Map<T, Integer>)raced;
+        final OffsetTable<T> newTable = OffsetTable.of(args);
+        final OffsetTable<?> raced = UNORDERED_CACHE.asMap().putIfAbsent(newTable.keySet(), newTable);
+        return raced == null ? newTable : (OffsetTable<T>)raced;
     }
 
-    static <K, V> V[] adjustedArray(final Map<K, Integer> offsets, final List<K> keys, final V[] array) {
+    static <K, V> V[] adjustedArray(final OffsetTable<K> offsets, final List<K> keys, final V[] array) {
         Verify.verify(offsets.size() == keys.size(), "Offsets %s do not match keys %s", offsets, keys);
 
-        // This relies on the fact that offsets has an ascending iterator
-        final Iterator<K> oi = offsets.keySet().iterator();
-        final Iterator<K> ki = keys.iterator();
-
-        while (oi.hasNext()) {
-            final K o = oi.next();
-            final K k = ki.next();
-            if (!k.equals(o)) {
+        // This relies on the fact that offsets are assigned in ascending order
+        int offset = 0;
+        for (K key : keys) {
+            if (!key.equals(offsets.keyAt(offset++))) {
                 return adjustArray(offsets, keys, array);
             }
         }
@@ -104,24 +102,14 @@ final class OffsetMapCache {
         return array;
     }
 
-    private static <T> Map<T, Integer> createMap(final Collection<T> keys) {
-        final Builder<T, Integer> b = ImmutableMap.builder();
-        int counter = 0;
-
-        for (T arg : keys) {
-            b.put(arg, counter++);
-        }
-
-        return b.build();
-    }
-
-    private static <K, V> V[] adjustArray(final Map<K, Integer> offsets, final List<K> keys, final V[] array) {
+    private static <K, V> V[] adjustArray(final OffsetTable<K> offsets, final List<K> keys, final V[] array) {
         @SuppressWarnings("unchecked")
         final V[] ret = (V[]) Array.newInstance(array.getClass().getComponentType(), array.length);
 
         int offset = 0;
         for (final K k : keys) {
-            final Integer o = Verify.verifyNotNull(offsets.get(k), "Key %s not present in offsets %s", k, offsets);
+            final int o = offsets.offsetOf(k);
+            Verify.verify(o != -1, "Key %s not present in offsets %s", k, offsets);
             ret[o] = array[offset++];
         }
 
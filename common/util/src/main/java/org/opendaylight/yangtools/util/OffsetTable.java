@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.UnmodifiableIterator;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import javax.annotation.Nonnull;
+
+/**
+ * Assignment of keys to offsets in the backing array of an {@link ImmutableOffsetMap} or a {@link MutableOffsetMap}.
+ * Offsets are assigned in key iteration order and resolved to primitive ints, without boxing. Small tables resolve
+ * keys by a linear scan, checking for identical keys first, larger ones use an open-addressing hash table.
+ *
+ * @param <K> the type of keys
+ */
+abstract class OffsetTable<K> {
+    /**
+     * Table with only a few keys. Keys are usually interned, hence an identity scan is likely to find them without
+     * invoking {@link Object#equals(Object)} at all. Otherwise only keys with matching hash codes are compared.
+     */
+    private static final class Linear<K> extends OffsetTable<K> {
+        private final int[] hashes;
+
+        Linear(final Object[] keys) {
+            super(keys);
+            hashes = new int[keys.length];
+            for (int i = 0; i < keys.length; ++i) {
+                hashes[i] = keys[i].hashCode();
+            }
+        }
+
+        @Override
+        int offsetOf(final Object key) {
+            final Object[] local = keys;
+            for (int i = 0; i < local.length; ++i) {
+                if (local[i] == key) {
+                    return i;
+                }
+            }
+            if (key != null) {
+                final int hash = key.hashCode();
+                for (int i = 0; i < local.length; ++i) {
+                    if (hashes[i] == hash && key.equals(local[i])) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Table with open addressing and linear probing, with a load factor of at most 0.5. For small tables a multiplier
+     * which maps each key to a distinct slot is searched for, so that present keys are typically found on first probe.
+     * The chance of finding one drops steeply with the number of keys, hence larger tables are filled only once.
+     */
+    private static final class Hashed<K> extends OffsetTable<K> {
+        private static final int PERFECT_MAX_SIZE = 8;
+        private static final int MAX_ATTEMPTS = 16;
+        private static final int EMPTY = -1;
+
+        private final int[] slots;
+        private final int multiplier;
+        private final int shift;
+
+        Hashed(final Object[] keys) {
+            super(keys);
+
+            final int bits = Integer.SIZE - Integer.numberOfLeadingZeros(keys.length * 2 - 1);
+            shift = Integer.SIZE - bits;
+            slots = new int[1 << bits];
+
+            final int[] hashes = new int[keys.length];
+            for (int i = 0; i < keys.length; ++i) {
+                hashes[i] = keys[i].hashCode();
+            }
+
+            int candidate = GOLDEN_RATIO;
+            if (keys.length <= PERFECT_MAX_SIZE) {
+                // If no perfect multiplier is found, the last one is used with linear probing
+                for (int attempt = 1; !fill(hashes, candidate) && attempt < MAX_ATTEMPTS; ++attempt) {
+                    candidate += 2 * GOLDEN_RATIO;
+                }
+            } else {
+                fill(hashes, candidate);
+            }
+            multiplier = candidate;
+        }
+
+        @Override
+        int offsetOf(final Object key) {
+            if (key == null) {
+                return -1;
+            }
+
+            final int mask = slots.length - 1;
+            int slot = key.hashCode() * multiplier >>> shift;
+            while (true) {
+                final int offset = slots[slot];
+                if (offset == EMPTY) {
+                    return -1;
+                }
+                final Object existing = keys[offset];
+                if (existing == key || key.equals(existing)) {
+                    return offset;
+                }
+                slot = slot + 1 & mask;
+            }
+        }
+
+        /**
+         * Fill slots using specified multiplier.
+         *
+         * @return True if each key has been placed into its home slot
+         */
+        private boolean fill(final int[] hashes, final int candidate) {
+            Arrays.fill(slots, EMPTY);
+            final int mask = slots.length - 1;
+            boolean perfect = true;
+            for (int i = 0; i < hashes.length; ++i) {
+                int slot = hashes[i] * candidate >>> shift;
+                while (slots[slot] != EMPTY) {
+                    slot = slot + 1 & mask;
+                    perfect = false;
+                }
+                slots[slot] = i;
+            }
+            return perfect;
+        }
+    }
+
+    /**
+     * Immutable view of a table's keys, in offset order.
+     */
+    private final class KeySet extends AbstractSet<K> {
+        private final int hashCode = computeHashCode();
+
+        @Nonnull
+        @Override
+        @SuppressWarnings("unchecked")
+        public UnmodifiableIterator<K> iterator() {
+            return (UnmodifiableIterator<K>) Iterators.forArray(keys);
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:parameterName")
+        public boolean contains(final Object o) {
+            return offsetOf(o) != -1;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:parameterName")
+        public boolean equals(final Object o) {
+            return o == this || super.equals(o);
+        }
+
+        OffsetTable<K> table() {
+            return OffsetTable.this;
+        }
+
+        private int computeHashCode() {
+            int ret = 0;
+            for (Object key : keys) {
+                ret += key.hashCode();
+            }
+            return ret;
+        }
+    }
+
+    /**
+     * Tables up to this size use a linear scan.
+     */
+    static final int LINEAR_MAX_SIZE = 4;
+
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+    private static final OffsetTable<?> EMPTY_TABLE = new Linear<>(new Object[0]);
+
+    final Object[] keys;
+    private final KeySet keySet;
+
+    OffsetTable(final Object[] keys) {
+        this.keys = keys;
+        this.keySet = new KeySet();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K> OffsetTable<K> empty() {
+        return (OffsetTable<K>) EMPTY_TABLE;
+    }
+
+    /**
+     * Create a table assigning offsets to keys in iteration order.
+     *
+     * @param keys Keys, which must not contain duplicates nor null elements
+     * @return A new table
+     */
+    static <K> OffsetTable<K> of(final Collection<K> keys) {
+        final Object[] array = keys.toArray();
+        return array.length <= LINEAR_MAX_SIZE ? new Linear<>(array) : new Hashed<>(array);
+    }
+
+    /**
+     * Return the table whose key set this is, if it is one.
+     *
+     * @param keys Key set
+     * @return The table, or null
+     */
+    @SuppressWarnings("unchecked")
+    static <K> OffsetTable<K> forKeySet(final Set<K> keys) {
+        return keys instanceof OffsetTable.KeySet ? ((OffsetTable<K>.KeySet) keys).table() : null;
+    }
+
+    /**
+     * Return the offset assigned to a key.
+     *
+     * @param key Key to look up
+     * @return Offset of the key, or -1 if it is not present
+     */
+    abstract int offsetOf(Object key);
+
+    final int size() {
+        return keys.length;
+    }
+
+    final boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    final K keyAt(final int offset) {
+        return (K) keys[offset];
+    }
+
+    final Set<K> keySet() {
+        return keySet;
+    }
+
+    @Override
+    public final int hashCode() {
+        return Arrays.hashCode(keys);
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        return obj == this || obj instanceof OffsetTable && Arrays.equals(keys, ((OffsetTable<?>) obj).keys);
+    }
+
+    @Override
+    public final String toString() {
+        return Arrays.toString(keys);
+    }
+}
@@ -53,7 +53,7 @@ public class OffsetMapTest {
 
     @Test(expected = IllegalArgumentException.class)
     public void testWrongImmutableConstruction() {
-        new ImmutableOffsetMap.Ordered<>(Collections.<String, Integer>emptyMap(), new String[1]);
+        new ImmutableOffsetMap.Ordered<>(OffsetTable.<String>empty(), new String[1]);
     }
 
     @Test
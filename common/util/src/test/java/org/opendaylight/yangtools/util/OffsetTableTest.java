@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class OffsetTableTest {
+    /**
+     * Key with a configurable hash code, so that we can force collisions.
+     */
+    private static final class Key {
+        private final int value;
+        private final int hash;
+
+        int hashCodeCalls;
+
+        Key(final int value, final int hash) {
+            this.value = value;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            hashCodeCalls++;
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Key && value == ((Key) obj).value;
+        }
+    }
+
+    @Test
+    public void testSizes() {
+        for (int size = 0; size <= 64; ++size) {
+            final List<String> keys = new ArrayList<>(size);
+            for (int i = 0; i < size; ++i) {
+                keys.add("key" + i);
+            }
+
+            final OffsetTable<String> table = OffsetTable.of(keys);
+            assertEquals(size, table.size());
+            for (int i = 0; i < size; ++i) {
+                assertEquals(i, table.offsetOf(keys.get(i)));
+                // Equal, but not identical key
+                assertEquals(i, table.offsetOf(new String(keys.get(i))));
+                assertSame(keys.get(i), table.keyAt(i));
+            }
+            assertEquals(-1, table.offsetOf("absent"));
+            assertEquals(-1, table.offsetOf(null));
+            assertEquals(keys, new ArrayList<>(table.keySet()));
+        }
+    }
+
+    @Test
+    public void testHashCollisions() {
+        final List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 32; ++i) {
+            keys.add(new Key(i, i % 4));
+        }
+
+        final OffsetTable<Key> table = OffsetTable.of(keys);
+        for (int i = 0; i < keys.size(); ++i) {
+            assertEquals(i, table.offsetOf(new Key(i, i % 4)));
+        }
+        assertEquals(-1, table.offsetOf(new Key(32, 0)));
+    }
+
+    @Test
+    public void testHashCodeInvocations() {
+        final List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 64; ++i) {
+            keys.add(new Key(i, i % 4));
+        }
+
+        // Once for the slot table, once for the key set hash code, regardless of how many multipliers are tried
+        OffsetTable.of(keys);
+        for (Key key : keys) {
+            assertEquals(2, key.hashCodeCalls);
+        }
+    }
+
+    @Test
+    public void testEquality() {
+        final List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 16; ++i) {
+            keys.add("key" + i);
+        }
+
+        final OffsetTable<String> table = OffsetTable.of(keys);
+        assertEquals(table, OffsetTable.of(new ArrayList<>(keys)));
+        assertEquals(table.hashCode(), OffsetTable.of(new ArrayList<>(keys)).hashCode());
+        assertEquals(new HashSet<>(keys), table.keySet());
+        assertEquals(table.keySet(), new HashSet<>(keys));
+
+        keys.add(keys.remove(0));
+        assertNotEquals(table, OffsetTable.of(keys));
+    }
+
+    @Test
+    public void testLargeMap() {
+        final Map<String, Integer> source = new HashMap<>();
+        for (int i = 0; i < 100; ++i) {
+            source.put("key" + i, i);
+        }
+
+        final Map<String, Integer> map = ImmutableOffsetMap.unorderedCopyOf(source);
+        assertTrue(map instanceof ImmutableOffsetMap);
+        assertEquals(source, map);
+        assertEquals(map, source);
+        assertEquals(source.hashCode(), map.hashCode());
+        assertNull(map.get("absent"));
+        assertFalse(map.containsKey("absent"));
+
+        // Key set of an existing map resolves to the same offsets
+        final ImmutableOffsetMap<String, Integer> copy = (ImmutableOffsetMap<String, Integer>)
+                ImmutableOffsetMap.unorderedCopyOf(new HashMap<>(map));
+        assertSame(((ImmutableOffsetMap<String, Integer>) map).offsets(), copy.offsets());
+
+        final MutableOffsetMap<String, Integer> mutable = copy.toModifiableMap();
+        mutable.remove("key0");
+        mutable.put("key100", 100);
+        source.remove("key0");
+        source.put("key100", 100);
+        assertEquals(source, mutable);
+        assertEquals(source, mutable.toUnmodifiableMap());
+    }
+}
@@ -24,6 +24,7 @@ import com.google.common.base.VerifyException;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiFunction;
 
 final class INode<K, V> extends BasicNode {
     @SuppressWarnings("rawtypes")
@@ -349,6 +350,100 @@ final class INode<K, V> extends BasicNode {
         return GCAS(ln, ln.replaceChild(entry, v), ct);
     }
 
+    /**
+     * Updates the mapping of a key based on its current value, as provided by a function. The function is invoked with
+     * the current value, or null if there is none, and returns the new value, or null if there should be none. It
+     * may be invoked multiple times if the update needs to be restarted. Removal of an existing mapping is not
+     * performed here, but is left to the caller, as indicated by the returned result.
+     *
+     * @return null if the operation needs to be restarted, or the old and new values otherwise
+     */
+    Computed<V> recCompute(final K k, final int hc, final BiFunction<? super K, ? super V, ? extends V> function,
+            final int lev, final INode<K, V> parent, final TrieMap<K, V> ct) {
+        return recCompute(k, hc, function, lev, parent, gen, ct);
+    }
+
+    private Computed<V> recCompute(final K k, final int hc,
+            final BiFunction<? super K, ? super V, ? extends V> function, final int lev, final INode<K, V> parent,
+            final Gen startgen, final TrieMap<K, V> ct) {
+        while (true) {
+            final MainNode<K, V> m = GCAS_READ(ct);
+
+            if (m instanceof CNode) {
+                // 1) a multiway node
+                final CNode<K, V> cn = (CNode<K, V>) m;
+                final int idx = (hc >>> lev) & 0x1f;
+                final int flag = 1 << idx;
+                final int bmp = cn.bitmap;
+                final int mask = flag - 1;
+                final int pos = Integer.bitCount(bmp & mask);
+
+                if ((bmp & flag) == 0) {
+                    final V v = function.apply(k, null);
+                    if (v == null) {
+                        return Computed.absent();
+                    }
+
+                    final CNode<K, V> rn = (cn.gen == gen) ? cn : cn.renewed(gen, ct);
+                    return GCAS(cn, rn.insertedAt(pos, flag, new SNode<>(k, v, hc), gen), ct)
+                            ? new Computed<>(null, v) : null;
+                }
+
+                final BasicNode cnAtPos = cn.array[pos];
+                if (cnAtPos instanceof INode) {
+                    final INode<K, V> in = (INode<K, V>) cnAtPos;
+                    if (startgen == in.gen) {
+                        return in.recCompute(k, hc, function, lev + LEVEL_BITS, this, startgen, ct);
+                    }
+
+                    if (GCAS(cn, cn.renewed(startgen, ct), ct)) {
+                        // Tail recursion: return recCompute(k, hc, function, lev, parent, startgen, ct);
+                        continue;
+                    }
+
+                    return null;
+                } else if (cnAtPos instanceof SNode) {
+                    final SNode<K, V> sn = (SNode<K, V>) cnAtPos;
+                    if (sn.hc == hc && ct.equal(sn.key, k)) {
+                        final V v = function.apply(k, sn.value);
+                        if (v == sn.value || v == null) {
+                            return new Computed<>(sn.value, v);
+                        }
+
+                        return GCAS(cn, cn.updatedAt(pos, new SNode<>(k, v, hc), gen), ct)
+                                ? new Computed<>(sn.value, v) : null;
+                    }
+
+                    final V v = function.apply(k, null);
+                    if (v == null) {
+                        return Computed.absent();
+                    }
+
+                    return insertDual(ct, cn, pos, sn, k, v, hc, lev) != null ? new Computed<>(null, v) : null;
+                } else {
+                    throw CNode.invalidElement(cnAtPos);
+                }
+            } else if (m instanceof TNode) {
+                clean(parent, ct, lev - LEVEL_BITS);
+                return null;
+            } else if (m instanceof LNode) {
+                // 3) an l-node
+                final LNode<K, V> ln = (LNode<K, V>) m;
+                final LNodeEntry<K, V> entry = ln.get(ct.equiv(), k);
+                final V old = entry != null ? entry.getValue() : null;
+                final V v = function.apply(k, old);
+                if (v == old || v == null) {
+                    return new Computed<>(old, v);
+                }
+
+                final boolean success = entry != null ? replaceln(ln, entry, v, ct) : insertln(ln, k, v, ct);
+                return success ? new Computed<>(old, v) : null;
+            } else {
+                throw invalidElement(m);
+            }
+        }
+    }
+
     /**
      * Looks up the value associated with the key.
      *
@@ -570,4 +665,37 @@ final class INode<K, V> extends BasicNode {
     int size(final ImmutableTrieMap<?, ?> ct) {
         return GCAS_READ(ct).size(ct);
     }
+
+    /**
+     * Result of {@link INode#recCompute(Object, int, BiFunction, int, INode, TrieMap)}.
+     *
+     * @param <V> the type of values
+     */
+    static final class Computed<V> {
+        private static final Computed<?> ABSENT_VALUE = new Computed<>(null, null);
+
+        // Value before the update, null if there was no mapping
+        final V oldValue;
+        // Value after the update, null if there is no mapping
+        final V newValue;
+
+        Computed(final V oldValue, final V newValue) {
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <V> Computed<V> absent() {
+            return (Computed<V>) ABSENT_VALUE;
+        }
+
+        /**
+         * Check whether the update requires removal of the old mapping, which has not been performed.
+         *
+         * @return True if the old mapping needs to be removed
+         */
+        boolean needsRemoval() {
+            return oldValue != null && newValue == null;
+        }
+    }
 }
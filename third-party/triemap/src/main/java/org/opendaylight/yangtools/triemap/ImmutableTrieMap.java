@@ -38,9 +38,17 @@ public final class ImmutableTrieMap<K, V> extends TrieMap<K, V> {
     @SuppressFBWarnings(value = "SE_BAD_FIELD", justification = "Handled by SerializationProxy")
     private final INode<K, V> root;
 
+    // Exact size, if known at construction time, otherwise MainNode.NO_SIZE
+    private final int knownSize;
+
     ImmutableTrieMap(final INode<K, V> root, final Equivalence<? super K> equiv) {
+        this(root, equiv, MainNode.NO_SIZE);
+    }
+
+    ImmutableTrieMap(final INode<K, V> root, final Equivalence<? super K> equiv, final int knownSize) {
         super(equiv);
         this.root = requireNonNull(root);
+        this.knownSize = knownSize;
     }
 
     @Override
@@ -106,12 +114,12 @@ public final class ImmutableTrieMap<K, V> extends TrieMap<K, V> {
 
     @Override
     public int size() {
-        return root.size(this);
+        return knownSize != MainNode.NO_SIZE ? knownSize : root.size(this);
     }
 
     @Override
     public TrieMap<K, V> mutableSnapshot() {
-        return new MutableTrieMap<>(equiv(), new INode<>(new Gen(), root.gcasRead(this)));
+        return new MutableTrieMap<>(equiv(), new INode<>(new Gen(), root.gcasRead(this)), size());
     }
 
     @Override
@@ -144,6 +152,15 @@ public final class ImmutableTrieMap<K, V> extends TrieMap<K, V> {
         return root;
     }
 
+    /**
+     * Return the size of this map if it is known without traversing the trie.
+     *
+     * @return Size of this map, or {@link MainNode#NO_SIZE} if it is not known
+     */
+    int knownSize() {
+        return knownSize;
+    }
+
     static UnsupportedOperationException unsupported() {
         return new UnsupportedOperationException("Attempted to modify a read-only view");
     }
@@ -23,12 +23,29 @@ import static org.opendaylight.yangtools.triemap.PresencePredicate.PRESENT;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Verify;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.opendaylight.yangtools.triemap.INode.Computed;
 
 /**
  * A mutable TrieMap.
  *
+ * <p>
+ * The number of entries is tracked in a striped counter, hence {@link #size()} is a constant-time operation. As with
+ * {@link java.util.concurrent.ConcurrentHashMap}, its result is exact only in the absence of concurrent modifications.
+ * Snapshots taken while no modification is in progress inherit the exact size, other snapshots compute it on demand.
+ *
+ * <p>
+ * Compute and merge operations are performed atomically in a single traversal of the trie, except when they result in
+ * removal of a mapping. As with other lock-free maps, remapping functions may be invoked multiple times when there
+ * is contention on the mapping, with the exception of {@link #computeIfAbsent(Object, Function)}, which invokes its
+ * mapping function at most once. Bulk insertion via {@link #putAll(Map)} builds the trie bottom-up if this map is
+ * empty.
+ *
  * @author Robert Varga
  *
  * @param <K> the type of keys maintained by this map
@@ -44,21 +61,43 @@ public final class MutableTrieMap<K, V> extends TrieMap<K, V> {
 
     private volatile Object root;
 
+    /*
+     * Size tracking. Modifications which can change the number of entries increment 'started' before they touch
+     * the trie and 'finished' after they have updated 'size'. If no modification has started between reading
+     * 'finished' and detaching the root, 'size' read in between is exact for the detached root.
+     */
+    private final LongAdder size = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder finished = new LongAdder();
+
     MutableTrieMap(final Equivalence<? super K> equiv) {
-        this(equiv, newRootNode());
+        this(equiv, newRootNode(), 0);
     }
 
-    MutableTrieMap(final Equivalence<? super K> equiv, final INode<K, V> root) {
+    MutableTrieMap(final Equivalence<? super K> equiv, final INode<K, V> root, final int size) {
         super(equiv);
         this.root = requireNonNull(root);
+        this.size.add(size);
     }
 
     @Override
     public void clear() {
+        final long finishedBefore = finished.sum();
+        final long sizeBefore = size.sum();
+        started.increment();
+
         INode<K, V> r;
-        do {
-            r = RDCSS_READ_ROOT();
-        } while (!RDCSS_ROOT(r, r.gcasRead(this), newRootNode()));
+        long removed = 0;
+        try {
+            do {
+                r = RDCSS_READ_ROOT();
+            } while (!RDCSS_ROOT(r, r.gcasRead(this), newRootNode()));
+
+            // Our own modification accounts for one start
+            removed = detachedSize(r, finishedBefore + 1, sizeBefore);
+        } finally {
+            finishModification(-removed);
+        }
     }
 
     @Override
@@ -67,6 +106,40 @@ public final class MutableTrieMap<K, V> extends TrieMap<K, V> {
         return toNullable(insertifhc(k, computeHash(k), requireNonNull(value), null));
     }
 
+    @Override
+    @SuppressWarnings("checkstyle:parameterName")
+    public void putAll(final Map<? extends K, ? extends V> m) {
+        if (m.isEmpty()) {
+            return;
+        }
+
+        final TrieBuilder<K, V> batch = TrieBuilder.of(this, m);
+        if (!tryBuild(batch)) {
+            // Entries are in trie order, hence successive insertions share most of their path
+            for (int i = 0; i < batch.size(); ++i) {
+                insertifhc(batch.key(i), batch.hash(i), batch.value(i), null);
+            }
+        }
+    }
+
+    private boolean tryBuild(final TrieBuilder<K, V> batch) {
+        final INode<K, V> r = RDCSS_READ_ROOT();
+        final MainNode<K, V> main = r.gcasRead(this);
+        if (!(main instanceof CNode) || ((CNode<K, V>) main).array.length != 0) {
+            return false;
+        }
+
+        started.increment();
+        boolean success = false;
+        try {
+            // The root is replaced only if it is still empty
+            success = RDCSS_ROOT(r, main, batch.build());
+        } finally {
+            finishModification(success ? batch.size() : 0);
+        }
+        return success;
+    }
+
     @Override
     public V putIfAbsent(final K key, final V value) {
         final K k = requireNonNull(key);
@@ -101,9 +174,55 @@ public final class MutableTrieMap<K, V> extends TrieMap<K, V> {
         return toNullable(insertifhc(k, computeHash(k), requireNonNull(value), PRESENT));
     }
 
+    @Override
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> mappingFunction) {
+        final K k = requireNonNull(key);
+        final int hc = computeHash(k);
+        final V existing = lookuphc(k, hc);
+        return existing != null ? existing : computehc(k, hc, new IfAbsent<>(requireNonNull(mappingFunction)));
+    }
+
+    @Override
+    public V computeIfPresent(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        requireNonNull(remappingFunction);
+        final K k = requireNonNull(key);
+        return computehc(k, computeHash(k), (ik, v) -> v == null ? null : remappingFunction.apply(ik, v));
+    }
+
+    @Override
+    public V compute(final K key, final BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        final K k = requireNonNull(key);
+        return computehc(k, computeHash(k), requireNonNull(remappingFunction));
+    }
+
+    @Override
+    public V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        requireNonNull(value);
+        requireNonNull(remappingFunction);
+        final K k = requireNonNull(key);
+        return computehc(k, computeHash(k), (ik, v) -> v == null ? value : remappingFunction.apply(v, value));
+    }
+
     @Override
     public int size() {
-        return immutableSnapshot().size();
+        return saturatedSize(size.sum());
+    }
+
+    @Override
+    public ImmutableTrieMap<K, V> immutableSnapshot() {
+        final long finishedBefore = finished.sum();
+        final long sizeBefore = size.sum();
+        final INode<K, V> r = snapshot();
+        return new ImmutableTrieMap<>(r, equiv(), knownSize(finishedBefore, sizeBefore));
+    }
+
+    @Override
+    public MutableTrieMap<K, V> mutableSnapshot() {
+        final long finishedBefore = finished.sum();
+        final long sizeBefore = size.sum();
+        final INode<K, V> r = snapshot();
+        return new MutableTrieMap<>(equiv(), r.copyToGen(new Gen(), this), detachedSize(r, finishedBefore,
+            sizeBefore));
     }
 
     private INode<K, V> snapshot() {
@@ -115,14 +234,32 @@ public final class MutableTrieMap<K, V> extends TrieMap<K, V> {
         return r;
     }
 
-    @Override
-    public ImmutableTrieMap<K, V> immutableSnapshot() {
-        return new ImmutableTrieMap<>(snapshot(), equiv());
+    /**
+     * Return the number of entries in a root which has just been detached from this map, if it is known from size
+     * tracking. This is the case when no modification has started since {@code finishedBefore} was read.
+     *
+     * @param finishedBefore Number of modifications finished, read before {@code sizeBefore}
+     * @param sizeBefore Size read before the root was detached
+     * @return Number of entries, or {@link MainNode#NO_SIZE} if not known
+     */
+    private int knownSize(final long finishedBefore, final long sizeBefore) {
+        return started.sum() == finishedBefore ? saturatedSize(sizeBefore) : MainNode.NO_SIZE;
     }
 
-    @Override
-    public MutableTrieMap<K, V> mutableSnapshot() {
-        return new MutableTrieMap<>(equiv(), snapshot().copyToGen(new Gen(), this));
+    private int detachedSize(final INode<K, V> detached, final long finishedBefore, final long sizeBefore) {
+        final int known = knownSize(finishedBefore, sizeBefore);
+        return known != MainNode.NO_SIZE ? known : detached.size(new ImmutableTrieMap<>(detached, equiv()));
+    }
+
+    private void finishModification(final long delta) {
+        if (delta != 0) {
+            size.add(delta);
+        }
+        finished.increment();
+    }
+
+    private static int saturatedSize(final long size) {
+        return size < 0 ? 0 : (int) Math.min(size, Integer.MAX_VALUE);
     }
 
     @Override
@@ -172,11 +309,33 @@ public final class MutableTrieMap<K, V> extends TrieMap<K, V> {
     private void inserthc(final K key, final int hc, final V value) {
         // TODO: this is called from serialization only, which means we should not be observing any races,
         //       hence we should not need to pass down the entire tree, just equality (I think).
-        final boolean success = RDCSS_READ_ROOT().recInsert(key, value, hc, 0, null, this);
+        started.increment();
+        boolean success = false;
+        try {
+            success = RDCSS_READ_ROOT().recInsert(key, value, hc, 0, null, this);
+        } finally {
+            finishModification(success ? 1 : 0);
+        }
         Verify.verify(success, "Concurrent modification during serialization of map %s", this);
     }
 
     private Optional<V> insertifhc(final K key, final int hc, final V value, final Object cond) {
+        if (cond != null && cond != ABSENT) {
+            // Replacing an existing mapping does not change size
+            return doInsertifhc(key, hc, value, cond);
+        }
+
+        started.increment();
+        Optional<V> res = null;
+        try {
+            res = doInsertifhc(key, hc, value, cond);
+        } finally {
+            finishModification(res != null && !res.isPresent() ? 1 : 0);
+        }
+        return res;
+    }
+
+    private Optional<V> doInsertifhc(final K key, final int hc, final V value, final Object cond) {
         Optional<V> res;
         do {
             // Keep looping as long as we do not get a reply
@@ -187,6 +346,18 @@ public final class MutableTrieMap<K, V> extends TrieMap<K, V> {
     }
 
     private Optional<V> removehc(final K key, final Object cond, final int hc) {
+        started.increment();
+        Optional<V> res = null;
+        try {
+            res = doRemovehc(key, cond, hc);
+        } finally {
+            finishModification(res != null && res.isPresent() ? -1 : 0);
+        }
+
+        return res;
+    }
+
+    private Optional<V> doRemovehc(final K key, final Object cond, final int hc) {
         Optional<V> res;
         do {
             // Keep looping as long as we do not get a reply
@@ -196,6 +367,32 @@ public final class MutableTrieMap<K, V> extends TrieMap<K, V> {
         return res;
     }
 
+    private V computehc(final K key, final int hc, final BiFunction<? super K, ? super V, ? extends V> function) {
+        started.increment();
+        long delta = 0;
+        try {
+            while (true) {
+                final Computed<V> res = RDCSS_READ_ROOT().recCompute(key, hc, function, 0, null, this);
+                if (res == null) {
+                    // Keep looping as long as we do not get a reply
+                    continue;
+                }
+                if (res.needsRemoval()) {
+                    if (!doRemovehc(key, res.oldValue, hc).isPresent()) {
+                        // The mapping has changed in the meantime, start over
+                        continue;
+                    }
+                    delta = -1;
+                } else if (res.oldValue == null && res.newValue != null) {
+                    delta = 1;
+                }
+                return res.newValue;
+            }
+        } finally {
+            finishModification(delta);
+        }
+    }
+
     private boolean CAS_ROOT(final Object ov, final Object nv) {
         return ROOT_UPDATER.compareAndSet(this, ov, nv);
     }
@@ -252,6 +449,33 @@ public final class MutableTrieMap<K, V> extends TrieMap<K, V> {
         }
     }
 
+    /**
+     * Adapter of a {@link #computeIfAbsent(Object, Function)} mapping function, which makes sure it is invoked at most
+     * once, even if the operation is restarted.
+     */
+    private static final class IfAbsent<K, V> implements BiFunction<K, V, V> {
+        private final Function<? super K, ? extends V> mappingFunction;
+
+        private boolean invoked;
+        private V computed;
+
+        IfAbsent(final Function<? super K, ? extends V> mappingFunction) {
+            this.mappingFunction = mappingFunction;
+        }
+
+        @Override
+        public V apply(final K key, final V value) {
+            if (value != null) {
+                return value;
+            }
+            if (!invoked) {
+                computed = mappingFunction.apply(key);
+                invoked = true;
+            }
+            return computed;
+        }
+    }
+
     private static final class RDCSS_Descriptor<K, V> {
         final INode<K, V> old;
         final MainNode<K, V> expectedmain;
@@ -0,0 +1,225 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.triemap;
+
+import static java.util.Objects.requireNonNull;
+import static org.opendaylight.yangtools.triemap.Constants.HASH_BITS;
+import static org.opendaylight.yangtools.triemap.Constants.LEVEL_BITS;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A batch of entries to be added to a {@link TrieMap}. Entries are ordered by their position in the trie, i.e. by the
+ * hash bits consumed at each level, and duplicate keys are eliminated, last entry winning. This allows an entire trie
+ * to be built bottom-up without any intermediate nodes, and makes successive insertions into a populated trie
+ * traverse mostly the same path.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class TrieBuilder<K, V> {
+    private static final int RADIX = 1 << Byte.SIZE;
+
+    private final Object[] keys;
+    private final Object[] values;
+    private final int[] hashes;
+    private final int size;
+
+    private TrieBuilder(final Object[] keys, final Object[] values, final int[] hashes, final int size) {
+        this.keys = keys;
+        this.values = values;
+        this.hashes = hashes;
+        this.size = size;
+    }
+
+    static <K, V> TrieBuilder<K, V> of(final TrieMap<K, V> ct, final Map<? extends K, ? extends V> map) {
+        Object[] keys = new Object[map.size()];
+        Object[] values = new Object[keys.length];
+        int[] hashes = new int[keys.length];
+        int count = 0;
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (count == keys.length) {
+                // The map has grown while we were iterating over it
+                final int newLength = Math.max(16, count * 2);
+                keys = Arrays.copyOf(keys, newLength);
+                values = Arrays.copyOf(values, newLength);
+                hashes = Arrays.copyOf(hashes, newLength);
+            }
+
+            final K key = requireNonNull(entry.getKey());
+            keys[count] = key;
+            values[count] = requireNonNull(entry.getValue());
+            hashes[count] = ct.computeHash(key);
+            count++;
+        }
+
+        final int[] order = sortedIndices(hashes, count);
+        final Object[] sortedKeys = new Object[count];
+        final Object[] sortedValues = new Object[count];
+        final int[] sortedHashes = new int[count];
+        int size = 0;
+        for (int i = 0; i < count; ++i) {
+            final int index = order[i];
+            if (!isOverridden(ct, keys, hashes, order, i)) {
+                sortedKeys[size] = keys[index];
+                sortedValues[size] = values[index];
+                sortedHashes[size] = hashes[index];
+                size++;
+            }
+        }
+
+        return new TrieBuilder<>(sortedKeys, sortedValues, sortedHashes, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    K key(final int index) {
+        return (K) keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    V value(final int index) {
+        return (V) values[index];
+    }
+
+    int hash(final int index) {
+        return hashes[index];
+    }
+
+    /**
+     * Build a root node holding all entries in this batch.
+     *
+     * @return A new root INode
+     */
+    INode<K, V> build() {
+        final Gen gen = new Gen();
+        return new INode<>(gen, buildCNode(0, size, 0, gen));
+    }
+
+    private MainNode<K, V> build(final int from, final int to, final int lev, final Gen gen) {
+        if (lev < HASH_BITS) {
+            return buildCNode(from, to, lev, gen);
+        }
+
+        // All entries share the same hash
+        LNode<K, V> ln = new LNode<>(key(from), value(from), key(from + 1), value(from + 1));
+        for (int i = from + 2; i < to; ++i) {
+            ln = ln.insertChild(key(i), value(i));
+        }
+        return ln;
+    }
+
+    private CNode<K, V> buildCNode(final int from, final int to, final int lev, final Gen gen) {
+        int bitmap = 0;
+        for (int i = from; i < to; ++i) {
+            bitmap |= 1 << ((hashes[i] >>> lev) & 0x1f);
+        }
+
+        final BasicNode[] array = new BasicNode[Integer.bitCount(bitmap)];
+        int pos = 0;
+        int start = from;
+        while (start < to) {
+            final int idx = (hashes[start] >>> lev) & 0x1f;
+            int end = start + 1;
+            while (end < to && ((hashes[end] >>> lev) & 0x1f) == idx) {
+                end++;
+            }
+
+            array[pos++] = end - start == 1 ? new SNode<>(key(start), value(start), hashes[start])
+                    : new INode<>(gen, build(start, end, lev + LEVEL_BITS, gen));
+            start = end;
+        }
+
+        return new CNode<>(gen, bitmap, array);
+    }
+
+    /*
+     * Check whether the entry at specified position in sort order is overridden by an equivalent key occurring later
+     * in the input. Such keys have the same hash and therefore follow it immediately in sort order.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> boolean isOverridden(final TrieMap<K, ?> ct, final Object[] keys, final int[] hashes,
+            final int[] order, final int pos) {
+        final int index = order[pos];
+        for (int i = pos + 1; i < order.length; ++i) {
+            final int other = order[i];
+            if (hashes[other] != hashes[index]) {
+                return false;
+            }
+            if (ct.equal((K) keys[index], (K) keys[other])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Return indices of entries sorted by trie order. We use a stable LSD radix sort, so that original order is
+     * retained among equal hashes, as it determines which duplicate wins.
+     */
+    private static int[] sortedIndices(final int[] hashes, final int count) {
+        int[] keys = new int[count];
+        int[] indices = new int[count];
+        for (int i = 0; i < count; ++i) {
+            keys[i] = trieOrder(hashes[i]);
+            indices[i] = i;
+        }
+
+        int[] tmpKeys = new int[count];
+        int[] tmpIndices = new int[count];
+        final int[] offsets = new int[RADIX + 1];
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < count; ++i) {
+                offsets[(keys[i] >>> shift & RADIX - 1) + 1]++;
+            }
+            for (int i = 0; i < RADIX; ++i) {
+                offsets[i + 1] += offsets[i];
+            }
+            for (int i = 0; i < count; ++i) {
+                final int pos = offsets[keys[i] >>> shift & RADIX - 1]++;
+                tmpKeys[pos] = keys[i];
+                tmpIndices[pos] = indices[i];
+            }
+
+            final int[] swapKeys = keys;
+            keys = tmpKeys;
+            tmpKeys = swapKeys;
+            final int[] swapIndices = indices;
+            indices = tmpIndices;
+            tmpIndices = swapIndices;
+        }
+        return indices;
+    }
+
+    /*
+     * Reverse the order of hash bit groups consumed at each level, so that the group consumed at the root is the most
+     * significant one.
+     */
+    private static int trieOrder(final int hc) {
+        int ret = 0;
+        for (int lev = 0; lev < HASH_BITS; lev += LEVEL_BITS) {
+            final int bits = Math.min(LEVEL_BITS, HASH_BITS - lev);
+            ret = ret << bits | (hc >>> lev) & ((1 << bits) - 1);
+        }
+        return ret;
+    }
+}
@@ -22,6 +22,7 @@ import com.google.common.annotations.Beta;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.AbstractMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
@@ -54,6 +55,20 @@ public abstract class TrieMap<K, V> extends AbstractMap<K, V> implements Concurr
         return new MutableTrieMap<>(Equivalence.equals());
     }
 
+    /**
+     * Create a new TrieMap containing the mappings of specified map. The trie is built bottom-up, which is
+     * considerably faster than inserting the mappings one by one.
+     *
+     * @param map Map whose mappings are to be placed in the new map
+     * @return A new TrieMap
+     * @throws NullPointerException if map contains a null key or value
+     */
+    public static <K, V> MutableTrieMap<K, V> copyOf(final Map<? extends K, ? extends V> map) {
+        final MutableTrieMap<K, V> ret = create();
+        ret.putAll(map);
+        return ret;
+    }
+
     /**
      * Returns a snapshot of this TrieMap. This operation is lock-free and
      * linearizable. Modification operations on this Map and the returned one
@@ -213,10 +228,8 @@ public abstract class TrieMap<K, V> extends AbstractMap<K, V> implements Concurr
         return equiv.equivalent(k1, k2);
     }
 
-    /* private implementation methods */
-
     @SuppressWarnings("unchecked")
-    private V lookuphc(final K key, final int hc) {
+    final V lookuphc(final K key, final int hc) {
         Object res;
         do {
             // Keep looping as long as RESTART is being indicated
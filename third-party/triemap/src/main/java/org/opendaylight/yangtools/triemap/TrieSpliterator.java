@@ -0,0 +1,199 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.triemap;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link Spliterator} over the entries of an {@link ImmutableTrieMap}, mapped through a function. It covers a range
+ * of a {@link CNode}'s array, which is split in halves. Once a single element is left, splitting descends into it if
+ * it is an {@link INode} pointing to another CNode, so that large tries split well beyond the root's fan-out.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @param <T> the type of elements
+ */
+final class TrieSpliterator<K, V, T> implements Spliterator<T> {
+    // XXX: Distinct as far as associated Equivalence allows
+    private static final int CHARACTERISTICS = DISTINCT | IMMUTABLE | NONNULL;
+
+    private final Function<? super Entry<K, V>, ? extends T> function;
+    private final ImmutableTrieMap<K, V> map;
+
+    private BasicNode[] array;
+    private int index;
+    private int fence;
+    private long estimate;
+    private int characteristics;
+
+    // Traversal state of the element currently being advanced through, used by tryAdvance()
+    private TrieSpliterator<K, V, T> nested;
+    private LNodeEntries<K, V> entries;
+
+    private TrieSpliterator(final ImmutableTrieMap<K, V> map, final Function<? super Entry<K, V>, ? extends T> function,
+            final BasicNode[] array, final int index, final int fence, final long estimate,
+            final int characteristics) {
+        this.map = map;
+        this.function = function;
+        this.array = array;
+        this.index = index;
+        this.fence = fence;
+        this.estimate = estimate;
+        this.characteristics = characteristics;
+    }
+
+    static <K, V, T> TrieSpliterator<K, V, T> of(final ImmutableTrieMap<K, V> map,
+            final Function<? super Entry<K, V>, ? extends T> function) {
+        final int size = map.knownSize();
+        final boolean sized = size != MainNode.NO_SIZE;
+        return new TrieSpliterator<>(map, requireNonNull(function), new BasicNode[] { map.RDCSS_READ_ROOT() }, 0, 1,
+            sized ? size : Long.MAX_VALUE, sized ? CHARACTERISTICS | SIZED : CHARACTERISTICS);
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        requireNonNull(action);
+        while (true) {
+            if (entries != null) {
+                action.accept(function.apply(entries));
+                entries = entries.next();
+                return true;
+            }
+            if (nested != null) {
+                if (nested.tryAdvance(action)) {
+                    return true;
+                }
+                nested = null;
+            }
+            if (index >= fence) {
+                return false;
+            }
+
+            final BasicNode elem = array[index++];
+            if (elem instanceof SNode) {
+                action.accept(function.apply(cast(elem)));
+                return true;
+            }
+
+            final MainNode<K, V> main = mainNode(elem);
+            if (main instanceof CNode) {
+                final BasicNode[] children = ((CNode<K, V>) main).array;
+                nested = new TrieSpliterator<>(map, function, children, 0, children.length, 0, characteristics);
+            } else if (main instanceof TNode) {
+                action.accept(function.apply((TNode<K, V>) main));
+                return true;
+            } else if (main instanceof LNode) {
+                entries = ((LNode<K, V>) main).entries();
+            }
+        }
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super T> action) {
+        requireNonNull(action);
+        while (entries != null) {
+            action.accept(function.apply(entries));
+            entries = entries.next();
+        }
+        if (nested != null) {
+            nested.forEachRemaining(action);
+            nested = null;
+        }
+        for (; index < fence; ++index) {
+            forEach(array[index], action);
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (nested != null || entries != null) {
+            // Already advancing through an element, do not bother
+            return null;
+        }
+
+        // Descend into a lone INode pointing to a CNode
+        while (fence - index == 1) {
+            final BasicNode elem = array[index];
+            if (!(elem instanceof INode)) {
+                return null;
+            }
+            final MainNode<K, V> main = mainNode(elem);
+            if (!(main instanceof CNode)) {
+                return null;
+            }
+
+            array = ((CNode<K, V>) main).array;
+            index = 0;
+            fence = array.length;
+        }
+        if (fence - index < 2) {
+            return null;
+        }
+
+        final int mid = index + fence >>> 1;
+        characteristics &= ~SIZED;
+        estimate >>>= 1;
+        final TrieSpliterator<K, V, T> prefix = new TrieSpliterator<>(map, function, array, index, mid, estimate,
+            characteristics);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    private void forEach(final BasicNode elem, final Consumer<? super T> action) {
+        if (elem instanceof SNode) {
+            action.accept(function.apply(cast(elem)));
+            return;
+        }
+
+        final MainNode<K, V> main = mainNode(elem);
+        if (main instanceof CNode) {
+            for (BasicNode child : ((CNode<K, V>) main).array) {
+                forEach(child, action);
+            }
+        } else if (main instanceof TNode) {
+            action.accept(function.apply((TNode<K, V>) main));
+        } else if (main instanceof LNode) {
+            for (LNodeEntries<K, V> entry = ((LNode<K, V>) main).entries(); entry != null; entry = entry.next()) {
+                action.accept(function.apply(entry));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private MainNode<K, V> mainNode(final BasicNode elem) {
+        return ((INode<K, V>) elem).gcasRead(map);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> SNode<K, V> cast(final BasicNode elem) {
+        return (SNode<K, V>) elem;
+    }
+}
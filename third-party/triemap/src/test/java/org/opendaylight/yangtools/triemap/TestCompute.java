@@ -0,0 +1,126 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.triemap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class TestCompute {
+    private static final int COUNT = 10000;
+
+    @Test
+    public void testComputeIfAbsent() {
+        final TrieMap<Integer, String> map = TrieMap.create();
+        assertEquals("1", map.computeIfAbsent(1, String::valueOf));
+        assertEquals("1", map.computeIfAbsent(1, k -> "other"));
+        assertNull(map.computeIfAbsent(2, k -> null));
+        assertFalse(map.containsKey(2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testComputeIfPresent() {
+        final TrieMap<Integer, String> map = TrieMap.create();
+        assertNull(map.computeIfPresent(1, (k, v) -> v + "x"));
+        assertTrue(map.isEmpty());
+
+        map.put(1, "a");
+        assertEquals("ax", map.computeIfPresent(1, (k, v) -> v + "x"));
+        assertNull(map.computeIfPresent(1, (k, v) -> null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testCompute() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(Integer.valueOf(i), map.compute(i, (k, v) -> v == null ? k : v + 1));
+        }
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(Integer.valueOf(i + 1), map.compute(i, (k, v) -> v == null ? k : v + 1));
+        }
+        assertEquals(COUNT, map.size());
+
+        for (int i = 0; i < COUNT; i += 2) {
+            assertNull(map.compute(i, (k, v) -> null));
+        }
+        assertEquals(COUNT / 2, map.size());
+        assertEquals(COUNT / 2, map.immutableSnapshot().entrySet().stream().count());
+    }
+
+    @Test
+    public void testMerge() {
+        final TrieMap<String, Integer> map = TrieMap.create();
+        assertEquals(Integer.valueOf(1), map.merge("a", 1, Integer::sum));
+        assertEquals(Integer.valueOf(3), map.merge("a", 2, Integer::sum));
+        assertNull(map.merge("a", 3, (v1, v2) -> null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testHashCollisions() {
+        final TrieMap<ZeroHashInt, Integer> map = TrieMap.create();
+        for (int i = 0; i < 100; i++) {
+            map.merge(new ZeroHashInt(i % 10), 1, Integer::sum);
+        }
+        assertEquals(10, map.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(10), map.get(new ZeroHashInt(i)));
+            assertEquals(Integer.valueOf(10), map.computeIfAbsent(new ZeroHashInt(i), k -> 0));
+        }
+        for (int i = 0; i < 10; i++) {
+            map.computeIfPresent(new ZeroHashInt(i), (k, v) -> null);
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentMerge() throws InterruptedException {
+        final int threads = 4;
+        final int keys = 100;
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        final AtomicInteger invocations = new AtomicInteger();
+        final ExecutorService es = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            es.execute(() -> {
+                for (int i = 0; i < COUNT; i++) {
+                    map.merge(i % keys, 1, Integer::sum);
+                    map.computeIfAbsent(keys + i % keys, k -> {
+                        invocations.incrementAndGet();
+                        return k;
+                    });
+                }
+            });
+        }
+        es.shutdown();
+        assertTrue(es.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(2 * keys, map.size());
+        for (int i = 0; i < keys; i++) {
+            assertEquals(Integer.valueOf(threads * COUNT / keys), map.get(i));
+        }
+        // Each thread invokes its mapping function at most once for each key
+        assertTrue(invocations.get() <= threads * keys);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.triemap;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class TestPutAll {
+    private static final int COUNT = 100000;
+
+    @Test
+    public void testCopyOf() {
+        final Map<Integer, Integer> source = new HashMap<>();
+        for (int i = 0; i < COUNT; i++) {
+            source.put(i, i);
+        }
+
+        final TrieMap<Integer, Integer> map = TrieMap.copyOf(source);
+        assertEquals(COUNT, map.size());
+        assertEquals(source, map);
+        assertEquals(source, map.immutableSnapshot());
+        assertEquals(COUNT, map.immutableSnapshot().entrySet().stream().count());
+
+        // The resulting trie is fully functional
+        for (int i = 0; i < COUNT; i += 2) {
+            assertEquals(Integer.valueOf(i), map.remove(i));
+        }
+        assertEquals(COUNT / 2, map.size());
+        assertEquals(COUNT / 2, map.immutableSnapshot().size());
+    }
+
+    @Test
+    public void testPutAll() {
+        final Map<Integer, Integer> source = new HashMap<>();
+        for (int i = 0; i < COUNT; i++) {
+            source.put(i, i);
+        }
+
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        map.put(-1, -1);
+        map.put(0, -1);
+        map.putAll(source);
+        source.put(-1, -1);
+        assertEquals(COUNT + 1, map.size());
+        assertEquals(source, map);
+    }
+
+    @Test
+    public void testHashCollisions() {
+        final Map<ZeroHashInt, Integer> source = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            source.put(new ZeroHashInt(i), i);
+        }
+
+        final TrieMap<ZeroHashInt, Integer> map = TrieMap.copyOf(source);
+        assertEquals(100, map.size());
+        assertEquals(source, map);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i), map.remove(new ZeroHashInt(i)));
+        }
+        assertEquals(0, map.size());
+
+        map.putAll(source);
+        assertEquals(source, map);
+    }
+
+    @Test
+    public void testSingle() {
+        final Map<Integer, Integer> source = new HashMap<>();
+        source.put(1, 1);
+
+        final TrieMap<Integer, Integer> map = TrieMap.copyOf(source);
+        assertEquals(source, map);
+        map.put(2, 2);
+        assertEquals(2, map.size());
+        assertEquals(0, TrieMap.copyOf(new HashMap<>()).size());
+    }
+}
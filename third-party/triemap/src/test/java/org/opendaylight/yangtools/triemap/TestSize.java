@@ -0,0 +1,117 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.triemap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class TestSize {
+    private static final int COUNT = 10000;
+
+    @Test
+    public void testSize() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        assertEquals(0, map.size());
+        assertTrue(map.isEmpty());
+
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(null, map.put(i, i));
+            assertEquals(Integer.valueOf(i), map.put(i, i));
+        }
+        assertEquals(COUNT, map.size());
+
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(Integer.valueOf(i), map.putIfAbsent(i, i + 1));
+            assertEquals(Integer.valueOf(i), map.replace(i, i + 1));
+            assertTrue(map.replace(i, i + 1, i));
+        }
+        assertEquals(COUNT, map.size());
+
+        for (int i = 0; i < COUNT; i += 2) {
+            assertEquals(Integer.valueOf(i), map.remove(i));
+            assertEquals(null, map.remove(i));
+            assertTrue(map.remove(i + 1, i + 1));
+        }
+        assertEquals(0, map.size());
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testHashCollisions() {
+        final TrieMap<ZeroHashInt, Boolean> map = TrieMap.create();
+        for (int i = 0; i < 100; i++) {
+            map.put(new ZeroHashInt(i), Boolean.TRUE);
+        }
+        assertEquals(100, map.size());
+        assertEquals(100, map.immutableSnapshot().size());
+        map.remove(new ZeroHashInt(0));
+        assertEquals(99, map.size());
+    }
+
+    @Test
+    public void testSnapshots() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, i);
+        }
+
+        final TrieMap<Integer, Integer> immutable = map.immutableSnapshot();
+        final TrieMap<Integer, Integer> mutable = map.mutableSnapshot();
+        map.remove(0);
+        mutable.put(COUNT, COUNT);
+        assertEquals(COUNT - 1, map.size());
+        assertEquals(COUNT, immutable.size());
+        assertEquals(COUNT + 1, mutable.size());
+        assertEquals(COUNT, immutable.mutableSnapshot().size());
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(COUNT + 1, mutable.size());
+        mutable.clear();
+        assertTrue(mutable.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        final int threads = 4;
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        final ExecutorService es = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            es.execute(() -> {
+                for (int i = offset; i < COUNT; i += threads) {
+                    map.put(i, i);
+                    // Take snapshots concurrently with modifications
+                    map.immutableSnapshot().size();
+                }
+                for (int i = offset; i < COUNT; i += 2 * threads) {
+                    map.remove(i);
+                }
+            });
+        }
+        es.shutdown();
+        assertTrue(es.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(COUNT / 2, map.size());
+        assertEquals(COUNT / 2, map.immutableSnapshot().size());
+        assertEquals(COUNT / 2, map.immutableSnapshot().entrySet().stream().count());
+    }
+}
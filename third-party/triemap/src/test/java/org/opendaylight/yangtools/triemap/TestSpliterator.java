@@ -0,0 +1,99 @@
+/*
+ * (C) Copyright 2016 Pantheon Technologies, s.r.o. and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.opendaylight.yangtools.triemap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class TestSpliterator {
+    private static final int COUNT = 50000;
+
+    @Test
+    public void testParallelStream() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, i);
+        }
+
+        final long expected = (long) COUNT * (COUNT - 1) / 2;
+        assertEquals(expected, map.entrySet().parallelStream().mapToLong(Entry::getValue).sum());
+        assertEquals(expected, map.keySet().parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(COUNT, map.immutableSnapshot().keySet().parallelStream().collect(Collectors.toSet()).size());
+    }
+
+    @Test
+    public void testSplit() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, i);
+        }
+
+        final Spliterator<Integer> first = map.keySet().spliterator();
+        assertTrue(first.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(COUNT, first.getExactSizeIfKnown());
+
+        // Splitting descends below the root
+        final Set<Integer> seen = new HashSet<>();
+        final Spliterator<Integer> second = first.trySplit();
+        assertNotNull(second);
+        final Spliterator<Integer> third = second.trySplit();
+        assertNotNull(third);
+        assertEquals(-1, first.getExactSizeIfKnown());
+
+        assertTrue(third.tryAdvance(seen::add));
+        third.forEachRemaining(seen::add);
+        while (second.tryAdvance(seen::add)) {
+            // Advance one by one
+        }
+        first.forEachRemaining(seen::add);
+        assertEquals(COUNT, seen.size());
+    }
+
+    @Test
+    public void testHashCollisions() {
+        final TrieMap<ZeroHashInt, Integer> map = TrieMap.create();
+        for (int i = 0; i < 100; i++) {
+            map.put(new ZeroHashInt(i), i);
+        }
+        map.remove(new ZeroHashInt(0));
+
+        assertEquals(99 * 100 / 2, map.entrySet().parallelStream().mapToInt(Entry::getValue).sum());
+
+        final Set<Integer> seen = new HashSet<>();
+        final Spliterator<Entry<ZeroHashInt, Integer>> split = map.entrySet().spliterator();
+        while (split.tryAdvance(entry -> seen.add(entry.getValue()))) {
+            // Advance one by one
+        }
+        assertEquals(99, seen.size());
+    }
+
+    @Test
+    public void testEmpty() {
+        final TrieMap<Integer, Integer> map = TrieMap.create();
+        final Spliterator<Entry<Integer, Integer>> split = map.entrySet().spliterator();
+        assertEquals(null, split.trySplit());
+        assertEquals(0, split.estimateSize());
+        assertEquals(0, map.entrySet().parallelStream().count());
+    }
+}
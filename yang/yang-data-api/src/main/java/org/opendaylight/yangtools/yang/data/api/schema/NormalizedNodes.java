@@ -11,10 +11,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.Beta;
-import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
@@ -25,6 +25,9 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdent
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeKind;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeTraversal;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeTraversal.Visitor;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 
 /**
@@ -110,29 +113,10 @@ public final class NormalizedNodes {
      */
     public static String toStringTree(final NormalizedNode<?, ?> node) {
         final StringBuilder builder = new StringBuilder();
-        toStringTree(builder, node, 0);
+        NormalizedNodeTraversal.traverse(node, new StringTreeVisitor(builder));
         return builder.toString();
     }
 
-    private static void toStringTree(final StringBuilder builder, final NormalizedNode<?, ?> node, final int offset) {
-        final String prefix = Strings.repeat(" ", offset);
-
-        builder.append(prefix).append(toStringTree(node.getIdentifier()));
-        if (node instanceof NormalizedNodeContainer<?, ?, ?>) {
-            final NormalizedNodeContainer<?, ?, ?> container = (NormalizedNodeContainer<?, ?, ?>) node;
-
-            builder.append(" {\n");
-            for (NormalizedNode<?, ?> child : container.getValue()) {
-                toStringTree(builder, child, offset + STRINGTREE_INDENT);
-            }
-
-            builder.append(prefix).append('}');
-        } else {
-            builder.append(' ').append(node.getValue());
-        }
-        builder.append('\n');
-    }
-
     private static String toStringTree(final PathArgument identifier) {
         if (identifier instanceof NodeIdentifierWithPredicates) {
             return identifier.getNodeType().getLocalName()
@@ -144,6 +128,53 @@ public final class NormalizedNodes {
         }
     }
 
+    private static final class StringTreeVisitor implements Visitor<RuntimeException> {
+        private final StringBuilder builder;
+        private int offset;
+
+        StringTreeVisitor(final StringBuilder builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public void leafNode(final NormalizedNodeKind kind, final NormalizedNode<?, ?> node) {
+            appendPrefix().append(toStringTree(node.getIdentifier())).append(' ').append(node.getValue()).append('\n');
+        }
+
+        @Override
+        public void startNode(final NormalizedNodeKind kind, final NormalizedNode<?, ?> node) {
+            // Only NormalizedNodeContainers are expanded, others, like unkeyed lists, are printed with their value
+            if (node instanceof NormalizedNodeContainer) {
+                appendPrefix().append(toStringTree(node.getIdentifier())).append(" {\n");
+                offset += STRINGTREE_INDENT;
+            } else {
+                leafNode(kind, node);
+            }
+        }
+
+        @Override
+        public void endNode(final NormalizedNodeKind kind, final NormalizedNode<?, ?> node) {
+            if (node instanceof NormalizedNodeContainer) {
+                offset -= STRINGTREE_INDENT;
+                appendPrefix().append("}\n");
+            }
+        }
+
+        @Override
+        public Iterator<? extends NormalizedNode<?, ?>> children(final NormalizedNodeKind kind,
+                final NormalizedNode<?, ?> node) {
+            return node instanceof NormalizedNodeContainer ? Visitor.super.children(kind, node)
+                    : Collections.emptyIterator();
+        }
+
+        private StringBuilder appendPrefix() {
+            for (int i = 0; i < offset; ++i) {
+                builder.append(' ');
+            }
+            return builder;
+        }
+    }
+
     /**
      * Find duplicate NormalizedNode instances within a subtree. Duplicates are those, which compare
      * as equal, but do not refer to the same object.
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.stream;
+
+import com.google.common.annotations.Beta;
+import java.io.IOException;
+import javax.annotation.Nullable;
+
+/**
+ * Extension to the NormalizedNodeStreamWriter which allows entries of a map node to be written concurrently. Each
+ * {@link #fork()} creates a writer which accepts complete map entries of the currently open map node and buffers its
+ * output. Forks can be used from other threads, but each fork is used by a single thread at a time. The buffered
+ * output is spliced into this writer by {@link #join(NormalizedNodeStreamWriter)}, which has to be invoked on forks
+ * in the order their entries should appear, before the map node is ended.
+ */
+@Beta
+public interface ForkableNormalizedNodeStreamWriter extends NormalizedNodeStreamWriter {
+    /**
+     * Create a writer for entries of the currently open map node.
+     *
+     * @return A new writer, or null if this writer cannot be forked in its current state
+     * @throws IOException when the writer reports it
+     */
+    @Nullable NormalizedNodeStreamWriter fork() throws IOException;
+
+    /**
+     * Append the output of a fork to this writer. The fork must have been created by this writer and is not usable
+     * after this method returns.
+     *
+     * @param fork Fork to join
+     * @throws IOException when the writer reports it
+     * @throws IllegalArgumentException if the fork has not been created by this writer
+     */
+    void join(NormalizedNodeStreamWriter fork) throws IOException;
+}
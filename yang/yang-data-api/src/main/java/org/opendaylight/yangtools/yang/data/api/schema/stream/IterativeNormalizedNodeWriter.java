@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.stream;
+
+import java.io.IOException;
+import java.util.Iterator;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeTraversal.Visitor;
+
+/**
+ * A {@link NormalizedNodeWriter} which walks the tree using {@link NormalizedNodeTraversal} instead of recursing
+ * through {@link #wasProcessedAsCompositeNode(NormalizedNode)}, hence it does not consume stack proportional to
+ * the depth of the tree. This is the implementation returned by
+ * {@link NormalizedNodeWriter#forStreamWriter(NormalizedNodeStreamWriter, boolean)}.
+ */
+final class IterativeNormalizedNodeWriter extends NormalizedNodeWriter implements Visitor<IOException> {
+    private final boolean orderKeyLeaves;
+
+    IterativeNormalizedNodeWriter(final NormalizedNodeStreamWriter writer, final boolean orderKeyLeaves) {
+        super(writer);
+        this.orderKeyLeaves = orderKeyLeaves;
+    }
+
+    @Override
+    public NormalizedNodeWriter write(final NormalizedNode<?, ?> node) throws IOException {
+        NormalizedNodeTraversal.traverse(node, this);
+        return this;
+    }
+
+    @Override
+    public void leafNode(final NormalizedNodeKind kind, final NormalizedNode<?, ?> node) throws IOException {
+        writeLeaf(kind, node);
+    }
+
+    @Override
+    public void startNode(final NormalizedNodeKind kind, final NormalizedNode<?, ?> node) throws IOException {
+        writeStart(kind, node);
+    }
+
+    @Override
+    public void endNode(final NormalizedNodeKind kind, final NormalizedNode<?, ?> node) throws IOException {
+        getWriter().endNode();
+    }
+
+    @Override
+    public Iterator<? extends NormalizedNode<?, ?>> children(final NormalizedNodeKind kind,
+            final NormalizedNode<?, ?> node) {
+        return orderKeyLeaves && kind == NormalizedNodeKind.MAP_ENTRY ? keyLeavesFirst((MapEntryNode) node).iterator()
+                : Visitor.super.children(kind, node);
+    }
+}
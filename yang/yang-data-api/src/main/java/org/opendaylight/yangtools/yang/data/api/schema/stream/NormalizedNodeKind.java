@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.stream;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.annotations.Beta;
+import java.util.Collection;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedLeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+import org.opendaylight.yangtools.yang.data.api.schema.YangModeledAnyXmlNode;
+
+/**
+ * Kind of a {@link NormalizedNode}, as far as {@link NormalizedNodeStreamWriter} is concerned. The kind of a node is
+ * determined by the most specific NormalizedNode interface its class implements and is cached for each class, so
+ * dispatching on it is cheaper than a chain of instanceof checks.
+ */
+@Beta
+public enum NormalizedNodeKind {
+    CONTAINER(true),
+    YANG_MODELED_ANYXML(true),
+    MAP_ENTRY(true),
+    UNKEYED_LIST_ENTRY(true),
+    CHOICE(true),
+    AUGMENTATION(true),
+    UNKEYED_LIST(true),
+    ORDERED_MAP(true),
+    MAP(true),
+    ORDERED_LEAF_SET(true),
+    LEAF_SET(true),
+    LEAF_SET_ENTRY(false),
+    LEAF(false),
+    ANYXML(false),
+    /**
+     * A {@link NormalizedNodeContainer} which is not any of the known kinds.
+     */
+    OTHER_CONTAINER(true),
+    /**
+     * A node which is not any of the known kinds.
+     */
+    OTHER(false);
+
+    private static final ClassValue<NormalizedNodeKind> KINDS = new ClassValue<NormalizedNodeKind>() {
+        @Override
+        protected NormalizedNodeKind computeValue(final Class<?> type) {
+            return forClass(type);
+        }
+    };
+
+    private final boolean container;
+
+    NormalizedNodeKind(final boolean container) {
+        this.container = container;
+    }
+
+    /**
+     * Return true if nodes of this kind have child nodes, see {@link #childrenOf(NormalizedNode)}.
+     *
+     * @return True if nodes of this kind have children
+     */
+    public boolean isContainer() {
+        return container;
+    }
+
+    /**
+     * Return the children of a node of this kind.
+     *
+     * @param node Node of this kind
+     * @return Child nodes
+     * @throws IllegalStateException if nodes of this kind do not have children
+     */
+    public Collection<? extends NormalizedNode<?, ?>> childrenOf(final NormalizedNode<?, ?> node) {
+        switch (this) {
+            case UNKEYED_LIST:
+                return ((UnkeyedListNode) node).getValue();
+            case ORDERED_MAP:
+            case MAP:
+                return ((MapNode) node).getValue();
+            case ORDERED_LEAF_SET:
+            case LEAF_SET:
+                return ((LeafSetNode<?>) node).getValue();
+            default:
+                checkState(container, "Node %s does not have children", node);
+                return ((NormalizedNodeContainer<?, ?, ?>) node).getValue();
+        }
+    }
+
+    /**
+     * Return the kind of a node.
+     *
+     * @param node Node
+     * @return Node kind
+     * @throws NullPointerException if node is null
+     */
+    public static NormalizedNodeKind of(final NormalizedNode<?, ?> node) {
+        return KINDS.get(node.getClass());
+    }
+
+    // Order of checks matches the order in which NormalizedNodeWriter has always processed nodes
+    private static NormalizedNodeKind forClass(final Class<?> type) {
+        if (ContainerNode.class.isAssignableFrom(type)) {
+            return CONTAINER;
+        }
+        if (YangModeledAnyXmlNode.class.isAssignableFrom(type)) {
+            return YANG_MODELED_ANYXML;
+        }
+        if (MapEntryNode.class.isAssignableFrom(type)) {
+            return MAP_ENTRY;
+        }
+        if (UnkeyedListEntryNode.class.isAssignableFrom(type)) {
+            return UNKEYED_LIST_ENTRY;
+        }
+        if (ChoiceNode.class.isAssignableFrom(type)) {
+            return CHOICE;
+        }
+        if (AugmentationNode.class.isAssignableFrom(type)) {
+            return AUGMENTATION;
+        }
+        if (UnkeyedListNode.class.isAssignableFrom(type)) {
+            return UNKEYED_LIST;
+        }
+        if (OrderedMapNode.class.isAssignableFrom(type)) {
+            return ORDERED_MAP;
+        }
+        if (MapNode.class.isAssignableFrom(type)) {
+            return MAP;
+        }
+        if (OrderedLeafSetNode.class.isAssignableFrom(type)) {
+            return ORDERED_LEAF_SET;
+        }
+        if (LeafSetNode.class.isAssignableFrom(type)) {
+            return LEAF_SET;
+        }
+        if (LeafSetEntryNode.class.isAssignableFrom(type)) {
+            return LEAF_SET_ENTRY;
+        }
+        if (LeafNode.class.isAssignableFrom(type)) {
+            return LEAF;
+        }
+        if (AnyXmlNode.class.isAssignableFrom(type)) {
+            return ANYXML;
+        }
+        return NormalizedNodeContainer.class.isAssignableFrom(type) ? OTHER_CONTAINER : OTHER;
+    }
+}
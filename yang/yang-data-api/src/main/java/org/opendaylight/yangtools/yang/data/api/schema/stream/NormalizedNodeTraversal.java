@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.stream;
+
+import com.google.common.annotations.Beta;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * Depth-first traversal of a {@link NormalizedNode} tree. Unlike a recursive walk, the traversal keeps its state in
+ * an explicit stack, hence its stack usage does not grow with the depth of the tree, and it dispatches on
+ * {@link NormalizedNodeKind} of each node.
+ */
+@Beta
+public final class NormalizedNodeTraversal {
+    /**
+     * Callbacks invoked by the traversal.
+     *
+     * @param <X> Type of exception thrown by the visitor
+     */
+    public interface Visitor<X extends Exception> {
+        /**
+         * Invoked when a node which is not a container is encountered.
+         *
+         * @param kind Node kind
+         * @param node Node
+         * @throws X when the visitor reports it
+         */
+        void leafNode(NormalizedNodeKind kind, NormalizedNode<?, ?> node) throws X;
+
+        /**
+         * Invoked when a container is entered, before any of its children is visited.
+         *
+         * @param kind Node kind
+         * @param node Node
+         * @throws X when the visitor reports it
+         */
+        void startNode(NormalizedNodeKind kind, NormalizedNode<?, ?> node) throws X;
+
+        /**
+         * Invoked when a container is left, after all of its children have been visited.
+         *
+         * @param kind Node kind
+         * @param node Node
+         * @throws X when the visitor reports it
+         */
+        void endNode(NormalizedNodeKind kind, NormalizedNode<?, ?> node) throws X;
+
+        /**
+         * Return the children of a container, in the order in which they should be visited. The default
+         * implementation returns all children in their iteration order.
+         *
+         * @param kind Node kind
+         * @param node Node
+         * @return Iterator over children
+         */
+        default Iterator<? extends NormalizedNode<?, ?>> children(final NormalizedNodeKind kind,
+                final NormalizedNode<?, ?> node) {
+            return kind.childrenOf(node).iterator();
+        }
+    }
+
+    private static final int INITIAL_DEPTH = 16;
+
+    private NormalizedNodeTraversal() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    /**
+     * Traverse a tree, invoking the visitor for each node.
+     *
+     * @param root Root node
+     * @param visitor Visitor
+     * @param <X> Type of exception thrown by the visitor
+     * @throws X when the visitor reports it
+     * @throws NullPointerException if any argument is null
+     */
+    public static <X extends Exception> void traverse(final NormalizedNode<?, ?> root, final Visitor<X> visitor)
+            throws X {
+        final NormalizedNodeKind rootKind = NormalizedNodeKind.of(root);
+        if (!rootKind.isContainer()) {
+            visitor.leafNode(rootKind, root);
+            return;
+        }
+
+        visitor.startNode(rootKind, root);
+        NormalizedNode<?, ?>[] nodes = new NormalizedNode<?, ?>[INITIAL_DEPTH];
+        NormalizedNodeKind[] kinds = new NormalizedNodeKind[INITIAL_DEPTH];
+        Iterator<?>[] children = new Iterator<?>[INITIAL_DEPTH];
+        nodes[0] = root;
+        kinds[0] = rootKind;
+        children[0] = visitor.children(rootKind, root);
+        int depth = 1;
+
+        while (depth != 0) {
+            final Iterator<?> it = children[depth - 1];
+            if (!it.hasNext()) {
+                depth--;
+                visitor.endNode(kinds[depth], nodes[depth]);
+                nodes[depth] = null;
+                children[depth] = null;
+                continue;
+            }
+
+            final NormalizedNode<?, ?> child = (NormalizedNode<?, ?>) it.next();
+            final NormalizedNodeKind kind = NormalizedNodeKind.of(child);
+            if (!kind.isContainer()) {
+                visitor.leafNode(kind, child);
+                continue;
+            }
+
+            visitor.startNode(kind, child);
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                kinds = Arrays.copyOf(kinds, depth * 2);
+                children = Arrays.copyOf(children, depth * 2);
+            }
+            nodes[depth] = child;
+            kinds[depth] = kind;
+            children[depth] = visitor.children(kind, child);
+            depth++;
+        }
+    }
+}
@@ -15,7 +15,9 @@ import com.google.common.collect.Iterables;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import javax.xml.stream.XMLStreamReader;
@@ -31,8 +33,6 @@ import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
-import org.opendaylight.yangtools.yang.data.api.schema.OrderedLeafSetNode;
-import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
 import org.opendaylight.yangtools.yang.data.api.schema.YangModeledAnyXmlNode;
@@ -47,10 +47,15 @@ import org.slf4j.LoggerFactory;
  */
 @Beta
 public class NormalizedNodeWriter implements Closeable, Flushable {
+    private static final Logger LOG = LoggerFactory.getLogger(NormalizedNodeWriter.class);
+
     private final NormalizedNodeStreamWriter writer;
+    private final NormalizedNodeStreamAttributeWriter attributeWriter;
 
     protected NormalizedNodeWriter(final NormalizedNodeStreamWriter writer) {
         this.writer = requireNonNull(writer);
+        this.attributeWriter = writer instanceof NormalizedNodeStreamAttributeWriter
+                ? (NormalizedNodeStreamAttributeWriter) writer : null;
     }
 
     protected final NormalizedNodeStreamWriter getWriter() {
@@ -82,7 +87,7 @@ public class NormalizedNodeWriter implements Closeable, Flushable {
      */
     public static NormalizedNodeWriter forStreamWriter(final NormalizedNodeStreamWriter writer,
             final boolean orderKeyLeaves) {
-        return orderKeyLeaves ? new OrderedNormalizedNodeWriter(writer) : new NormalizedNodeWriter(writer);
+        return new IterativeNormalizedNodeWriter(writer, orderKeyLeaves);
     }
 
     /**
@@ -129,32 +134,13 @@ public class NormalizedNodeWriter implements Closeable, Flushable {
     }
 
     protected boolean wasProcessAsSimpleNode(final NormalizedNode<?, ?> node) throws IOException {
-        if (node instanceof LeafSetEntryNode) {
-            final LeafSetEntryNode<?> nodeAsLeafList = (LeafSetEntryNode<?>)node;
-            final QName name = nodeAsLeafList.getIdentifier().getNodeType();
-            if (writer instanceof NormalizedNodeStreamAttributeWriter) {
-                ((NormalizedNodeStreamAttributeWriter) writer).leafSetEntryNode(name, nodeAsLeafList.getValue(),
-                        nodeAsLeafList.getAttributes());
-            } else {
-                writer.leafSetEntryNode(name, nodeAsLeafList.getValue());
-            }
-            return true;
-        } else if (node instanceof LeafNode) {
-            final LeafNode<?> nodeAsLeaf = (LeafNode<?>)node;
-            if (writer instanceof NormalizedNodeStreamAttributeWriter) {
-                ((NormalizedNodeStreamAttributeWriter) writer).leafNode(nodeAsLeaf.getIdentifier(),
-                    nodeAsLeaf.getValue(), nodeAsLeaf.getAttributes());
-            } else {
-                writer.leafNode(nodeAsLeaf.getIdentifier(), nodeAsLeaf.getValue());
-            }
-            return true;
-        } else if (node instanceof AnyXmlNode) {
-            final AnyXmlNode anyXmlNode = (AnyXmlNode)node;
-            writer.anyxmlNode(anyXmlNode.getIdentifier(), anyXmlNode.getValue());
-            return true;
+        final NormalizedNodeKind kind = NormalizedNodeKind.of(node);
+        if (kind.isContainer() || kind == NormalizedNodeKind.OTHER) {
+            return false;
         }
 
-        return false;
+        writeLeaf(kind, node);
+        return true;
     }
 
     /**
@@ -173,124 +159,179 @@ public class NormalizedNodeWriter implements Closeable, Flushable {
         return true;
     }
 
+    /**
+     * Emit events for all entries of a map node and then emit an endNode() event. The default implementation defers
+     * to {@link #writeChildren(Iterable)}.
+     *
+     * @param entries Map entries, in iteration order of the map node
+     * @return True
+     * @throws IOException when the writer reports it
+     */
+    protected boolean writeMapEntries(final Collection<MapEntryNode> entries) throws IOException {
+        return writeChildren(entries);
+    }
+
     protected boolean writeMapEntryNode(final MapEntryNode node) throws IOException {
-        if (writer instanceof NormalizedNodeStreamAttributeWriter) {
-            ((NormalizedNodeStreamAttributeWriter) writer)
-                    .startMapEntryNode(node.getIdentifier(), childSizeHint(node.getValue()), node.getAttributes());
-        } else {
-            writer.startMapEntryNode(node.getIdentifier(), childSizeHint(node.getValue()));
-        }
+        writeStart(NormalizedNodeKind.MAP_ENTRY, node);
         return writeChildren(node.getValue());
     }
 
     protected boolean wasProcessedAsCompositeNode(final NormalizedNode<?, ?> node) throws IOException {
-        if (node instanceof ContainerNode) {
-            final ContainerNode n = (ContainerNode) node;
-            if (writer instanceof NormalizedNodeStreamAttributeWriter) {
-                ((NormalizedNodeStreamAttributeWriter) writer).startContainerNode(n.getIdentifier(),
-                    childSizeHint(n.getValue()), n.getAttributes());
-            } else {
-                writer.startContainerNode(n.getIdentifier(), childSizeHint(n.getValue()));
-            }
-            return writeChildren(n.getValue());
-        }
-        if (node instanceof YangModeledAnyXmlNode) {
-            final YangModeledAnyXmlNode n = (YangModeledAnyXmlNode) node;
-            if (writer instanceof NormalizedNodeStreamAttributeWriter) {
-                ((NormalizedNodeStreamAttributeWriter) writer).startYangModeledAnyXmlNode(n.getIdentifier(),
-                    childSizeHint(n.getValue()), n.getAttributes());
-            } else {
-                writer.startYangModeledAnyXmlNode(n.getIdentifier(), childSizeHint(n.getValue()));
-            }
-            return writeChildren(n.getValue());
-        }
-        if (node instanceof MapEntryNode) {
-            return writeMapEntryNode((MapEntryNode) node);
-        }
-        if (node instanceof UnkeyedListEntryNode) {
-            final UnkeyedListEntryNode n = (UnkeyedListEntryNode) node;
-            writer.startUnkeyedListItem(n.getIdentifier(), childSizeHint(n.getValue()));
-            return writeChildren(n.getValue());
-        }
-        if (node instanceof ChoiceNode) {
-            final ChoiceNode n = (ChoiceNode) node;
-            writer.startChoiceNode(n.getIdentifier(), childSizeHint(n.getValue()));
-            return writeChildren(n.getValue());
-        }
-        if (node instanceof AugmentationNode) {
-            final AugmentationNode n = (AugmentationNode) node;
-            writer.startAugmentationNode(n.getIdentifier());
-            return writeChildren(n.getValue());
-        }
-        if (node instanceof UnkeyedListNode) {
-            final UnkeyedListNode n = (UnkeyedListNode) node;
-            writer.startUnkeyedList(n.getIdentifier(), childSizeHint(n.getValue()));
-            return writeChildren(n.getValue());
-        }
-        if (node instanceof OrderedMapNode) {
-            final OrderedMapNode n = (OrderedMapNode) node;
-            writer.startOrderedMapNode(n.getIdentifier(), childSizeHint(n.getValue()));
-            return writeChildren(n.getValue());
-        }
-        if (node instanceof MapNode) {
-            final MapNode n = (MapNode) node;
-            writer.startMapNode(n.getIdentifier(), childSizeHint(n.getValue()));
-            return writeChildren(n.getValue());
-        }
-        if (node instanceof OrderedLeafSetNode) {
-            final LeafSetNode<?> n = (LeafSetNode<?>) node;
-            writer.startOrderedLeafSet(n.getIdentifier(), childSizeHint(n.getValue()));
-            return writeChildren(n.getValue());
-        }
-        if (node instanceof LeafSetNode) {
-            final LeafSetNode<?> n = (LeafSetNode<?>) node;
-            writer.startLeafSet(n.getIdentifier(), childSizeHint(n.getValue()));
-            return writeChildren(n.getValue());
+        final NormalizedNodeKind kind = NormalizedNodeKind.of(node);
+        switch (kind) {
+            case MAP_ENTRY:
+                return writeMapEntryNode((MapEntryNode) node);
+            case ORDERED_MAP:
+            case MAP:
+                writeStart(kind, node);
+                return writeMapEntries(((MapNode) node).getValue());
+            case OTHER_CONTAINER:
+                return false;
+            default:
+                if (!kind.isContainer()) {
+                    return false;
+                }
+                writeStart(kind, node);
+                return writeChildren(kind.childrenOf(node));
         }
-
-        return false;
     }
 
-    private static final class OrderedNormalizedNodeWriter extends NormalizedNodeWriter {
-        private static final Logger LOG = LoggerFactory.getLogger(OrderedNormalizedNodeWriter.class);
+    /**
+     * Emit the start event of a container node.
+     *
+     * @param kind Node kind
+     * @param node Node
+     * @throws IOException when the writer reports it
+     */
+    final void writeStart(final NormalizedNodeKind kind, final NormalizedNode<?, ?> node) throws IOException {
+        switch (kind) {
+            case CONTAINER:
+                final ContainerNode container = (ContainerNode) node;
+                if (attributeWriter != null) {
+                    attributeWriter.startContainerNode(container.getIdentifier(), childSizeHint(container.getValue()),
+                        container.getAttributes());
+                } else {
+                    writer.startContainerNode(container.getIdentifier(), childSizeHint(container.getValue()));
+                }
+                break;
+            case YANG_MODELED_ANYXML:
+                final YangModeledAnyXmlNode anyxml = (YangModeledAnyXmlNode) node;
+                if (attributeWriter != null) {
+                    attributeWriter.startYangModeledAnyXmlNode(anyxml.getIdentifier(),
+                        childSizeHint(anyxml.getValue()), anyxml.getAttributes());
+                } else {
+                    writer.startYangModeledAnyXmlNode(anyxml.getIdentifier(), childSizeHint(anyxml.getValue()));
+                }
+                break;
+            case MAP_ENTRY:
+                final MapEntryNode entry = (MapEntryNode) node;
+                if (attributeWriter != null) {
+                    attributeWriter.startMapEntryNode(entry.getIdentifier(), childSizeHint(entry.getValue()),
+                        entry.getAttributes());
+                } else {
+                    writer.startMapEntryNode(entry.getIdentifier(), childSizeHint(entry.getValue()));
+                }
+                break;
+            case UNKEYED_LIST_ENTRY:
+                final UnkeyedListEntryNode listEntry = (UnkeyedListEntryNode) node;
+                writer.startUnkeyedListItem(listEntry.getIdentifier(), childSizeHint(listEntry.getValue()));
+                break;
+            case CHOICE:
+                final ChoiceNode choice = (ChoiceNode) node;
+                writer.startChoiceNode(choice.getIdentifier(), childSizeHint(choice.getValue()));
+                break;
+            case AUGMENTATION:
+                writer.startAugmentationNode(((AugmentationNode) node).getIdentifier());
+                break;
+            case UNKEYED_LIST:
+                final UnkeyedListNode list = (UnkeyedListNode) node;
+                writer.startUnkeyedList(list.getIdentifier(), childSizeHint(list.getValue()));
+                break;
+            case ORDERED_MAP:
+                final MapNode orderedMap = (MapNode) node;
+                writer.startOrderedMapNode(orderedMap.getIdentifier(), childSizeHint(orderedMap.getValue()));
+                break;
+            case MAP:
+                final MapNode map = (MapNode) node;
+                writer.startMapNode(map.getIdentifier(), childSizeHint(map.getValue()));
+                break;
+            case ORDERED_LEAF_SET:
+                final LeafSetNode<?> orderedLeafSet = (LeafSetNode<?>) node;
+                writer.startOrderedLeafSet(orderedLeafSet.getIdentifier(), childSizeHint(orderedLeafSet.getValue()));
+                break;
+            case LEAF_SET:
+                final LeafSetNode<?> leafSet = (LeafSetNode<?>) node;
+                writer.startLeafSet(leafSet.getIdentifier(), childSizeHint(leafSet.getValue()));
+                break;
+            default:
+                throw new IllegalStateException("It wasn't possible to serialize node " + node);
+        }
+    }
 
-        OrderedNormalizedNodeWriter(final NormalizedNodeStreamWriter writer) {
-            super(writer);
+    /**
+     * Emit the event of a node which is not a container.
+     *
+     * @param kind Node kind
+     * @param node Node
+     * @throws IOException when the writer reports it
+     */
+    final void writeLeaf(final NormalizedNodeKind kind, final NormalizedNode<?, ?> node) throws IOException {
+        switch (kind) {
+            case LEAF_SET_ENTRY:
+                final LeafSetEntryNode<?> leafSetEntry = (LeafSetEntryNode<?>) node;
+                final QName name = leafSetEntry.getIdentifier().getNodeType();
+                if (attributeWriter != null) {
+                    attributeWriter.leafSetEntryNode(name, leafSetEntry.getValue(), leafSetEntry.getAttributes());
+                } else {
+                    writer.leafSetEntryNode(name, leafSetEntry.getValue());
+                }
+                break;
+            case LEAF:
+                final LeafNode<?> leaf = (LeafNode<?>) node;
+                if (attributeWriter != null) {
+                    attributeWriter.leafNode(leaf.getIdentifier(), leaf.getValue(), leaf.getAttributes());
+                } else {
+                    writer.leafNode(leaf.getIdentifier(), leaf.getValue());
+                }
+                break;
+            case ANYXML:
+                final AnyXmlNode anyXml = (AnyXmlNode) node;
+                writer.anyxmlNode(anyXml.getIdentifier(), anyXml.getValue());
+                break;
+            default:
+                throw new IllegalStateException("It wasn't possible to serialize node " + node);
         }
+    }
 
-        @Override
-        protected boolean writeMapEntryNode(final MapEntryNode node) throws IOException {
-            final NormalizedNodeStreamWriter nnWriter = getWriter();
-            if (nnWriter instanceof NormalizedNodeStreamAttributeWriter) {
-                ((NormalizedNodeStreamAttributeWriter) nnWriter).startMapEntryNode(node.getIdentifier(),
-                    childSizeHint(node.getValue()), node.getAttributes());
+    /**
+     * Return the children of a map entry node, with the leaves which participate in its key first, in the order
+     * in which they are defined in the key.
+     *
+     * @param node Map entry node
+     * @return Children of the node
+     */
+    static Iterable<NormalizedNode<?, ?>> keyLeavesFirst(final MapEntryNode node) {
+        final Set<QName> qnames = node.getIdentifier().getKeyValues().keySet();
+        final List<NormalizedNode<?, ?>> keys = new ArrayList<>(qnames.size());
+        for (final QName qname : qnames) {
+            final Optional<? extends NormalizedNode<?, ?>> child = node.getChild(new NodeIdentifier(qname));
+            if (child.isPresent()) {
+                keys.add(child.get());
             } else {
-                nnWriter.startMapEntryNode(node.getIdentifier(), childSizeHint(node.getValue()));
+                LOG.info("No child for key element {} found", qname);
             }
+        }
 
-            final Set<QName> qnames = node.getIdentifier().getKeyValues().keySet();
-            // Write out all the key children
-            for (final QName qname : qnames) {
-                final Optional<? extends NormalizedNode<?, ?>> child = node.getChild(new NodeIdentifier(qname));
-                if (child.isPresent()) {
-                    write(child.get());
-                } else {
-                    LOG.info("No child for key element {} found", qname);
-                }
+        return Iterables.concat(keys, Iterables.filter(node.getValue(), input -> {
+            if (input instanceof AugmentationNode) {
+                return true;
+            }
+            if (!qnames.contains(input.getNodeType())) {
+                return true;
             }
 
-            // Write all the rest
-            return writeChildren(Iterables.filter(node.getValue(), input -> {
-                if (input instanceof AugmentationNode) {
-                    return true;
-                }
-                if (!qnames.contains(input.getNodeType())) {
-                    return true;
-                }
-
-                LOG.debug("Skipping key child {}", input);
-                return false;
-            }));
-        }
+            LOG.debug("Skipping key child {}", input);
+            return false;
+        }));
     }
 }
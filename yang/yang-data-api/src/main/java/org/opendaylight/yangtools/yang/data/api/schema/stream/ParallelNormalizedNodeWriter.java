@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+
+/**
+ * A {@link NormalizedNodeWriter} which writes entries of large map nodes concurrently. Entries are split into chunks
+ * of consecutive entries, each of which is written by a task running in a {@link ForkJoinPool} into a fork of the
+ * backing {@link ForkableNormalizedNodeStreamWriter}. Forks are joined in order, hence the output is the same as
+ * the output of a sequential writer. Map nodes with no more entries than the chunk size, as well as map nodes written
+ * to a writer which cannot be forked, are written sequentially.
+ *
+ * <p>
+ * Forking costs an extra copy of each chunk's output, which is recovered only if chunks actually run on multiple
+ * processors. Pools with parallelism of 1, such as the common pool on a single-processor machine, are therefore not
+ * used at all and all map nodes are written sequentially.
+ */
+@Beta
+public final class ParallelNormalizedNodeWriter extends NormalizedNodeWriter {
+    /**
+     * Default number of map entries written by a single task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final ForkJoinPool pool;
+    private final boolean orderKeyLeaves;
+    private final int chunkSize;
+
+    private ParallelNormalizedNodeWriter(final NormalizedNodeStreamWriter writer, final boolean orderKeyLeaves,
+            final ForkJoinPool pool, final int chunkSize) {
+        super(writer);
+        checkArgument(chunkSize > 0, "Chunk size %s is not positive", chunkSize);
+        this.pool = requireNonNull(pool);
+        this.orderKeyLeaves = orderKeyLeaves;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Create a new writer backed by a {@link NormalizedNodeStreamWriter}, which emits key leaves of map entries first
+     * and writes chunks of {@link #DEFAULT_CHUNK_SIZE} entries in the specified pool.
+     *
+     * @param writer Back-end writer
+     * @param pool Pool to run tasks in
+     * @return A new instance.
+     */
+    public static ParallelNormalizedNodeWriter create(final NormalizedNodeStreamWriter writer,
+            final ForkJoinPool pool) {
+        return create(writer, true, pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a new writer backed by a {@link NormalizedNodeStreamWriter}.
+     *
+     * @param writer Back-end writer
+     * @param orderKeyLeaves whether the returned instance should be RFC6020 XML compliant, see
+     *        {@link NormalizedNodeWriter#forStreamWriter(NormalizedNodeStreamWriter, boolean)}
+     * @param pool Pool to run tasks in
+     * @param chunkSize Number of map entries written by a single task
+     * @return A new instance.
+     * @throws IllegalArgumentException if chunkSize is not positive
+     */
+    public static ParallelNormalizedNodeWriter create(final NormalizedNodeStreamWriter writer,
+            final boolean orderKeyLeaves, final ForkJoinPool pool, final int chunkSize) {
+        return new ParallelNormalizedNodeWriter(writer, orderKeyLeaves, pool, chunkSize);
+    }
+
+    @Override
+    protected boolean writeMapEntryNode(final MapEntryNode node) throws IOException {
+        if (!orderKeyLeaves) {
+            return super.writeMapEntryNode(node);
+        }
+
+        writeStart(NormalizedNodeKind.MAP_ENTRY, node);
+        return writeChildren(keyLeavesFirst(node));
+    }
+
+    @Override
+    protected boolean writeMapEntries(final Collection<MapEntryNode> entries) throws IOException {
+        final NormalizedNodeStreamWriter writer = getWriter();
+        if (entries.size() <= chunkSize || pool.getParallelism() < 2
+                || !(writer instanceof ForkableNormalizedNodeStreamWriter)) {
+            return super.writeMapEntries(entries);
+        }
+
+        final ForkableNormalizedNodeStreamWriter forkable = (ForkableNormalizedNodeStreamWriter) writer;
+        NormalizedNodeStreamWriter fork = forkable.fork();
+        if (fork == null) {
+            return super.writeMapEntries(entries);
+        }
+
+        // Bound the number of chunks held in memory, while keeping all threads busy
+        final int window = Math.max(2, pool.getParallelism() * 2);
+        final Deque<ForkJoinTask<NormalizedNodeStreamWriter>> pending = new ArrayDeque<>(window);
+        final Iterator<List<MapEntryNode>> chunks = Iterables.partition(entries, chunkSize).iterator();
+        boolean success = false;
+        try {
+            while (chunks.hasNext()) {
+                if (pending.size() == window) {
+                    forkable.join(getFork(pending.remove()));
+                }
+                if (fork == null) {
+                    fork = forkable.fork();
+                    checkState(fork != null, "Writer %s failed to fork", forkable);
+                }
+
+                final NormalizedNodeStreamWriter chunkWriter = fork;
+                final List<MapEntryNode> chunk = chunks.next();
+                pending.add(pool.submit(() -> writeChunk(chunkWriter, chunk)));
+                fork = null;
+            }
+            while (!pending.isEmpty()) {
+                forkable.join(getFork(pending.remove()));
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                pending.forEach(task -> task.cancel(false));
+            }
+        }
+
+        writer.endNode();
+        return true;
+    }
+
+    private NormalizedNodeStreamWriter writeChunk(final NormalizedNodeStreamWriter fork,
+            final List<MapEntryNode> chunk) throws IOException {
+        final NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(fork, orderKeyLeaves);
+        for (final MapEntryNode entry : chunk) {
+            nnWriter.write(entry);
+        }
+        return fork;
+    }
+
+    private static NormalizedNodeStreamWriter getFork(final ForkJoinTask<NormalizedNodeStreamWriter> task)
+            throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing map entries", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            Throwables.throwIfInstanceOf(cause, IOException.class);
+            Throwables.throwIfUnchecked(cause);
+            throw new IOException("Failed to write map entries", e);
+        }
+    }
+}
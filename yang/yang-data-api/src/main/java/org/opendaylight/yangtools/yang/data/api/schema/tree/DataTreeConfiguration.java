@@ -24,6 +24,8 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
  * <li>treeType</li>
  * <li>enable/disable unique indexes and unique constraint validation</li>
  * <li>enable/disable mandatory nodes validation</li>
+ * <li>enable/disable rebasing of conflicting modifications</li>
+ * <li>enable/disable value-only storage of leaf children</li>
  * </ul>
  *
  * <p>
@@ -50,13 +52,27 @@ public class DataTreeConfiguration implements Immutable {
     private final YangInstanceIdentifier rootPath;
     private final boolean uniqueIndexes;
     private final boolean mandatoryNodesValidation;
+    private final boolean conflictRebase;
+    private final boolean valueOnlyLeaves;
 
     DataTreeConfiguration(final TreeType treeType, final YangInstanceIdentifier rootPath, final boolean uniqueIndexes,
             final boolean mandatoryNodesValidation) {
+        this(treeType, rootPath, uniqueIndexes, mandatoryNodesValidation, false);
+    }
+
+    DataTreeConfiguration(final TreeType treeType, final YangInstanceIdentifier rootPath, final boolean uniqueIndexes,
+            final boolean mandatoryNodesValidation, final boolean conflictRebase) {
+        this(treeType, rootPath, uniqueIndexes, mandatoryNodesValidation, conflictRebase, false);
+    }
+
+    DataTreeConfiguration(final TreeType treeType, final YangInstanceIdentifier rootPath, final boolean uniqueIndexes,
+            final boolean mandatoryNodesValidation, final boolean conflictRebase, final boolean valueOnlyLeaves) {
         this.treeType = requireNonNull(treeType);
         this.rootPath = requireNonNull(rootPath);
         this.uniqueIndexes = uniqueIndexes;
         this.mandatoryNodesValidation = mandatoryNodesValidation;
+        this.conflictRebase = conflictRebase;
+        this.valueOnlyLeaves = valueOnlyLeaves;
     }
 
     public @Nonnull YangInstanceIdentifier getRootPath() {
@@ -75,11 +91,33 @@ public class DataTreeConfiguration implements Immutable {
         return mandatoryNodesValidation;
     }
 
+    /**
+     * Check whether modifications which conflict with a concurrently-committed modification should be rebased onto
+     * the current state of the tree, failing validation only if they touch the same data in an incompatible way.
+     *
+     * @return True if conflicting modifications are rebased.
+     */
+    public boolean isConflictRebaseEnabled() {
+        return conflictRebase;
+    }
+
+    /**
+     * Check whether containers and list entries stored in the tree should hold the values of their leaf children
+     * only, instantiating {@link org.opendaylight.yangtools.yang.data.api.schema.LeafNode}s as they are accessed.
+     * This trades some CPU on access for a smaller retained heap of leaf-heavy data.
+     *
+     * @return True if leaf children are stored as values only.
+     */
+    public boolean isValueOnlyLeavesEnabled() {
+        return valueOnlyLeaves;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("type", treeType).add("root", rootPath)
                 .add("mandatory", mandatoryNodesValidation)
-                .add("unique", uniqueIndexes).toString();
+                .add("unique", uniqueIndexes).add("rebase", conflictRebase)
+                .add("valueOnlyLeaves", valueOnlyLeaves).toString();
     }
 
     public static DataTreeConfiguration getDefault(final TreeType treeType) {
@@ -101,6 +139,8 @@ public class DataTreeConfiguration implements Immutable {
         return new Builder(treeType)
                 .setMandatoryNodesValidation(isMandatoryNodesValidationEnabled())
                 .setUniqueIndexes(isUniqueIndexEnabled())
+                .setConflictRebase(isConflictRebaseEnabled())
+                .setValueOnlyLeaves(isValueOnlyLeavesEnabled())
                 .setRootPath(getRootPath());
     }
 
@@ -109,6 +149,8 @@ public class DataTreeConfiguration implements Immutable {
         private YangInstanceIdentifier rootPath;
         private boolean uniqueIndexes;
         private boolean mandatoryNodesValidation;
+        private boolean conflictRebase;
+        private boolean valueOnlyLeaves;
 
         public Builder(final TreeType treeType) {
             this.treeType = requireNonNull(treeType);
@@ -125,6 +167,16 @@ public class DataTreeConfiguration implements Immutable {
             return this;
         }
 
+        public Builder setConflictRebase(final boolean conflictRebase) {
+            this.conflictRebase = conflictRebase;
+            return this;
+        }
+
+        public Builder setValueOnlyLeaves(final boolean valueOnlyLeaves) {
+            this.valueOnlyLeaves = valueOnlyLeaves;
+            return this;
+        }
+
         public Builder setRootPath(final YangInstanceIdentifier rootPath) {
             this.rootPath = rootPath.toOptimized();
             return this;
@@ -132,7 +184,8 @@ public class DataTreeConfiguration implements Immutable {
 
         @Override
         public DataTreeConfiguration build() {
-            return new DataTreeConfiguration(treeType, rootPath, uniqueIndexes, mandatoryNodesValidation);
+            return new DataTreeConfiguration(treeType, rootPath, uniqueIndexes, mandatoryNodesValidation,
+                conflictRebase, valueOnlyLeaves);
         }
     }
 }
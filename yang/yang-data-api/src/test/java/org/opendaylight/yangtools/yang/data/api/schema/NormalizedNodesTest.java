@@ -125,5 +125,15 @@ public class NormalizedNodesTest {
         assertNotNull(stringTree);
         assertEquals("augmentation {\n    list-node {\n        list-node[key-leaf-value] {\n            leaf-node "
                 + "str-value-1\n        }\n    }\n}\n", stringTree);
+
+        // Unkeyed lists are not NormalizedNodeContainers, hence they are printed with their value
+        final UnkeyedListNode mockedUnkeyedListNode = mock(UnkeyedListNode.class);
+        doReturn(new NodeIdentifier(QName.create(listQName, "unkeyed-list"))).when(mockedUnkeyedListNode)
+            .getIdentifier();
+        doReturn(Collections.emptyList()).when(mockedUnkeyedListNode).getValue();
+        doReturn(Collections.singletonList(mockedUnkeyedListNode)).when(mockedAugmentationNode).getValue();
+
+        assertEquals("augmentation {\n    unkeyed-list []\n}\n",
+            NormalizedNodes.toStringTree(mockedAugmentationNode));
     }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.util.ParserStreamUtils;
+import org.opendaylight.yangtools.yang.model.api.CaseSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * Member names which resolve to children of a particular schema node, keyed by their UTF-8 encoding. Used by
+ * {@link Utf8JsonReader} to resolve member names directly from input bytes, without decoding them into Strings.
+ *
+ * <p>
+ * The table contains the module-qualified name of each child and its plain name, if it is not ambiguous. Names which
+ * can only be resolved with respect to the namespace of the enclosing node are not present and need to be resolved
+ * by {@link JsonParserStream} itself.
+ */
+final class ChildNameTable {
+    /**
+     * A resolved child member.
+     */
+    static final class Child {
+        final String jsonName;
+        final String localName;
+        final URI namespace;
+        private final DataSchemaNode[] path;
+
+        Child(final String jsonName, final String localName, final URI namespace,
+                final Collection<DataSchemaNode> path) {
+            this.jsonName = jsonName;
+            this.localName = localName;
+            this.namespace = namespace;
+            this.path = path.toArray(new DataSchemaNode[0]);
+        }
+
+        /**
+         * Return the path to the child schema node, as returned by
+         * {@link ParserStreamUtils#findSchemaNodeByNameAndNamespace(DataSchemaNode, String, URI)}.
+         *
+         * @return A new path deque
+         */
+        Deque<DataSchemaNode> newPath() {
+            return new ArrayDeque<>(Arrays.asList(path));
+        }
+    }
+
+    private static final ChildNameTable EMPTY = new ChildNameTable(new LinkedHashMap<>());
+
+    private final byte[][] keys;
+    private final Child[] children;
+    private final int mask;
+
+    private ChildNameTable(final Map<String, Child> members) {
+        // Keep the load factor at or below 0.5
+        int size = 1;
+        while (size < members.size() * 2) {
+            size <<= 1;
+        }
+
+        keys = new byte[size][];
+        children = new Child[size];
+        mask = size - 1;
+        for (Entry<String, Child> entry : members.entrySet()) {
+            final byte[] key = entry.getKey().getBytes(UTF_8);
+            int hash = 0;
+            for (byte b : key) {
+                hash = hash(hash, b);
+            }
+
+            int index = spread(hash) & mask;
+            while (keys[index] != null) {
+                index = index + 1 & mask;
+            }
+            keys[index] = key;
+            children[index] = entry.getValue();
+        }
+    }
+
+    static ChildNameTable create(final SchemaContext context, final DataSchemaNode parent) {
+        if (!(parent instanceof DataNodeContainer)) {
+            return EMPTY;
+        }
+
+        final SetMultimap<String, URI> namespaces = LinkedHashMultimap.create();
+        collectNamespaces(namespaces, (DataNodeContainer) parent);
+
+        final Map<String, Child> members = new LinkedHashMap<>();
+        for (Entry<String, Collection<URI>> entry : namespaces.asMap().entrySet()) {
+            final String localName = entry.getKey();
+            final Collection<URI> childNamespaces = entry.getValue();
+            for (URI namespace : childNamespaces) {
+                final Deque<DataSchemaNode> path = ParserStreamUtils.findSchemaNodeByNameAndNamespace(parent,
+                    localName, namespace);
+                if (path.isEmpty()) {
+                    continue;
+                }
+                if (childNamespaces.size() == 1) {
+                    members.put(localName, new Child(localName, localName, namespace, path));
+                }
+                for (Module module : context.findModules(namespace)) {
+                    // The name is qualified with the first module of that name, which has to match
+                    final Iterator<Module> named = context.findModules(module.getName()).iterator();
+                    if (named.hasNext() && namespace.equals(named.next().getNamespace())) {
+                        final String qualified = module.getName() + ':' + localName;
+                        members.put(qualified, new Child(qualified, localName, namespace, path));
+                    }
+                }
+            }
+        }
+        return members.isEmpty() ? EMPTY : new ChildNameTable(members);
+    }
+
+    /**
+     * Look up a member by its encoded name.
+     *
+     * @param buf Buffer holding the encoded name
+     * @param offset Offset of the encoded name
+     * @param length Length of the encoded name
+     * @param hash Hash of the encoded name, as computed by {@link #hash(int, byte)}
+     * @return Resolved child, or null if the name is not present
+     */
+    @Nullable Child lookup(final ByteBuffer buf, final int offset, final int length, final int hash) {
+        int index = spread(hash) & mask;
+        for (byte[] key = keys[index]; key != null; key = keys[index]) {
+            if (key.length == length && matches(key, buf, offset)) {
+                return children[index];
+            }
+            index = index + 1 & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Update the hash of an encoded name with its next byte.
+     *
+     * @param hash Hash of preceding bytes, 0 for the first byte
+     * @param value Next byte
+     * @return Updated hash
+     */
+    static int hash(final int hash, final byte value) {
+        return 31 * hash + value;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    private static boolean matches(final byte[] key, final ByteBuffer buf, final int offset) {
+        for (int i = 0; i < key.length; ++i) {
+            if (key[i] != buf.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void collectNamespaces(final SetMultimap<String, URI> namespaces,
+            final DataNodeContainer container) {
+        for (DataSchemaNode child : container.getChildNodes()) {
+            if (child instanceof ChoiceSchemaNode) {
+                for (CaseSchemaNode caseNode : ((ChoiceSchemaNode) child).getCases().values()) {
+                    collectNamespaces(namespaces, caseNode);
+                }
+            } else {
+                namespaces.put(child.getQName().getLocalName(), child.getQName().getNamespace());
+            }
+        }
+    }
+}
@@ -111,10 +111,12 @@ public final class JSONCodecFactory extends AbstractCodecFactory<JSONCodec<?>> {
             });
 
     private final JSONCodec<?> iidCodec;
+    private final boolean threadSafe;
 
     JSONCodecFactory(final SchemaContext context, final CodecCache<JSONCodec<?>> cache) {
         super(context, cache);
         iidCodec = new JSONStringInstanceIdentifierCodec(context, this);
+        threadSafe = !(cache instanceof LazyCodecCache);
     }
 
     /**
@@ -208,6 +210,16 @@ public final class JSONCodecFactory extends AbstractCodecFactory<JSONCodec<?>> {
         return new JSONCodecFactory(context, NoopCodecCache.getInstance());
     }
 
+    /**
+     * Check whether this factory can be used by multiple threads concurrently, which is not the case for factories
+     * created by {@link #createLazy(SchemaContext)}.
+     *
+     * @return True if this factory is thread-safe
+     */
+    boolean isThreadSafe() {
+        return threadSafe;
+    }
+
     @Override
     protected JSONCodec<?> binaryCodec(final BinaryTypeDefinition type) {
         return new QuotedJSONCodec<>(BinaryStringCodec.from(type));
@@ -7,12 +7,14 @@
  */
 package org.opendaylight.yangtools.yang.data.codec.gson;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 import static org.opendaylight.yangtools.yang.data.codec.gson.JsonParserStream.ANYXML_ARRAY_ELEMENT_ID;
 import static org.w3c.dom.Node.ELEMENT_NODE;
 import static org.w3c.dom.Node.TEXT_NODE;
 
 import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.util.regex.Pattern;
@@ -22,11 +24,13 @@ import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.ForkableNormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.impl.codec.SchemaTracker;
 import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.w3c.dom.Element;
@@ -40,7 +44,7 @@ import org.w3c.dom.Text;
  * <p>
  * Values of leaf and leaf-list are NOT translated according to codecs.
  */
-public abstract class JSONNormalizedNodeStreamWriter implements NormalizedNodeStreamWriter {
+public abstract class JSONNormalizedNodeStreamWriter implements ForkableNormalizedNodeStreamWriter {
     private static final class Exclusive extends JSONNormalizedNodeStreamWriter {
         Exclusive(final JSONCodecFactory codecFactory, final SchemaPath path, final JsonWriter writer,
                 final JSONStreamWriterRootContext rootContext) {
@@ -67,6 +71,26 @@ public abstract class JSONNormalizedNodeStreamWriter implements NormalizedNodeSt
         }
     }
 
+    private static final class Fork extends JSONNormalizedNodeStreamWriter {
+        private final JSONNormalizedNodeStreamWriter origin;
+        private final ByteArrayOutputStream bytes;
+        private final Utf8JsonWriter fragment;
+
+        Fork(final JSONNormalizedNodeStreamWriter origin, final ListSchemaNode list, final ByteArrayOutputStream bytes,
+                final Utf8JsonWriter fragment) {
+            super(origin.codecs, SchemaTracker.create(list), origin.names, fragment,
+                new JSONStreamWriterForkContext(list.getQName().getNamespace()));
+            this.origin = origin;
+            this.bytes = bytes;
+            this.fragment = fragment;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
     /**
      * RFC6020 deviation: we are not required to emit empty containers unless they
      * are marked as 'presence'.
@@ -83,14 +107,22 @@ public abstract class JSONNormalizedNodeStreamWriter implements NormalizedNodeSt
 
     private final SchemaTracker tracker;
     private final JSONCodecFactory codecs;
+    private final JsonMemberNames names;
     private final JsonWriter writer;
     private JSONStreamWriterContext context;
 
     JSONNormalizedNodeStreamWriter(final JSONCodecFactory codecFactory, final SchemaPath path, final JsonWriter writer,
             final JSONStreamWriterRootContext rootContext) {
+        this(codecFactory, SchemaTracker.create(codecFactory.getSchemaContext(), path),
+            JsonMemberNames.forContext(codecFactory.getSchemaContext()), writer, rootContext);
+    }
+
+    private JSONNormalizedNodeStreamWriter(final JSONCodecFactory codecFactory, final SchemaTracker tracker,
+            final JsonMemberNames names, final JsonWriter writer, final JSONStreamWriterContext rootContext) {
         this.writer = requireNonNull(writer);
         this.codecs = requireNonNull(codecFactory);
-        this.tracker = SchemaTracker.create(codecFactory.getSchemaContext(), path);
+        this.tracker = requireNonNull(tracker);
+        this.names = requireNonNull(names);
         this.context = requireNonNull(rootContext);
     }
 
@@ -148,8 +180,8 @@ public abstract class JSONNormalizedNodeStreamWriter implements NormalizedNodeSt
     public final void leafNode(final NodeIdentifier name, final Object value) throws IOException {
         final LeafSchemaNode schema = tracker.leafNode(name);
         final JSONCodec<?> codec = codecs.codecFor(schema);
-        context.emittingChild(codecs.getSchemaContext(), writer);
-        context.writeChildJsonIdentifier(codecs.getSchemaContext(), writer, name.getNodeType());
+        context.emittingChild(names, writer);
+        context.writeChildJsonIdentifier(names, writer, name.getNodeType());
         writeValue(value, codec);
     }
 
@@ -163,7 +195,7 @@ public abstract class JSONNormalizedNodeStreamWriter implements NormalizedNodeSt
     public final void leafSetEntryNode(final QName name, final Object value) throws IOException {
         final LeafListSchemaNode schema = tracker.leafSetEntryNode(name);
         final JSONCodec<?> codec = codecs.codecFor(schema);
-        context.emittingChild(codecs.getSchemaContext(), writer);
+        context.emittingChild(names, writer);
         writeValue(value, codec);
     }
 
@@ -236,8 +268,8 @@ public abstract class JSONNormalizedNodeStreamWriter implements NormalizedNodeSt
         final AnyXmlSchemaNode schema = tracker.anyxmlNode(name);
         // FIXME: should have a codec based on this :)
 
-        context.emittingChild(codecs.getSchemaContext(), writer);
-        context.writeChildJsonIdentifier(codecs.getSchemaContext(), writer, name.getNodeType());
+        context.emittingChild(names, writer);
+        context.writeChildJsonIdentifier(names, writer, name.getNodeType());
 
         writeAnyXmlValue((DOMSource) value);
     }
@@ -252,13 +284,47 @@ public abstract class JSONNormalizedNodeStreamWriter implements NormalizedNodeSt
     @Override
     public final void endNode() throws IOException {
         tracker.endNode();
-        context = context.endNode(codecs.getSchemaContext(), writer);
+        context = context.endNode(names, writer);
 
         if (context instanceof JSONStreamWriterRootContext) {
             context.emitEnd(writer);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Forks are supported only while entries of a list are being written to a writer created by
+     * {@link JsonWriterFactory#createJsonWriter(java.io.OutputStream)} and the codec factory is thread-safe. Each fork
+     * buffers its output in memory.
+     */
+    @Override
+    public final NormalizedNodeStreamWriter fork() {
+        if (!(writer instanceof Utf8JsonWriter) || !(context instanceof JSONStreamWriterListContext)
+                || !codecs.isThreadSafe()) {
+            return null;
+        }
+        final Object parent = tracker.getParent();
+        if (!(parent instanceof ListSchemaNode)) {
+            return null;
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        return new Fork(this, (ListSchemaNode) parent, bytes, ((Utf8JsonWriter) writer).newArrayFragment(bytes));
+    }
+
+    @Override
+    public final void join(final NormalizedNodeStreamWriter fork) throws IOException {
+        checkArgument(fork instanceof Fork && ((Fork) fork).origin == this, "Writer %s is not a fork of %s", fork,
+            this);
+        final Fork toJoin = (Fork) fork;
+        if (!toJoin.fragment.isEmptyFragment()) {
+            context.emittingChild(names, writer);
+            ((Utf8JsonWriter) writer).appendFragment(toJoin.fragment, toJoin.bytes);
+        }
+    }
+
     @Override
     public final void flush() throws IOException {
         writer.flush();
@@ -7,16 +7,11 @@
  */
 package org.opendaylight.yangtools.yang.data.codec.gson;
 
-import static com.google.common.base.Preconditions.checkArgument;
-
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import java.net.URI;
-import java.util.Iterator;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.common.QName;
-import org.opendaylight.yangtools.yang.model.api.Module;
-import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
 /**
  * Abstract base class for a single level of {@link JSONNormalizedNodeStreamWriter} recursion. Provides the base API
@@ -49,40 +44,30 @@ abstract class JSONStreamWriterContext {
     /**
      * Write a child JSON node identifier, optionally prefixing it with the module name corresponding to its namespace.
      *
-     * @param schema Schema context
+     * @param names Member name table
      * @param writer Output writer
      * @param qname Namespace/name tuple
      * @throws IOException when the writer reports it
      */
-    final void writeChildJsonIdentifier(final SchemaContext schema, final JsonWriter writer, final QName qname)
+    final void writeChildJsonIdentifier(final JsonMemberNames names, final JsonWriter writer, final QName qname)
             throws IOException {
-
-        final StringBuilder sb = new StringBuilder();
         // Prepend module name if namespaces do not match
         final URI ns = qname.getNamespace();
-        if (!ns.equals(getNamespace())) {
-            final Iterator<Module> modules = schema.findModules(ns).iterator();
-            checkArgument(modules.hasNext(), "Could not find module for namespace {}", ns);
-
-            sb.append(modules.next().getName());
-            sb.append(':');
-        }
-        sb.append(qname.getLocalName());
-
-        writer.name(sb.toString());
+        final URI myNs = getNamespace();
+        names.memberName(qname, ns != myNs && !ns.equals(myNs)).writeTo(writer);
     }
 
     /**
      * Write our JSON node identifier, optionally prefixing it with the module name corresponding to its namespace.
      *
-     * @param schema Schema context
+     * @param names Member name table
      * @param writer Output writer
      * @param qname Namespace/name tuple
      * @throws IOException when the writer reports it
      */
-    protected final void writeMyJsonIdentifier(final SchemaContext schema, final JsonWriter writer, final QName qname)
+    protected final void writeMyJsonIdentifier(final JsonMemberNames names, final JsonWriter writer, final QName qname)
             throws IOException {
-        parent.writeChildJsonIdentifier(schema, writer, qname);
+        parent.writeChildJsonIdentifier(names, writer, qname);
     }
 
     /**
@@ -95,28 +80,28 @@ abstract class JSONStreamWriterContext {
     /**
      * Emit the start of an element.
      *
-     * @param schema Schema context
+     * @param names Member name table
      * @param writer Output writer
      * @throws IOException when the writer reports it
      */
-    protected abstract void emitStart(SchemaContext schema, JsonWriter writer) throws IOException;
+    protected abstract void emitStart(JsonMemberNames names, JsonWriter writer) throws IOException;
 
     /**
      * Emit the end of an element.
      *
-     * @param schema Schema context
+     * @param names Member name table
      * @param writer Output writer
      * @throws IOException when writer reports it
      */
     protected abstract void emitEnd(JsonWriter writer) throws IOException;
 
-    private void emitMyself(final SchemaContext schema, final JsonWriter writer) throws IOException {
+    private void emitMyself(final JsonMemberNames names, final JsonWriter writer) throws IOException {
         if (!emittedMyself) {
             if (parent != null) {
-                parent.emittingChild(schema, writer);
+                parent.emittingChild(names, writer);
             }
 
-            emitStart(schema, writer);
+            emitStart(names, writer);
             emittedMyself = true;
         }
     }
@@ -126,27 +111,27 @@ abstract class JSONStreamWriterContext {
      * been emitted, and takes care of that if necessary. Also makes sure separator
      * is emitted before a second and subsequent child.
      *
-     * @param schema Schema context
+     * @param names Member name table
      * @param writer Output writer
      * @throws IOException when writer reports it
      */
-    final void emittingChild(final SchemaContext schema, final JsonWriter writer) throws IOException {
-        emitMyself(schema, writer);
+    final void emittingChild(final JsonMemberNames names, final JsonWriter writer) throws IOException {
+        emitMyself(names, writer);
     }
 
     /**
      * Invoked by the writer when it is leaving this node. Checks whether this node
      * needs to be emitted and takes of that if necessary.
      *
-     * @param schema Schema context
+     * @param names Member name table
      * @param writer Output writer
      * @return Parent node context
      * @throws IOException when writer reports it
      * @throws IllegalArgumentException if this node cannot be ended (e.g. root)
      */
-    final JSONStreamWriterContext endNode(final SchemaContext schema, final JsonWriter writer) throws IOException {
+    final JSONStreamWriterContext endNode(final JsonMemberNames names, final JsonWriter writer) throws IOException {
         if (!emittedMyself && mandatory) {
-            emitMyself(schema, writer);
+            emitMyself(names, writer);
         }
 
         if (emittedMyself) {
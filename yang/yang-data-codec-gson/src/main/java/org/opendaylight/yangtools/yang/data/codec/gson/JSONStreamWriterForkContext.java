@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import com.google.gson.stream.JsonWriter;
+import java.net.URI;
+
+/**
+ * The root context of a fork of {@link JSONNormalizedNodeStreamWriter}, which stands in for the list whose entries
+ * the fork writes. The list itself is emitted by the writer the fork is joined to.
+ */
+final class JSONStreamWriterForkContext extends JSONStreamWriterURIContext {
+    JSONStreamWriterForkContext(final URI namespace) {
+        super(null, namespace);
+    }
+
+    @Override
+    protected void emitEnd(final JsonWriter writer) {
+        // No-op
+    }
+}
@@ -12,7 +12,6 @@ import static java.util.Objects.requireNonNull;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
-import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
 /**
  * A recursion level of {@link JSONNormalizedNodeStreamWriter}, which represents
@@ -26,7 +25,7 @@ class JSONStreamWriterObjectContext extends JSONStreamWriterQNameContext {
     }
 
     @Override
-    protected void emitStart(final SchemaContext schema, final JsonWriter writer) throws IOException {
+    protected void emitStart(final JsonMemberNames names, final JsonWriter writer) throws IOException {
         writer.beginObject();
     }
 
@@ -11,7 +11,6 @@ import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import java.net.URI;
 import javax.annotation.Nonnull;
-import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
 
 /**
@@ -33,7 +32,7 @@ abstract class JSONStreamWriterURIContext extends JSONStreamWriterContext {
     }
 
     @Override
-    protected void emitStart(final SchemaContext schema, final JsonWriter writer) throws IOException {
+    protected void emitStart(final JsonMemberNames names, final JsonWriter writer) throws IOException {
         // No-op
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * JSON member names of a {@link SchemaContext}, both plain and qualified with the module name. Names are computed on
+ * first access and carry their quoted UTF-8 encoding, so {@link Utf8JsonWriter} can emit them without escaping and
+ * encoding them each time. For input, the table also holds a {@link ChildNameTable} for each schema node encountered
+ * by {@link Utf8JsonReader}. Tables are shared by all writers and parsers using the same SchemaContext.
+ */
+final class JsonMemberNames {
+    /**
+     * A JSON member name along with its quoted UTF-8 encoding.
+     */
+    static final class MemberName {
+        final String name;
+        final byte[] encoded;
+
+        MemberName(final String name) {
+            this.name = name;
+            this.encoded = Utf8JsonWriter.encodeString(name);
+        }
+
+        void writeTo(final JsonWriter writer) throws IOException {
+            if (writer instanceof Utf8JsonWriter) {
+                ((Utf8JsonWriter) writer).name(this);
+            } else {
+                writer.name(name);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final LoadingCache<SchemaContext, JsonMemberNames> TABLES = CacheBuilder.newBuilder()
+            .weakKeys().weakValues().build(new CacheLoader<SchemaContext, JsonMemberNames>() {
+                @Override
+                public JsonMemberNames load(@Nonnull final SchemaContext key) {
+                    return new JsonMemberNames(key);
+                }
+            });
+
+    private final ConcurrentMap<QName, MemberName> plain = new ConcurrentHashMap<>();
+    private final ConcurrentMap<QName, MemberName> qualified = new ConcurrentHashMap<>();
+    // Weak keys to retire entries of transient schema nodes, like RpcAsContainer, and to force identity-based lookup
+    private final LoadingCache<DataSchemaNode, ChildNameTable> children;
+    private final SchemaContext context;
+
+    private JsonMemberNames(final SchemaContext context) {
+        this.context = context;
+        this.children = CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<DataSchemaNode, ChildNameTable>() {
+            @Override
+            public ChildNameTable load(@Nonnull final DataSchemaNode key) {
+                return ChildNameTable.create(context, key);
+            }
+        });
+    }
+
+    static JsonMemberNames forContext(final SchemaContext context) {
+        return TABLES.getUnchecked(context);
+    }
+
+    /**
+     * Return the member name of a node.
+     *
+     * @param qname Node QName
+     * @param moduleQualified True if the name should be prefixed with the name of the module defining its namespace
+     * @return Member name
+     * @throws IllegalArgumentException if the name should be qualified and no module defines its namespace
+     */
+    MemberName memberName(final QName qname, final boolean moduleQualified) {
+        final ConcurrentMap<QName, MemberName> map = moduleQualified ? qualified : plain;
+        final MemberName existing = map.get(qname);
+        return existing != null ? existing : map.computeIfAbsent(qname,
+            moduleQualified ? this::createQualified : JsonMemberNames::createPlain);
+    }
+
+    /**
+     * Return the table of member names resolving to children of a schema node.
+     *
+     * @param parent Parent schema node
+     * @return Child name table
+     */
+    ChildNameTable childrenOf(final DataSchemaNode parent) {
+        return children.getUnchecked(parent);
+    }
+
+    private static MemberName createPlain(final QName qname) {
+        return new MemberName(qname.getLocalName());
+    }
+
+    private MemberName createQualified(final QName qname) {
+        final URI ns = qname.getNamespace();
+        final Iterator<Module> modules = context.findModules(ns).iterator();
+        checkArgument(modules.hasNext(), "Could not find module for namespace {}", ns);
+        return new MemberName(modules.next().getName() + ':' + qname.getLocalName());
+    }
+}
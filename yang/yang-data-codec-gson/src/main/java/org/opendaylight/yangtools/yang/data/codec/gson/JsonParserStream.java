@@ -22,6 +22,7 @@ import java.io.EOFException;
 import java.io.Flushable;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayDeque;
 import java.util.Collections;
@@ -34,6 +35,7 @@ import javax.xml.transform.dom.DOMSource;
 import org.opendaylight.yangtools.odlext.model.api.YangModeledAnyXmlSchemaNode;
 import org.opendaylight.yangtools.util.xml.UntrustedXML;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.ChildNameTable.Child;
 import org.opendaylight.yangtools.yang.data.util.AbstractNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.AnyXmlNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.CompositeNodeDataWithSchema;
@@ -71,6 +73,7 @@ public final class JsonParserStream implements Closeable, Flushable {
     private final JSONCodecFactory codecs;
     private final SchemaContext schema;
     private final DataSchemaNode parentNode;
+    private JsonMemberNames memberNames;
 
     private JsonParserStream(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
             final JSONCodecFactory codecs, final DataSchemaNode parentNode) {
@@ -129,6 +132,24 @@ public final class JsonParserStream implements Closeable, Flushable {
         }
     }
 
+    /**
+     * Parse a JSON document encoded in UTF-8 from a {@link ByteBuffer}. Content between the position and the limit of
+     * the buffer is parsed, the position of the buffer is not modified. The buffer can be a memory-mapped file, as
+     * obtained from {@link java.nio.channels.FileChannel#map(java.nio.channels.FileChannel.MapMode, long, long)}.
+     *
+     * <p>
+     * The input is tokenized directly from bytes: member names are matched against names of children of their parent
+     * schema node without being decoded and numeric values are converted without going through their string
+     * representation. Unlike {@link #parse(JsonReader)}, the input has to be strict JSON.
+     *
+     * @param input Input buffer
+     * @return This parser
+     * @throws NullPointerException if input is null
+     */
+    public JsonParserStream parse(final ByteBuffer input) {
+        return parse(new Utf8JsonReader(input));
+    }
+
     private void traverseAnyXmlValue(final JsonReader in, final Document doc, final Element parentElement)
             throws IOException {
         switch (in.peek()) {
@@ -184,9 +205,15 @@ public final class JsonParserStream implements Closeable, Flushable {
     public void read(final JsonReader in, AbstractNodeDataWithSchema parent) throws IOException {
         switch (in.peek()) {
             case STRING:
-            case NUMBER:
                 setValue(parent, in.nextString());
                 break;
+            case NUMBER:
+                if (in instanceof Utf8JsonReader) {
+                    setNumber(parent, (Utf8JsonReader) in);
+                } else {
+                    setValue(parent, in.nextString());
+                }
+                break;
             case BOOLEAN:
                 setValue(parent, Boolean.toString(in.nextBoolean()));
                 break;
@@ -219,26 +246,41 @@ public final class JsonParserStream implements Closeable, Flushable {
                 if (isArray(parent)) {
                     parent = newArrayEntry(parent);
                 }
+                DataSchemaNode parentSchema = parent.getSchema();
+                if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
+                    parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
+                }
+                final ChildNameTable childNames = in instanceof Utf8JsonReader
+                        ? memberNames().childrenOf(parentSchema) : null;
+
                 while (in.hasNext()) {
-                    final String jsonElementName = in.nextName();
-                    DataSchemaNode parentSchema = parent.getSchema();
-                    if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
-                        parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
-                    }
-                    final Entry<String, URI> namespaceAndName = resolveNamespace(jsonElementName, parentSchema);
-                    final String localName = namespaceAndName.getKey();
-                    addNamespace(namespaceAndName.getValue());
-                    if (!namesakes.add(jsonElementName)) {
-                        throw new JsonSyntaxException("Duplicate name " + jsonElementName + " in JSON input.");
+                    // Try to resolve the name without decoding it first
+                    final Child child = childNames != null ? ((Utf8JsonReader) in).nextMember(childNames) : null;
+                    final String jsonElementName;
+                    final Deque<DataSchemaNode> childDataSchemaNodes;
+                    if (child != null) {
+                        jsonElementName = child.jsonName;
+                        addNamespace(child.namespace);
+                        if (!namesakes.add(jsonElementName)) {
+                            throw new JsonSyntaxException("Duplicate name " + jsonElementName + " in JSON input.");
+                        }
+                        childDataSchemaNodes = child.newPath();
+                    } else {
+                        jsonElementName = in.nextName();
+                        final Entry<String, URI> namespaceAndName = resolveNamespace(jsonElementName, parentSchema);
+                        final String localName = namespaceAndName.getKey();
+                        addNamespace(namespaceAndName.getValue());
+                        if (!namesakes.add(jsonElementName)) {
+                            throw new JsonSyntaxException("Duplicate name " + jsonElementName + " in JSON input.");
+                        }
+
+                        childDataSchemaNodes = ParserStreamUtils.findSchemaNodeByNameAndNamespace(parentSchema,
+                            localName, getCurrentNamespace());
+                        checkState(!childDataSchemaNodes.isEmpty(),
+                            "Schema for node with name %s and namespace %s does not exist.", localName,
+                            getCurrentNamespace());
                     }
 
-                    final Deque<DataSchemaNode> childDataSchemaNodes =
-                            ParserStreamUtils.findSchemaNodeByNameAndNamespace(parentSchema, localName,
-                                getCurrentNamespace());
-                    checkState(!childDataSchemaNodes.isEmpty(),
-                        "Schema for node with name %s and namespace %s does not exist.", localName,
-                        getCurrentNamespace());
-
                     final AbstractNodeDataWithSchema newChild = ((CompositeNodeDataWithSchema) parent)
                             .addChild(childDataSchemaNodes);
                     if (newChild instanceof AnyXmlNodeDataWithSchema) {
@@ -273,14 +315,35 @@ public final class JsonParserStream implements Closeable, Flushable {
     }
 
     private void setValue(final AbstractNodeDataWithSchema parent, final String value) {
+        final SimpleNodeDataWithSchema parentSimpleNode = checkSimpleNode(parent);
+        final Object translatedValue = translateValueByType(value, parentSimpleNode.getSchema());
+        parentSimpleNode.setValue(translatedValue);
+    }
+
+    private void setNumber(final AbstractNodeDataWithSchema parent, final Utf8JsonReader in) throws IOException {
+        if (in.peekExactNumber() && parent instanceof SimpleNodeDataWithSchema
+                && parent.getSchema() instanceof TypedDataSchemaNode) {
+            final JSONCodec<?> codec = codecs.codecFor((TypedDataSchemaNode) parent.getSchema());
+            if (codec instanceof NumberJSONCodec) {
+                final SimpleNodeDataWithSchema parentSimpleNode = checkSimpleNode(parent);
+                final Object value = ((NumberJSONCodec<?>) codec).parseNumber(in.peekedUnscaled(), in.peekedScale());
+                if (value != null) {
+                    in.skipValue();
+                    parentSimpleNode.setValue(value);
+                    return;
+                }
+            }
+        }
+        setValue(parent, in.nextString());
+    }
+
+    private static SimpleNodeDataWithSchema checkSimpleNode(final AbstractNodeDataWithSchema parent) {
         checkArgument(parent instanceof SimpleNodeDataWithSchema, "Node %s is not a simple type",
                 parent.getSchema().getQName());
         final SimpleNodeDataWithSchema parentSimpleNode = (SimpleNodeDataWithSchema) parent;
         checkArgument(parentSimpleNode.getValue() == null, "Node '%s' has already set its value to '%s'",
                 parentSimpleNode.getSchema().getQName(), parentSimpleNode.getValue());
-
-        final Object translatedValue = translateValueByType(value, parentSimpleNode.getSchema());
-        parentSimpleNode.setValue(translatedValue);
+        return parentSimpleNode;
     }
 
     private Object translateValueByType(final String value, final DataSchemaNode node) {
@@ -288,6 +351,13 @@ public final class JsonParserStream implements Closeable, Flushable {
         return codecs.codecFor((TypedDataSchemaNode) node).parseValue(null, value);
     }
 
+    private JsonMemberNames memberNames() {
+        if (memberNames == null) {
+            memberNames = JsonMemberNames.forContext(schema);
+        }
+        return memberNames;
+    }
+
     private void removeNamespace() {
         namespaces.pop();
     }
@@ -10,6 +10,7 @@ package org.opendaylight.yangtools.yang.data.codec.gson;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Strings;
 import com.google.gson.stream.JsonWriter;
+import java.io.OutputStream;
 import java.io.Writer;
 
 /**
@@ -44,4 +45,18 @@ public final class JsonWriterFactory {
         jsonWriter.setIndent(indent);
         return jsonWriter;
     }
+
+    /**
+     * Create a new JsonWriter, which writes UTF-8 encoded compact output directly to the specified output stream.
+     * The writer maintains its own buffer and emits member names of schema nodes in their pre-encoded form when used
+     * with {@link JSONNormalizedNodeStreamWriter}, which makes it more efficient than wrapping the stream in
+     * an {@link java.io.OutputStreamWriter}. Indentation is not supported.
+     *
+     * @param stream Output stream
+     * @return A JsonWriter instance
+     * @throws NullPointerException if stream is null
+     */
+    public static JsonWriter createJsonWriter(final OutputStream stream) {
+        return new Utf8JsonWriter(stream);
+    }
 }
@@ -9,7 +9,11 @@ package org.opendaylight.yangtools.yang.data.codec.gson;
 
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.math.BigDecimal;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.impl.codec.AbstractIntegerStringCodec;
 import org.opendaylight.yangtools.yang.data.impl.codec.DataStringCodec;
+import org.opendaylight.yangtools.yang.data.impl.codec.DecimalStringCodec;
 
 /**
  * A {@link JSONCodec} which does not need double quotes in output representation.
@@ -17,8 +21,33 @@ import org.opendaylight.yangtools.yang.data.impl.codec.DataStringCodec;
  * @param <T> Deserialized value type
  */
 final class NumberJSONCodec<T extends Number> extends AbstractJSONCodec<T> {
+    private final DataStringCodec<T> codec;
+
     NumberJSONCodec(final DataStringCodec<T> codec) {
         super(codec);
+        this.codec = codec;
+    }
+
+    /**
+     * Parse a number which has already been tokenized into its unscaled value and scale, without going through its
+     * string representation.
+     *
+     * @param unscaled Unscaled value
+     * @param scale Number of fraction digits
+     * @return Parsed value, or null if this codec cannot parse such a value without its string representation
+     */
+    @Nullable T parseNumber(final long unscaled, final int scale) {
+        if (codec instanceof AbstractIntegerStringCodec) {
+            // Fractions are left to the string codec, so they are reported consistently
+            if (scale != 0) {
+                return null;
+            }
+            return codec.getInputClass().cast(((AbstractIntegerStringCodec<?, ?>) codec).deserialize(unscaled));
+        }
+        if (codec instanceof DecimalStringCodec) {
+            return codec.getInputClass().cast(BigDecimal.valueOf(unscaled, scale));
+        }
+        return null;
     }
 
     @Override
@@ -0,0 +1,744 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import com.google.common.primitives.Longs;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.codec.gson.ChildNameTable.Child;
+
+/**
+ * A {@link JsonReader} which tokenizes UTF-8 encoded JSON directly from a {@link ByteBuffer}, which may be a heap
+ * buffer or a memory-mapped file. Member names can be resolved against a {@link ChildNameTable} without decoding them
+ * and numbers are available as their unscaled value and scale, without going through {@link String}s.
+ *
+ * <p>
+ * Input has to be strict JSON, as defined by RFC8259, the lenient extensions of {@link JsonReader} are not supported.
+ * Invalid UTF-8 sequences in strings are replaced with U+FFFD. Paths are not tracked, hence {@link #getPath()} does not
+ * provide useful information.
+ */
+final class Utf8JsonReader extends JsonReader {
+    // JsonReader requires a Reader, we never use it
+    private static final Reader UNUSED = new Reader() {
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            // No-op
+        }
+    };
+
+    // Same as JsonScope
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+    private static final int CLOSED = 8;
+
+    private static final int PEEKED_NONE = 0;
+    private static final int PEEKED_BEGIN_OBJECT = 1;
+    private static final int PEEKED_END_OBJECT = 2;
+    private static final int PEEKED_BEGIN_ARRAY = 3;
+    private static final int PEEKED_END_ARRAY = 4;
+    private static final int PEEKED_TRUE = 5;
+    private static final int PEEKED_FALSE = 6;
+    private static final int PEEKED_NULL = 7;
+    private static final int PEEKED_STRING = 8;
+    private static final int PEEKED_NAME = 9;
+    private static final int PEEKED_NUMBER = 10;
+    private static final int PEEKED_EOF = 11;
+
+    // Numbers with more significant digits may not fit into a long
+    private static final int MAX_EXACT_DIGITS = 18;
+    private static final char REPLACEMENT_CHAR = (char) 0xFFFD;
+
+    private final ByteBuffer buf;
+    private final int limit;
+    private int pos;
+    private int peeked = PEEKED_NONE;
+
+    private int[] stack = new int[32];
+    private int stackSize;
+
+    // Valid when peeked == PEEKED_NUMBER, pos points past the number
+    private int numberStart;
+    private long numberUnscaled;
+    private int numberScale;
+    private boolean numberExact;
+
+    private char[] chars = new char[64];
+
+    /**
+     * Create a new reader. Content between the position and the limit of the buffer is parsed, the position of
+     * the buffer is not modified.
+     *
+     * @param buf Input buffer
+     */
+    Utf8JsonReader(final ByteBuffer buf) {
+        super(UNUSED);
+        this.buf = buf.duplicate();
+        this.pos = buf.position();
+        this.limit = buf.limit();
+        stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(PEEKED_BEGIN_ARRAY, "BEGIN_ARRAY");
+        push(EMPTY_ARRAY);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(PEEKED_END_ARRAY, "END_ARRAY");
+        stackSize--;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(PEEKED_BEGIN_OBJECT, "BEGIN_OBJECT");
+        push(EMPTY_OBJECT);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(PEEKED_END_OBJECT, "END_OBJECT");
+        stackSize--;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        final int token = peekInternal();
+        return token != PEEKED_END_OBJECT && token != PEEKED_END_ARRAY;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        switch (peekInternal()) {
+            case PEEKED_BEGIN_OBJECT:
+                return JsonToken.BEGIN_OBJECT;
+            case PEEKED_END_OBJECT:
+                return JsonToken.END_OBJECT;
+            case PEEKED_BEGIN_ARRAY:
+                return JsonToken.BEGIN_ARRAY;
+            case PEEKED_END_ARRAY:
+                return JsonToken.END_ARRAY;
+            case PEEKED_TRUE:
+            case PEEKED_FALSE:
+                return JsonToken.BOOLEAN;
+            case PEEKED_NULL:
+                return JsonToken.NULL;
+            case PEEKED_STRING:
+                return JsonToken.STRING;
+            case PEEKED_NAME:
+                return JsonToken.NAME;
+            case PEEKED_NUMBER:
+                return JsonToken.NUMBER;
+            case PEEKED_EOF:
+                return JsonToken.END_DOCUMENT;
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        if (peekInternal() != PEEKED_NAME) {
+            throw unexpected("a name");
+        }
+        peeked = PEEKED_NONE;
+        return readString();
+    }
+
+    /**
+     * Resolve the next member name against a {@link ChildNameTable}, without decoding it. If the name is not found in
+     * the table, or it contains escape sequences, it is not consumed and needs to be read via {@link #nextName()}.
+     *
+     * @param table Table of child names
+     * @return Resolved child, or null if the name was not consumed
+     * @throws IOException if the input is malformed
+     * @throws IllegalStateException if the next token is not a name
+     */
+    @Nullable Child nextMember(final ChildNameTable table) throws IOException {
+        if (peekInternal() != PEEKED_NAME) {
+            throw unexpected("a name");
+        }
+
+        int hash = 0;
+        for (int i = pos; i < limit; ++i) {
+            final byte b = buf.get(i);
+            if (b == '"') {
+                final Child child = table.lookup(buf, pos, i - pos, hash);
+                if (child != null) {
+                    pos = i + 1;
+                    peeked = PEEKED_NONE;
+                }
+                return child;
+            }
+            if (b == '\\') {
+                return null;
+            }
+            hash = ChildNameTable.hash(hash, b);
+        }
+        return null;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        final int token = peekInternal();
+        if (token == PEEKED_STRING) {
+            peeked = PEEKED_NONE;
+            return readString();
+        }
+        if (token == PEEKED_NUMBER) {
+            peeked = PEEKED_NONE;
+            return numberString();
+        }
+        throw unexpected("a string");
+    }
+
+    /**
+     * Check whether the next token is a number without an exponent and with at most 18 significant digits, whose
+     * value is available via {@link #peekedUnscaled()} and {@link #peekedScale()}.
+     *
+     * @return True if the next token is such a number
+     * @throws IOException if the input is malformed
+     */
+    boolean peekExactNumber() throws IOException {
+        return peekInternal() == PEEKED_NUMBER && numberExact;
+    }
+
+    /**
+     * Return the unscaled value of the number identified by {@link #peekExactNumber()}.
+     *
+     * @return Unscaled value
+     */
+    long peekedUnscaled() {
+        return numberUnscaled;
+    }
+
+    /**
+     * Return the scale, i.e. the number of fraction digits, of the number identified by {@link #peekExactNumber()}.
+     *
+     * @return Scale
+     */
+    int peekedScale() {
+        return numberScale;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        final int token = peekInternal();
+        if (token == PEEKED_TRUE) {
+            peeked = PEEKED_NONE;
+            return true;
+        }
+        if (token == PEEKED_FALSE) {
+            peeked = PEEKED_NONE;
+            return false;
+        }
+        throw unexpected("a boolean");
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(PEEKED_NULL, "null");
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        final String str = nextNumeric("a double");
+        final double result = Double.parseDouble(str);
+        if (Double.isNaN(result) || Double.isInfinite(result)) {
+            throw syntaxError("JSON forbids NaN and infinities: " + result);
+        }
+        return result;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        if (peekInternal() == PEEKED_NUMBER && numberExact && numberScale == 0) {
+            peeked = PEEKED_NONE;
+            return numberUnscaled;
+        }
+
+        final String str = nextNumeric("a long");
+        final Long parsed = Longs.tryParse(str);
+        if (parsed != null) {
+            return parsed;
+        }
+
+        final double asDouble = Double.parseDouble(str);
+        final long result = (long) asDouble;
+        if (result != asDouble) {
+            throw new NumberFormatException("Expected a long but was " + str + location());
+        }
+        return result;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        final long result = nextLong();
+        if (result != (int) result) {
+            throw new NumberFormatException("Expected an int but was " + result + location());
+        }
+        return (int) result;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        int count = 0;
+        do {
+            switch (peekInternal()) {
+                case PEEKED_BEGIN_ARRAY:
+                    push(EMPTY_ARRAY);
+                    count++;
+                    break;
+                case PEEKED_BEGIN_OBJECT:
+                    push(EMPTY_OBJECT);
+                    count++;
+                    break;
+                case PEEKED_END_ARRAY:
+                case PEEKED_END_OBJECT:
+                    stackSize--;
+                    count--;
+                    break;
+                case PEEKED_NAME:
+                case PEEKED_STRING:
+                    skipString();
+                    break;
+                default:
+                    // Literals and numbers have already been consumed
+                    break;
+            }
+            peeked = PEEKED_NONE;
+        } while (count != 0);
+    }
+
+    @Override
+    public void close() {
+        peeked = PEEKED_NONE;
+        stack[0] = CLOSED;
+        stackSize = 1;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + location();
+    }
+
+    private int peekInternal() throws IOException {
+        return peeked != PEEKED_NONE ? peeked : doPeek();
+    }
+
+    private void expect(final int token, final String expected) throws IOException {
+        if (peekInternal() != token) {
+            throw unexpected(expected);
+        }
+        peeked = PEEKED_NONE;
+    }
+
+    private int doPeek() throws IOException {
+        final int scope = stack[stackSize - 1];
+        final int ch;
+        switch (scope) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                ch = nextNonWhitespace();
+                if (ch == ']') {
+                    return peeked = PEEKED_END_ARRAY;
+                }
+                return peekValue(ch);
+            case NONEMPTY_ARRAY:
+                switch (nextNonWhitespace()) {
+                    case ']':
+                        return peeked = PEEKED_END_ARRAY;
+                    case ',':
+                        return peekValue(nextNonWhitespace());
+                    default:
+                        throw syntaxError("Unterminated array");
+                }
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                stack[stackSize - 1] = DANGLING_NAME;
+                if (scope == NONEMPTY_OBJECT) {
+                    switch (nextNonWhitespace()) {
+                        case '}':
+                            return peeked = PEEKED_END_OBJECT;
+                        case ',':
+                            break;
+                        default:
+                            throw syntaxError("Unterminated object");
+                    }
+                    ch = nextNonWhitespace();
+                } else {
+                    ch = nextNonWhitespace();
+                    if (ch == '}') {
+                        return peeked = PEEKED_END_OBJECT;
+                    }
+                }
+                if (ch != '"') {
+                    throw syntaxError("Expected name");
+                }
+                return peeked = PEEKED_NAME;
+            case DANGLING_NAME:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+                return peekValue(nextNonWhitespace());
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                return peekValue(nextNonWhitespace());
+            case NONEMPTY_DOCUMENT:
+                if (skipWhitespace()) {
+                    throw syntaxError("Expected end of input");
+                }
+                return peeked = PEEKED_EOF;
+            case CLOSED:
+                throw new IllegalStateException("JsonReader is closed");
+            default:
+                throw new AssertionError("Unhandled scope " + scope);
+        }
+    }
+
+    private int peekValue(final int ch) throws IOException {
+        switch (ch) {
+            case '{':
+                return peeked = PEEKED_BEGIN_OBJECT;
+            case '[':
+                return peeked = PEEKED_BEGIN_ARRAY;
+            case '"':
+                return peeked = PEEKED_STRING;
+            case 't':
+                return peekLiteral("rue", PEEKED_TRUE);
+            case 'f':
+                return peekLiteral("alse", PEEKED_FALSE);
+            case 'n':
+                return peekLiteral("ull", PEEKED_NULL);
+            default:
+                if (ch == '-' || ch >= '0' && ch <= '9') {
+                    return peekNumber();
+                }
+                throw syntaxError("Expected value");
+        }
+    }
+
+    private int peekLiteral(final String rest, final int token) throws IOException {
+        for (int i = 0; i < rest.length(); ++i) {
+            if (pos == limit || buf.get(pos) != rest.charAt(i)) {
+                throw syntaxError("Expected value");
+            }
+            pos++;
+        }
+        return peeked = token;
+    }
+
+    private int peekNumber() throws IOException {
+        // The first character has already been consumed
+        numberStart = pos - 1;
+        int index = numberStart;
+        final boolean negative = buf.get(index) == '-';
+        if (negative) {
+            index++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean exact = true;
+
+        int ch = byteAt(index);
+        if (ch == '0') {
+            index++;
+            digits = 1;
+            if (isDigit(byteAt(index))) {
+                throw syntaxError("Leading zeros are not allowed");
+            }
+        } else if (isDigit(ch)) {
+            while (isDigit(ch = byteAt(index))) {
+                value = value * 10 + ch - '0';
+                digits++;
+                index++;
+            }
+        } else {
+            throw syntaxError("Expected digit");
+        }
+
+        if (byteAt(index) == '.') {
+            index++;
+            if (!isDigit(byteAt(index))) {
+                throw syntaxError("Expected digit");
+            }
+            while (isDigit(ch = byteAt(index))) {
+                value = value * 10 + ch - '0';
+                digits++;
+                scale++;
+                index++;
+            }
+        }
+
+        ch = byteAt(index);
+        if (ch == 'e' || ch == 'E') {
+            exact = false;
+            index++;
+            ch = byteAt(index);
+            if (ch == '+' || ch == '-') {
+                index++;
+            }
+            if (!isDigit(byteAt(index))) {
+                throw syntaxError("Expected digit");
+            }
+            while (isDigit(byteAt(index))) {
+                index++;
+            }
+        }
+
+        // Overflowing values are discarded based on the digit count. Negative zero is left to string-based parsing,
+        // as it is not a valid lexical representation of YANG integers.
+        numberExact = exact && digits <= MAX_EXACT_DIGITS && !(negative && value == 0);
+        numberUnscaled = negative ? -value : value;
+        numberScale = scale;
+        pos = index;
+        return peeked = PEEKED_NUMBER;
+    }
+
+    private String nextNumeric(final String expected) throws IOException {
+        final int token = peekInternal();
+        if (token == PEEKED_NUMBER) {
+            peeked = PEEKED_NONE;
+            return numberString();
+        }
+        if (token == PEEKED_STRING) {
+            peeked = PEEKED_NONE;
+            return readString();
+        }
+        throw unexpected(expected);
+    }
+
+    private String numberString() {
+        final int length = pos - numberStart;
+        final char[] out = charBuffer(length);
+        for (int i = 0; i < length; ++i) {
+            out[i] = (char) buf.get(numberStart + i);
+        }
+        return new String(out, 0, length);
+    }
+
+    // Read a string whose opening quote has been consumed, leaving pos past the closing quote
+    private String readString() throws IOException {
+        char[] out = chars;
+        int len = 0;
+        while (true) {
+            if (pos == limit) {
+                throw syntaxError("Unterminated string");
+            }
+            if (len + 2 > out.length) {
+                out = charBuffer(len + 2);
+            }
+
+            final byte b = buf.get(pos++);
+            if (b == '"') {
+                return new String(out, 0, len);
+            }
+            if (b == '\\') {
+                out[len++] = readEscape();
+            } else if (b >= 0) {
+                out[len++] = (char) b;
+            } else {
+                len = decodeMultiByte(b, out, len);
+            }
+        }
+    }
+
+    private int decodeMultiByte(final byte lead, final char[] out, final int len) {
+        final int cp;
+        if ((lead & 0xE0) == 0xC0) {
+            final int c1 = continuation(0);
+            if (c1 < 0) {
+                return replacement(out, len);
+            }
+            cp = (lead & 0x1F) << 6 | c1;
+            if (cp < 0x80) {
+                return replacement(out, len);
+            }
+            pos += 1;
+        } else if ((lead & 0xF0) == 0xE0) {
+            final int c1 = continuation(0);
+            final int c2 = continuation(1);
+            if (c1 < 0 || c2 < 0) {
+                return replacement(out, len);
+            }
+            cp = (lead & 0x0F) << 12 | c1 << 6 | c2;
+            if (cp < 0x800 || Character.isSurrogate((char) cp)) {
+                return replacement(out, len);
+            }
+            pos += 2;
+        } else if ((lead & 0xF8) == 0xF0) {
+            final int c1 = continuation(0);
+            final int c2 = continuation(1);
+            final int c3 = continuation(2);
+            if (c1 < 0 || c2 < 0 || c3 < 0) {
+                return replacement(out, len);
+            }
+            cp = (lead & 0x07) << 18 | c1 << 12 | c2 << 6 | c3;
+            if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT || cp > Character.MAX_CODE_POINT) {
+                return replacement(out, len);
+            }
+            pos += 3;
+            out[len] = Character.highSurrogate(cp);
+            out[len + 1] = Character.lowSurrogate(cp);
+            return len + 2;
+        } else {
+            return replacement(out, len);
+        }
+
+        out[len] = (char) cp;
+        return len + 1;
+    }
+
+    // Return the payload of a continuation byte at pos + offset, or -1 if there is no such continuation byte
+    private int continuation(final int offset) {
+        final int index = pos + offset;
+        if (index >= limit) {
+            return -1;
+        }
+        final byte b = buf.get(index);
+        return (b & 0xC0) == 0x80 ? b & 0x3F : -1;
+    }
+
+    private static int replacement(final char[] out, final int len) {
+        out[len] = REPLACEMENT_CHAR;
+        return len + 1;
+    }
+
+    private char readEscape() throws IOException {
+        if (pos == limit) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+
+        final byte escaped = buf.get(pos++);
+        switch (escaped) {
+            case 'u':
+                if (limit - pos < 4) {
+                    throw syntaxError("Unterminated escape sequence");
+                }
+                int result = 0;
+                for (int i = 0; i < 4; ++i) {
+                    final int digit = Character.digit(buf.get(pos++), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Malformed Unicode escape");
+                    }
+                    result = result << 4 | digit;
+                }
+                return (char) result;
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case '"':
+            case '\\':
+            case '/':
+            case '\'':
+                return (char) escaped;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (pos < limit) {
+            final byte b = buf.get(pos++);
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                pos++;
+            }
+        }
+        throw syntaxError("Unterminated string");
+    }
+
+    // Return and consume next non-whitespace character
+    private int nextNonWhitespace() throws IOException {
+        if (!skipWhitespace()) {
+            throw new EOFException("End of input" + location());
+        }
+        return buf.get(pos++);
+    }
+
+    // Skip whitespace, return true if there is more input
+    private boolean skipWhitespace() {
+        while (pos < limit) {
+            switch (buf.get(pos)) {
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                    pos++;
+                    break;
+                default:
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private int byteAt(final int index) {
+        return index < limit ? buf.get(index) : -1;
+    }
+
+    private static boolean isDigit(final int ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private char[] charBuffer(final int minLength) {
+        if (chars.length < minLength) {
+            chars = Arrays.copyOf(chars, Math.max(minLength, chars.length * 2));
+        }
+        return chars;
+    }
+
+    private void push(final int newTop) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = newTop;
+    }
+
+    private IllegalStateException unexpected(final String expected) throws IOException {
+        return new IllegalStateException("Expected " + expected + " but was " + peek() + location());
+    }
+
+    private MalformedJsonException syntaxError(final String message) {
+        return new MalformedJsonException(message + location());
+    }
+
+    private String location() {
+        return " at offset " + pos;
+    }
+}
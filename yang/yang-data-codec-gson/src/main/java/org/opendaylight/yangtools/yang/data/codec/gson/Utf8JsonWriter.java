@@ -0,0 +1,609 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonMemberNames.MemberName;
+
+/**
+ * A {@link JsonWriter} which encodes its output as UTF-8 directly into a byte buffer, which is flushed to an
+ * {@link OutputStream}. It produces the same output as a compact {@link JsonWriter} wrapped around an UTF-8
+ * {@link java.io.OutputStreamWriter}, except that it does not support indentation. Member names known to
+ * {@link JsonMemberNames} are written in their pre-encoded form and integral and decimal numbers are formatted without
+ * going through {@link String}s.
+ *
+ * <p>
+ * {@link #close()} closes the underlying stream, just as {@link JsonWriter#close()} closes its writer.
+ */
+final class Utf8JsonWriter extends JsonWriter {
+    // JsonWriter requires a Writer, we never use it
+    private static final Writer UNUSED = new Writer() {
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void flush() {
+            // No-op
+        }
+
+        @Override
+        public void close() {
+            // No-op
+        }
+    };
+
+    // Same as JsonScope
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+
+    private static final int BUFFER_SIZE = 8192;
+    // Maximum number of bytes a single char can expand to, including surrogate pairs and escapes
+    private static final int MAX_CHAR_BYTES = 6;
+
+    private static final byte[][] REPLACEMENT_CHARS;
+    private static final byte[][] HTML_SAFE_REPLACEMENT_CHARS;
+    private static final byte[] LINE_SEPARATOR = unicodeEscape('\u2028');
+    private static final byte[] PARAGRAPH_SEPARATOR = unicodeEscape('\u2029');
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        REPLACEMENT_CHARS = new byte[128][];
+        for (int i = 0; i < 0x20; ++i) {
+            REPLACEMENT_CHARS[i] = unicodeEscape((char) i);
+        }
+        REPLACEMENT_CHARS['"'] = ascii("\\\"");
+        REPLACEMENT_CHARS['\\'] = ascii("\\\\");
+        REPLACEMENT_CHARS['\t'] = ascii("\\t");
+        REPLACEMENT_CHARS['\b'] = ascii("\\b");
+        REPLACEMENT_CHARS['\n'] = ascii("\\n");
+        REPLACEMENT_CHARS['\r'] = ascii("\\r");
+        REPLACEMENT_CHARS['\f'] = ascii("\\f");
+
+        HTML_SAFE_REPLACEMENT_CHARS = REPLACEMENT_CHARS.clone();
+        HTML_SAFE_REPLACEMENT_CHARS['<'] = unicodeEscape('<');
+        HTML_SAFE_REPLACEMENT_CHARS['>'] = unicodeEscape('>');
+        HTML_SAFE_REPLACEMENT_CHARS['&'] = unicodeEscape('&');
+        HTML_SAFE_REPLACEMENT_CHARS['='] = unicodeEscape('=');
+        HTML_SAFE_REPLACEMENT_CHARS['\''] = unicodeEscape('\'');
+
+        long power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; ++i) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final OutputStream out;
+    private int count;
+
+    private int[] stack = new int[32];
+    private int stackSize;
+
+    // Either a String or a MemberName
+    private Object deferredName;
+
+    Utf8JsonWriter(final OutputStream out) {
+        super(UNUSED);
+        this.out = requireNonNull(out);
+        push(EMPTY_DOCUMENT);
+    }
+
+    /**
+     * Encode a string as a quoted and escaped JSON string in UTF-8.
+     *
+     * @param str String to encode
+     * @return Encoded bytes
+     */
+    static byte[] encodeString(final String str) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Utf8JsonWriter writer = new Utf8JsonWriter(bytes);
+        try {
+            writer.string(str);
+            writer.flushBuffer();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected failure writing to memory", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        writeDeferredName();
+        return openScope(EMPTY_ARRAY, '[');
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        return closeScope(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        writeDeferredName();
+        return openScope(EMPTY_OBJECT, '{');
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        return closeScope(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+    }
+
+    @Override
+    public JsonWriter name(final String name) {
+        return deferName(requireNonNull(name, "name == null"));
+    }
+
+    /**
+     * Encode the property name of a member, using its pre-encoded form.
+     *
+     * @param name Member name
+     * @return This writer
+     */
+    JsonWriter name(final MemberName name) {
+        return deferName(requireNonNull(name, "name == null"));
+    }
+
+    @Override
+    public JsonWriter jsonValue(final String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeDeferredName();
+        beforeValue();
+        raw(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (deferredName != null) {
+            if (!getSerializeNulls()) {
+                // Skip the name and the value
+                deferredName = null;
+                return this;
+            }
+            writeDeferredName();
+        }
+        beforeValue();
+        write(NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeDeferredName();
+        beforeValue();
+        string(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final boolean value) throws IOException {
+        writeDeferredName();
+        beforeValue();
+        write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final Boolean value) throws IOException {
+        return value == null ? nullValue() : value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(final double value) throws IOException {
+        if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+        writeDeferredName();
+        beforeValue();
+        raw(Double.toString(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final long value) throws IOException {
+        writeDeferredName();
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        writeDeferredName();
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            beforeValue();
+            writeLong(value.longValue());
+        } else if (value instanceof BigDecimal) {
+            beforeValue();
+            writeDecimal((BigDecimal) value);
+        } else if (value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE) {
+            beforeValue();
+            writeLong(value.longValue());
+        } else {
+            final String string = value.toString();
+            if (!isLenient() && ("-Infinity".equals(string) || "Infinity".equals(string) || "NaN".equals(string))) {
+                throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+            }
+            beforeValue();
+            raw(string);
+        }
+        return this;
+    }
+
+    /**
+     * Create a writer for a fragment of values of an array open in this writer. The returned writer writes compact
+     * output with the same settings to the specified stream, as if it were writing the array contents. The fragment
+     * is appended to this writer by {@link #appendFragment(Utf8JsonWriter, ByteArrayOutputStream)}.
+     *
+     * @param stream Output stream of the fragment
+     * @return A new writer
+     */
+    Utf8JsonWriter newArrayFragment(final OutputStream stream) {
+        final Utf8JsonWriter ret = new Utf8JsonWriter(stream);
+        ret.setLenient(isLenient());
+        ret.setHtmlSafe(isHtmlSafe());
+        ret.setSerializeNulls(getSerializeNulls());
+        ret.replaceTop(EMPTY_ARRAY);
+        return ret;
+    }
+
+    /**
+     * Check whether this writer is an array fragment which has no values written.
+     *
+     * @return True if this is an empty array fragment
+     */
+    boolean isEmptyFragment() {
+        return stackSize == 1 && stack[0] == EMPTY_ARRAY;
+    }
+
+    /**
+     * Append the values written by an array fragment as values of the array open in this writer.
+     *
+     * @param fragment Fragment writer, as returned by {@link #newArrayFragment(OutputStream)}
+     * @param bytes Output stream of the fragment
+     * @throws IOException when the underlying stream reports it
+     * @throws IllegalStateException if the fragment is not complete or no array is open in this writer
+     */
+    void appendFragment(final Utf8JsonWriter fragment, final ByteArrayOutputStream bytes) throws IOException {
+        checkState(fragment.stackSize == 1 && fragment.stack[0] == NONEMPTY_ARRAY && fragment.deferredName == null,
+            "Incomplete fragment");
+        final int context = peek();
+        checkState(context == EMPTY_ARRAY || context == NONEMPTY_ARRAY, "Nesting problem.");
+        fragment.flushBuffer();
+        beforeValue();
+        flushBuffer();
+        bytes.writeTo(out);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (stackSize == 0) {
+            throw new IllegalStateException("JsonWriter is closed.");
+        }
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushBuffer();
+        out.close();
+
+        final int size = stackSize;
+        if (size > 1 || size == 1 && stack[0] != NONEMPTY_DOCUMENT) {
+            throw new IOException("Incomplete document");
+        }
+        stackSize = 0;
+    }
+
+    private JsonWriter openScope(final int empty, final char openBracket) throws IOException {
+        beforeValue();
+        push(empty);
+        writeByte(openBracket);
+        return this;
+    }
+
+    private JsonWriter closeScope(final int empty, final int nonempty, final char closeBracket) throws IOException {
+        final int context = peek();
+        if (context != nonempty && context != empty) {
+            throw new IllegalStateException("Nesting problem.");
+        }
+        if (deferredName != null) {
+            throw new IllegalStateException("Dangling name: " + deferredName);
+        }
+
+        stackSize--;
+        writeByte(closeBracket);
+        return this;
+    }
+
+    private JsonWriter deferName(final Object name) {
+        if (deferredName != null) {
+            throw new IllegalStateException();
+        }
+        if (stackSize == 0) {
+            throw new IllegalStateException("JsonWriter is closed.");
+        }
+        deferredName = name;
+        return this;
+    }
+
+    private void writeDeferredName() throws IOException {
+        final Object name = deferredName;
+        if (name != null) {
+            beforeName();
+            if (name instanceof MemberName) {
+                write(((MemberName) name).encoded);
+            } else {
+                string((String) name);
+            }
+            deferredName = null;
+        }
+    }
+
+    private void push(final int newTop) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = newTop;
+    }
+
+    private int peek() {
+        if (stackSize == 0) {
+            throw new IllegalStateException("JsonWriter is closed.");
+        }
+        return stack[stackSize - 1];
+    }
+
+    private void replaceTop(final int topOfStack) {
+        stack[stackSize - 1] = topOfStack;
+    }
+
+    private void beforeName() throws IOException {
+        final int context = peek();
+        if (context == NONEMPTY_OBJECT) {
+            writeByte(',');
+        } else if (context != EMPTY_OBJECT) {
+            throw new IllegalStateException("Nesting problem.");
+        }
+        replaceTop(DANGLING_NAME);
+    }
+
+    private void beforeValue() throws IOException {
+        switch (peek()) {
+            case NONEMPTY_DOCUMENT:
+                if (!isLenient()) {
+                    throw new IllegalStateException("JSON must have only one top-level value.");
+                }
+                // falls through
+            case EMPTY_DOCUMENT:
+                replaceTop(NONEMPTY_DOCUMENT);
+                break;
+            case EMPTY_ARRAY:
+                replaceTop(NONEMPTY_ARRAY);
+                break;
+            case NONEMPTY_ARRAY:
+                writeByte(',');
+                break;
+            case DANGLING_NAME:
+                writeByte(':');
+                replaceTop(NONEMPTY_OBJECT);
+                break;
+            default:
+                throw new IllegalStateException("Nesting problem.");
+        }
+    }
+
+    private void writeLong(final long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            raw(Long.toString(value));
+            return;
+        }
+
+        ensureCapacity(20);
+        long abs = value;
+        if (abs < 0) {
+            buf[count++] = '-';
+            abs = -abs;
+        }
+        writeDigits(abs, digitCount(abs));
+    }
+
+    private void writeDecimal(final BigDecimal value) throws IOException {
+        final int scale = value.scale();
+        final int precision = value.precision();
+        // BigDecimal.toString() uses plain notation for non-negative scale and adjusted exponent of at least -6
+        if (scale < 0 || precision >= POWERS_OF_TEN.length || precision - 1 - scale < -6) {
+            raw(value.toString());
+            return;
+        }
+
+        final long unscaled = value.unscaledValue().longValue();
+        ensureCapacity(22);
+        long abs = unscaled;
+        if (abs < 0) {
+            buf[count++] = '-';
+            abs = -abs;
+        }
+        if (scale == 0) {
+            writeDigits(abs, digitCount(abs));
+            return;
+        }
+
+        final long intPart = abs / POWERS_OF_TEN[scale];
+        writeDigits(intPart, digitCount(intPart));
+        buf[count++] = '.';
+        writeDigits(abs % POWERS_OF_TEN[scale], scale);
+    }
+
+    // Write exactly 'digits' least significant digits of a non-negative number, zero-padded. Capacity must be ensured.
+    private void writeDigits(final long value, final int digits) {
+        final int start = count;
+        long remaining = value;
+        int pos = start + digits;
+        count = pos;
+        while (pos > start) {
+            buf[--pos] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
+
+    private static int digitCount(final long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private void string(final String value) throws IOException {
+        final byte[][] replacements = isHtmlSafe() ? HTML_SAFE_REPLACEMENT_CHARS : REPLACEMENT_CHARS;
+        final int limit = buf.length - MAX_CHAR_BYTES;
+        final int length = value.length();
+
+        writeByte('"');
+        for (int i = 0; i < length; ++i) {
+            if (count > limit) {
+                flushBuffer();
+            }
+
+            final char ch = value.charAt(i);
+            if (ch < 0x80) {
+                final byte[] replacement = replacements[ch];
+                if (replacement == null) {
+                    buf[count++] = (byte) ch;
+                } else {
+                    System.arraycopy(replacement, 0, buf, count, replacement.length);
+                    count += replacement.length;
+                }
+            } else if (ch < 0x800) {
+                buf[count++] = (byte) (0xC0 | ch >> 6);
+                buf[count++] = (byte) (0x80 | ch & 0x3F);
+            } else if (ch == '\u2028' || ch == '\u2029') {
+                final byte[] replacement = ch == '\u2028' ? LINE_SEPARATOR : PARAGRAPH_SEPARATOR;
+                System.arraycopy(replacement, 0, buf, count, replacement.length);
+                count += replacement.length;
+            } else if (Character.isSurrogate(ch)) {
+                if (Character.isHighSurrogate(ch) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int cp = Character.toCodePoint(ch, value.charAt(++i));
+                    buf[count++] = (byte) (0xF0 | cp >> 18);
+                    buf[count++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                    buf[count++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                    buf[count++] = (byte) (0x80 | cp & 0x3F);
+                } else {
+                    // Unpaired surrogate, replaced just like OutputStreamWriter does
+                    buf[count++] = '?';
+                }
+            } else {
+                buf[count++] = (byte) (0xE0 | ch >> 12);
+                buf[count++] = (byte) (0x80 | ch >> 6 & 0x3F);
+                buf[count++] = (byte) (0x80 | ch & 0x3F);
+            }
+        }
+        writeByte('"');
+    }
+
+    // Used for numbers and raw JSON values, which are expected to be ASCII, but are encoded properly regardless
+    private void raw(final String value) throws IOException {
+        final int length = value.length();
+        for (int i = 0; i < length; ++i) {
+            if (value.charAt(i) >= 0x80) {
+                write(value.getBytes(UTF_8));
+                return;
+            }
+        }
+
+        int offset = 0;
+        while (offset < length) {
+            if (count == buf.length) {
+                flushBuffer();
+            }
+            final int chunk = Math.min(length - offset, buf.length - count);
+            for (int i = 0; i < chunk; ++i) {
+                buf[count++] = (byte) value.charAt(offset++);
+            }
+        }
+    }
+
+    private void writeByte(final char ch) throws IOException {
+        if (count == buf.length) {
+            flushBuffer();
+        }
+        buf[count++] = (byte) ch;
+    }
+
+    private void write(final byte[] bytes) throws IOException {
+        if (bytes.length > buf.length - count) {
+            flushBuffer();
+            if (bytes.length > buf.length) {
+                writeStream(bytes, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buf, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void ensureCapacity(final int length) throws IOException {
+        if (length > buf.length - count) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count != 0) {
+            writeStream(buf, count);
+            count = 0;
+        }
+    }
+
+    private void writeStream(final byte[] bytes, final int length) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    private static byte[] unicodeEscape(final char ch) {
+        return ascii(String.format("\\u%04x", (int) ch));
+    }
+
+    private static byte[] ascii(final String str) {
+        return str.getBytes(US_ASCII);
+    }
+}
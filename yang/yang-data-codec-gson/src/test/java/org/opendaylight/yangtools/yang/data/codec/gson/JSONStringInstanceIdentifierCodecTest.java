@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class JSONStringInstanceIdentifierCodecTest {
+    private static final QName CONT_1 = QName.create("ns:complex:json", "2014-08-11", "cont1");
+    private static final QName LST_11 = QName.create(CONT_1, "lst11");
+    private static final QName KEY_111 = QName.create(CONT_1, "key111");
+    private static final QName LF_111 = QName.create(CONT_1, "lf111");
+    private static final QName LF_113 = QName.create(CONT_1, "lf113");
+    private static final QName LFLST_11 = QName.create(CONT_1, "lflst11");
+
+    private static final String ENTRY = "/complexjson:cont1/complexjson:lst11[complexjson:key111='a/b']"
+            + "[complexjson:lf111=\"it's\"]";
+
+    private static SchemaContext schemaContext;
+
+    private JSONStringInstanceIdentifierCodec codec;
+
+    @BeforeClass
+    public static void initialization() {
+        schemaContext = YangParserTestUtils.parseYangResourceDirectory("/complexjson/yang");
+    }
+
+    @Before
+    public void before() {
+        codec = new JSONStringInstanceIdentifierCodec(schemaContext, JSONCodecFactory.createSimple(schemaContext));
+    }
+
+    @Test
+    public void testDeserialize() {
+        final YangInstanceIdentifier entry = YangInstanceIdentifier.of(CONT_1).node(LST_11)
+                .node(new NodeIdentifierWithPredicates(LST_11, ImmutableMap.of(KEY_111, "a/b", LF_111, "it's")));
+        final YangInstanceIdentifier leaf = codec.deserialize(ENTRY + "/complexjson:lf113");
+        assertEquals(entry.node(LF_113), leaf);
+        assertSame(leaf, codec.deserialize(ENTRY + "/complexjson:lf113"));
+
+        // The parent path has been parsed and cached along with its child
+        assertSame(leaf.getParent(), codec.deserialize(ENTRY));
+        assertEquals(entry, leaf.getParent());
+
+        assertEquals(YangInstanceIdentifier.of(CONT_1).node(LFLST_11).node(new NodeWithValue<>(LFLST_11, "x/y")),
+            codec.deserialize("/complexjson:cont1/complexjson:lflst11[.='x/y']"));
+    }
+
+    @Test
+    public void testDeserializeInvalid() {
+        codec.deserialize(ENTRY);
+        final String invalid = ENTRY + "/complexjson:unknown";
+        try {
+            codec.deserialize(invalid);
+            fail("Expected exception not raised");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("'" + invalid + "'"));
+        }
+    }
+
+    @Test
+    public void testSerialize() {
+        final YangInstanceIdentifier path = YangInstanceIdentifier.of(CONT_1).node(LST_11)
+                .node(new NodeIdentifierWithPredicates(LST_11, ImmutableMap.of(KEY_111, "a", LF_111, "b")))
+                .node(new NodeIdentifier(LF_113));
+        final String str = codec.serialize(path);
+        assertEquals("/complexjson:cont1/complexjson:lst11[complexjson:key111='a'][complexjson:lf111='b']"
+            + "/complexjson:lf113", str);
+        assertSame(str, codec.serialize(path));
+        assertEquals(path, codec.deserialize(str));
+    }
+}
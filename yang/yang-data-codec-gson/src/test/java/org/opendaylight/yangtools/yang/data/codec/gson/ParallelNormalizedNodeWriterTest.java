@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.ForkableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.ParallelNormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class ParallelNormalizedNodeWriterTest {
+    private static final QName CONT_1 = QName.create("ns:complex:json", "2014-08-11", "cont1");
+    private static final QName LST_11 = QName.create(CONT_1, "lst11");
+    private static final QName KEY_111 = QName.create(CONT_1, "key111");
+    private static final QName LF_111 = QName.create(CONT_1, "lf111");
+    private static final QName LF_113 = QName.create(CONT_1, "lf113");
+    private static final QName LF_11 = QName.create(CONT_1, "lf11");
+    private static final int CHUNK_SIZE = 16;
+
+    private static SchemaContext schemaContext;
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void initialization() {
+        schemaContext = YangParserTestUtils.parseYangResourceDirectory("/complexjson/yang");
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void cleanup() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testSameOutput() throws IOException {
+        for (int size : new int[] { 0, 1, CHUNK_SIZE, CHUNK_SIZE + 1, 1000 }) {
+            final ContainerNode data = createData(size);
+            for (boolean orderKeyLeaves : new boolean[] { true, false }) {
+                final byte[] expected = writeSequential(data, orderKeyLeaves);
+                assertArrayEquals(new String(expected, UTF_8), expected,
+                    writeParallel(data, orderKeyLeaves, JSONCodecFactory.getShared(schemaContext)));
+            }
+        }
+    }
+
+    @Test
+    public void testSequentialFallback() throws IOException {
+        final ContainerNode data = createData(100);
+        final byte[] expected = writeSequential(data, true);
+
+        // Lazy codec factories are not thread-safe
+        assertArrayEquals(expected, writeParallel(data, true, JSONCodecFactory.createLazy(schemaContext)));
+
+        // Gson's own JsonWriter cannot be forked
+        final StringWriter writer = new StringWriter();
+        try (NormalizedNodeWriter nnWriter = ParallelNormalizedNodeWriter.create(
+                JSONNormalizedNodeStreamWriter.createExclusiveWriter(JSONCodecFactory.getShared(schemaContext),
+                    SchemaPath.ROOT, null, JsonWriterFactory.createJsonWriter(writer)), true, pool, CHUNK_SIZE)) {
+            nnWriter.write(data);
+        }
+        assertEquals(new String(expected, UTF_8), writer.toString());
+
+        // A single-threaded pool is not used at all, hence it never starts a worker
+        final AtomicInteger workers = new AtomicInteger();
+        final ForkJoinPool singlePool = new ForkJoinPool(1, forkJoinPool -> {
+            workers.incrementAndGet();
+            return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+        }, null, false);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NormalizedNodeWriter nnWriter = ParallelNormalizedNodeWriter.create(
+                createWriter(JSONCodecFactory.getShared(schemaContext), out), true, singlePool, CHUNK_SIZE)) {
+            nnWriter.write(data);
+        } finally {
+            singlePool.shutdown();
+        }
+        assertArrayEquals(expected, out.toByteArray());
+        assertEquals(0, workers.get());
+    }
+
+    @Test
+    public void testForkState() throws IOException {
+        final ForkableNormalizedNodeStreamWriter writer = (ForkableNormalizedNodeStreamWriter)
+                JSONNormalizedNodeStreamWriter.createExclusiveWriter(JSONCodecFactory.getShared(schemaContext),
+                    SchemaPath.ROOT, null, JsonWriterFactory.createJsonWriter(new ByteArrayOutputStream()));
+        assertNull(writer.fork());
+        writer.startContainerNode(new NodeIdentifier(CONT_1), 1);
+        assertNull(writer.fork());
+        writer.startMapNode(new NodeIdentifier(LST_11), 1);
+        assertNotNull(writer.fork());
+    }
+
+    private static ContainerNode createData(final int size) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = Builders.mapBuilder()
+                .withNodeIdentifier(new NodeIdentifier(LST_11));
+        for (int i = 0; i < size; ++i) {
+            final String key = "key \"" + i + "\" žluťoučký";
+            final String value = Integer.toString(i % 7);
+            list.withChild(Builders.mapEntryBuilder()
+                .withNodeIdentifier(new NodeIdentifierWithPredicates(LST_11, ImmutableMap.of(KEY_111, key, LF_111,
+                    value)))
+                .withChild(ImmutableNodes.leafNode(LF_113, "</" + i + ">"))
+                .withChild(ImmutableNodes.leafNode(LF_111, value))
+                .withChild(ImmutableNodes.leafNode(KEY_111, key))
+                .build());
+        }
+
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(CONT_1))
+                .withChild(ImmutableNodes.leafNode(LF_11, 42))
+                .withChild(list.build())
+                .build();
+    }
+
+    private static byte[] writeSequential(final ContainerNode data, final boolean orderKeyLeaves)
+            throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(
+                createWriter(JSONCodecFactory.getShared(schemaContext), out), orderKeyLeaves)) {
+            nnWriter.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] writeParallel(final ContainerNode data, final boolean orderKeyLeaves,
+            final JSONCodecFactory codecFactory) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NormalizedNodeWriter nnWriter = ParallelNormalizedNodeWriter.create(createWriter(codecFactory, out),
+                orderKeyLeaves, pool, CHUNK_SIZE)) {
+            nnWriter.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static NormalizedNodeStreamWriter createWriter(final JSONCodecFactory codecFactory,
+            final ByteArrayOutputStream out) {
+        return JSONNormalizedNodeStreamWriter.createExclusiveWriter(codecFactory, SchemaPath.ROOT, null,
+            JsonWriterFactory.createJsonWriter(out));
+    }
+}
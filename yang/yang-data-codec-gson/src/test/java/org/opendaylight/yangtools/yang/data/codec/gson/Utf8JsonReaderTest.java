@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadTextFile;
+
+import com.google.common.base.Strings;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class Utf8JsonReaderTest {
+    private static final String[] DOCUMENTS = {
+        "anyxml-node-with-composite-value-in-container.json", "anyxml-node-with-simple-value-in-container.json",
+        "case-node-augmentation-in-choice-in-container.json",
+        "case-node-external-augmentation-in-choice-in-container.json", "choice-node-augmentation-in-container.json",
+        "choice-node-in-container.json", "complex-json.json", "keyed-list-node-in-container.json",
+        "leaf-node-in-container.json", "leaf-node-via-augmentation-in-container.json",
+        "leaflist-node-in-container.json", "type-empty.json", "unkeyed-node-in-container.json",
+    };
+
+    private static final QName CONT_1 = QName.create("ns:complex:json", "2014-08-11", "cont1");
+    private static final QName LF11 = QName.create(CONT_1, "lf11");
+
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void initialization() {
+        schemaContext = YangParserTestUtils.parseYangResourceDirectory("/complexjson/yang");
+    }
+
+    @Test
+    public void testTokens() throws IOException {
+        assertSameTokens("{\"a\":[1,-2,3.25,-0,1e3,-1.5E-2,123456789012345678901234,true,false,null],\"b\":{}}");
+        assertSameTokens(" [ \"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u0041\\u00e9\\ud83d\\ude00\" , \"é€😀\" ] ");
+        assertSameTokens("[\"" + Strings.repeat("žluťoučký kůň ", 1000) + "\"]");
+        assertSameTokens("{\"nested\":{\"skipped\":[{\"x\":[1,2,{}]},\"y\"],\"next\":[]}}");
+    }
+
+    @Test
+    public void testInvalidUtf8() throws IOException {
+        final JsonReader reader = new Utf8JsonReader(ByteBuffer.wrap(new byte[] { '[', '"', 'a', (byte) 0xC3, '"',
+            ']' }));
+        reader.beginArray();
+        assertEquals("a" + (char) 0xFFFD, reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        assertMalformed("[1,]");
+        assertMalformed("{'a':1}");
+        assertMalformed("[01]");
+        assertMalformed("[\"\\x\"]");
+        assertMalformed("[nul]");
+    }
+
+    @Test
+    public void testPositionUnchanged() throws IOException {
+        final ByteBuffer buf = ByteBuffer.wrap("xx[1]".getBytes(UTF_8));
+        buf.position(2);
+        final JsonReader reader = new Utf8JsonReader(buf);
+        reader.beginArray();
+        assertEquals(1, reader.nextInt());
+        reader.endArray();
+        assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+        assertEquals(2, buf.position());
+    }
+
+    @Test
+    public void testDocuments() throws Exception {
+        for (String document : DOCUMENTS) {
+            final String json = loadTextFile("/complexjson/" + document);
+            // anyxml values do not compare equal, hence compare the output of parsed data instead
+            assertEquals(document, write(parse(new JsonReader(new StringReader(json)))),
+                write(parse(utf8(json))));
+        }
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        final ContainerNode cont1 = (ContainerNode) parse(utf8("{\"complexjson:cont1\":{\"lf11\":-42}}"));
+        assertEquals(new NodeIdentifier(CONT_1), cont1.getIdentifier());
+        assertEquals(-42, cont1.getChild(new NodeIdentifier(LF11)).get().getValue());
+
+        for (String value : new String[] { "2147483648", "1.5", "-0", "1e2" }) {
+            final String json = "{\"complexjson:cont1\":{\"lf11\":" + value + "}}";
+            assertEquals(value, parseFailure(new JsonReader(new StringReader(json))), parseFailure(utf8(json)));
+        }
+    }
+
+    @Test
+    public void testDuplicateName() throws IOException {
+        try {
+            parse(utf8("{\"complexjson:cont1\":{\"lf11\":1,\"lf11\":2}}"));
+            fail("Expected exception not raised");
+        } catch (final JsonSyntaxException e) {
+            assertEquals("Duplicate name lf11 in JSON input.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNamesakes() throws Exception {
+        final String json = loadTextFile("/complexjson/namesakes.json");
+        try {
+            parse(utf8(json));
+            fail("Expected exception not raised");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getMessage().contains("Choose suitable module name for element lf11-namesake:"));
+        }
+    }
+
+    private static void assertSameTokens(final String json) throws IOException {
+        final JsonReader gson = new JsonReader(new StringReader(json));
+        gson.setLenient(false);
+        assertEquals(json, tokens(gson), tokens(utf8(json)));
+
+        // Skipping the root value has to consume the entire document
+        final JsonReader skipped = utf8(json);
+        skipped.skipValue();
+        assertEquals(JsonToken.END_DOCUMENT, skipped.peek());
+    }
+
+    private static List<String> tokens(final JsonReader reader) throws IOException {
+        final List<String> ret = new ArrayList<>();
+        while (true) {
+            final JsonToken token = reader.peek();
+            switch (token) {
+                case BEGIN_ARRAY:
+                    reader.beginArray();
+                    ret.add("[");
+                    break;
+                case END_ARRAY:
+                    reader.endArray();
+                    ret.add("]");
+                    break;
+                case BEGIN_OBJECT:
+                    reader.beginObject();
+                    ret.add("{");
+                    break;
+                case END_OBJECT:
+                    reader.endObject();
+                    ret.add("}");
+                    break;
+                case NAME:
+                    ret.add("name " + reader.nextName());
+                    break;
+                case STRING:
+                    ret.add("string " + reader.nextString());
+                    break;
+                case NUMBER:
+                    ret.add("number " + reader.nextString());
+                    break;
+                case BOOLEAN:
+                    ret.add("boolean " + reader.nextBoolean());
+                    break;
+                case NULL:
+                    reader.nextNull();
+                    ret.add("null");
+                    break;
+                case END_DOCUMENT:
+                    return ret;
+                default:
+                    throw new IllegalStateException("Unhandled token " + token);
+            }
+        }
+    }
+
+    private static void assertMalformed(final String json) throws IOException {
+        try {
+            tokens(utf8(json));
+            fail("Expected exception not raised for " + json);
+        } catch (MalformedJsonException e) {
+            assertTrue(e.getMessage().contains(" at offset "));
+        }
+    }
+
+    private static Utf8JsonReader utf8(final String json) {
+        return new Utf8JsonReader(ByteBuffer.wrap(json.getBytes(UTF_8)));
+    }
+
+    private static Class<?> parseFailure(final JsonReader reader) throws IOException {
+        try {
+            parse(reader);
+        } catch (IllegalArgumentException | IllegalStateException | JsonSyntaxException e) {
+            return e.getCause() != null ? e.getCause().getClass() : e.getClass();
+        }
+        throw new AssertionError("Expected exception not raised");
+    }
+
+    private static String write(final NormalizedNode<?, ?> data) throws IOException {
+        final StringWriter writer = new StringWriter();
+        try (NormalizedNodeWriter nnWriter = NormalizedNodeWriter.forStreamWriter(
+                JSONNormalizedNodeStreamWriter.createExclusiveWriter(JSONCodecFactory.getShared(schemaContext),
+                    SchemaPath.ROOT, null, JsonWriterFactory.createJsonWriter(writer)))) {
+            nnWriter.write(data);
+        }
+        return writer.toString();
+    }
+
+    private static NormalizedNode<?, ?> parse(final JsonReader reader) throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (JsonParserStream parser = JsonParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result),
+                schemaContext)) {
+            parser.parse(reader);
+        }
+        return result.getResult();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadTextFile;
+
+import com.google.common.base.Strings;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class Utf8JsonWriterTest {
+    @FunctionalInterface
+    private interface JsonWriterAction {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void initialization() {
+        schemaContext = YangParserTestUtils.parseYangResourceDirectory("/complexjson/yang");
+    }
+
+    @Test
+    public void testStrings() throws IOException {
+        assertSameOutput(false, writer -> {
+            writer.beginObject();
+            writer.name("plain").value("text");
+            writer.name("esc\"aped\n").value("\"\\\t\b\n\r\f\u0000\u001f</>&='");
+            writer.name("unicode").value("é€😀\u2028\u2029");
+            writer.name("unpaired").value("a" + Character.MIN_HIGH_SURROGATE + "b" + Character.MIN_LOW_SURROGATE);
+            writer.name("long").value(Strings.repeat("žluťoučký kůň ", 1000));
+            writer.name("raw").jsonValue("{\"a\":[1,2]}");
+            writer.endObject();
+        });
+        assertSameOutput(true, writer -> {
+            writer.beginArray();
+            writer.value("</>&='");
+            writer.endArray();
+        });
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        assertSameOutput(false, writer -> {
+            writer.beginArray();
+            writer.value(0).value(-1).value(Long.MAX_VALUE).value(Long.MIN_VALUE);
+            writer.value((short) 255).value((byte) -128).value(Integer.MIN_VALUE);
+            writer.value(1.5).value(-0.0).value(1e300).value(Float.valueOf(2.5f));
+            writer.value(BigInteger.ONE.shiftLeft(63)).value(BigInteger.valueOf(Long.MAX_VALUE))
+                .value(BigInteger.valueOf(-42));
+            final String[] decimals = {
+                "0", "-0", "1.00", "-0.05", "123456.789", "0.000001", "0.0000001", "1E+3", "-922337203685477.5808",
+                "92233720368547758.07", "99999999999999999.9", "999999999999999999.9", "1234567890123456789",
+                "0.1234567890123456789",
+            };
+            for (String str : decimals) {
+                writer.value(new BigDecimal(str));
+            }
+            writer.endArray();
+        });
+    }
+
+    @Test
+    public void testNulls() throws IOException {
+        final JsonWriterAction action = writer -> {
+            writer.beginObject();
+            writer.name("a").nullValue();
+            writer.name("b").value((String) null);
+            writer.name("c").value(true);
+            writer.name("d").value((Boolean) null);
+            writer.name("e").beginArray().nullValue().value(false).endArray();
+            writer.endObject();
+        };
+        assertSameOutput(false, action);
+        assertSameOutput(false, writer -> {
+            writer.setSerializeNulls(false);
+            action.write(writer);
+        });
+    }
+
+    @Test
+    public void testNormalizedNodes() throws Exception {
+        final NormalizedNode<?, ?> data = parse(new StringReader(loadTextFile(new File(
+            Utf8JsonWriterTest.class.getResource("/complexjson/complex-json.json").toURI()))));
+
+        final String gson = writeGson(data);
+        final ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        write(data, JsonWriterFactory.createJsonWriter(direct));
+        assertEquals(gson, new String(direct.toByteArray(), UTF_8));
+
+        // anyxml values do not compare equal, hence compare the output of parsed data instead
+        assertEquals(gson, writeGson(parse(new InputStreamReader(new ByteArrayInputStream(direct.toByteArray()),
+            UTF_8))));
+    }
+
+    private static void assertSameOutput(final boolean htmlSafe, final JsonWriterAction action) throws IOException {
+        final ByteArrayOutputStream gson = new ByteArrayOutputStream();
+        try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(gson, UTF_8))) {
+            writer.setHtmlSafe(htmlSafe);
+            action.write(writer);
+        }
+
+        final ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        try (JsonWriter writer = JsonWriterFactory.createJsonWriter(direct)) {
+            writer.setHtmlSafe(htmlSafe);
+            action.write(writer);
+        }
+
+        assertEquals(new String(gson.toByteArray(), UTF_8), new String(direct.toByteArray(), UTF_8));
+    }
+
+    private static String writeGson(final NormalizedNode<?, ?> data) throws IOException {
+        final StringWriter writer = new StringWriter();
+        write(data, JsonWriterFactory.createJsonWriter(writer));
+        return writer.toString();
+    }
+
+    private static void write(final NormalizedNode<?, ?> data, final JsonWriter jsonWriter) throws IOException {
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                JSONNormalizedNodeStreamWriter.createExclusiveWriter(JSONCodecFactory.getShared(schemaContext),
+                    SchemaPath.ROOT, null, jsonWriter))) {
+            writer.write(data);
+        }
+    }
+
+    private static NormalizedNode<?, ?> parse(final Reader reader) throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (JsonParserStream parser = JsonParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result),
+                schemaContext)) {
+            parser.parse(new JsonReader(reader));
+        }
+        return result.getResult();
+    }
+}
@@ -11,10 +11,13 @@ import static com.google.common.base.Verify.verifyNotNull;
 import static java.util.Objects.requireNonNull;
 
 import java.net.URI;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaNode;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
@@ -22,12 +25,24 @@ import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
 
 final class SchemaAwareXMLStreamWriterUtils extends XMLStreamWriterUtils {
+    // Codecs are instantiated for each value otherwise. Instances of this class are confined to a single writer.
+    private final Map<TypeDefinition<?>, TypeDefinitionAwareCodec<Object, ?>> codecs = new IdentityHashMap<>();
     private final SchemaContext schemaContext;
 
     SchemaAwareXMLStreamWriterUtils(final SchemaContext schemaContext) {
         this.schemaContext = requireNonNull(schemaContext);
     }
 
+    @Override
+    TypeDefinitionAwareCodec<Object, ?> codecFor(final TypeDefinition<?> type) {
+        TypeDefinitionAwareCodec<Object, ?> codec = codecs.get(type);
+        if (codec == null && !codecs.containsKey(type)) {
+            codec = super.codecFor(type);
+            codecs.put(type, codec);
+        }
+        return codec;
+    }
+
     @Override
     TypeDefinition<?> getBaseTypeForLeafRef(final SchemaNode schemaNode, final LeafrefTypeDefinition type) {
         final TypeDefinition<?> ret = SchemaContextUtil.getBaseTypeForLeafRef(type, schemaContext, schemaNode);
@@ -103,7 +103,7 @@ abstract class XMLStreamWriterUtils {
         } else if (type instanceof InstanceIdentifierTypeDefinition) {
             write(writer, (InstanceIdentifierTypeDefinition) type, value);
         } else {
-            final TypeDefinitionAwareCodec<Object, ?> codec = TypeDefinitionAwareCodec.from(type);
+            final TypeDefinitionAwareCodec<Object, ?> codec = codecFor(type);
             String text;
             if (codec != null) {
                 try {
@@ -155,6 +155,16 @@ abstract class XMLStreamWriterUtils {
         }
     }
 
+    /**
+     * Return the codec for a type.
+     *
+     * @param type data type
+     * @return Codec, or null if no codec is available
+     */
+    TypeDefinitionAwareCodec<Object, ?> codecFor(final TypeDefinition<?> type) {
+        return TypeDefinitionAwareCodec.from(type);
+    }
+
     abstract TypeDefinition<?> getBaseTypeForLeafRef(SchemaNode schemaNode, LeafrefTypeDefinition type);
 
     abstract void writeInstanceIdentifier(XMLStreamWriter writer, YangInstanceIdentifier value)
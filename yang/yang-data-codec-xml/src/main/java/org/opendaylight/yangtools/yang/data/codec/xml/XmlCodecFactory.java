@@ -19,6 +19,7 @@ import org.opendaylight.yangtools.yang.data.impl.codec.BooleanStringCodec;
 import org.opendaylight.yangtools.yang.data.impl.codec.DecimalStringCodec;
 import org.opendaylight.yangtools.yang.data.impl.codec.EnumStringCodec;
 import org.opendaylight.yangtools.yang.data.impl.codec.StringStringCodec;
+import org.opendaylight.yangtools.yang.data.util.StringInstanceIdentifierCache;
 import org.opendaylight.yangtools.yang.data.util.codec.AbstractCodecFactory;
 import org.opendaylight.yangtools.yang.data.util.codec.SharedCodecCache;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -45,6 +46,8 @@ import org.opendaylight.yangtools.yang.model.api.type.UnknownTypeDefinition;
 @Beta
 @ThreadSafe
 public final class XmlCodecFactory extends AbstractCodecFactory<XmlCodec<?>> {
+    // Shared by instance-identifier codecs of all leaves
+    private final StringInstanceIdentifierCache iidCache = StringInstanceIdentifierCache.create();
 
     private XmlCodecFactory(final SchemaContext context) {
         super(context, new SharedCodecCache<>());
@@ -92,7 +95,7 @@ public final class XmlCodecFactory extends AbstractCodecFactory<XmlCodec<?>> {
 
     @Override
     protected XmlCodec<?> instanceIdentifierCodec(final InstanceIdentifierTypeDefinition type) {
-        return new XmlStringInstanceIdentifierCodec(getSchemaContext(), this);
+        return new XmlStringInstanceIdentifierCodec(getSchemaContext(), this, iidCache);
     }
 
     @Override
@@ -22,6 +22,7 @@ import javax.xml.stream.XMLStreamWriter;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.util.AbstractModuleStringInstanceIdentifierCodec;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
+import org.opendaylight.yangtools.yang.data.util.StringInstanceIdentifierCache;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.Module;
@@ -36,7 +37,9 @@ final class XmlStringInstanceIdentifierCodec extends AbstractModuleStringInstanc
     private final XmlCodecFactory codecFactory;
     private final SchemaContext context;
 
-    XmlStringInstanceIdentifierCodec(final SchemaContext context, final XmlCodecFactory xmlCodecFactory) {
+    XmlStringInstanceIdentifierCodec(final SchemaContext context, final XmlCodecFactory xmlCodecFactory,
+            final StringInstanceIdentifierCache cache) {
+        super(cache);
         this.context = requireNonNull(context);
         this.dataContextTree = DataSchemaContextTree.from(context);
         this.codecFactory = requireNonNull(xmlCodecFactory);
@@ -55,6 +58,12 @@ final class XmlStringInstanceIdentifierCodec extends AbstractModuleStringInstanc
         return modules.hasNext() ? modules.next().getName() : null;
     }
 
+    @Override
+    protected String boundNamespace(@Nonnull final String prefix) {
+        // Prefixes are bound by the document, hence cached results need to be checked against current bindings
+        return getNamespaceContext().getNamespaceURI(prefix);
+    }
+
     @Nonnull
     @Override
     protected DataSchemaContextTree getDataContextTree() {
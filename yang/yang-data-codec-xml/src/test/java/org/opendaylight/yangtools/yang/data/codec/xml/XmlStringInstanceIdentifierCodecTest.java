@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Iterator;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.util.StringInstanceIdentifierCache;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class XmlStringInstanceIdentifierCodecTest {
+    private static final class MapNamespaceContext implements NamespaceContext {
+        private final Map<String, String> prefixes;
+
+        MapNamespaceContext(final Map<String, String> prefixes) {
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        public String getNamespaceURI(final String prefix) {
+            return prefixes.getOrDefault(prefix, XMLConstants.NULL_NS_URI);
+        }
+
+        @Override
+        public String getPrefix(final String namespaceURI) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Iterator<String> getPrefixes(final String namespaceURI) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final QName TOP_CONT = QName.create("baz-ns", "top-cont");
+    private static final QName IID_LEAF = QName.create(TOP_CONT, "iid-leaf");
+    private static final String PATH = "/a:top-cont/a:iid-leaf";
+
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void initialization() {
+        schemaContext = YangParserTestUtils.parseYangResource("/bug8083/yang/baz.yang");
+    }
+
+    @Test
+    public void testCachedPrefixBindings() {
+        final XmlStringInstanceIdentifierCodec codec = new XmlStringInstanceIdentifierCodec(schemaContext,
+            XmlCodecFactory.create(schemaContext), StringInstanceIdentifierCache.create());
+        final NamespaceContext bound = new MapNamespaceContext(ImmutableMap.of("a", "baz-ns"));
+
+        final YangInstanceIdentifier first = codec.parseValue(bound, PATH);
+        assertEquals(YangInstanceIdentifier.of(TOP_CONT).node(IID_LEAF), first);
+        assertSame(first, codec.parseValue(bound, PATH));
+
+        // The same string with a different binding of the prefix must not reuse the cached result
+        try {
+            codec.parseValue(new MapNamespaceContext(ImmutableMap.of("a", "other-ns")), PATH);
+            fail("Expected exception not raised");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Failed to lookup prefix a"));
+        }
+
+        final YangInstanceIdentifier rebound = codec.parseValue(new MapNamespaceContext(ImmutableMap.of("b",
+            "baz-ns")), "/b:top-cont/b:iid-leaf");
+        assertEquals(first, rebound);
+        assertEquals("/baz:top-cont/baz:iid-leaf", codec.serialize(rebound));
+    }
+}
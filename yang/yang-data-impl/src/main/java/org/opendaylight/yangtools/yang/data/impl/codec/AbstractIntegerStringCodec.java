@@ -110,6 +110,37 @@ public abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N
      */
     abstract N deserialize(String stringRepresentation, int radix);
 
+    /**
+     * Deserializes a decimal value which has already been parsed into a long, for example by a parser operating on
+     * encoded input. The value is subject to the same checks as its string representation.
+     *
+     * @param value Parsed value
+     * @return Deserialized value.
+     * @throws NumberFormatException if the value does not fit into the output class
+     * @throws IllegalArgumentException if the value does not match range constraints
+     */
+    public final N deserialize(final long value) {
+        final N deserialized = valueOf(value);
+        validate(deserialized);
+        return deserialized;
+    }
+
+    /**
+     * Converts a parsed value to the output class, failing just like {@link #deserialize(String, int)} would on its
+     * string representation.
+     *
+     * @param value Parsed value
+     * @return Converted value
+     * @throws NumberFormatException if the value does not fit into the output class
+     */
+    abstract N valueOf(long value);
+
+    static void checkRange(final long value, final long min, final long max) {
+        if (value < min || value > max) {
+            throw new NumberFormatException("Value out of range. Value:\"" + value + "\" Radix:10");
+        }
+    }
+
     private void validate(final N value) {
         if (rangeConstraints != null) {
             checkArgument(rangeConstraints.contains(value), "Value '%s'  is not in required ranges %s",
@@ -24,6 +24,12 @@ final class Int16StringCodec extends AbstractIntegerStringCodec<Short, Int16Type
         return Short.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    Short valueOf(final long value) {
+        checkRange(value, Short.MIN_VALUE, Short.MAX_VALUE);
+        return (short) value;
+    }
+
     @Override
     public String serialize(final Short data) {
         return Objects.toString(data, "");
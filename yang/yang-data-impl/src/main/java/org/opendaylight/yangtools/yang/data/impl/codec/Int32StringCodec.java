@@ -24,6 +24,12 @@ final class Int32StringCodec extends AbstractIntegerStringCodec<Integer, Int32Ty
         return Integer.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    Integer valueOf(final long value) {
+        checkRange(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return (int) value;
+    }
+
     @Override
     public String serialize(final Integer data) {
         return Objects.toString(data, "");
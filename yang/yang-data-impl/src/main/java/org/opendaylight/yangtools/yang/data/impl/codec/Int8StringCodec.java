@@ -24,6 +24,12 @@ final class Int8StringCodec extends AbstractIntegerStringCodec<Byte, Int8TypeDef
         return Byte.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    Byte valueOf(final long value) {
+        checkRange(value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        return (byte) value;
+    }
+
     @Override
     public String serialize(final Byte data) {
         return Objects.toString(data, "");
@@ -8,6 +8,7 @@
 package org.opendaylight.yangtools.yang.data.impl.codec;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.Beta;
 import com.google.common.collect.Iterables;
@@ -68,6 +69,10 @@ public final class SchemaTracker {
         root = (DataNodeContainer) current.get();
     }
 
+    private SchemaTracker(final DataNodeContainer root) {
+        this.root = requireNonNull(root);
+    }
+
     /**
      * Create a new writer with the specified context as its root.
      *
@@ -89,6 +94,17 @@ public final class SchemaTracker {
         return new SchemaTracker(context, path);
     }
 
+    /**
+     * Create a new tracker rooted at the specified schema node. This is useful for tracking subtrees, for example
+     * entries of a list, whose schema node is already known.
+     *
+     * @param root Root schema node
+     * @return A new {@link SchemaTracker}
+     */
+    public static SchemaTracker create(final DataNodeContainer root) {
+        return new SchemaTracker(root);
+    }
+
     public Object getParent() {
         if (schemaStack.isEmpty()) {
             return root;
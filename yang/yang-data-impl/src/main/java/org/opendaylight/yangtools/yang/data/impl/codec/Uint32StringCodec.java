@@ -25,6 +25,11 @@ final class Uint32StringCodec extends AbstractIntegerStringCodec<Long, Uint32Typ
         return Long.valueOf(stringRepresentation, base);
     }
 
+    @Override
+    Long valueOf(final long value) {
+        return value;
+    }
+
     @Override
     public String serialize(final Long data) {
         return Objects.toString(data, "");
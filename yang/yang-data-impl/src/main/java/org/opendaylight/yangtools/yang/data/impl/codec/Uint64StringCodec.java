@@ -26,6 +26,11 @@ final class Uint64StringCodec extends AbstractIntegerStringCodec<BigInteger, Uin
         return new BigInteger(stringRepresentation, base);
     }
 
+    @Override
+    BigInteger valueOf(final long value) {
+        return BigInteger.valueOf(value);
+    }
+
     @Override
     public String serialize(final BigInteger data) {
         return Objects.toString(data, "");
@@ -29,4 +29,10 @@ final class Uint8StringCodec extends AbstractIntegerStringCodec<Short, Uint8Type
     Short deserialize(final String stringRepresentation, final int base) {
         return Short.valueOf(stringRepresentation, base);
     }
+
+    @Override
+    Short valueOf(final long value) {
+        checkRange(value, Short.MIN_VALUE, Short.MAX_VALUE);
+        return (short) value;
+    }
 }
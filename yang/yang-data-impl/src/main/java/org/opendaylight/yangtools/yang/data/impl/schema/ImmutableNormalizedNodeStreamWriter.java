@@ -18,6 +18,7 @@ import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
 import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
@@ -42,6 +43,7 @@ import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableAn
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableAugmentationNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableChoiceNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableLeafSetEntryNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableLeafSetNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapEntryNodeBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapNodeBuilder;
@@ -65,16 +67,28 @@ import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
  * <p>
  * Other mode of operation is using {@link #from(NormalizedNodeContainerBuilder)}, where all created nodes will be
  * written to this builder.
+ *
+ * <p>
+ * Writers created via {@link #valueOnlyFrom(NormalizedNodeResult)} build containers and map entries which retain only
+ * the values of their leaf children, see {@link ImmutableMapEntryNodeBuilder#createValueOnly(MapEntryNode)}.
  */
 public class ImmutableNormalizedNodeStreamWriter implements NormalizedNodeStreamWriter {
 
     @SuppressWarnings("rawtypes")
     private final Deque<NormalizedNodeContainerBuilder> builders = new ArrayDeque<>();
+    private final boolean valueOnlyLeaves;
     private DataSchemaNode nextSchema;
 
     @SuppressWarnings("rawtypes")
     protected ImmutableNormalizedNodeStreamWriter(final NormalizedNodeContainerBuilder topLevelBuilder) {
+        this(topLevelBuilder, false);
+    }
+
+    @SuppressWarnings("rawtypes")
+    protected ImmutableNormalizedNodeStreamWriter(final NormalizedNodeContainerBuilder topLevelBuilder,
+            final boolean valueOnlyLeaves) {
         builders.push(topLevelBuilder);
+        this.valueOnlyLeaves = valueOnlyLeaves;
     }
 
     protected ImmutableNormalizedNodeStreamWriter(final NormalizedNodeResult result) {
@@ -118,6 +132,17 @@ public class ImmutableNormalizedNodeStreamWriter implements NormalizedNodeStream
         return new ImmutableNormalizedNodeStreamWriter(result);
     }
 
+    /**
+     * Creates a {@link NormalizedNodeStreamWriter} which behaves like {@link #from(NormalizedNodeResult)}, except
+     * containers and map entries it creates retain only the values of their leaf children.
+     *
+     * @param result {@link NormalizedNodeResult} object which will hold result value.
+     * @return {@link NormalizedNodeStreamWriter} which will write item to supplied result holder.
+     */
+    public static NormalizedNodeStreamWriter valueOnlyFrom(final NormalizedNodeResult result) {
+        return new ImmutableNormalizedNodeStreamWriter(new NormalizedNodeResultBuilder(result), true);
+    }
+
     protected Deque<NormalizedNodeContainerBuilder> getBuilders() {
         return builders;
     }
@@ -138,6 +163,19 @@ public class ImmutableNormalizedNodeStreamWriter implements NormalizedNodeStream
         getCurrent().addChild(child);
     }
 
+    /**
+     * Add a node completed by {@link #endNode()} to the builder of its parent. Unlike
+     * {@link #writeChild(NormalizedNode)}, which is invoked for leaf-level children, this method is invoked for nodes
+     * assembled by this writer.
+     *
+     * @param parent Builder of the parent node
+     * @param node Completed node
+     */
+    @SuppressWarnings({"rawtypes","unchecked"})
+    protected void addFinishedNode(final NormalizedNodeContainerBuilder parent, final NormalizedNode<?, ?> node) {
+        parent.addChild(node);
+    }
+
     @Override
     @SuppressWarnings({"rawtypes","unchecked"})
     public void endNode() {
@@ -146,7 +184,7 @@ public class ImmutableNormalizedNodeStreamWriter implements NormalizedNodeStream
         final NormalizedNodeContainerBuilder current = getCurrent();
         Preconditions.checkState(current != null, "Reached top level node, which could not be closed in this writer.");
         final NormalizedNode<PathArgument, ?> product = finishedBuilder.build();
-        current.addChild(product);
+        addFinishedNode(current, product);
         nextSchema = null;
     }
 
@@ -178,20 +216,12 @@ public class ImmutableNormalizedNodeStreamWriter implements NormalizedNodeStream
 
     @Override
     public void leafSetEntryNode(final QName name, final Object value) {
-        if (getCurrent() instanceof ImmutableOrderedLeafSetNodeBuilder) {
-            @SuppressWarnings("unchecked")
-            ListNodeBuilder<Object, LeafSetEntryNode<Object>> builder =
-                (ImmutableOrderedLeafSetNodeBuilder<Object>) getCurrent();
-            builder.withChildValue(value);
-        } else if (getCurrent() instanceof ImmutableLeafSetNodeBuilder) {
-            @SuppressWarnings("unchecked")
-            ListNodeBuilder<Object, LeafSetEntryNode<Object>> builder =
-                (ImmutableLeafSetNodeBuilder<Object>) getCurrent();
-            builder.withChildValue(value);
-        } else {
-            throw new IllegalArgumentException("LeafSetEntryNode is not valid for parent " + getCurrent());
-        }
+        final NormalizedNodeContainerBuilder<?, ?, ?, ?> current = getCurrent();
+        Preconditions.checkArgument(current instanceof ImmutableOrderedLeafSetNodeBuilder
+            || current instanceof ImmutableLeafSetNodeBuilder, "LeafSetEntryNode is not valid for parent %s", current);
 
+        writeChild(ImmutableLeafSetEntryNodeBuilder.create().withNodeIdentifier(new NodeWithValue<>(name, value))
+            .withValue(value).build());
         nextSchema = null;
     }
 
@@ -218,9 +248,14 @@ public class ImmutableNormalizedNodeStreamWriter implements NormalizedNodeStream
     public void startContainerNode(final NodeIdentifier name, final int childSizeHint) {
         checkDataNodeContainer();
 
-        final DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> builder =
-                UNKNOWN_SIZE == childSizeHint ? ImmutableContainerNodeBuilder.create()
-                        : ImmutableContainerNodeBuilder.create(childSizeHint);
+        final DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> builder;
+        if (valueOnlyLeaves) {
+            builder = UNKNOWN_SIZE == childSizeHint ? ImmutableContainerNodeBuilder.createValueOnly()
+                    : ImmutableContainerNodeBuilder.createValueOnly(childSizeHint);
+        } else {
+            builder = UNKNOWN_SIZE == childSizeHint ? ImmutableContainerNodeBuilder.create()
+                    : ImmutableContainerNodeBuilder.create(childSizeHint);
+        }
         enter(builder.withNodeIdentifier(name));
     }
 
@@ -274,9 +309,14 @@ public class ImmutableNormalizedNodeStreamWriter implements NormalizedNodeStream
                 || getCurrent() instanceof ImmutableOrderedMapNodeBuilder);
         }
 
-        final DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> builder =
-                UNKNOWN_SIZE == childSizeHint ? ImmutableMapEntryNodeBuilder.create()
-                        : ImmutableMapEntryNodeBuilder.create(childSizeHint);
+        final DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> builder;
+        if (valueOnlyLeaves) {
+            builder = UNKNOWN_SIZE == childSizeHint ? ImmutableMapEntryNodeBuilder.createValueOnly()
+                    : ImmutableMapEntryNodeBuilder.createValueOnly(childSizeHint);
+        } else {
+            builder = UNKNOWN_SIZE == childSizeHint ? ImmutableMapEntryNodeBuilder.create()
+                    : ImmutableMapEntryNodeBuilder.create(childSizeHint);
+        }
         enter(builder.withNodeIdentifier(identifier));
     }
 
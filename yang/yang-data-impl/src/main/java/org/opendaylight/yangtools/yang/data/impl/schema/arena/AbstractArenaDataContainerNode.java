@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.arena;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.Map;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractLeafValueDataContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.LeafLayout;
+
+/**
+ * Base class for data container nodes whose leaf values are stored in a {@link LeafValueArena}. Each leaf value is
+ * represented by a handle, placed at the offset assigned to it by a shared {@link LeafLayout}.
+ *
+ * @param <K> Identifier type
+ */
+abstract class AbstractArenaDataContainerNode<K extends PathArgument> extends AbstractLeafValueDataContainerNode<K> {
+    private final LeafValueArena arena;
+    private final long[] handles;
+
+    AbstractArenaDataContainerNode(final K identifier, final LeafValueArena arena, final LeafLayout layout,
+            final long[] handles, final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others) {
+        super(identifier, layout, others);
+        this.arena = requireNonNull(arena);
+        this.handles = requireNonNull(handles);
+    }
+
+    /**
+     * Split children into leaf values, which are stored in the arena, and other children, which are retained as they
+     * are, and invoke a factory with the result.
+     */
+    static <K extends PathArgument, T> T split(final K identifier, final LeafValueArena arena,
+            final Collection<DataContainerChild<? extends PathArgument, ?>> children,
+            final ArenaFactory<K, T> factory) {
+        return split(identifier, children, (id, layout, values, others) -> {
+            final long[] handles = new long[values.length];
+            for (int i = 0; i < values.length; ++i) {
+                handles[i] = arena.put(values[i]);
+            }
+            return factory.create(id, arena, layout, handles, others);
+        });
+    }
+
+    @Override
+    protected final Object leafValue(final int offset) {
+        return arena.get(handles[offset]);
+    }
+
+    @FunctionalInterface
+    interface ArenaFactory<K extends PathArgument, T> {
+        T create(K identifier, LeafValueArena arena, LeafLayout layout, long[] handles,
+                Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others);
+    }
+}
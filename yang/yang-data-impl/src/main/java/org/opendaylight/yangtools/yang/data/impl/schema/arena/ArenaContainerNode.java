@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.arena;
+
+import java.util.Collection;
+import java.util.Map;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.LeafLayout;
+
+/**
+ * A {@link ContainerNode} whose leaf values are stored in a {@link LeafValueArena}.
+ */
+final class ArenaContainerNode extends AbstractArenaDataContainerNode<NodeIdentifier> implements ContainerNode {
+    private ArenaContainerNode(final NodeIdentifier identifier, final LeafValueArena arena, final LeafLayout layout,
+            final long[] handles, final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others) {
+        super(identifier, arena, layout, handles, others);
+    }
+
+    static ContainerNode create(final LeafValueArena arena, final ContainerNode container,
+            final Collection<DataContainerChild<? extends PathArgument, ?>> children) {
+        return split(container.getIdentifier(), arena, children, ArenaContainerNode::new);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.arena;
+
+import java.util.Collection;
+import java.util.Map;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.LeafLayout;
+
+/**
+ * A {@link MapEntryNode} whose leaf values are stored in a {@link LeafValueArena}. Key leaves are not stored at all,
+ * as their values are already part of the entry identifier.
+ */
+final class ArenaMapEntryNode extends AbstractArenaDataContainerNode<NodeIdentifierWithPredicates>
+        implements MapEntryNode {
+    private ArenaMapEntryNode(final NodeIdentifierWithPredicates identifier, final LeafValueArena arena,
+            final LeafLayout layout, final long[] handles,
+            final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others) {
+        super(identifier, arena, layout, handles, others);
+    }
+
+    static MapEntryNode create(final LeafValueArena arena, final MapEntryNode entry,
+            final Collection<DataContainerChild<? extends PathArgument, ?>> children) {
+        return split(entry.getIdentifier(), arena, children, ArenaMapEntryNode::new);
+    }
+}
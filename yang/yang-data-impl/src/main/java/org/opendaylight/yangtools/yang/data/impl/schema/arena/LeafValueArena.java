@@ -0,0 +1,479 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.arena;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.yang.common.Decimal64;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.Uint16;
+import org.opendaylight.yangtools.yang.common.Uint32;
+import org.opendaylight.yangtools.yang.common.Uint64;
+import org.opendaylight.yangtools.yang.common.Uint8;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+
+/**
+ * An append-only arena holding encoded leaf values in large {@link ByteBuffer} segments, either on-heap or off-heap.
+ * A value stored in the arena is addressed by a {@code long} handle, which is all a data node needs to retain, hence
+ * millions of leaves do not translate into millions of small objects the garbage collector has to trace.
+ *
+ * <p>
+ * Values are encoded based on their normalized type, which is determined by the schema type of the leaf: booleans,
+ * signed and unsigned integers, {@code decimal64} values and binary values are stored in their raw form, strings
+ * (including {@code enumeration} values) are stored as UTF-8. Identityref {@link QName}s and any other values are
+ * stored once in a dictionary and referenced by their index.
+ *
+ * <p>
+ * Data trees are moved into an arena via {@link #compact(NormalizedNode)}, which replaces containers and list
+ * entries with equivalent nodes holding only handles of their leaf values. Leaf nodes are materialized on each access
+ * and list entry key leaves are materialized from the entry identifier. Space occupied by values is never reclaimed,
+ * it is released only once the arena and all nodes referencing it become unreachable.
+ */
+@Beta
+@ThreadSafe
+public final class LeafValueArena {
+    /**
+     * Default size of a single arena segment.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final byte TAG_FALSE = 0;
+    private static final byte TAG_TRUE = 1;
+    private static final byte TAG_BYTE = 2;
+    private static final byte TAG_SHORT = 3;
+    private static final byte TAG_INT = 4;
+    private static final byte TAG_LONG = 5;
+    private static final byte TAG_UINT8 = 6;
+    private static final byte TAG_UINT16 = 7;
+    private static final byte TAG_UINT32 = 8;
+    private static final byte TAG_UINT64 = 9;
+    private static final byte TAG_BIG_INTEGER = 10;
+    private static final byte TAG_BIG_DECIMAL = 11;
+    private static final byte TAG_DECIMAL64 = 12;
+    private static final byte TAG_STRING = 13;
+    private static final byte TAG_BINARY = 14;
+    private static final byte TAG_SYMBOL = 15;
+
+    private static final int SEGMENT_SHIFT = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+
+    private final boolean direct;
+    private final int segmentSize;
+
+    // Readers access segments and symbols without locking, hence both arrays are replaced on growth
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private volatile Object[] symbols = new Object[16];
+
+    @GuardedBy("this")
+    private final Map<Object, Integer> symbolIndex = new HashMap<>();
+    @GuardedBy("this")
+    private ByteBuffer current;
+    @GuardedBy("this")
+    private int symbolCount;
+    @GuardedBy("this")
+    private long usedBytes;
+
+    private LeafValueArena(final boolean direct, final int segmentSize) {
+        checkArgument(segmentSize >= 64, "Segment size %s is too small", segmentSize);
+        this.direct = direct;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Create a new arena backed by on-heap segments of the default size.
+     *
+     * @return A new arena
+     */
+    public static LeafValueArena create() {
+        return new LeafValueArena(false, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Create a new arena.
+     *
+     * @param direct True if segments should be allocated off-heap
+     * @param segmentSize Size of a single segment, values which do not fit are stored in the dictionary
+     * @return A new arena
+     * @throws IllegalArgumentException if segmentSize is less than 64
+     */
+    public static LeafValueArena create(final boolean direct, final int segmentSize) {
+        return new LeafValueArena(direct, segmentSize);
+    }
+
+    /**
+     * Create a new arena backed by off-heap segments of the default size.
+     *
+     * @return A new arena
+     */
+    public static LeafValueArena createDirect() {
+        return new LeafValueArena(true, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Return an equivalent of a data tree whose leaf values are held in this arena. Containers and list entries
+     * without attributes are replaced and lists are rebuilt with their entries compacted. All other nodes, such as
+     * choices, augmentations and leaf-lists, are retained as they are.
+     *
+     * @param node Data tree to compact
+     * @return Compacted data tree
+     */
+    public NormalizedNode<?, ?> compact(final NormalizedNode<?, ?> node) {
+        if (node instanceof MapEntryNode) {
+            return compactEntry((MapEntryNode) node);
+        }
+        if (node instanceof ContainerNode) {
+            return compactContainer((ContainerNode) node);
+        }
+        if (node instanceof MapNode) {
+            return compactMap((MapNode) node);
+        }
+        return node;
+    }
+
+    /**
+     * Return the number of bytes allocated by this arena's segments.
+     *
+     * @return Allocated bytes
+     */
+    public long getAllocatedBytes() {
+        return (long) segments.length * segmentSize;
+    }
+
+    /**
+     * Return the number of bytes occupied by values stored in this arena's segments.
+     *
+     * @return Used bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Return the number of distinct values stored in this arena's dictionary.
+     *
+     * @return Dictionary size
+     */
+    public synchronized int getSymbolCount() {
+        return symbolCount;
+    }
+
+    /**
+     * Store a leaf value.
+     *
+     * @param value Value to store
+     * @return Handle of the stored value
+     */
+    synchronized long put(final Object value) {
+        requireNonNull(value);
+        if (value instanceof Boolean) {
+            final ByteBuffer buf = reserve(1);
+            return write(buf, ((Boolean) value).booleanValue() ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof String) {
+            return putBytes(TAG_STRING, ((String) value).getBytes(StandardCharsets.UTF_8), value);
+        } else if (value instanceof Long) {
+            final ByteBuffer buf = reserve(9);
+            final long handle = write(buf, TAG_LONG);
+            buf.putLong((Long) value);
+            return handle;
+        } else if (value instanceof Integer) {
+            final ByteBuffer buf = reserve(5);
+            final long handle = write(buf, TAG_INT);
+            buf.putInt((Integer) value);
+            return handle;
+        } else if (value instanceof Short) {
+            final ByteBuffer buf = reserve(3);
+            final long handle = write(buf, TAG_SHORT);
+            buf.putShort((Short) value);
+            return handle;
+        } else if (value instanceof Byte) {
+            final ByteBuffer buf = reserve(2);
+            final long handle = write(buf, TAG_BYTE);
+            buf.put((Byte) value);
+            return handle;
+        } else if (value instanceof Uint8) {
+            final ByteBuffer buf = reserve(2);
+            final long handle = write(buf, TAG_UINT8);
+            buf.put(((Uint8) value).byteValue());
+            return handle;
+        } else if (value instanceof Uint16) {
+            final ByteBuffer buf = reserve(3);
+            final long handle = write(buf, TAG_UINT16);
+            buf.putShort(((Uint16) value).shortValue());
+            return handle;
+        } else if (value instanceof Uint32) {
+            final ByteBuffer buf = reserve(5);
+            final long handle = write(buf, TAG_UINT32);
+            buf.putInt(((Uint32) value).intValue());
+            return handle;
+        } else if (value instanceof Uint64) {
+            final ByteBuffer buf = reserve(9);
+            final long handle = write(buf, TAG_UINT64);
+            buf.putLong(((Uint64) value).longValue());
+            return handle;
+        } else if (value instanceof BigInteger) {
+            return putBytes(TAG_BIG_INTEGER, ((BigInteger) value).toByteArray(), value);
+        } else if (value instanceof BigDecimal) {
+            return putDecimal(TAG_BIG_DECIMAL, (BigDecimal) value);
+        } else if (value instanceof Decimal64) {
+            return putDecimal(TAG_DECIMAL64, ((Decimal64) value).decimalValue());
+        } else if (value instanceof byte[]) {
+            return putBytes(TAG_BINARY, (byte[]) value, value);
+        }
+        return putSymbol(value);
+    }
+
+    /**
+     * Load a leaf value.
+     *
+     * @param handle Handle of the value, as returned from {@link #put(Object)}
+     * @return Stored value
+     */
+    Object get(final long handle) {
+        final ByteBuffer buf = segments[(int) (handle >>> SEGMENT_SHIFT)];
+        final int offset = (int) (handle & OFFSET_MASK);
+        final byte tag = buf.get(offset);
+        switch (tag) {
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_BYTE:
+                return buf.get(offset + 1);
+            case TAG_SHORT:
+                return buf.getShort(offset + 1);
+            case TAG_INT:
+                return buf.getInt(offset + 1);
+            case TAG_LONG:
+                return buf.getLong(offset + 1);
+            case TAG_UINT8:
+                return Uint8.fromByteBits(buf.get(offset + 1));
+            case TAG_UINT16:
+                return Uint16.fromShortBits(buf.getShort(offset + 1));
+            case TAG_UINT32:
+                return Uint32.fromIntBits(buf.getInt(offset + 1));
+            case TAG_UINT64:
+                return Uint64.fromLongBits(buf.getLong(offset + 1));
+            case TAG_BIG_INTEGER:
+                return new BigInteger(getBytes(buf, offset + 1));
+            case TAG_BIG_DECIMAL:
+                return getDecimal(buf, offset + 1);
+            case TAG_DECIMAL64:
+                return Decimal64.valueOf(getDecimal(buf, offset + 1));
+            case TAG_STRING:
+                return new String(getBytes(buf, offset + 1), StandardCharsets.UTF_8);
+            case TAG_BINARY:
+                return getBytes(buf, offset + 1);
+            case TAG_SYMBOL:
+                return symbols[buf.getInt(offset + 1)];
+            default:
+                throw new IllegalStateException("Unknown tag " + tag + " at handle " + Long.toHexString(handle));
+        }
+    }
+
+    private MapEntryNode compactEntry(final MapEntryNode entry) {
+        if (!entry.getAttributes().isEmpty()) {
+            return copyEntry(entry);
+        }
+        return ArenaMapEntryNode.create(this, entry, compactChildren(entry.getValue()));
+    }
+
+    private ContainerNode compactContainer(final ContainerNode container) {
+        if (!container.getAttributes().isEmpty()) {
+            return copyContainer(container);
+        }
+        return ArenaContainerNode.create(this, container, compactChildren(container.getValue()));
+    }
+
+    private Collection<DataContainerChild<? extends PathArgument, ?>> compactChildren(
+            final Collection<DataContainerChild<? extends PathArgument, ?>> children) {
+        final DataContainerChild<? extends PathArgument, ?>[] ret = children.toArray(
+            new DataContainerChild<?, ?>[children.size()]);
+        for (int i = 0; i < ret.length; ++i) {
+            if (!(ret[i] instanceof LeafNode)) {
+                ret[i] = (DataContainerChild<? extends PathArgument, ?>) compact(ret[i]);
+            }
+        }
+        return Arrays.asList(ret);
+    }
+
+    private MapEntryNode copyEntry(final MapEntryNode entry) {
+        final DataContainerNodeBuilder<?, MapEntryNode> builder = Builders.mapEntryBuilder()
+                .withNodeIdentifier(entry.getIdentifier()).withAttributes(entry.getAttributes());
+        compactChildren(entry.getValue()).forEach(builder::withChild);
+        return builder.build();
+    }
+
+    private ContainerNode copyContainer(final ContainerNode container) {
+        final DataContainerNodeBuilder<?, ContainerNode> builder = Builders.containerBuilder()
+                .withNodeIdentifier(container.getIdentifier()).withAttributes(container.getAttributes());
+        compactChildren(container.getValue()).forEach(builder::withChild);
+        return builder.build();
+    }
+
+    private MapNode compactMap(final MapNode map) {
+        final CollectionNodeBuilder<MapEntryNode, ? extends MapNode> builder = map instanceof OrderedMapNode
+                ? Builders.orderedMapBuilder() : Builders.mapBuilder();
+        builder.withNodeIdentifier(map.getIdentifier());
+        for (MapEntryNode entry : map.getValue()) {
+            builder.withChild(compactEntry(entry));
+        }
+        return builder.build();
+    }
+
+    @GuardedBy("this")
+    private long putBytes(final byte tag, final byte[] bytes, final Object value) {
+        final int size = 1 + varIntSize(bytes.length) + bytes.length;
+        if (size > segmentSize) {
+            return putSymbol(value);
+        }
+
+        final ByteBuffer buf = reserve(size);
+        final long handle = write(buf, tag);
+        putVarInt(buf, bytes.length);
+        buf.put(bytes);
+        return handle;
+    }
+
+    @GuardedBy("this")
+    private long putDecimal(final byte tag, final BigDecimal value) {
+        final byte[] unscaled = value.unscaledValue().toByteArray();
+        final int size = 1 + varIntSize(value.scale()) + varIntSize(unscaled.length) + unscaled.length;
+        if (size > segmentSize) {
+            return putSymbol(value);
+        }
+
+        final ByteBuffer buf = reserve(size);
+        final long handle = write(buf, tag);
+        putVarInt(buf, value.scale());
+        putVarInt(buf, unscaled.length);
+        buf.put(unscaled);
+        return handle;
+    }
+
+    @GuardedBy("this")
+    private long putSymbol(final Object value) {
+        Integer index = symbolIndex.get(value);
+        if (index == null) {
+            index = symbolCount;
+            Object[] local = symbols;
+            if (index == local.length) {
+                local = Arrays.copyOf(local, local.length * 2);
+            }
+            local[index] = value;
+            // Publish the value before any handle referencing it
+            symbols = local;
+            symbolIndex.put(value, index);
+            symbolCount++;
+        }
+
+        final ByteBuffer buf = reserve(5);
+        final long handle = write(buf, TAG_SYMBOL);
+        buf.putInt(index);
+        return handle;
+    }
+
+    /**
+     * Reserve space in the current segment, allocating a new one if needed. The returned buffer is positioned at
+     * the start of the reserved space.
+     */
+    @GuardedBy("this")
+    private ByteBuffer reserve(final int size) {
+        if (current == null || current.remaining() < size) {
+            current = direct ? ByteBuffer.allocateDirect(segmentSize) : ByteBuffer.allocate(segmentSize);
+            final ByteBuffer[] local = Arrays.copyOf(segments, segments.length + 1);
+            local[local.length - 1] = current;
+            segments = local;
+        }
+        usedBytes += size;
+        return current;
+    }
+
+    @GuardedBy("this")
+    private long write(final ByteBuffer buf, final byte tag) {
+        final long handle = (long) (segments.length - 1) << SEGMENT_SHIFT | buf.position();
+        buf.put(tag);
+        return handle;
+    }
+
+    private static byte[] getBytes(final ByteBuffer buf, final int offset) {
+        final ByteBuffer dup = buf.duplicate();
+        dup.position(offset);
+        final byte[] bytes = new byte[getVarInt(dup)];
+        dup.get(bytes);
+        return bytes;
+    }
+
+    private static BigDecimal getDecimal(final ByteBuffer buf, final int offset) {
+        final ByteBuffer dup = buf.duplicate();
+        dup.position(offset);
+        final int scale = getVarInt(dup);
+        final byte[] unscaled = new byte[getVarInt(dup)];
+        dup.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static int varIntSize(final int value) {
+        int size = 1;
+        int remaining = value >>> 7;
+        while (remaining != 0) {
+            size++;
+            remaining >>>= 7;
+        }
+        return size;
+    }
+
+    private static void putVarInt(final ByteBuffer buf, final int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            buf.put((byte) (remaining & 0x7F | 0x80));
+            remaining >>>= 7;
+        }
+        buf.put((byte) remaining);
+    }
+
+    private static int getVarInt(final ByteBuffer buf) {
+        int value = 0;
+        int shift = 0;
+        byte read;
+        do {
+            read = buf.get();
+            value |= (read & 0x7F) << shift;
+            shift += 7;
+        } while ((read & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("direct", direct).add("segments", segments.length)
+                .add("usedBytes", getUsedBytes()).add("symbols", getSymbolCount()).toString();
+    }
+}
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
 
+import java.util.Collection;
 import java.util.Map;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
@@ -15,9 +16,12 @@ import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableDataContainerAttrNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractLeafValueDataContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.LeafLayout;
 
 public class ImmutableContainerNodeBuilder
         extends AbstractImmutableDataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> {
+    private boolean valueOnly;
 
     protected ImmutableContainerNodeBuilder() {
 
@@ -39,15 +43,74 @@ public class ImmutableContainerNodeBuilder
         return new ImmutableContainerNodeBuilder(sizeHint);
     }
 
+    /**
+     * Create a builder initialized with the contents of a container. Value-only and arena-backed containers, which
+     * store their leaves in a different form, are copied child by child.
+     *
+     * @param node Initial container
+     * @return A new builder
+     * @throws UnsupportedOperationException if the container has neither been built by this class nor is an
+     *         {@link AbstractLeafValueDataContainerNode}
+     */
     public static DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> create(final ContainerNode node) {
-        if (!(node instanceof ImmutableContainerNode)) {
+        if (node instanceof ImmutableContainerNode) {
+            return new ImmutableContainerNodeBuilder((ImmutableContainerNode) node);
+        }
+        if (!(node instanceof AbstractLeafValueDataContainerNode)) {
             throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
         }
-        return new ImmutableContainerNodeBuilder((ImmutableContainerNode) node);
+
+        return create(node.getValue().size()).withNodeIdentifier(node.getIdentifier())
+                .withAttributes(node.getAttributes()).withValue(node.getValue());
+    }
+
+    /**
+     * Create a builder of containers which retain only the values of their leaf children, as long as the container
+     * does not have any attributes. See {@link #createValueOnly(ContainerNode)}.
+     *
+     * @return A new builder
+     */
+    public static DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> createValueOnly() {
+        final ImmutableContainerNodeBuilder ret = new ImmutableContainerNodeBuilder();
+        ret.valueOnly = true;
+        return ret;
+    }
+
+    /**
+     * Create a builder of containers which retain only the values of their leaf children, as long as the container
+     * does not have any attributes. See {@link #createValueOnly(ContainerNode)}.
+     *
+     * @param sizeHint Expected number of children
+     * @return A new builder
+     */
+    public static DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> createValueOnly(final int sizeHint) {
+        final ImmutableContainerNodeBuilder ret = new ImmutableContainerNodeBuilder(sizeHint);
+        ret.valueOnly = true;
+        return ret;
+    }
+
+    /**
+     * Create a builder initialized with the contents of a container, which builds containers retaining only the values
+     * of their leaf children. Such containers do not hold a
+     * {@link org.opendaylight.yangtools.yang.data.api.schema.LeafNode} for each leaf, but rather place leaf values
+     * into an array, with offsets shared by all containers with the same set of leaves. Leaf nodes are instantiated
+     * as they are accessed.
+     *
+     * @param node Initial container
+     * @return A new builder
+     */
+    public static DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> createValueOnly(
+            final ContainerNode node) {
+        final DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> ret = create(node);
+        ((ImmutableContainerNodeBuilder) ret).valueOnly = true;
+        return ret;
     }
 
     @Override
     public ContainerNode build() {
+        if (valueOnly && getAttributes().isEmpty()) {
+            return ValueOnlyContainerNode.create(getNodeIdentifier(), buildValue().values());
+        }
         return new ImmutableContainerNode(getNodeIdentifier(), buildValue(), getAttributes());
     }
 
@@ -60,4 +123,25 @@ public class ImmutableContainerNodeBuilder
             super(children, nodeIdentifier, attributes);
         }
     }
+
+    private static final class ValueOnlyContainerNode extends AbstractLeafValueDataContainerNode<NodeIdentifier>
+            implements ContainerNode {
+        private final Object[] values;
+
+        private ValueOnlyContainerNode(final NodeIdentifier nodeIdentifier, final LeafLayout layout,
+                final Object[] values, final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others) {
+            super(nodeIdentifier, layout, others);
+            this.values = values;
+        }
+
+        static ContainerNode create(final NodeIdentifier nodeIdentifier,
+                final Collection<DataContainerChild<? extends PathArgument, ?>> children) {
+            return split(nodeIdentifier, children, ValueOnlyContainerNode::new);
+        }
+
+        @Override
+        protected Object leafValue(final int offset) {
+            return values[offset];
+        }
+    }
 }
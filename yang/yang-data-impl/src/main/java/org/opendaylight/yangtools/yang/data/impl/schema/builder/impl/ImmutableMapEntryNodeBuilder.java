@@ -22,6 +22,8 @@ import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.valid.DataValidationException;
 import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractImmutableDataContainerAttrNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractLeafValueDataContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.LeafLayout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +31,7 @@ public class ImmutableMapEntryNodeBuilder
         extends AbstractImmutableDataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> {
     private static final Logger LOG = LoggerFactory.getLogger(ImmutableMapEntryNodeBuilder.class);
     protected final Map<QName, PathArgument> childrenQNamesToPaths;
+    private boolean valueOnly;
 
     protected ImmutableMapEntryNodeBuilder() {
         this.childrenQNamesToPaths = new LinkedHashMap<>();
@@ -53,13 +56,68 @@ public class ImmutableMapEntryNodeBuilder
         return new ImmutableMapEntryNodeBuilder(sizeHint);
     }
 
+    /**
+     * Create a builder initialized with the contents of an entry. Value-only and arena-backed entries, which store
+     * their leaves in a different form, are copied child by child.
+     *
+     * @param node Initial entry
+     * @return A new builder
+     * @throws UnsupportedOperationException if the entry has neither been built by this class nor is an
+     *         {@link AbstractLeafValueDataContainerNode}
+     */
     public static DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> create(
             final MapEntryNode node) {
-        if (!(node instanceof ImmutableMapEntryNode)) {
+        if (node instanceof ImmutableMapEntryNode) {
+            return new ImmutableMapEntryNodeBuilder((ImmutableMapEntryNode)node);
+        }
+        if (!(node instanceof AbstractLeafValueDataContainerNode)) {
             throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
         }
 
-        return new ImmutableMapEntryNodeBuilder((ImmutableMapEntryNode)node);
+        return create(node.getValue().size()).withNodeIdentifier(node.getIdentifier())
+                .withAttributes(node.getAttributes()).withValue(node.getValue());
+    }
+
+    /**
+     * Create a builder of entries which retain only the values of their leaf children, as long as the entry does not
+     * have any attributes. See {@link #createValueOnly(MapEntryNode)}.
+     *
+     * @return A new builder
+     */
+    public static DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> createValueOnly() {
+        final ImmutableMapEntryNodeBuilder ret = new ImmutableMapEntryNodeBuilder();
+        ret.valueOnly = true;
+        return ret;
+    }
+
+    /**
+     * Create a builder of entries which retain only the values of their leaf children, as long as the entry does not
+     * have any attributes. See {@link #createValueOnly(MapEntryNode)}.
+     *
+     * @param sizeHint Expected number of children
+     * @return A new builder
+     */
+    public static DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> createValueOnly(
+            final int sizeHint) {
+        final ImmutableMapEntryNodeBuilder ret = new ImmutableMapEntryNodeBuilder(sizeHint);
+        ret.valueOnly = true;
+        return ret;
+    }
+
+    /**
+     * Create a builder initialized with the contents of an entry, which builds entries retaining only the values of
+     * their leaf children. Such entries do not hold a {@link LeafNode} for each leaf, but rather place leaf values
+     * into an array, with offsets shared by all entries with the same set of leaves. Leaf nodes are instantiated as
+     * they are accessed. Key leaves are not retained at all, as their values are part of the entry identifier.
+     *
+     * @param node Initial entry
+     * @return A new builder
+     */
+    public static DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> createValueOnly(
+            final MapEntryNode node) {
+        final DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> ret = create(node);
+        ((ImmutableMapEntryNodeBuilder) ret).valueOnly = true;
+        return ret;
     }
 
     private static void fillQnames(final Iterable<DataContainerChild<? extends PathArgument, ?>> iterable,
@@ -110,11 +168,21 @@ public class ImmutableMapEntryNodeBuilder
                 LOG.debug("Adding leaf {} implied by key {}", leaf, key);
                 withChild(leaf);
             } else {
-                DataValidationException.checkListKey(getNodeIdentifier(), key.getKey(), key.getValue(),
-                    childNode.getValue());
+                final Object value = childNode.getValue();
+                DataValidationException.checkListKey(getNodeIdentifier(), key.getKey(), key.getValue(), value);
+
+                // Streamed leaves carry their own copy of the key value, share the identifier's copy instead, so
+                // that each entry retains it only once
+                if (value != key.getValue() && childNode instanceof LeafNode
+                        && ((LeafNode<?>) childNode).getAttributes().isEmpty()) {
+                    withChild(ImmutableNodes.leafNode(((LeafNode<?>) childNode).getIdentifier(), key.getValue()));
+                }
             }
         }
 
+        if (valueOnly && getAttributes().isEmpty()) {
+            return ValueOnlyMapEntryNode.create(getNodeIdentifier(), buildValue().values());
+        }
         return new ImmutableMapEntryNode(getNodeIdentifier(), buildValue(), getAttributes());
     }
 
@@ -127,4 +195,25 @@ public class ImmutableMapEntryNodeBuilder
             super(children, nodeIdentifier, attributes);
         }
     }
+
+    private static final class ValueOnlyMapEntryNode
+            extends AbstractLeafValueDataContainerNode<NodeIdentifierWithPredicates> implements MapEntryNode {
+        private final Object[] values;
+
+        private ValueOnlyMapEntryNode(final NodeIdentifierWithPredicates nodeIdentifier, final LeafLayout layout,
+                final Object[] values, final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others) {
+            super(nodeIdentifier, layout, others);
+            this.values = values;
+        }
+
+        static MapEntryNode create(final NodeIdentifierWithPredicates nodeIdentifier,
+                final Collection<DataContainerChild<? extends PathArgument, ?>> children) {
+            return split(nodeIdentifier, children, ValueOnlyMapEntryNode::new);
+        }
+
+        @Override
+        protected Object leafValue(final int offset) {
+            return values[offset];
+        }
+    }
 }
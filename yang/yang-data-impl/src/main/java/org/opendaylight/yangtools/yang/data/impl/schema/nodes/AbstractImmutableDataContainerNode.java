@@ -13,8 +13,10 @@ import java.util.Optional;
 import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.util.ImmutableOffsetMap;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 
 public abstract class AbstractImmutableDataContainerNode<K extends PathArgument>
         extends AbstractImmutableNormalizedNode<K, Collection<DataContainerChild<? extends PathArgument, ?>>>
@@ -59,8 +61,31 @@ public abstract class AbstractImmutableDataContainerNode<K extends PathArgument>
 
     @Override
     protected boolean valueEquals(final AbstractImmutableNormalizedNode<?, ?> other) {
-        return other instanceof AbstractImmutableDataContainerNode<?> && children.equals(
-                ((AbstractImmutableDataContainerNode<?>) other).children);
+        if (other instanceof AbstractImmutableDataContainerNode) {
+            return children.equals(((AbstractImmutableDataContainerNode<?>) other).children);
+        }
 
+        // Value-only nodes know how to compare their children with ours
+        return other.valueEquals(this);
+    }
+
+    @Override
+    protected final Class<?> equivalenceClass() {
+        return dataContainerKind(this);
+    }
+
+    /*
+     * Containers and map entries may be stored as value-only nodes, too. Their equality does not depend on how their
+     * leaves are stored, hence they are equivalent to all nodes of the same kind. All other nodes are equivalent only
+     * to nodes of the same class.
+     */
+    static Class<?> dataContainerKind(final DataContainerNode<?> node) {
+        if (node instanceof ContainerNode) {
+            return ContainerNode.class;
+        }
+        if (node instanceof MapEntryNode) {
+            return MapEntryNode.class;
+        }
+        return node.getClass();
     }
 }
@@ -46,19 +46,30 @@ public abstract class AbstractImmutableNormalizedNode<K extends PathArgument,V>
 
     protected abstract int valueHashCode();
 
+    /**
+     * Return the class delimiting the nodes this node can be equal to. Two nodes are equal only if they have the same
+     * equivalence class, equal identifiers and {@link #valueEquals(AbstractImmutableNormalizedNode)} holds. Defaults
+     * to the class of this node.
+     *
+     * @return Equivalence class of this node
+     */
+    protected Class<?> equivalenceClass() {
+        return getClass();
+    }
+
     @Override
     public final boolean equals(final Object obj) {
         if (this == obj) {
             return true;
         }
-        if (obj == null) {
-            return false;
-        }
-        if (this.getClass() != obj.getClass()) {
+        if (!(obj instanceof AbstractImmutableNormalizedNode)) {
             return false;
         }
 
         final AbstractImmutableNormalizedNode<?, ?> other = (AbstractImmutableNormalizedNode<?, ?>)obj;
+        if (equivalenceClass() != other.equivalenceClass()) {
+            return false;
+        }
         if (!nodeIdentifier.equals(other.nodeIdentifier)) {
             return false;
         }
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.nodes;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.util.ImmutableOffsetMap;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.AttributesContainer;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+/**
+ * Base class for data container nodes which do not retain their leaf children, but only the values of those leaves.
+ * Each value is stored at the offset assigned to its leaf by a shared {@link LeafLayout} and {@link LeafNode}s are
+ * instantiated as they are accessed. All other children are held in a regular map.
+ *
+ * <p>
+ * Key leaves of a node identified by {@link NodeIdentifierWithPredicates} are not stored at all, as their values are
+ * already part of the identifier.
+ *
+ * @param <K> Identifier type
+ */
+@Beta
+public abstract class AbstractLeafValueDataContainerNode<K extends PathArgument>
+        extends AbstractImmutableNormalizedNode<K, Collection<DataContainerChild<? extends PathArgument, ?>>>
+        implements Immutable, DataContainerNode<K>, AttributesContainer {
+    private final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others;
+    private final LeafLayout layout;
+
+    protected AbstractLeafValueDataContainerNode(final K identifier, final LeafLayout layout,
+            final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others) {
+        super(identifier);
+        this.layout = requireNonNull(layout);
+        this.others = others.isEmpty() ? ImmutableMap.of() : ImmutableOffsetMap.unorderedCopyOf(others);
+    }
+
+    /**
+     * Split children into leaf values and other children, which are retained as they are, and invoke a factory with
+     * the result. Leaves carrying attributes are treated as other children.
+     *
+     * @param identifier Node identifier
+     * @param children Node children
+     * @param factory Node factory
+     * @return Created node
+     */
+    protected static <K extends PathArgument, T> T split(final K identifier,
+            final Collection<DataContainerChild<? extends PathArgument, ?>> children, final Factory<K, T> factory) {
+        final Map<NodeIdentifier, Object> leaves = new HashMap<>();
+        final Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others = new HashMap<>();
+        for (DataContainerChild<? extends PathArgument, ?> child : children) {
+            if (child instanceof LeafNode && child.getIdentifier() instanceof NodeIdentifier
+                    && !hasAttributes(child)) {
+                if (!isKeyLeaf(identifier, child)) {
+                    leaves.put((NodeIdentifier) child.getIdentifier(), child.getValue());
+                }
+            } else {
+                others.put(child.getIdentifier(), child);
+            }
+        }
+
+        final LeafLayout layout = LeafLayout.of(leaves.keySet());
+        final Object[] values = new Object[layout.size()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = leaves.get(layout.leafAt(i));
+        }
+        return factory.create(identifier, layout, values, others);
+    }
+
+    @Override
+    public final Optional<DataContainerChild<? extends PathArgument, ?>> getChild(final PathArgument child) {
+        return Optional.ofNullable(child(child));
+    }
+
+    @Override
+    public final Collection<DataContainerChild<? extends PathArgument, ?>> getValue() {
+        return new Children().values();
+    }
+
+    @Override
+    public final Map<QName, String> getAttributes() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public final Object getAttributeValue(final QName name) {
+        return null;
+    }
+
+    @Override
+    protected final int valueHashCode() {
+        return new Children().hashCode();
+    }
+
+    @Override
+    protected final boolean valueEquals(final AbstractImmutableNormalizedNode<?, ?> other) {
+        return new Children().equals(childrenOf((DataContainerNode<?>) other));
+    }
+
+    @Override
+    protected final Class<?> equivalenceClass() {
+        return AbstractImmutableDataContainerNode.dataContainerKind(this);
+    }
+
+    /**
+     * Return the value of the leaf at specified offset of this node's {@link LeafLayout}.
+     *
+     * @param offset Leaf offset
+     * @return Leaf value
+     */
+    protected abstract Object leafValue(int offset);
+
+    private DataContainerChild<? extends PathArgument, ?> child(final Object child) {
+        final int offset = layout.offsetOf(child);
+        if (offset != -1) {
+            return leafAt(offset);
+        }
+        final DataContainerChild<? extends PathArgument, ?> other = others.get(child);
+        if (other != null || !(child instanceof NodeIdentifier)) {
+            return other;
+        }
+
+        final Object key = keyValues().get(((NodeIdentifier) child).getNodeType());
+        return key == null ? null : ImmutableNodes.leafNode((NodeIdentifier) child, key);
+    }
+
+    private LeafNode<?> leafAt(final int offset) {
+        return ImmutableNodes.leafNode(layout.leafAt(offset), leafValue(offset));
+    }
+
+    private Map<QName, Object> keyValues() {
+        return getIdentifier() instanceof NodeIdentifierWithPredicates
+                ? ((NodeIdentifierWithPredicates) getIdentifier()).getKeyValues() : ImmutableMap.of();
+    }
+
+    /*
+     * Key leaves are implied only if they have not been retained, which happens when they do not match the identifier
+     * or carry attributes.
+     */
+    private boolean isImplied(final NodeIdentifier keyLeaf) {
+        return layout.offsetOf(keyLeaf) == -1 && !others.containsKey(keyLeaf);
+    }
+
+    private Collection<LeafNode<?>> keyLeaves() {
+        final Map<QName, Object> keys = keyValues();
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<LeafNode<?>> ret = new ArrayList<>(keys.size());
+        for (Entry<QName, Object> key : keys.entrySet()) {
+            final NodeIdentifier keyLeaf = NodeIdentifier.create(key.getKey());
+            if (isImplied(keyLeaf)) {
+                ret.add(ImmutableNodes.leafNode(keyLeaf, key.getValue()));
+            }
+        }
+        return ret;
+    }
+
+    private int keyCount() {
+        int ret = 0;
+        for (QName key : keyValues().keySet()) {
+            if (isImplied(NodeIdentifier.create(key))) {
+                ret++;
+            }
+        }
+        return ret;
+    }
+
+    private static Map<?, ?> childrenOf(final DataContainerNode<?> node) {
+        if (node instanceof AbstractImmutableDataContainerNode) {
+            return ((AbstractImmutableDataContainerNode<?>) node).getChildren();
+        }
+        if (node instanceof AbstractLeafValueDataContainerNode) {
+            return ((AbstractLeafValueDataContainerNode<?>) node).new Children();
+        }
+        return Maps.uniqueIndex(node.getValue(), DataContainerChild::getIdentifier);
+    }
+
+    private static boolean isKeyLeaf(final PathArgument identifier, final DataContainerChild<?, ?> child) {
+        // Key leaves are implied by the identifier as long as they hold the same value
+        if (identifier instanceof NodeIdentifierWithPredicates) {
+            final Object key = ((NodeIdentifierWithPredicates) identifier).getKeyValues().get(child.getNodeType());
+            return key != null && Objects.deepEquals(key, child.getValue());
+        }
+        return false;
+    }
+
+    private static boolean hasAttributes(final DataContainerChild<?, ?> child) {
+        return child instanceof AttributesContainer && !((AttributesContainer) child).getAttributes().isEmpty();
+    }
+
+    /**
+     * Factory of nodes from split children.
+     *
+     * @param <K> Identifier type
+     * @param <T> Node type
+     */
+    @FunctionalInterface
+    protected interface Factory<K extends PathArgument, T> {
+        /**
+         * Create a node.
+         *
+         * @param identifier Node identifier
+         * @param layout Leaf layout
+         * @param values Leaf values, ordered as specified by the layout
+         * @param others Other children
+         * @return A new node
+         */
+        T create(K identifier, LeafLayout layout, Object[] values,
+                Map<PathArgument, DataContainerChild<? extends PathArgument, ?>> others);
+    }
+
+    /**
+     * Transient map view of this node's children, which materializes leaves as they are accessed.
+     */
+    private final class Children extends AbstractMap<PathArgument, DataContainerChild<? extends PathArgument, ?>> {
+        @Override
+        public DataContainerChild<? extends PathArgument, ?> get(final Object key) {
+            return child(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return child(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return layout.size() + keyCount() + others.size();
+        }
+
+        @Override
+        public Set<Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>>> entrySet() {
+            return new AbstractSet<Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>>>() {
+                @Override
+                public Iterator<Entry<PathArgument, DataContainerChild<? extends PathArgument, ?>>> iterator() {
+                    return Iterators.transform(Iterators.concat(new LeafIterator(), keyLeaves().iterator(),
+                        others.values().iterator()), child -> Maps.immutableEntry(child.getIdentifier(), child));
+                }
+
+                @Override
+                public int size() {
+                    return Children.this.size();
+                }
+            };
+        }
+    }
+
+    private final class LeafIterator implements Iterator<DataContainerChild<? extends PathArgument, ?>> {
+        private int offset;
+
+        @Override
+        public boolean hasNext() {
+            return offset < layout.size();
+        }
+
+        @Override
+        public DataContainerChild<? extends PathArgument, ?> next() {
+            if (offset == layout.size()) {
+                throw new NoSuchElementException();
+            }
+            return leafAt(offset++);
+        }
+    }
+}
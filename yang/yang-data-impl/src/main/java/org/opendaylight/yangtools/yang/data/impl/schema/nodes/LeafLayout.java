@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.nodes;
+
+import com.google.common.annotations.Beta;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.Set;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+
+/**
+ * Assignment of leaf children to offsets in the value array of an {@link AbstractLeafValueDataContainerNode}. Layouts
+ * are shared by all nodes with the same set of leaves, which in practice means all instances of a particular schema
+ * node, so that nodes need to retain only the values themselves.
+ */
+@Beta
+public final class LeafLayout {
+    /*
+     * Layouts are looked up by the set of leaves, as order does not matter. We use the same two-stage loading as
+     * OffsetMapCache does, so that the cache and the layout share the same Set.
+     */
+    private static final Cache<Set<NodeIdentifier>, LeafLayout> CACHE = CacheBuilder.newBuilder().weakValues()
+            .build();
+    private static final LeafLayout EMPTY = new LeafLayout(ImmutableMap.of());
+
+    private final ImmutableMap<NodeIdentifier, Integer> offsets;
+    private final ImmutableList<NodeIdentifier> leaves;
+
+    private LeafLayout(final ImmutableMap<NodeIdentifier, Integer> offsets) {
+        this.offsets = offsets;
+        this.leaves = offsets.keySet().asList();
+    }
+
+    /**
+     * Return the layout of a particular set of leaves.
+     *
+     * @param leaves Leaf identifiers
+     * @return A shared layout
+     */
+    public static LeafLayout of(final Collection<NodeIdentifier> leaves) {
+        if (leaves.isEmpty()) {
+            return EMPTY;
+        }
+
+        final Set<NodeIdentifier> key = leaves instanceof Set ? (Set<NodeIdentifier>) leaves
+                : ImmutableSet.copyOf(leaves);
+        final LeafLayout existing = CACHE.getIfPresent(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final ImmutableMap.Builder<NodeIdentifier, Integer> builder = ImmutableMap.builder();
+        int offset = 0;
+        for (NodeIdentifier leaf : key) {
+            builder.put(leaf, offset++);
+        }
+
+        final LeafLayout created = new LeafLayout(builder.build());
+        final LeafLayout raced = CACHE.asMap().putIfAbsent(created.offsets.keySet(), created);
+        return raced == null ? created : raced;
+    }
+
+    /**
+     * Return the number of leaves in this layout.
+     *
+     * @return Number of leaves
+     */
+    public int size() {
+        return leaves.size();
+    }
+
+    /**
+     * Return the offset assigned to a leaf.
+     *
+     * @param leaf Leaf identifier
+     * @return Offset of the leaf, or -1 if the leaf is not part of this layout
+     */
+    public int offsetOf(final Object leaf) {
+        final Integer offset = offsets.get(leaf);
+        return offset == null ? -1 : offset;
+    }
+
+    /**
+     * Return the leaf assigned to an offset.
+     *
+     * @param offset Offset
+     * @return Leaf identifier
+     * @throws IndexOutOfBoundsException if the offset is not valid
+     */
+    public NodeIdentifier leafAt(final int offset) {
+        return leaves.get(offset);
+    }
+}
@@ -12,7 +12,10 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
@@ -34,6 +37,19 @@ import org.slf4j.LoggerFactory;
  */
 abstract class AbstractDataNodeContainerModificationStrategy<T extends DataNodeContainer>
         extends AbstractNodeContainerModificationStrategy {
+    /**
+     * A child operation instantiated for a previous SchemaContext, along with the schema node it was created for.
+     */
+    private static final class InheritedChild {
+        final DataSchemaNode schema;
+        final ModificationApplyOperation operation;
+
+        InheritedChild(final DataSchemaNode schema, final ModificationApplyOperation operation) {
+            this.schema = Preconditions.checkNotNull(schema);
+            this.operation = Preconditions.checkNotNull(operation);
+        }
+    }
+
     private static final Logger LOG = LoggerFactory.getLogger(AbstractDataNodeContainerModificationStrategy.class);
     private final LoadingCache<PathArgument, ModificationApplyOperation> childCache = CacheBuilder.newBuilder()
             .build(new CacheLoader<PathArgument, ModificationApplyOperation>() {
@@ -44,12 +60,26 @@ abstract class AbstractDataNodeContainerModificationStrategy<T extends DataNodeC
                             (AugmentationIdentifier) key, treeConfig);
                     }
 
-                    final DataSchemaNode child = schema.getDataChildByName(key.getNodeType());
-                    Preconditions.checkArgument(child != null, "Schema %s does not have a node for child %s", schema,
-                            key.getNodeType());
-                    return SchemaAwareApplyOperation.from(child, treeConfig);
+                    final Optional<DataSchemaNode> optChild = schema.findDataChildByName(key.getNodeType());
+                    Preconditions.checkArgument(optChild.isPresent(), "Schema %s does not have a node for child %s",
+                            schema, key.getNodeType());
+                    final DataSchemaNode child = optChild.get();
+
+                    // Once resolved, the previous operation is not needed anymore and must not be retained
+                    final InheritedChild prev = inherited.remove(key);
+                    if (prev != null && SchemaEquivalence.equivalent(prev.schema, child)) {
+                        LOG.trace("Reusing operation for unchanged child {}", key);
+                        return prev.operation;
+                    }
+
+                    final ModificationApplyOperation op = SchemaAwareApplyOperation.from(child, treeConfig);
+                    if (prev != null) {
+                        op.inheritFrom(prev.operation);
+                    }
+                    return op;
                 }
             });
+    private final Map<PathArgument, InheritedChild> inherited = new ConcurrentHashMap<>();
     private final T schema;
     private final DataTreeConfiguration treeConfig;
 
@@ -75,6 +105,38 @@ abstract class AbstractDataNodeContainerModificationStrategy<T extends DataNodeC
         }
     }
 
+    /**
+     * Take over child operations of an operation created for a previous SchemaContext. This is done lazily: when
+     * a child is first looked up, the previous operation is reused as-is, including any state it has accumulated,
+     * if its schema is equivalent. Otherwise a new operation is instantiated, which in turn inherits from
+     * the previous one, so that only the changed part of the schema is processed.
+     *
+     * <p>
+     * Inherited children are forgotten as soon as they are looked up, hence an operation created for a previous
+     * SchemaContext is retained only if it has been reused or if its child has not been looked up yet.
+     */
+    @Override
+    final void inheritFrom(final ModificationApplyOperation previous) {
+        if (previous.getClass() != getClass()) {
+            return;
+        }
+
+        final AbstractDataNodeContainerModificationStrategy<?> prev =
+                (AbstractDataNodeContainerModificationStrategy<?>) previous;
+        // Children inherited by the previous operation, which it has not looked up yet, are carried over
+        inherited.putAll(prev.inherited);
+        for (final Entry<PathArgument, ModificationApplyOperation> entry : prev.childCache.asMap().entrySet()) {
+            final PathArgument key = entry.getKey();
+            if (key instanceof AugmentationIdentifier) {
+                // Augmentations are looked up by their children, which is not worth the trouble
+                continue;
+            }
+
+            prev.schema.findDataChildByName(key.getNodeType()).ifPresent(
+                prevChild -> inherited.put(key, new InheritedChild(prevChild, entry.getValue())));
+        }
+    }
+
     @Override
     @SuppressWarnings("rawtypes")
     protected abstract DataContainerNodeBuilder createBuilder(NormalizedNode<?, ?> original);
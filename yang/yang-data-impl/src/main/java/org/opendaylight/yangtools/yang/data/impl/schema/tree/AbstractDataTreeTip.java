@@ -10,14 +10,21 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 import com.google.common.base.Preconditions;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeTip;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 abstract class AbstractDataTreeTip implements DataTreeTip {
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractDataTreeTip.class);
+
     /**
      * Return the current root node of this tip.
      *
@@ -25,6 +32,26 @@ abstract class AbstractDataTreeTip implements DataTreeTip {
      */
     @Nonnull protected abstract TreeNode getTipRoot();
 
+    /**
+     * Check whether modifications conflicting with this tip should be rebased onto it. The default implementation
+     * returns false.
+     *
+     * @return True if conflicting modifications should be rebased.
+     */
+    protected boolean isConflictRebaseEnabled() {
+        return false;
+    }
+
+    /**
+     * Return the listener which should be notified of the cost of operations on this tip. The default implementation
+     * returns null.
+     *
+     * @return A {@link DataTreeMetricsListener}, or null if metrics are not being collected.
+     */
+    @Nullable protected DataTreeMetricsListener getMetricsListener() {
+        return null;
+    }
+
     @Override
     public final void validate(final DataTreeModification modification) throws DataValidationFailedException {
         Preconditions.checkArgument(modification instanceof InMemoryDataTreeModification,
@@ -32,28 +59,91 @@ abstract class AbstractDataTreeTip implements DataTreeTip {
         final InMemoryDataTreeModification m = (InMemoryDataTreeModification)modification;
         Preconditions.checkArgument(m.isSealed(), "Attempted to verify unsealed modification %s", m);
 
-        m.getStrategy().checkApplicable(YangInstanceIdentifier.EMPTY, m.getRootModification(),
-            Optional.of(getTipRoot()), m.getVersion());
+        final DataTreeMetricsListener metrics = getMetricsListener();
+        if (metrics == null) {
+            validate(m);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final boolean rebased;
+        try {
+            rebased = validate(m);
+        } catch (DataValidationFailedException e) {
+            metrics.modificationRejected(System.nanoTime() - start, e);
+            throw e;
+        }
+        metrics.modificationValidated(System.nanoTime() - start, rebased);
+    }
+
+    private boolean validate(final InMemoryDataTreeModification modification) throws DataValidationFailedException {
+        final TreeNode tipRoot = getTipRoot();
+        try {
+            checkApplicable(modification, tipRoot);
+            return false;
+        } catch (ConflictingModificationAppliedException e) {
+            if (!isConflictRebaseEnabled()) {
+                throw e;
+            }
+
+            LOG.debug("Modification {} conflicts with {}, attempting to rebase it", modification, tipRoot, e);
+            final InMemoryDataTreeModification rebased = ModificationRebaser.rebase(modification, tipRoot);
+            checkApplicable(rebased, tipRoot);
+            modification.setRebased(rebased);
+            return true;
+        }
+    }
+
+    private static void checkApplicable(final InMemoryDataTreeModification modification, final TreeNode tipRoot)
+            throws DataValidationFailedException {
+        modification.getStrategy().checkApplicable(YangInstanceIdentifier.EMPTY, modification.getRootModification(),
+            Optional.of(tipRoot), modification.getVersion());
     }
 
     @Override
     public final DataTreeCandidateTip prepare(final DataTreeModification modification) {
         Preconditions.checkArgument(modification instanceof InMemoryDataTreeModification,
             "Invalid modification class %s", modification.getClass());
-        final InMemoryDataTreeModification m = (InMemoryDataTreeModification)modification;
-        Preconditions.checkArgument(m.isSealed(), "Attempted to prepare unsealed modification %s", m);
-
-        final ModifiedNode root = m.getRootModification();
+        final InMemoryDataTreeModification sealed = (InMemoryDataTreeModification)modification;
+        Preconditions.checkArgument(sealed.isSealed(), "Attempted to prepare unsealed modification %s", sealed);
 
         final TreeNode currentRoot = getTipRoot();
+        final InMemoryDataTreeModification m = sealed.getModificationFor(currentRoot);
+        final DataTreeMetricsListener metrics = getMetricsListener();
+        if (metrics == null) {
+            return prepare(m, currentRoot);
+        }
+
+        final long start = System.nanoTime();
+        final DataTreeCandidateTip ret = prepare(m, currentRoot);
+        metrics.modificationPrepared(System.nanoTime() - start, countChanged(m.getRootModification()));
+        return ret;
+    }
+
+    private static DataTreeCandidateTip prepare(final InMemoryDataTreeModification modification,
+            final TreeNode currentRoot) {
+        final ModifiedNode root = modification.getRootModification();
         if (root.getOperation() == LogicalOperation.NONE) {
             return new NoopDataTreeCandidate(YangInstanceIdentifier.EMPTY, root, currentRoot);
         }
 
-        final Optional<TreeNode> newRoot = m.getStrategy().apply(m.getRootModification(),
-            Optional.of(currentRoot), m.getVersion());
+        final Optional<TreeNode> newRoot = modification.getStrategy().apply(root, Optional.of(currentRoot),
+            modification.getVersion());
         Preconditions.checkState(newRoot.isPresent(), "Apply strategy failed to produce root node for modification %s",
             modification);
         return new InMemoryDataTreeCandidate(YangInstanceIdentifier.EMPTY, root, currentRoot, newRoot.get());
     }
+
+    private static int countChanged(final ModifiedNode node) {
+        final ModificationType type = node.getModificationType();
+        if (type == null || type == ModificationType.UNMODIFIED) {
+            return 0;
+        }
+
+        int ret = 1;
+        for (ModifiedNode child : node.getChildren()) {
+            ret += countChanged(child);
+        }
+        return ret;
+    }
 }
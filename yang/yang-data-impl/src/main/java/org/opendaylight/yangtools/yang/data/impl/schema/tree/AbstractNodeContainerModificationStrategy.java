@@ -33,11 +33,23 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
 
     private final Class<? extends NormalizedNode<?, ?>> nodeClass;
     private final boolean verifyChildrenStructure;
+    private final boolean valueOnlyLeaves;
 
     protected AbstractNodeContainerModificationStrategy(final Class<? extends NormalizedNode<?, ?>> nodeClass,
             final DataTreeConfiguration treeConfig) {
         this.nodeClass = Preconditions.checkNotNull(nodeClass , "nodeClass");
         this.verifyChildrenStructure = treeConfig.getTreeType() == TreeType.CONFIGURATION;
+        this.valueOnlyLeaves = treeConfig.isValueOnlyLeavesEnabled();
+    }
+
+    /**
+     * Check whether containers and map entries created by this strategy should retain only the values of their leaf
+     * children.
+     *
+     * @return True if only leaf values should be retained
+     */
+    final boolean isValueOnlyLeaves() {
+        return valueOnlyLeaves;
     }
 
     @SuppressWarnings("rawtypes")
@@ -82,7 +94,8 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
     @Override
     protected TreeNode applyWrite(final ModifiedNode modification,
             final Optional<TreeNode> currentMeta, final Version version) {
-        final NormalizedNode<?, ?> newValue = modification.getWrittenValue();
+        final NormalizedNode<?, ?> newValue = valueOnlyLeaves ? ValueOnlyLeaves.convert(modification.getWrittenValue())
+                : modification.getWrittenValue();
         final TreeNode newValueMeta = TreeNodeFactory.createTreeNode(newValue, version);
 
         if (modification.getChildren().isEmpty()) {
@@ -94,6 +94,14 @@ final class ChoiceModificationStrategy extends AbstractNodeContainerModification
         super.verifyStructure(writtenValue, verifyChildren);
     }
 
+    @Override
+    void verifyValue(final NormalizedNode<?, ?> value) {
+        if (verifyChildrenStructure()) {
+            enforceCases(value);
+        }
+        super.verifyValue(value);
+    }
+
     private void enforceCases(final TreeNode tree) {
         enforceCases(tree.getData());
     }
@@ -30,7 +30,8 @@ class ContainerModificationStrategy extends AbstractDataNodeContainerModificatio
     @SuppressWarnings("rawtypes")
     protected final DataContainerNodeBuilder createBuilder(final NormalizedNode<?, ?> original) {
         checkArgument(original instanceof ContainerNode);
-        return ImmutableContainerNodeBuilder.create((ContainerNode) original);
+        return isValueOnlyLeaves() ? ImmutableContainerNodeBuilder.createValueOnly((ContainerNode) original)
+                : ImmutableContainerNodeBuilder.create((ContainerNode) original);
     }
 
     @Override
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Optional;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pipeline of speculative commits on top of a {@link DataTree}. Each submitted modification is validated and
+ * prepared on top of the candidate of the previously-submitted modification, so that up to a configured number of
+ * candidates are stacked on each other before the first of them is committed. Commits are retired in submission
+ * order, each through a single {@link DataTree#commit(DataTreeCandidate)}.
+ *
+ * <p>
+ * When an in-flight modification fails, either because it has been aborted via {@link #abortNext(Throwable)} or
+ * because the data tree has been modified outside of this pipeline, the modifications stacked on top of it are
+ * handled according to the pipeline's {@link FailurePolicy}.
+ *
+ * <p>
+ * Each submission is tracked by a {@link ListenableFuture}, which completes with the committed candidate, or fails
+ * when the modification is aborted.
+ */
+@Beta
+@NotThreadSafe
+public final class DataTreeCommitPipeline {
+    /**
+     * Policy governing what happens to modifications stacked on top of a failed modification.
+     */
+    public enum FailurePolicy {
+        /**
+         * Fail all modifications stacked on top of the failed modification with a
+         * {@link DataValidationFailedException} whose cause is the original failure.
+         */
+        CASCADE_ABORT,
+        /**
+         * Validate and prepare modifications stacked on top of the failed modification again, this time on top of
+         * the last candidate preceding the failed one. Modifications which fail validation are aborted, the others
+         * remain in the pipeline.
+         */
+        REBASE,
+    }
+
+    private static final class Entry {
+        final SettableFuture<DataTreeCandidate> future = SettableFuture.create();
+        final DataTreeModification modification;
+        DataTreeCandidateTip candidate;
+        int rebaseAttempts;
+
+        Entry(final DataTreeModification modification, final DataTreeCandidateTip candidate) {
+            this.modification = requireNonNull(modification);
+            this.candidate = requireNonNull(candidate);
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataTreeCommitPipeline.class);
+
+    /**
+     * Maximum number of times the pipeline is rebased in an attempt to commit a particular modification.
+     */
+    static final int MAX_REBASE_ATTEMPTS = 3;
+
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private final FailurePolicy policy;
+    private final DataTree dataTree;
+    private final int maxDepth;
+
+    private DataTreeCommitPipeline(final DataTree dataTree, final int maxDepth, final FailurePolicy policy) {
+        this.dataTree = requireNonNull(dataTree);
+        this.policy = requireNonNull(policy);
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Create a new pipeline.
+     *
+     * @param dataTree Data tree into which modifications are committed
+     * @param maxDepth Maximum number of candidates in flight
+     * @param policy Policy for modifications stacked on top of a failed modification
+     * @return A new pipeline
+     * @throws NullPointerException if any argument is null
+     * @throws IllegalArgumentException if maxDepth is not positive
+     */
+    public static DataTreeCommitPipeline create(final DataTree dataTree, final int maxDepth,
+            final FailurePolicy policy) {
+        checkArgument(maxDepth > 0, "Invalid maximum depth %s", maxDepth);
+        return new DataTreeCommitPipeline(dataTree, maxDepth, policy);
+    }
+
+    /**
+     * Return the number of modifications in flight.
+     *
+     * @return Number of modifications which have been submitted, but not retired.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Check whether the pipeline can accept another modification.
+     *
+     * @return True if the number of modifications in flight is less than maximum depth.
+     */
+    public boolean canSubmit() {
+        return entries.size() < maxDepth;
+    }
+
+    /**
+     * Return the tip of this pipeline, which is the candidate of the last modification in flight, or the data tree
+     * itself if there is none. Transactions can use it to observe the speculative state.
+     *
+     * @return Pipeline tip
+     */
+    public DataTreeTip getTip() {
+        final Entry last = entries.peekLast();
+        return last == null ? dataTree : last.candidate;
+    }
+
+    /**
+     * Submit a sealed modification. It is validated and prepared on top of the current tip of the pipeline.
+     *
+     * @param modification Sealed modification
+     * @return A future which completes with the committed candidate once the modification is retired.
+     * @throws DataValidationFailedException if the modification fails to validate on top of the current tip
+     * @throws IllegalStateException if the pipeline is full
+     */
+    public ListenableFuture<DataTreeCandidate> submit(final DataTreeModification modification)
+            throws DataValidationFailedException {
+        checkState(canSubmit(), "Pipeline already has %s modifications in flight", maxDepth);
+        final Entry entry = new Entry(modification, prepare(getTip(), modification));
+        entries.addLast(entry);
+        return entry.future;
+    }
+
+    /**
+     * Commit the oldest modification in flight. If the data tree has been modified outside of this pipeline, the
+     * commit fails and the modification is either aborted, or rebased and committed, depending on the policy. A
+     * modification which still fails to commit after {@value #MAX_REBASE_ATTEMPTS} rebase attempts is aborted.
+     *
+     * @return The committed candidate, or empty if no modification has been committed.
+     */
+    public Optional<DataTreeCandidate> commitNext() {
+        while (true) {
+            final Entry head = entries.peekFirst();
+            if (head == null) {
+                return Optional.empty();
+            }
+
+            try {
+                dataTree.commit(head.candidate);
+            } catch (IllegalStateException e) {
+                LOG.debug("Failed to commit {}", head.candidate, e);
+                // Attempts are accounted to the modification, as a rebase may abort it and make another one the head
+                if (policy == FailurePolicy.CASCADE_ABORT || head.rebaseAttempts++ >= MAX_REBASE_ATTEMPTS) {
+                    abortNext(e);
+                    return Optional.empty();
+                }
+
+                // The tree has moved underneath us, rebase all modifications and try again
+                rebase(entries.iterator(), dataTree);
+                continue;
+            }
+
+            entries.removeFirst();
+            head.future.set(head.candidate);
+            return Optional.of(head.candidate);
+        }
+    }
+
+    /**
+     * Abort the oldest modification in flight. Modifications stacked on top of it are handled according to policy.
+     *
+     * @param cause Cause of the failure
+     * @return True if a modification has been aborted, false if there was no modification in flight.
+     */
+    public boolean abortNext(final Throwable cause) {
+        requireNonNull(cause);
+        final Entry head = entries.pollFirst();
+        if (head == null) {
+            return false;
+        }
+
+        head.future.setException(cause);
+        switch (policy) {
+            case CASCADE_ABORT:
+                final DataValidationFailedException failure = new DataValidationFailedException(
+                    YangInstanceIdentifier.EMPTY, "Preceding modification has failed", cause);
+                for (Entry entry : entries) {
+                    entry.future.setException(failure);
+                }
+                entries.clear();
+                break;
+            case REBASE:
+                rebase(entries.iterator(), dataTree);
+                break;
+            default:
+                throw new IllegalStateException("Unhandled policy " + policy);
+        }
+        return true;
+    }
+
+    private static void rebase(final Iterator<Entry> it, final DataTreeTip base) {
+        DataTreeTip tip = base;
+        while (it.hasNext()) {
+            final Entry entry = it.next();
+            try {
+                entry.candidate = prepare(tip, entry.modification);
+            } catch (DataValidationFailedException e) {
+                LOG.debug("Modification {} failed to rebase", entry.modification, e);
+                entry.future.setException(e);
+                it.remove();
+                continue;
+            }
+            tip = entry.candidate;
+        }
+    }
+
+    private static DataTreeCandidateTip prepare(final DataTreeTip tip, final DataTreeModification modification)
+            throws DataValidationFailedException {
+        tip.validate(modification);
+        return tip.prepare(modification);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("policy", policy).add("depth", entries.size())
+                .add("maxDepth", maxDepth).toString();
+    }
+}
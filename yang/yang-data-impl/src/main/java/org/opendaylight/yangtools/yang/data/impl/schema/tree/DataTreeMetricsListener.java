@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+
+/**
+ * Listener notified of the cost of individual steps of transaction processing in an in-memory {@link DataTree}.
+ * Instances are attached at data tree creation time via
+ * {@link InMemoryDataTreeFactory#create(org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration,
+ * org.opendaylight.yangtools.yang.model.api.SchemaContext, DataTreeMetricsListener)}. Data trees without a listener
+ * do not perform any measurements.
+ *
+ * <p>
+ * Methods are invoked synchronously from the thread performing the operation, hence implementations need to be
+ * thread-safe and should not block.
+ */
+@Beta
+public interface DataTreeMetricsListener {
+    /**
+     * Invoked when a modification has been sealed.
+     *
+     * @param durationNanos Time spent sealing the modification, in nanoseconds
+     * @param modifiedNodes Number of nodes touched by the modification
+     */
+    void modificationSealed(long durationNanos, int modifiedNodes);
+
+    /**
+     * Invoked when a modification has been successfully validated.
+     *
+     * @param durationNanos Time spent validating the modification, in nanoseconds
+     * @param rebased True if the modification conflicted with the data tree and has been rebased onto it
+     */
+    void modificationValidated(long durationNanos, boolean rebased);
+
+    /**
+     * Invoked when a modification has failed validation. Conflicts with concurrent changes are reported as
+     * a {@link ConflictingModificationAppliedException}.
+     *
+     * @param durationNanos Time spent validating the modification, in nanoseconds
+     * @param cause Reason for rejection
+     */
+    void modificationRejected(long durationNanos, DataValidationFailedException cause);
+
+    /**
+     * Invoked when a modification has been prepared.
+     *
+     * @param durationNanos Time spent preparing the modification, in nanoseconds
+     * @param changedNodes Number of tree nodes which have been replaced, created or removed
+     */
+    void modificationPrepared(long durationNanos, int changedNodes);
+
+    /**
+     * Invoked when a candidate has been committed.
+     *
+     * @param durationNanos Time spent committing the candidate, in nanoseconds
+     * @param retries Number of times the state update had to be retried due to concurrent updates
+     */
+    void candidateCommitted(long durationNanos, int retries);
+}
@@ -9,6 +9,7 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -44,8 +45,12 @@ final class DataTreeState {
         return root;
     }
 
-    InMemoryDataTreeSnapshot newSnapshot() {
-        return new InMemoryDataTreeSnapshot(schemaContext, root, holder.newSnapshot());
+    ModificationApplyOperation getOperation() {
+        return holder.getCurrent();
+    }
+
+    InMemoryDataTreeSnapshot newSnapshot(@Nullable final DataTreeMetricsListener metrics) {
+        return new InMemoryDataTreeSnapshot(schemaContext, root, holder.newSnapshot(), metrics);
     }
 
     DataTreeState withSchemaContext(final SchemaContext newSchemaContext, final ModificationApplyOperation operation) {
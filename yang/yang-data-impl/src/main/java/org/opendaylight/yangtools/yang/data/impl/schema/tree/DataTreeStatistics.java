@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+
+/**
+ * A {@link DataTreeMetricsListener} which aggregates the reported metrics into counters and latency histograms.
+ */
+@Beta
+@ThreadSafe
+public final class DataTreeStatistics implements DataTreeMetricsListener {
+    /**
+     * Histogram of durations. Durations are recorded into buckets with exponentially-increasing bounds: bucket
+     * {@code i} holds durations in the range of {@code [2^i, 2^(i+1))} nanoseconds, with bucket 0 also holding zero
+     * durations.
+     */
+    @ThreadSafe
+    public static final class LatencyHistogram {
+        private static final int BUCKETS = Long.SIZE - 1;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        LatencyHistogram() {
+            // Hidden on purpose
+        }
+
+        void record(final long durationNanos) {
+            final long duration = Math.max(durationNanos, 1);
+            buckets.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(duration));
+            count.increment();
+            totalNanos.add(duration);
+        }
+
+        /**
+         * Return the number of recorded durations.
+         *
+         * @return Number of recorded durations
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Return the sum of all recorded durations.
+         *
+         * @return Total duration in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * Return a snapshot of bucket counts.
+         *
+         * @return Array of counts, indexed by bucket
+         */
+        public long[] getBuckets() {
+            final long[] ret = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; ++i) {
+                ret[i] = buckets.get(i);
+            }
+            return ret;
+        }
+
+        /**
+         * Return an upper bound of the specified percentile of recorded durations, as determined by bucket bounds.
+         *
+         * @param percentile Requested percentile, in the range of {@code (0, 100]}
+         * @return Upper bound of the percentile in nanoseconds, 0 if no durations have been recorded
+         * @throws IllegalArgumentException if the percentile is out of range
+         */
+        public long getPercentileNanos(final double percentile) {
+            Preconditions.checkArgument(percentile > 0 && percentile <= 100, "Invalid percentile %s", percentile);
+            final long[] snapshot = getBuckets();
+            long total = 0;
+            for (long bucket : snapshot) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            final long threshold = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                seen += snapshot[i];
+                if (seen >= threshold) {
+                    return (1L << i + 1) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this).add("count", getCount()).add("totalNanos", getTotalNanos())
+                    .toString();
+        }
+    }
+
+    private final LatencyHistogram seal = new LatencyHistogram();
+    private final LatencyHistogram validate = new LatencyHistogram();
+    private final LatencyHistogram prepare = new LatencyHistogram();
+    private final LatencyHistogram commit = new LatencyHistogram();
+    private final LongAdder modifiedNodes = new LongAdder();
+    private final LongAdder changedNodes = new LongAdder();
+    private final LongAdder rebased = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder commitRetries = new LongAdder();
+
+    @Override
+    public void modificationSealed(final long durationNanos, final int modified) {
+        seal.record(durationNanos);
+        modifiedNodes.add(modified);
+    }
+
+    @Override
+    public void modificationValidated(final long durationNanos, final boolean wasRebased) {
+        validate.record(durationNanos);
+        if (wasRebased) {
+            rebased.increment();
+        }
+    }
+
+    @Override
+    public void modificationRejected(final long durationNanos, final DataValidationFailedException cause) {
+        validate.record(durationNanos);
+        if (cause instanceof ConflictingModificationAppliedException) {
+            conflicts.increment();
+        } else {
+            rejections.increment();
+        }
+    }
+
+    @Override
+    public void modificationPrepared(final long durationNanos, final int changed) {
+        prepare.record(durationNanos);
+        changedNodes.add(changed);
+    }
+
+    @Override
+    public void candidateCommitted(final long durationNanos, final int retries) {
+        commit.record(durationNanos);
+        commitRetries.add(retries);
+    }
+
+    public LatencyHistogram getSealLatency() {
+        return seal;
+    }
+
+    public LatencyHistogram getValidateLatency() {
+        return validate;
+    }
+
+    public LatencyHistogram getPrepareLatency() {
+        return prepare;
+    }
+
+    public LatencyHistogram getCommitLatency() {
+        return commit;
+    }
+
+    /**
+     * Return the total number of nodes touched by sealed modifications.
+     *
+     * @return Total number of modified nodes
+     */
+    public long getModifiedNodes() {
+        return modifiedNodes.sum();
+    }
+
+    /**
+     * Return the total number of tree nodes replaced, created or removed by prepared modifications.
+     *
+     * @return Total number of changed tree nodes
+     */
+    public long getChangedNodes() {
+        return changedNodes.sum();
+    }
+
+    /**
+     * Return the number of modifications which have been rebased during validation.
+     *
+     * @return Number of rebased modifications
+     */
+    public long getRebased() {
+        return rebased.sum();
+    }
+
+    /**
+     * Return the number of modifications which have failed validation due to conflicting with concurrent changes.
+     *
+     * @return Number of conflicting modifications
+     */
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Return the number of modifications which have failed validation for reasons other than conflicting with
+     * concurrent changes.
+     *
+     * @return Number of rejected modifications
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * Return the total number of retries of state updates during commit.
+     *
+     * @return Number of retries
+     */
+    public long getCommitRetries() {
+        return commitRetries.sum();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("seal", seal).add("validate", validate).add("prepare", prepare)
+                .add("commit", commit).add("modifiedNodes", getModifiedNodes()).add("changedNodes", getChangedNodes())
+                .add("rebased", getRebased()).add("conflicts", getConflicts()).add("rejections", getRejections())
+                .add("commitRetries", getCommitRetries()).toString();
+    }
+}
@@ -11,6 +11,7 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
@@ -35,6 +36,7 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements DataTree {
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryDataTree.class);
 
     private final DataTreeConfiguration treeConfig;
+    private final DataTreeMetricsListener metrics;
     private final boolean maskMandatory;
 
     /**
@@ -46,6 +48,7 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements DataTree {
         final SchemaContext schemaContext) {
         this.treeConfig = Preconditions.checkNotNull(treeConfig, "treeConfig");
         maskMandatory = true;
+        metrics = null;
         state = DataTreeState.createInitial(rootNode);
         if (schemaContext != null) {
             setSchemaContext(schemaContext);
@@ -53,14 +56,24 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements DataTree {
     }
 
     InMemoryDataTree(final TreeNode rootNode, final DataTreeConfiguration treeConfig,
-            final SchemaContext schemaContext, final DataSchemaNode rootSchemaNode, final boolean maskMandatory) {
+            final SchemaContext schemaContext, final DataSchemaNode rootSchemaNode, final boolean maskMandatory,
+            @Nullable final DataTreeMetricsListener metrics) {
+        this(rootNode, treeConfig, schemaContext, createOperation(rootSchemaNode, treeConfig, maskMandatory),
+            maskMandatory, metrics);
+    }
+
+    InMemoryDataTree(final TreeNode rootNode, final DataTreeConfiguration treeConfig,
+            final SchemaContext schemaContext, final ModificationApplyOperation rootOperation,
+            final boolean maskMandatory, @Nullable final DataTreeMetricsListener metrics) {
         this.treeConfig = Preconditions.checkNotNull(treeConfig, "treeConfig");
         this.maskMandatory = maskMandatory;
+        this.metrics = metrics;
 
-        state = DataTreeState.createInitial(rootNode).withSchemaContext(schemaContext, getOperation(rootSchemaNode));
+        state = DataTreeState.createInitial(rootNode).withSchemaContext(schemaContext, rootOperation);
     }
 
-    private ModificationApplyOperation getOperation(final DataSchemaNode rootSchemaNode) {
+    static ModificationApplyOperation createOperation(final DataSchemaNode rootSchemaNode,
+            final DataTreeConfiguration treeConfig, final boolean maskMandatory) {
         if (maskMandatory && rootSchemaNode instanceof ContainerSchemaNode) {
             return new ContainerModificationStrategy((ContainerSchemaNode) rootSchemaNode, treeConfig);
         }
@@ -68,6 +81,10 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements DataTree {
         return SchemaAwareApplyOperation.from(rootSchemaNode, treeConfig);
     }
 
+    private ModificationApplyOperation getOperation(final DataSchemaNode rootSchemaNode) {
+        return createOperation(rootSchemaNode, treeConfig, maskMandatory);
+    }
+
     /*
      * This method is synchronized to guard against user attempting to install
      * multiple contexts. Otherwise it runs in a lock-free manner.
@@ -92,6 +109,9 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements DataTree {
         }
 
         final ModificationApplyOperation rootNode = getOperation(rootSchemaNode);
+        // Reuse operations for the parts of schema which have not changed, retaining any state they have accumulated
+        rootNode.inheritFrom(state.getOperation());
+
         DataTreeState currentState;
         DataTreeState newState;
         do {
@@ -102,7 +122,7 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements DataTree {
 
     @Override
     public InMemoryDataTreeSnapshot takeSnapshot() {
-        return state.newSnapshot();
+        return state.newSnapshot(metrics);
     }
 
     @Override
@@ -118,15 +138,33 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements DataTree {
             LOG.trace("Data Tree is {}", NormalizedNodes.toStringTree(c.getTipRoot().getData()));
         }
 
-        final TreeNode newRoot = c.getTipRoot();
+        if (metrics == null) {
+            commit(c);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final int retries = commit(c);
+        metrics.candidateCommitted(System.nanoTime() - start, retries);
+    }
+
+    /**
+     * Update the current state to the tip of a candidate.
+     *
+     * @return Number of times the state update has been retried
+     */
+    private int commit(final InMemoryDataTreeCandidate candidate) {
+        int retries = -1;
+        final TreeNode newRoot = candidate.getTipRoot();
         DataTreeState currentState;
         DataTreeState newState;
         do {
+            retries++;
             currentState = state;
             final TreeNode currentRoot = currentState.getRoot();
             LOG.debug("Updating datastore from {} to {}", currentRoot, newRoot);
 
-            final TreeNode oldRoot = c.getBeforeRoot();
+            final TreeNode oldRoot = candidate.getBeforeRoot();
             if (oldRoot != currentRoot) {
                 final String oldStr = simpleToString(oldRoot);
                 final String currentStr = simpleToString(currentRoot);
@@ -137,6 +175,7 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements DataTree {
             newState = currentState.withRoot(newRoot);
             LOG.trace("Updated state from {} to {}", currentState, newState);
         } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
+        return retries;
     }
 
     private static String simpleToString(final Object obj) {
@@ -162,4 +201,14 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements DataTree {
     protected TreeNode getTipRoot() {
         return state.getRoot();
     }
+
+    @Override
+    protected DataTreeMetricsListener getMetricsListener() {
+        return metrics;
+    }
+
+    @Override
+    protected boolean isConflictRebaseEnabled() {
+        return treeConfig.isConflictRebaseEnabled();
+    }
 }
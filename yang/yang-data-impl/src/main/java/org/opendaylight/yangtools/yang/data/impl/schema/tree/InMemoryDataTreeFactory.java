@@ -7,12 +7,16 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
+import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
 import org.kohsuke.MetaInfServices;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
@@ -24,7 +28,10 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailed
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapEntryNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapNodeBuilder;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextNode;
 import org.opendaylight.yangtools.yang.data.util.DataSchemaContextTree;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
@@ -48,13 +55,13 @@ public final class InMemoryDataTreeFactory implements DataTreeFactory {
 
     @Override
     public DataTree create(final DataTreeConfiguration treeConfig, final SchemaContext initialSchemaContext) {
-        return create(treeConfig, initialSchemaContext, true);
+        return create(treeConfig, initialSchemaContext, true, null);
     }
 
     @Override
     public DataTree create(final DataTreeConfiguration treeConfig, final SchemaContext initialSchemaContext,
             final NormalizedNodeContainer<?, ?, ?> initialRoot) throws DataValidationFailedException {
-        final DataTree ret = create(treeConfig, initialSchemaContext, false);
+        final DataTree ret = create(treeConfig, initialSchemaContext, false, null);
 
         final DataTreeModification mod = ret.takeSnapshot().newModification();
         mod.write(YangInstanceIdentifier.EMPTY, initialRoot);
@@ -66,13 +73,75 @@ public final class InMemoryDataTreeFactory implements DataTreeFactory {
         return ret;
     }
 
+    /**
+     * Create a new data tree, which reports the cost of processing transactions to a {@link DataTreeMetricsListener}.
+     * Aside from that, the data tree behaves exactly like one created via
+     * {@link #create(DataTreeConfiguration, SchemaContext)}.
+     *
+     * @param treeConfig Data tree configuration
+     * @param initialSchemaContext Initial SchemaContext
+     * @param metrics Listener to be notified of transaction processing metrics
+     * @return A new {@link DataTree}
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IllegalArgumentException if the root path cannot be resolved in the SchemaContext
+     */
+    @Beta
+    public DataTree create(final DataTreeConfiguration treeConfig, final SchemaContext initialSchemaContext,
+            final DataTreeMetricsListener metrics) {
+        return create(treeConfig, initialSchemaContext, true, Preconditions.checkNotNull(metrics));
+    }
+
     private static DataTree create(final DataTreeConfiguration treeConfig, final SchemaContext initialSchemaContext,
-            final boolean maskMandatory) {
+            final boolean maskMandatory, final DataTreeMetricsListener metrics) {
         final DataSchemaNode rootSchemaNode = getRootSchemaNode(initialSchemaContext, treeConfig.getRootPath());
         final NormalizedNode<?, ?> rootDataNode = createRoot((DataNodeContainer)rootSchemaNode,
             treeConfig.getRootPath());
         return new InMemoryDataTree(TreeNodeFactory.createTreeNode(rootDataNode, Version.initial()), treeConfig,
-            initialSchemaContext, rootSchemaNode, maskMandatory);
+            initialSchemaContext, rootSchemaNode, maskMandatory, metrics);
+    }
+
+    /**
+     * Create a loader for a new data tree, which is populated from a stream of data. This is functionally equivalent
+     * to creating a data tree via {@link #create(DataTreeConfiguration, SchemaContext)} and committing a write of its
+     * initial contents, but does not involve any modification of the data tree.
+     *
+     * @param treeConfig Data tree configuration
+     * @param initialSchemaContext Initial SchemaContext
+     * @return A new {@link InMemoryDataTreeLoader}
+     * @throws IllegalArgumentException if the root path cannot be resolved in the SchemaContext
+     */
+    @Beta
+    public InMemoryDataTreeLoader createLoader(final DataTreeConfiguration treeConfig,
+            final SchemaContext initialSchemaContext) {
+        return newLoader(treeConfig, initialSchemaContext, null);
+    }
+
+    /**
+     * Create a loader for a new data tree, which reports the cost of processing transactions to a
+     * {@link DataTreeMetricsListener}. Aside from that, the loader behaves exactly like one created via
+     * {@link #createLoader(DataTreeConfiguration, SchemaContext)}.
+     *
+     * @param treeConfig Data tree configuration
+     * @param initialSchemaContext Initial SchemaContext
+     * @param metrics Listener to be notified of transaction processing metrics
+     * @return A new {@link InMemoryDataTreeLoader}
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IllegalArgumentException if the root path cannot be resolved in the SchemaContext
+     */
+    @Beta
+    public InMemoryDataTreeLoader createLoader(final DataTreeConfiguration treeConfig,
+            final SchemaContext initialSchemaContext, final DataTreeMetricsListener metrics) {
+        return newLoader(treeConfig, initialSchemaContext, Preconditions.checkNotNull(metrics));
+    }
+
+    private static InMemoryDataTreeLoader newLoader(final DataTreeConfiguration treeConfig,
+            final SchemaContext initialSchemaContext, final DataTreeMetricsListener metrics) {
+        final DataSchemaNode rootSchemaNode = getRootSchemaNode(initialSchemaContext, treeConfig.getRootPath());
+        final NormalizedNode<?, ?> rootDataNode = createRoot((DataNodeContainer)rootSchemaNode,
+            treeConfig.getRootPath());
+        return new InMemoryDataTreeLoader(treeConfig, initialSchemaContext,
+            InMemoryDataTree.createOperation(rootSchemaNode, treeConfig, true), createRootBuilder(rootDataNode),
+            metrics);
     }
 
     private static DataSchemaNode getRootSchemaNode(final SchemaContext schemaContext,
@@ -128,4 +197,17 @@ public final class InMemoryDataTreeFactory implements DataTreeFactory {
         // FIXME: implement augmentations and leaf-lists
         throw new IllegalArgumentException("Unsupported root node " + arg);
     }
+
+    @SuppressWarnings("rawtypes")
+    private static NormalizedNodeContainerBuilder createRootBuilder(final NormalizedNode<?, ?> root) {
+        if (root instanceof ContainerNode) {
+            return ImmutableContainerNodeBuilder.create((ContainerNode) root);
+        } else if (root instanceof MapEntryNode) {
+            return ImmutableMapEntryNodeBuilder.create((MapEntryNode) root);
+        } else if (root instanceof MapNode) {
+            return ImmutableMapNodeBuilder.create((MapNode) root);
+        } else {
+            throw new IllegalArgumentException("Unsupported root node " + root);
+        }
+    }
 }
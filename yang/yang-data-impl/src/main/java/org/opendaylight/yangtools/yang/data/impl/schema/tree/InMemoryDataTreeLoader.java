@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * Bulk loader of the initial contents of an in-memory {@link DataTree}. Data is supplied as a stream of events to
+ * the {@link NormalizedNodeStreamWriter} returned from {@link #getWriter()}, which assembles it bottom-up, verifying
+ * each node against the schema as soon as it is complete. Once the stream has been written, {@link #build()} creates
+ * the data tree with the assembled data as its root.
+ *
+ * <p>
+ * Unlike writing the initial contents through a {@link org.opendaylight.yangtools.yang.data.api.schema.tree
+ * .DataTreeModification}, this does not allocate any modification metadata and each node is verified exactly once.
+ * The checks performed are those a write of the complete contents would perform, except children which are not
+ * defined by the schema are always rejected, regardless of the {@link DataTreeConfiguration#getTreeType()}. Any
+ * violation is reported by the writer throwing a {@link SchemaValidationFailedException}, at which point this loader
+ * cannot be used anymore.
+ */
+@Beta
+@NotThreadSafe
+public final class InMemoryDataTreeLoader {
+    private final Deque<ModificationApplyOperation> operations = new ArrayDeque<>();
+    private final DataTreeConfiguration treeConfig;
+    private final SchemaContext schemaContext;
+    private final DataTreeMetricsListener metrics;
+    @SuppressWarnings("rawtypes")
+    private final NormalizedNodeContainerBuilder rootBuilder;
+    private final Writer writer;
+    private boolean built;
+
+    @SuppressWarnings("rawtypes")
+    InMemoryDataTreeLoader(final DataTreeConfiguration treeConfig, final SchemaContext schemaContext,
+            final ModificationApplyOperation rootOperation, final NormalizedNodeContainerBuilder rootBuilder,
+            @Nullable final DataTreeMetricsListener metrics) {
+        this.treeConfig = Preconditions.checkNotNull(treeConfig);
+        this.schemaContext = Preconditions.checkNotNull(schemaContext);
+        this.metrics = metrics;
+        this.rootBuilder = Preconditions.checkNotNull(rootBuilder);
+        operations.push(rootOperation);
+        writer = new Writer(rootBuilder);
+    }
+
+    /**
+     * Return the writer to which the contents of the root node should be written. The root node itself is implied
+     * by the {@link DataTreeConfiguration#getRootPath()} and must not be written.
+     *
+     * @return A {@link NormalizedNodeStreamWriter}
+     */
+    public NormalizedNodeStreamWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Finish loading and create a data tree containing the loaded data. This method can only be invoked once. If this
+     * loader has been created with a {@link DataTreeMetricsListener}, the data tree reports its metrics to it.
+     *
+     * @return A new {@link DataTree}
+     * @throws IllegalStateException if the writer has unfinished nodes or this method has already been invoked
+     * @throws IllegalArgumentException if the root node does not adhere to the schema
+     */
+    public DataTree build() {
+        Preconditions.checkState(!built, "Loader %s has already been built", this);
+        Preconditions.checkState(operations.size() == 1, "Loader %s has %s unfinished nodes", this,
+            operations.size() - 1);
+        built = true;
+
+        final NormalizedNode<?, ?> root = rootBuilder.build();
+        final ModificationApplyOperation rootOperation = operations.pop();
+        rootOperation.verifyValue(root);
+        return new InMemoryDataTree(TreeNodeFactory.createTreeNode(root, Version.initial()), treeConfig,
+            schemaContext, rootOperation, true, metrics);
+    }
+
+    private void enter(final PathArgument child) {
+        final ModificationApplyOperation parent = operations.peek();
+        Preconditions.checkState(parent != null && !built, "Loader %s has already been built", this);
+
+        final Optional<ModificationApplyOperation> op = parent.getChild(child);
+        if (!op.isPresent()) {
+            throw new SchemaValidationFailedException(String.format(
+                "Node %s is not a valid child of %s according to the schema.", child, parent));
+        }
+        operations.push(op.get());
+    }
+
+    private void exit() {
+        operations.pop();
+    }
+
+    private final class Writer extends ImmutableNormalizedNodeStreamWriter {
+        @SuppressWarnings("rawtypes")
+        Writer(final NormalizedNodeContainerBuilder topLevelBuilder) {
+            super(topLevelBuilder, treeConfig.isValueOnlyLeavesEnabled());
+        }
+
+        @Override
+        protected void writeChild(final NormalizedNode<?, ?> child) {
+            // The operation for the child is on top of the stack
+            operations.peek().verifyValue(child);
+            super.writeChild(child);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        protected void addFinishedNode(final NormalizedNodeContainerBuilder parent, final NormalizedNode<?, ?> node) {
+            // The operation for the finished node is on top of the stack
+            operations.peek().verifyValue(node);
+            super.addFinishedNode(parent, node);
+        }
+
+        @Override
+        public void endNode() {
+            super.endNode();
+            exit();
+        }
+
+        @Override
+        public void leafSetEntryNode(final QName name, final Object value) {
+            enter(new NodeWithValue<>(name, value));
+            super.leafSetEntryNode(name, value);
+            exit();
+        }
+
+        @Override
+        public void leafNode(final NodeIdentifier name, final Object value) {
+            enter(name);
+            super.leafNode(name, value);
+            exit();
+        }
+
+        @Override
+        public void anyxmlNode(final NodeIdentifier name, final Object value) {
+            enter(name);
+            super.anyxmlNode(name, value);
+            exit();
+        }
+
+        @Override
+        public void startLeafSet(final NodeIdentifier name, final int childSizeHint) {
+            enter(name);
+            super.startLeafSet(name, childSizeHint);
+        }
+
+        @Override
+        public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) {
+            enter(name);
+            super.startOrderedLeafSet(name, childSizeHint);
+        }
+
+        @Override
+        public void startContainerNode(final NodeIdentifier name, final int childSizeHint) {
+            enter(name);
+            super.startContainerNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint) {
+            enter(name);
+            super.startYangModeledAnyXmlNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) {
+            enter(name);
+            super.startUnkeyedList(name, childSizeHint);
+        }
+
+        @Override
+        public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) {
+            enter(name);
+            super.startUnkeyedListItem(name, childSizeHint);
+        }
+
+        @Override
+        public void startMapNode(final NodeIdentifier name, final int childSizeHint) {
+            enter(name);
+            super.startMapNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint) {
+            enter(identifier);
+            super.startMapEntryNode(identifier, childSizeHint);
+        }
+
+        @Override
+        public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) {
+            enter(name);
+            super.startOrderedMapNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) {
+            enter(name);
+            super.startChoiceNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startAugmentationNode(final AugmentationIdentifier identifier) {
+            enter(identifier);
+            super.startAugmentationNode(identifier);
+        }
+    }
+}
@@ -37,6 +37,11 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
 
     private volatile int sealed = 0;
 
+    /**
+     * Equivalent of this modification rebased onto a different tip, as produced by {@link ModificationRebaser}.
+     */
+    private volatile InMemoryDataTreeModification rebased;
+
     InMemoryDataTreeModification(final InMemoryDataTreeSnapshot snapshot,
             final RootModificationApplyOperation resolver) {
         this.snapshot = Preconditions.checkNotNull(snapshot);
@@ -63,6 +68,37 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
         return strategyTree;
     }
 
+    TreeNode getBaseRoot() {
+        return snapshot.getRootNode();
+    }
+
+    /**
+     * Return the modification which should be applied on top of a particular tip. This is this modification, unless
+     * it has been rebased onto that tip.
+     *
+     * @param tipRoot Root of the tip
+     * @return Modification to apply
+     */
+    InMemoryDataTreeModification getModificationFor(final TreeNode tipRoot) {
+        final InMemoryDataTreeModification local = rebased;
+        return local != null && local.getBaseRoot() == tipRoot ? local : this;
+    }
+
+    void setRebased(final InMemoryDataTreeModification rebased) {
+        this.rebased = Preconditions.checkNotNull(rebased);
+    }
+
+    /**
+     * Create a new modification, using the same schema as this modification, on top of a different root.
+     *
+     * @param root Root node
+     * @return A new modification
+     */
+    InMemoryDataTreeModification newModificationOn(final TreeNode root) {
+        return new InMemoryDataTreeSnapshot(snapshot.getSchemaContext(), root, strategyTree,
+            snapshot.getMetricsListener()).newModification();
+    }
+
     @Override
     public void write(final YangInstanceIdentifier path, final NormalizedNode<?, ?> data) {
         checkSealed();
@@ -193,7 +229,7 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
             "Data tree root is not present, possibly removed by previous modification");
 
         final InMemoryDataTreeSnapshot tempTree = new InMemoryDataTreeSnapshot(snapshot.getSchemaContext(),
-            tempRoot.get(), strategyTree);
+            tempRoot.get(), strategyTree, snapshot.getMetricsListener());
         return tempTree.newModification();
     }
 
@@ -280,9 +316,29 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
         final boolean wasRunning = SEALED_UPDATER.compareAndSet(this, 0, 1);
         Preconditions.checkState(wasRunning, "Attempted to seal an already-sealed Data Tree.");
 
+        final DataTreeMetricsListener metrics = snapshot.getMetricsListener();
+        if (metrics == null) {
+            seal();
+            return;
+        }
+
+        final long start = System.nanoTime();
+        seal();
+        metrics.modificationSealed(System.nanoTime() - start, countModified(rootNode));
+    }
+
+    private void seal() {
         AbstractReadyIterator current = AbstractReadyIterator.create(rootNode, strategyTree);
         do {
             current = current.process(version);
         } while (current != null);
     }
+
+    private static int countModified(final ModifiedNode node) {
+        int ret = node.getOperation() != LogicalOperation.NONE ? 1 : 0;
+        for (ModifiedNode child : node.getChildren()) {
+            ret += countModified(child);
+        }
+        return ret;
+    }
 }
@@ -12,6 +12,7 @@ import static java.util.Objects.requireNonNull;
 
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
@@ -25,12 +26,19 @@ final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements Curs
     private final RootModificationApplyOperation applyOper;
     private final SchemaContext schemaContext;
     private final TreeNode rootNode;
+    private final DataTreeMetricsListener metrics;
 
     InMemoryDataTreeSnapshot(final SchemaContext schemaContext, final TreeNode rootNode,
             final RootModificationApplyOperation applyOper) {
+        this(schemaContext, rootNode, applyOper, null);
+    }
+
+    InMemoryDataTreeSnapshot(final SchemaContext schemaContext, final TreeNode rootNode,
+            final RootModificationApplyOperation applyOper, @Nullable final DataTreeMetricsListener metrics) {
         this.schemaContext = requireNonNull(schemaContext);
         this.rootNode = requireNonNull(rootNode);
         this.applyOper = requireNonNull(applyOper);
+        this.metrics = metrics;
     }
 
     TreeNode getRootNode() {
@@ -41,6 +49,10 @@ final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements Curs
         return schemaContext;
     }
 
+    @Nullable DataTreeMetricsListener getMetricsListener() {
+        return metrics;
+    }
+
     @Override
     public Optional<NormalizedNode<?, ?>> readNode(final YangInstanceIdentifier path) {
         return NormalizedNodes.findNode(rootNode.getData(), path);
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+
+/**
+ * Utility methods for accessing the internal structure of snapshots of in-memory data trees.
+ */
+@Beta
+public final class InMemoryDataTreeSnapshots {
+    private InMemoryDataTreeSnapshots() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Return the root {@link TreeNode} of a snapshot. Since unchanged subtrees are shared between snapshots of
+     * a data tree, comparing {@link TreeNode#getSubtreeVersion()}s allows finding subtrees which have changed between
+     * two snapshots without comparing their data.
+     *
+     * @param snapshot Snapshot of an in-memory data tree
+     * @return Root TreeNode of the snapshot
+     * @throws IllegalArgumentException if the snapshot has not been taken from an in-memory data tree
+     */
+    public static TreeNode getRootNode(final DataTreeSnapshot snapshot) {
+        Preconditions.checkArgument(snapshot instanceof InMemoryDataTreeSnapshot,
+            "Snapshot %s is not an in-memory data tree snapshot", snapshot);
+        return ((InMemoryDataTreeSnapshot) snapshot).getRootNode();
+    }
+}
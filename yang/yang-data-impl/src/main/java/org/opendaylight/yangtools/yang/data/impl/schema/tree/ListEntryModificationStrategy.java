@@ -35,10 +35,16 @@ final class ListEntryModificationStrategy extends AbstractDataNodeContainerModif
         }
     }
 
+    @Override
+    void verifyValue(final NormalizedNode<?, ?> value) {
+        super.verifyValue(value);
+        enforcer.enforceOnData(value);
+    }
+
     @Override
     protected TreeNode applyMerge(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
         final TreeNode ret = super.applyMerge(modification, currentMeta, version);
-        enforcer.enforceOnTreeNode(ret);
+        enforcer.enforceOnModification(modification, currentMeta, ret);
         return ret;
     }
 
@@ -53,7 +59,7 @@ final class ListEntryModificationStrategy extends AbstractDataNodeContainerModif
     @Override
     protected TreeNode applyTouch(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
         final TreeNode ret = super.applyTouch(modification, currentMeta, version);
-        enforcer.enforceOnTreeNode(ret);
+        enforcer.enforceOnModification(modification, currentMeta, ret);
         return ret;
     }
 
@@ -61,7 +67,8 @@ final class ListEntryModificationStrategy extends AbstractDataNodeContainerModif
     @SuppressWarnings("rawtypes")
     protected DataContainerNodeBuilder createBuilder(final NormalizedNode<?, ?> original) {
         checkArgument(original instanceof MapEntryNode);
-        return ImmutableMapEntryNodeBuilder.create((MapEntryNode) original);
+        return isValueOnlyLeaves() ? ImmutableMapEntryNodeBuilder.createValueOnly((MapEntryNode) original)
+                : ImmutableMapEntryNodeBuilder.create((MapEntryNode) original);
     }
 
     @Override
@@ -7,14 +7,19 @@
  */
 package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
-import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableCollection.Builder;
-import com.google.common.collect.ImmutableList;
-import java.util.Collection;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
@@ -28,22 +33,97 @@ import org.opendaylight.yangtools.yang.model.api.MandatoryAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Enforcement of mandatory descendants of a container-like node. Mandatory nodes are compiled into a tree mirroring
+ * non-presence containers in the schema, so that a single pass over the data checks all of them. When an existing
+ * node is modified, only the branches touched by the {@link ModifiedNode} tree are rechecked.
+ */
 // TODO: would making this Serializable be useful (for Functions and similar?)
 abstract class MandatoryLeafEnforcer implements Immutable {
+    /**
+     * Mandatory descendants of a node, indexed by the child leading to them.
+     */
+    private static final class MandatoryChildren implements Immutable {
+        // Values are either a YangInstanceIdentifier of a mandatory leaf, leaf-list or list relative to the enforcing
+        // node, or MandatoryChildren of a non-presence container. Iteration order follows the schema.
+        private final Map<NodeIdentifier, Object> children;
+        // Path of the first mandatory descendant, reported when an enclosing container is missing
+        private final YangInstanceIdentifier first;
+
+        MandatoryChildren(final Map<NodeIdentifier, Object> children) {
+            this.children = ImmutableMap.copyOf(children);
+            final Object firstChild = children.values().iterator().next();
+            first = firstChild instanceof MandatoryChildren ? ((MandatoryChildren) firstChild).first
+                    : (YangInstanceIdentifier) firstChild;
+        }
+
+        void enforceOnData(final NormalizedNode<?, ?> root, final NormalizedNode<?, ?> data) {
+            for (final Entry<NodeIdentifier, Object> entry : children.entrySet()) {
+                final Object value = entry.getValue();
+                if (value instanceof MandatoryChildren) {
+                    final MandatoryChildren container = (MandatoryChildren) value;
+                    container.enforceOnData(root, getChild(root, data, entry.getKey(), container));
+                } else {
+                    checkMandatory(root, NormalizedNodes.getDirectChild(data, entry.getKey()).isPresent(),
+                        (YangInstanceIdentifier) value);
+                }
+            }
+        }
+
+        void enforceOnModification(final NormalizedNode<?, ?> root, final ModifiedNode modification,
+                final NormalizedNode<?, ?> before, final NormalizedNode<?, ?> after) {
+            for (final ModifiedNode child : modification.getChildren()) {
+                if (child.getOperation() == LogicalOperation.NONE) {
+                    continue;
+                }
+
+                final PathArgument id = child.getIdentifier();
+                final Object value = children.get(id);
+                if (value instanceof MandatoryChildren) {
+                    final MandatoryChildren container = (MandatoryChildren) value;
+                    final NormalizedNode<?, ?> afterChild = getChild(root, after, id, container);
+                    final Optional<NormalizedNode<?, ?>> beforeChild = NormalizedNodes.getDirectChild(before, id);
+                    if (beforeChild.isPresent() && child.getOperation() != LogicalOperation.WRITE) {
+                        container.enforceOnModification(root, child, beforeChild.get(), afterChild);
+                    } else {
+                        container.enforceOnData(root, afterChild);
+                    }
+                } else if (value != null) {
+                    checkMandatory(root, NormalizedNodes.getDirectChild(after, id).isPresent(),
+                        (YangInstanceIdentifier) value);
+                }
+            }
+        }
+
+        private static NormalizedNode<?, ?> getChild(final NormalizedNode<?, ?> root,
+                final NormalizedNode<?, ?> data, final PathArgument id, final MandatoryChildren container) {
+            final Optional<NormalizedNode<?, ?>> child = NormalizedNodes.getDirectChild(data, id);
+            checkMandatory(root, child.isPresent(), container.first);
+            return child.get();
+        }
+
+        private static void checkMandatory(final NormalizedNode<?, ?> root, final boolean present,
+                final YangInstanceIdentifier id) {
+            checkArgument(present, "Node %s is missing mandatory descendant %s", root.getIdentifier(), id);
+        }
+    }
+
     private static final class Strict extends MandatoryLeafEnforcer {
-        private final Collection<YangInstanceIdentifier> mandatoryNodes;
+        private final MandatoryChildren mandatoryNodes;
 
-        Strict(final Collection<YangInstanceIdentifier> mandatoryNodes) {
-            this.mandatoryNodes = Preconditions.checkNotNull(mandatoryNodes);
+        Strict(final MandatoryChildren mandatoryNodes) {
+            this.mandatoryNodes = requireNonNull(mandatoryNodes);
         }
 
         @Override
         void enforceOnData(final NormalizedNode<?, ?> data) {
-            for (final YangInstanceIdentifier id : mandatoryNodes) {
-                final Optional<NormalizedNode<?, ?>> descandant = NormalizedNodes.findNode(data, id);
-                Preconditions.checkArgument(descandant.isPresent(), "Node %s is missing mandatory descendant %s",
-                        data.getIdentifier(), id);
-            }
+            mandatoryNodes.enforceOnData(data, data);
+        }
+
+        @Override
+        void enforceOnModification(final ModifiedNode modification, final TreeNode before, final TreeNode after) {
+            final NormalizedNode<?, ?> data = after.getData();
+            mandatoryNodes.enforceOnModification(data, modification, before.getData(), data);
         }
     }
 
@@ -53,6 +133,11 @@ abstract class MandatoryLeafEnforcer implements Immutable {
         void enforceOnData(final NormalizedNode<?, ?> normalizedNode) {
             // Intentional no-op
         }
+
+        @Override
+        void enforceOnModification(final ModifiedNode modification, final TreeNode before, final TreeNode after) {
+            // Intentional no-op
+        }
     };
 
     final void enforceOnTreeNode(final TreeNode tree) {
@@ -61,14 +146,31 @@ abstract class MandatoryLeafEnforcer implements Immutable {
 
     abstract void enforceOnData(NormalizedNode<?, ?> normalizedNode);
 
-    private static void findMandatoryNodes(final Builder<YangInstanceIdentifier> builder,
-            final YangInstanceIdentifier id, final DataNodeContainer schema, final TreeType type) {
+    /**
+     * Enforce mandatory descendants on the result of applying a modification to a node which already existed and
+     * satisfied this enforcer. Only descendants affected by the modification are checked.
+     *
+     * @param modification Applied modification
+     * @param before Node before the modification was applied
+     * @param after Node after the modification was applied
+     * @throws IllegalArgumentException if a mandatory descendant is missing
+     */
+    abstract void enforceOnModification(ModifiedNode modification, TreeNode before, TreeNode after);
+
+    private static @Nullable MandatoryChildren findMandatoryNodes(final YangInstanceIdentifier id,
+            final DataNodeContainer schema, final TreeType type) {
+        final Map<NodeIdentifier, Object> children = new LinkedHashMap<>();
         for (final DataSchemaNode child : schema.getChildNodes()) {
             if (SchemaAwareApplyOperation.belongsToTree(type, child)) {
+                final NodeIdentifier childId = NodeIdentifier.create(child.getQName());
                 if (child instanceof ContainerSchemaNode) {
                     final ContainerSchemaNode container = (ContainerSchemaNode) child;
                     if (!container.isPresenceContainer()) {
-                        findMandatoryNodes(builder, id.node(NodeIdentifier.create(child.getQName())), container, type);
+                        final MandatoryChildren containerChildren = findMandatoryNodes(id.node(childId), container,
+                            type);
+                        if (containerChildren != null) {
+                            children.put(childId, containerChildren);
+                        }
                     }
                 } else {
                     boolean needEnforce = child instanceof MandatoryAware && ((MandatoryAware) child).isMandatory();
@@ -80,13 +182,15 @@ abstract class MandatoryLeafEnforcer implements Immutable {
                                 }).orElse(Boolean.FALSE).booleanValue();
                     }
                     if (needEnforce) {
-                        final YangInstanceIdentifier childId = id.node(NodeIdentifier.create(child.getQName()));
-                        LOG.debug("Adding mandatory child {}", childId);
-                        builder.add(childId.toOptimized());
+                        final YangInstanceIdentifier mandatoryId = id.node(childId).toOptimized();
+                        LOG.debug("Adding mandatory child {}", mandatoryId);
+                        children.put(childId, mandatoryId);
                     }
                 }
             }
         }
+
+        return children.isEmpty() ? null : new MandatoryChildren(children);
     }
 
     static MandatoryLeafEnforcer forContainer(final DataNodeContainer schema, final DataTreeConfiguration treeConfig) {
@@ -94,9 +198,8 @@ abstract class MandatoryLeafEnforcer implements Immutable {
             return NOOP_ENFORCER;
         }
 
-        final Builder<YangInstanceIdentifier> builder = ImmutableList.builder();
-        findMandatoryNodes(builder, YangInstanceIdentifier.EMPTY, schema, treeConfig.getTreeType());
-        final Collection<YangInstanceIdentifier> mandatoryNodes = builder.build();
-        return mandatoryNodes.isEmpty() ? NOOP_ENFORCER : new Strict(mandatoryNodes);
+        final MandatoryChildren mandatoryNodes = findMandatoryNodes(YangInstanceIdentifier.EMPTY, schema,
+            treeConfig.getTreeType());
+        return mandatoryNodes == null ? NOOP_ENFORCER : new Strict(mandatoryNodes);
     }
 }
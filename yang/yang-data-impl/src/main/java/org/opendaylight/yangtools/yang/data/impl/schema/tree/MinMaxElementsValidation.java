@@ -54,15 +54,22 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
 
     private void validateMinMaxElements(final YangInstanceIdentifier path, final PathArgument id,
             final NormalizedNode<?, ?> data) throws DataValidationFailedException {
+        final String violation = elementCountViolation(id, data);
+        if (violation != null) {
+            throw new DataValidationFailedException(path, violation);
+        }
+    }
+
+    private String elementCountViolation(final PathArgument id, final NormalizedNode<?, ?> data) {
         final int children = numOfChildrenFromValue(data);
         if (minElements > children) {
-            throw new DataValidationFailedException(path, String.format(
-                    "%s does not have enough elements (%s), needs at least %s", id, children, minElements));
+            return String.format("%s does not have enough elements (%s), needs at least %s", id, children,
+                minElements);
         }
         if (maxElements < children) {
-            throw new DataValidationFailedException(path, String.format(
-                    "%s has too many elements (%s), can have at most %s", id, children, maxElements));
+            return String.format("%s has too many elements (%s), can have at most %s", id, children, maxElements);
         }
+        return null;
     }
 
     private void checkMinMaxElements(final YangInstanceIdentifier path, final NodeModification nodeMod,
@@ -73,6 +80,11 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         }
 
         final ModifiedNode modification = (ModifiedNode) nodeMod;
+        if (current.isPresent() && !mayChangeChildCount(modification, current.get())) {
+            LOG.trace("Modification {} does not add or remove children, skipping element count validation",
+                modification);
+            return;
+        }
 
         // We need to actually perform the operation to get deal with merge in a sane manner. We know the modification
         // is immutable, so the result of validation will probably not change.
@@ -91,6 +103,34 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         modification.setValidatedNode(this, current, applied);
     }
 
+    /**
+     * Determine whether a modification of an existing node can change the number of its children. We only consider
+     * TOUCH modifications, as all their effects are recorded as child modifications. Children which are not created
+     * nor removed cannot affect the count, hence the node retains its previously-validated number of elements.
+     */
+    private static boolean mayChangeChildCount(final ModifiedNode modification, final TreeNode current) {
+        if (modification.getOperation() != LogicalOperation.TOUCH) {
+            return true;
+        }
+
+        for (final ModifiedNode child : modification.getChildren()) {
+            switch (child.getOperation()) {
+                case NONE:
+                    break;
+                case TOUCH:
+                case MERGE:
+                case WRITE:
+                    if (!current.getChild(child.getIdentifier()).isPresent()) {
+                        return true;
+                    }
+                    break;
+                default:
+                    return true;
+            }
+        }
+        return false;
+    }
+
     private static int numOfChildrenFromValue(final NormalizedNode<?, ?> value) {
         if (value instanceof NormalizedNodeContainer) {
             return ((NormalizedNodeContainer<?, ?, ?>) value).getValue().size();
@@ -134,6 +174,15 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         delegate.verifyStructure(modification, verifyChildren);
     }
 
+    @Override
+    void verifyValue(final NormalizedNode<?, ?> value) {
+        delegate.verifyValue(value);
+        final String violation = elementCountViolation(value.getIdentifier(), value);
+        if (violation != null) {
+            throw new SchemaValidationFailedException(violation);
+        }
+    }
+
     @Override
     protected TreeNode applyMerge(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
         final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta));
@@ -178,6 +227,12 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         delegate.mergeIntoModifiedNode(node, value, version);
     }
 
+    @Override
+    void inheritFrom(final ModificationApplyOperation previous) {
+        delegate.inheritFrom(previous instanceof MinMaxElementsValidation
+            ? ((MinMaxElementsValidation) previous).delegate : previous);
+    }
+
     @Override
     void recursivelyVerifyStructure(final NormalizedNode<?, ?> value) {
         delegate.recursivelyVerifyStructure(value);
@@ -79,6 +79,19 @@ abstract class ModificationApplyOperation implements StoreTreeNode<ModificationA
      */
     abstract void verifyStructure(NormalizedNode<?, ?> modification, boolean verifyChildren);
 
+    /**
+     * Performs verification of a value whose children have already been verified individually, such as when the value
+     * is being assembled bottom-up from a stream of events. This performs the same checks as
+     * {@link #verifyStructure(NormalizedNode, boolean)} would with verifyChildren set to true, except it does not
+     * recurse into children.
+     *
+     * @param value data to be verified.
+     * @throws IllegalArgumentException If provided value does not adhere to the structure.
+     */
+    void verifyValue(final NormalizedNode<?, ?> value) {
+        verifyStructure(value, false);
+    }
+
     /**
      * Return the tracking policy for this node's children.
      *
@@ -107,4 +120,14 @@ abstract class ModificationApplyOperation implements StoreTreeNode<ModificationA
     public abstract Optional<ModificationApplyOperation> getChild(PathArgument child);
 
     abstract void recursivelyVerifyStructure(NormalizedNode<?, ?> value);
+
+    /**
+     * Take over state of an operation instantiated for the same node in a previous SchemaContext, such as already
+     * instantiated child operations whose schema has not changed. The default implementation does nothing.
+     *
+     * @param previous Operation which is being replaced by this operation
+     */
+    void inheritFrom(final ModificationApplyOperation previous) {
+        // No-op by default
+    }
 }
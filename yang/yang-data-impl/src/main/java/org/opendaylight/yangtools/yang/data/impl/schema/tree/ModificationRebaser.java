@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Verify;
+import java.util.Optional;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedLeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility for replaying a modification which conflicts with concurrently-committed changes onto the current tip.
+ * The effect of the modification on its base is compared with the concurrent changes in a three-way fashion: subtrees
+ * which have not been touched concurrently are taken over from the modification, subtrees which have been touched
+ * by both are descended into, as long as their children are addressed by identity rather than position. A conflict
+ * is reported only if the same node has been changed to different values, or if a node modified by one side has been
+ * removed by the other.
+ */
+final class ModificationRebaser {
+    private static final Logger LOG = LoggerFactory.getLogger(ModificationRebaser.class);
+
+    private ModificationRebaser() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Rebase a sealed modification onto a tip.
+     *
+     * @param modification Sealed modification
+     * @param tipRoot Root of the tip
+     * @return A sealed modification based on tipRoot
+     * @throws ConflictingModificationAppliedException if the modification conflicts with the changes in tip
+     */
+    static InMemoryDataTreeModification rebase(final InMemoryDataTreeModification modification,
+            final TreeNode tipRoot) throws ConflictingModificationAppliedException {
+        final TreeNode baseRoot = modification.getBaseRoot();
+        final Optional<TreeNode> newRoot = modification.getStrategy().apply(modification.getRootModification(),
+            Optional.of(baseRoot), modification.getVersion());
+        Verify.verify(newRoot.isPresent(), "Modification %s removed the root node", modification);
+
+        final InMemoryDataTreeCandidate candidate = new InMemoryDataTreeCandidate(YangInstanceIdentifier.EMPTY,
+            modification.getRootModification(), baseRoot, newRoot.get());
+        final InMemoryDataTreeModification ret = modification.newModificationOn(tipRoot);
+        replay(ret, YangInstanceIdentifier.EMPTY, candidate.getRootNode(), Optional.of(baseRoot),
+            Optional.of(tipRoot));
+        ret.ready();
+
+        LOG.debug("Modification {} rebased onto {}", modification, tipRoot.getSubtreeVersion());
+        return ret;
+    }
+
+    private static void replay(final InMemoryDataTreeModification target, final YangInstanceIdentifier path,
+            final DataTreeCandidateNode node, final Optional<TreeNode> base, final Optional<TreeNode> tip)
+            throws ConflictingModificationAppliedException {
+        switch (node.getModificationType()) {
+            case UNMODIFIED:
+                return;
+            case APPEARED:
+            case DELETE:
+            case DISAPPEARED:
+            case SUBTREE_MODIFIED:
+            case WRITE:
+                break;
+            default:
+                throw new IllegalArgumentException("Unhandled modification type " + node.getModificationType());
+        }
+
+        final Optional<NormalizedNode<?, ?>> after = node.getDataAfter();
+        if (isUnchanged(base, tip)) {
+            // Nobody else has touched this subtree, take it over as a whole
+            if (after.isPresent()) {
+                target.write(path, after.get());
+            } else {
+                target.delete(path);
+            }
+            return;
+        }
+
+        if (after.isPresent() && tip.isPresent() && isDescendable(after.get())
+                && isDescendable(tip.get().getData())) {
+            for (DataTreeCandidateNode child : node.getChildNodes()) {
+                replay(target, path.node(child.getIdentifier()), child,
+                    base.flatMap(meta -> meta.getChild(child.getIdentifier())),
+                    tip.get().getChild(child.getIdentifier()));
+            }
+            return;
+        }
+
+        if (!after.equals(tip.map(TreeNode::getData))) {
+            throw new ConflictingModificationAppliedException(path, tip.isPresent()
+                ? "Node was modified by other transaction." : "Node was deleted by other transaction.");
+        }
+
+        // The same change has been committed concurrently, nothing to do
+    }
+
+    private static boolean isUnchanged(final Optional<TreeNode> base, final Optional<TreeNode> tip) {
+        if (!base.isPresent() || !tip.isPresent()) {
+            return base.isPresent() == tip.isPresent();
+        }
+
+        final TreeNode baseNode = base.get();
+        final TreeNode tipNode = tip.get();
+        return baseNode == tipNode || baseNode.getVersion().equals(tipNode.getVersion())
+                && baseNode.getSubtreeVersion().equals(tipNode.getSubtreeVersion());
+    }
+
+    /**
+     * Check whether a node's children can be rebased independently. This is not the case for ordered and unkeyed
+     * lists, as their children are also identified by position, nor for choices, as their children are mutually
+     * exclusive.
+     */
+    private static boolean isDescendable(final NormalizedNode<?, ?> data) {
+        if (data instanceof DataContainerNode) {
+            return !(data instanceof ChoiceNode);
+        }
+        if (data instanceof MapNode) {
+            return !(data instanceof OrderedMapNode);
+        }
+        return data instanceof LeafSetNode && !(data instanceof OrderedLeafSetNode);
+    }
+}
@@ -52,6 +52,13 @@ final class OrderedMapModificationStrategy extends AbstractNodeContainerModifica
         return identifier instanceof NodeIdentifierWithPredicates ? entryStrategy : Optional.empty();
     }
 
+    @Override
+    void inheritFrom(final ModificationApplyOperation previous) {
+        if (previous instanceof OrderedMapModificationStrategy) {
+            entryStrategy.get().inheritFrom(((OrderedMapModificationStrategy) previous).entryStrategy.get());
+        }
+    }
+
     @Override
     public String toString() {
         return "OrderedMapModificationStrategy [entry=" + entryStrategy + "]";
@@ -36,10 +36,16 @@ final class PresenceContainerModificationStrategy extends ContainerModificationS
         }
     }
 
+    @Override
+    void verifyValue(final NormalizedNode<?, ?> value) {
+        super.verifyValue(value);
+        enforcer.enforceOnData(value);
+    }
+
     @Override
     protected TreeNode applyMerge(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
         final TreeNode ret = super.applyMerge(modification, currentMeta, version);
-        enforcer.enforceOnTreeNode(ret);
+        enforcer.enforceOnModification(modification, currentMeta, ret);
         return ret;
     }
 
@@ -54,7 +60,7 @@ final class PresenceContainerModificationStrategy extends ContainerModificationS
     @Override
     protected TreeNode applyTouch(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
         final TreeNode ret = super.applyTouch(modification, currentMeta, version);
-        enforcer.enforceOnTreeNode(ret);
+        enforcer.enforceOnModification(modification, currentMeta, ret);
         return ret;
     }
 }
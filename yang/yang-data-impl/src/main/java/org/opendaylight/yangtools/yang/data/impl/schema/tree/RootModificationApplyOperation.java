@@ -99,6 +99,11 @@ abstract class RootModificationApplyOperation extends ModificationApplyOperation
         getDelegate().verifyStructure(modification, verifyChildren);
     }
 
+    @Override
+    final void verifyValue(final NormalizedNode<?, ?> value) {
+        getDelegate().verifyValue(value);
+    }
+
     @Override
     void recursivelyVerifyStructure(final NormalizedNode<?, ?> value) {
         getDelegate().recursivelyVerifyStructure(value);
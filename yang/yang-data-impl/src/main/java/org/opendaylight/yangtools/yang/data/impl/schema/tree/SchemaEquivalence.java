@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
+import org.opendaylight.yangtools.yang.model.api.CaseSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ElementCountConstraintAware;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.MandatoryAware;
+import org.opendaylight.yangtools.yang.model.api.TypedDataSchemaNode;
+
+/**
+ * Utility for comparing schema nodes of two SchemaContexts with respect to what {@link ModificationApplyOperation}s
+ * derive from them. Two nodes are considered equivalent if an operation instantiated for one behaves exactly as an
+ * operation instantiated for the other, hence operations instantiated for a previous SchemaContext can be reused.
+ * This includes the effective types of leaves and leaf-lists, so that any value validation derived from them is
+ * preserved.
+ */
+final class SchemaEquivalence {
+    /**
+     * Kind of a schema node, determining which of its properties need to be compared. Effective schema nodes
+     * implement a large number of interfaces, which makes repeated {@code instanceof} checks expensive, hence
+     * the kind is resolved once per implementation class.
+     */
+    private enum Kind {
+        CONTAINER,
+        LIST,
+        LEAF,
+        LEAF_LIST,
+        CHOICE,
+        OTHER;
+
+        private static final ClassValue<Kind> KINDS = new ClassValue<Kind>() {
+            @Override
+            protected Kind computeValue(final Class<?> type) {
+                if (ContainerSchemaNode.class.isAssignableFrom(type)) {
+                    return CONTAINER;
+                } else if (ListSchemaNode.class.isAssignableFrom(type)) {
+                    return LIST;
+                } else if (LeafSchemaNode.class.isAssignableFrom(type)) {
+                    return LEAF;
+                } else if (LeafListSchemaNode.class.isAssignableFrom(type)) {
+                    return LEAF_LIST;
+                } else if (ChoiceSchemaNode.class.isAssignableFrom(type)) {
+                    return CHOICE;
+                } else {
+                    return OTHER;
+                }
+            }
+        };
+
+        static Kind of(final DataSchemaNode node) {
+            return KINDS.get(node.getClass());
+        }
+    }
+
+    private SchemaEquivalence() {
+        throw new UnsupportedOperationException();
+    }
+
+    static boolean equivalent(final DataSchemaNode first, final DataSchemaNode second) {
+        if (first == second) {
+            return true;
+        }
+        if (first.getClass() != second.getClass() || !first.getQName().equals(second.getQName())
+                || first.isConfiguration() != second.isConfiguration()) {
+            return false;
+        }
+
+        switch (Kind.of(first)) {
+            case CONTAINER:
+                return ((ContainerSchemaNode) first).isPresenceContainer()
+                        == ((ContainerSchemaNode) second).isPresenceContainer()
+                        && equivalentChildren((ContainerSchemaNode) first, (ContainerSchemaNode) second);
+            case LIST:
+                final ListSchemaNode firstList = (ListSchemaNode) first;
+                final ListSchemaNode secondList = (ListSchemaNode) second;
+                return firstList.isUserOrdered() == secondList.isUserOrdered()
+                        && firstList.getKeyDefinition().equals(secondList.getKeyDefinition())
+                        && equivalentElementCount(firstList, secondList)
+                        && equivalentChildren(firstList, secondList);
+            case LEAF:
+                return equivalentMandatory((LeafSchemaNode) first, (LeafSchemaNode) second)
+                        && equivalentType((LeafSchemaNode) first, (LeafSchemaNode) second);
+            case LEAF_LIST:
+                final LeafListSchemaNode firstLeafList = (LeafListSchemaNode) first;
+                final LeafListSchemaNode secondLeafList = (LeafListSchemaNode) second;
+                return firstLeafList.isUserOrdered() == secondLeafList.isUserOrdered()
+                        && equivalentElementCount(firstLeafList, secondLeafList)
+                        && equivalentType(firstLeafList, secondLeafList);
+            case CHOICE:
+                final ChoiceSchemaNode firstChoice = (ChoiceSchemaNode) first;
+                final ChoiceSchemaNode secondChoice = (ChoiceSchemaNode) second;
+                return equivalentMandatory(firstChoice, secondChoice)
+                        && equivalentCases(firstChoice.getCases().values(), secondChoice.getCases().values())
+                        && augmentationChildren(firstChoice).equals(augmentationChildren(secondChoice));
+            case OTHER:
+            default:
+                if (first instanceof MandatoryAware
+                        && !equivalentMandatory((MandatoryAware) first, (MandatoryAware) second)) {
+                    return false;
+                }
+                return !(first instanceof DataNodeContainer)
+                        || equivalentChildren((DataNodeContainer) first, (DataNodeContainer) second);
+        }
+    }
+
+    static boolean equivalentChildren(final DataNodeContainer first, final DataNodeContainer second) {
+        final Collection<DataSchemaNode> firstChildren = first.getChildNodes();
+        if (firstChildren.size() != second.getChildNodes().size()) {
+            return false;
+        }
+        for (DataSchemaNode child : firstChildren) {
+            final Optional<DataSchemaNode> other = second.findDataChildByName(child.getQName());
+            if (!other.isPresent() || !equivalent(child, other.get())) {
+                return false;
+            }
+        }
+
+        return !(first instanceof AugmentationTarget) || augmentationChildren((AugmentationTarget) first).equals(
+            augmentationChildren((AugmentationTarget) second));
+    }
+
+    private static boolean equivalentMandatory(final MandatoryAware first, final MandatoryAware second) {
+        return first.isMandatory() == second.isMandatory();
+    }
+
+    private static boolean equivalentElementCount(final ElementCountConstraintAware first,
+            final ElementCountConstraintAware second) {
+        return first.getElementCountConstraint().equals(second.getElementCountConstraint());
+    }
+
+    /**
+     * Compare effective types. Type definitions implement equality over their restrictions, defaults and base types,
+     * hence this covers restrictions inherited from typedefs as well.
+     */
+    private static boolean equivalentType(final TypedDataSchemaNode first, final TypedDataSchemaNode second) {
+        return first.getType().equals(second.getType());
+    }
+
+    private static boolean equivalentCases(final Collection<CaseSchemaNode> first,
+            final Collection<CaseSchemaNode> second) {
+        if (first.size() != second.size()) {
+            return false;
+        }
+
+        // Cases are sorted by QName
+        final Iterator<CaseSchemaNode> it = second.iterator();
+        for (CaseSchemaNode firstCase : first) {
+            final CaseSchemaNode secondCase = it.next();
+            if (!firstCase.getQName().equals(secondCase.getQName())
+                    || firstCase.isConfiguration() != secondCase.isConfiguration()
+                    || !equivalentChildren(firstCase, secondCase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the sets of child node names of each augmentation, as they determine the shape of
+     * {@link org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier}s.
+     */
+    private static Set<Set<QName>> augmentationChildren(final AugmentationTarget target) {
+        final Set<AugmentationSchemaNode> augmentations = target.getAvailableAugmentations();
+        if (augmentations.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final Set<Set<QName>> ret = new HashSet<>();
+        for (AugmentationSchemaNode augmentation : augmentations) {
+            final Set<QName> names = new HashSet<>();
+            for (DataSchemaNode child : augmentation.getChildNodes()) {
+                names.add(child.getQName());
+            }
+            ret.add(names);
+        }
+        return ret;
+    }
+}
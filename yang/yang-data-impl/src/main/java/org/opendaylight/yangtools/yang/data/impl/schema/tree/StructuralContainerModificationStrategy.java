@@ -107,11 +107,23 @@ final class StructuralContainerModificationStrategy extends ModificationApplyOpe
         delegate.verifyStructure(modification, verifyChildren);
     }
 
+    @Override
+    void verifyValue(final NormalizedNode<?, ?> value) {
+        delegate.verifyValue(value);
+    }
+
     @Override
     void recursivelyVerifyStructure(final NormalizedNode<?, ?> value) {
         delegate.recursivelyVerifyStructure(value);
     }
 
+    @Override
+    void inheritFrom(final ModificationApplyOperation previous) {
+        if (previous instanceof StructuralContainerModificationStrategy) {
+            delegate.inheritFrom(((StructuralContainerModificationStrategy) previous).delegate);
+        }
+    }
+
     @Override
     ChildTrackingPolicy getChildPolicy() {
         return delegate.getChildPolicy();
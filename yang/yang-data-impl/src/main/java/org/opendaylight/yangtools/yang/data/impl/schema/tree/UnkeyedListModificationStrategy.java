@@ -138,4 +138,11 @@ final class UnkeyedListModificationStrategy extends SchemaAwareApplyOperation {
         // Unkeyed lists are always replaced
         node.write(value);
     }
+
+    @Override
+    void inheritFrom(final ModificationApplyOperation previous) {
+        if (previous instanceof UnkeyedListModificationStrategy) {
+            entryStrategy.get().inheritFrom(((UnkeyedListModificationStrategy) previous).entryStrategy.get());
+        }
+    }
 }
@@ -35,7 +35,8 @@ final class UnorderedMapModificationStrategy extends AbstractNodeContainerModifi
         if (original instanceof MapNode) {
             return ImmutableMapNodeBuilder.create((MapNode) original);
         } else if (original instanceof MapEntryNode) {
-            return ImmutableMapEntryNodeBuilder.create((MapEntryNode) original);
+            return isValueOnlyLeaves() ? ImmutableMapEntryNodeBuilder.createValueOnly((MapEntryNode) original)
+                    : ImmutableMapEntryNodeBuilder.create((MapEntryNode) original);
         }
         throw new IllegalArgumentException("MapModification strategy can only handle MapNode or MapEntryNode's, "
                 + "offending node: " + original);
@@ -67,6 +68,13 @@ final class UnorderedMapModificationStrategy extends AbstractNodeContainerModifi
         return Optional.empty();
     }
 
+    @Override
+    void inheritFrom(final ModificationApplyOperation previous) {
+        if (previous instanceof UnorderedMapModificationStrategy) {
+            entryStrategy.get().inheritFrom(((UnorderedMapModificationStrategy) previous).entryStrategy.get());
+        }
+    }
+
     @Override
     public String toString() {
         return "UnorderedMapModificationStrategy [entry=" + entryStrategy + "]";
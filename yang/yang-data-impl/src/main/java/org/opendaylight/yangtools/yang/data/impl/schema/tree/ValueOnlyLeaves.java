@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import org.opendaylight.yangtools.yang.data.api.AttributesContainer;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapEntryNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractLeafValueDataContainerNode;
+
+/**
+ * Conversion of written data to containers and map entries which retain only the values of their leaf children, used
+ * when {@link org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration#isValueOnlyLeavesEnabled()}
+ * is set. Like {@link org.opendaylight.yangtools.yang.data.impl.schema.arena.LeafValueArena#compact(NormalizedNode)},
+ * this recurses through containers, map entries and maps only.
+ */
+final class ValueOnlyLeaves {
+    private ValueOnlyLeaves() {
+        throw new UnsupportedOperationException();
+    }
+
+    static NormalizedNode<?, ?> convert(final NormalizedNode<?, ?> node) {
+        if (node instanceof AbstractLeafValueDataContainerNode) {
+            return node;
+        }
+        if (node instanceof MapEntryNode) {
+            return convertChildren((MapEntryNode) node,
+                ImmutableMapEntryNodeBuilder.createValueOnly(((MapEntryNode) node).getValue().size()));
+        }
+        if (node instanceof ContainerNode) {
+            return convertChildren((ContainerNode) node,
+                ImmutableContainerNodeBuilder.createValueOnly(((ContainerNode) node).getValue().size()));
+        }
+        if (node instanceof MapNode) {
+            return convertMap((MapNode) node);
+        }
+        return node;
+    }
+
+    private static <K extends PathArgument, T extends DataContainerNode<K> & AttributesContainer> T convertChildren(
+            final T node, final DataContainerNodeAttrBuilder<K, T> builder) {
+        builder.withNodeIdentifier(node.getIdentifier()).withAttributes(node.getAttributes());
+        for (DataContainerChild<? extends PathArgument, ?> child : node.getValue()) {
+            builder.withChild(child instanceof LeafNode ? child : (DataContainerChild<?, ?>) convert(child));
+        }
+        return builder.build();
+    }
+
+    private static MapNode convertMap(final MapNode map) {
+        if (isValueOnly(map)) {
+            return map;
+        }
+
+        final CollectionNodeBuilder<MapEntryNode, ? extends MapNode> builder = map instanceof OrderedMapNode
+                ? Builders.orderedMapBuilder() : Builders.mapBuilder();
+        builder.withNodeIdentifier(map.getIdentifier());
+        for (MapEntryNode entry : map.getValue()) {
+            builder.withChild((MapEntryNode) convert(entry));
+        }
+        return builder.build();
+    }
+
+    // Written data is commonly produced by a value-only writer or read from a value-only tree, do not copy it again
+    private static boolean isValueOnly(final MapNode map) {
+        for (MapEntryNode entry : map.getValue()) {
+            if (!(entry instanceof AbstractLeafValueDataContainerNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -9,9 +9,11 @@
 package org.opendaylight.yangtools.yang.data.impl.codecs;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 import org.opendaylight.yangtools.yang.data.api.codec.Int8Codec;
+import org.opendaylight.yangtools.yang.data.impl.codec.AbstractIntegerStringCodec;
 import org.opendaylight.yangtools.yang.model.util.type.BaseTypes;
 
 /**
@@ -53,4 +55,21 @@ public class Int8CodecStringTest {
         TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, "");
         TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx(codec, null);
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDeserializeLong() {
+        final AbstractIntegerStringCodec<Byte, ?> codec = TypeDefinitionAwareCodecTestHelper.getCodec(
+            BaseTypes.int8Type(), AbstractIntegerStringCodec.class);
+
+        assertEquals(Byte.valueOf((byte) 64), codec.deserialize(64L));
+        assertEquals(Byte.valueOf(Byte.MIN_VALUE), codec.deserialize(-128L));
+
+        try {
+            codec.deserialize(128L);
+            fail("Expected NumberFormatException");
+        } catch (NumberFormatException e) {
+            // Expected
+        }
+    }
 }
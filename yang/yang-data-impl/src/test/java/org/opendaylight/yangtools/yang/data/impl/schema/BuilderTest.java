@@ -249,6 +249,19 @@ public class BuilderTest {
                 .build();
     }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void immutableContainerNodeBuilderForeignTest() {
+        ImmutableContainerNodeBuilder.create(mock(ContainerNode.class));
+    }
+
+    @Test
+    public void immutableContainerNodeBuilderValueOnlyTest() {
+        final ContainerNode container = ImmutableContainerNodeBuilder.create().withNodeIdentifier(NODE_IDENTIFIER_LIST)
+                .withChild(ImmutableNodes.leafNode(LIST_MAIN_CHILD_QNAME_1, "value")).build();
+        final ContainerNode valueOnly = ImmutableContainerNodeBuilder.createValueOnly(container).build();
+        assertEquals(container, ImmutableContainerNodeBuilder.create(valueOnly).build());
+    }
+
     @Test(expected = NullPointerException.class)
     public void immutableLeafSetNodeBuilderExceptionTest() {
         final LeafSetNode<?> leafSetNode = ImmutableLeafSetNodeBuilder.create(1)
@@ -268,6 +281,17 @@ public class BuilderTest {
         ImmutableMapEntryNodeBuilder.create(1).build();
     }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void immutableMapEntryNodeBuilderForeignTest() {
+        ImmutableMapEntryNodeBuilder.create(mock(MapEntryNode.class));
+    }
+
+    @Test
+    public void immutableMapEntryNodeBuilderValueOnlyTest() {
+        final MapEntryNode valueOnly = ImmutableMapEntryNodeBuilder.createValueOnly(LIST_MAIN_CHILD_1).build();
+        assertEquals(LIST_MAIN_CHILD_1, ImmutableMapEntryNodeBuilder.create(valueOnly).build());
+    }
+
     @Test(expected = NullPointerException.class)
     public void immutableYangModeledAnyXmlNodeBuilderExceptionTest() {
         ImmutableYangModeledAnyXmlNodeBuilder.create(mock(YangModeledAnyXmlSchemaNode.class), 1);
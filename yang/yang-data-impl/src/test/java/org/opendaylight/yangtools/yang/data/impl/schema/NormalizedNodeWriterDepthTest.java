@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+
+public class NormalizedNodeWriterDepthTest {
+    private static final QName CONTAINER = QName.create("urn:test", "container");
+    private static final QName LEAF = QName.create(CONTAINER, "leaf");
+    private static final NodeIdentifier CONTAINER_ID = NodeIdentifier.create(CONTAINER);
+    // Deep enough to overflow the stack of a recursive walk
+    private static final int DEPTH = 50000;
+
+    @Test
+    public void testDeepTree() throws IOException {
+        DataContainerChild<?, ?> node = ImmutableNodes.leafNode(LEAF, "bottom");
+        for (int i = 0; i < DEPTH; ++i) {
+            node = ImmutableContainerNodeBuilder.create().withNodeIdentifier(CONTAINER_ID).withChild(node).build();
+        }
+
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                ImmutableNormalizedNodeStreamWriter.from(result))) {
+            writer.write(node);
+        }
+
+        // Walk the copy iteratively, as equals() would recurse
+        NormalizedNode<?, ?> copy = result.getResult();
+        for (int i = 0; i < DEPTH; ++i) {
+            assertTrue(copy instanceof ContainerNode);
+            final ContainerNode container = (ContainerNode) copy;
+            assertEquals(1, container.getValue().size());
+            copy = container.getValue().iterator().next();
+        }
+        assertTrue(copy instanceof LeafNode);
+        assertEquals("bottom", copy.getValue());
+    }
+}
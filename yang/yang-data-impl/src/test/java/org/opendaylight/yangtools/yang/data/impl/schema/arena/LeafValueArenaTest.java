@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.arena;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.Decimal64;
+import org.opendaylight.yangtools.yang.common.Empty;
+import org.opendaylight.yangtools.yang.common.Uint16;
+import org.opendaylight.yangtools.yang.common.Uint32;
+import org.opendaylight.yangtools.yang.common.Uint64;
+import org.opendaylight.yangtools.yang.common.Uint8;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.TestModel;
+
+public class LeafValueArenaTest {
+    private static final List<Object> VALUES = Arrays.asList(Boolean.TRUE, Boolean.FALSE, (byte) -3, (short) 300,
+        -70000, Long.MIN_VALUE, Uint8.valueOf(200), Uint16.valueOf(60000), Uint32.valueOf(4000000000L),
+        Uint64.valueOf(new BigInteger("18446744073709551615")), new BigInteger("18446744073709551615"),
+        new BigDecimal("-12.345"), Decimal64.valueOf("3.14"), "", "a string", "žluťoučký",
+        TestModel.TEST_QNAME, Empty.getInstance(), ImmutableSet.of("first", "second"));
+
+    @Test
+    public void testValues() {
+        assertValues(LeafValueArena.create());
+        assertValues(LeafValueArena.createDirect());
+    }
+
+    @Test
+    public void testSmallSegments() {
+        final LeafValueArena arena = LeafValueArena.create(false, 64);
+        for (int i = 0; i < 10; ++i) {
+            assertValues(arena);
+        }
+        assertTrue(arena.getAllocatedBytes() > 64);
+
+        // Values which do not fit into a segment are stored in the dictionary
+        final char[] chars = new char[100];
+        Arrays.fill(chars, 'x');
+        final String big = new String(chars);
+        assertEquals(big, arena.get(arena.put(big)));
+    }
+
+    @Test
+    public void testBinary() {
+        final LeafValueArena arena = LeafValueArena.createDirect();
+        final byte[] bytes = new byte[] { 1, 2, 3, -1 };
+        assertArrayEquals(bytes, (byte[]) arena.get(arena.put(bytes)));
+    }
+
+    @Test
+    public void testSymbols() {
+        final LeafValueArena arena = LeafValueArena.create();
+        arena.put(TestModel.TEST_QNAME);
+        arena.put(TestModel.TEST_QNAME);
+        arena.put(TestModel.OUTER_LIST_QNAME);
+        assertEquals(2, arena.getSymbolCount());
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        final LeafValueArena arena = LeafValueArena.create();
+        final ContainerNode original = createTestContainer(8);
+        final NormalizedNode<?, ?> compacted = arena.compact(original);
+
+        assertTrue(compacted instanceof ArenaContainerNode);
+        assertEquals(original, materialize(compacted));
+        assertEquals(compacted, arena.compact(original));
+        assertEquals(compacted.hashCode(), arena.compact(original).hashCode());
+        assertEquals(original.getValue().size(), ((ContainerNode) compacted).getValue().size());
+
+        final MapNode list = (MapNode) ((ContainerNode) compacted).getChild(
+            new NodeIdentifier(TestModel.OUTER_LIST_QNAME)).get();
+        final MapEntryNode entry = list.getValue().iterator().next();
+        assertTrue(entry instanceof ArenaMapEntryNode);
+
+        // Key leaves are materialized from the identifier
+        final Object id = entry.getIdentifier().getKeyValues().get(TestModel.ID_QNAME);
+        assertEquals(ImmutableNodes.leafNode(TestModel.ID_QNAME, id),
+            entry.getChild(new NodeIdentifier(TestModel.ID_QNAME)).get());
+        assertEquals(2, entry.getValue().size());
+        assertNotEquals(entry, arena.compact(createEntry(100, "a", "b")));
+    }
+
+    @Test
+    public void testDataTree() throws DataValidationFailedException, IOException {
+        final DataTree tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_OPERATIONAL,
+            TestModel.createTestContext());
+        final LeafValueArena arena = LeafValueArena.create();
+
+        DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, arena.compact(createTestContainer(8)));
+        commit(tree, mod);
+
+        // Modifying a leaf turns its entry back into a regular one, leaving the rest of the tree untouched
+        mod = tree.takeSnapshot().newModification();
+        mod.write(innerPath(3, "a").node(TestModel.VALUE_QNAME),
+            ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "modified"));
+        mod.delete(innerPath(5, "b").node(TestModel.VALUE_QNAME));
+        commit(tree, mod);
+
+        final MapEntryNode[] entries = createTestEntries(8).toArray(new MapEntryNode[0]);
+        entries[3] = createEntry(3, "modified", "value 3/b");
+        entries[5] = createEntry(5, "value 5/a", null);
+        assertEquals(createTestContainer(Arrays.asList(entries)),
+            materialize(tree.takeSnapshot().readNode(TestModel.TEST_PATH).get()));
+        assertTrue(tree.takeSnapshot().readNode(entryPath(4)).get() instanceof ArenaMapEntryNode);
+    }
+
+    private static void assertValues(final LeafValueArena arena) {
+        for (Object value : VALUES) {
+            assertEquals(value, arena.get(arena.put(value)));
+        }
+    }
+
+    private static void commit(final DataTree tree, final DataTreeModification mod)
+            throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    private static NormalizedNode<?, ?> materialize(final NormalizedNode<?, ?> node) throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                ImmutableNormalizedNodeStreamWriter.from(result))) {
+            writer.write(node);
+        }
+        return result.getResult();
+    }
+
+    private static YangInstanceIdentifier entryPath(final int id) {
+        return TestModel.OUTER_LIST_PATH.node(new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME,
+            TestModel.ID_QNAME, id));
+    }
+
+    private static YangInstanceIdentifier innerPath(final int id, final String name) {
+        return entryPath(id).node(TestModel.INNER_LIST_QNAME).node(new NodeIdentifierWithPredicates(
+            TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, name));
+    }
+
+    private static ContainerNode createTestContainer(final int count) {
+        return createTestContainer(createTestEntries(count));
+    }
+
+    private static ContainerNode createTestContainer(final List<MapEntryNode> entries) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = ImmutableNodes.mapNodeBuilder(
+            TestModel.OUTER_LIST_QNAME);
+        entries.forEach(list::withChild);
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+                .withChild(list.build()).build();
+    }
+
+    private static List<MapEntryNode> createTestEntries(final int count) {
+        final MapEntryNode[] entries = new MapEntryNode[count];
+        for (int i = 0; i < count; ++i) {
+            entries[i] = createEntry(i, "value " + i + "/a", "value " + i + "/b");
+        }
+        return Arrays.asList(entries);
+    }
+
+    private static MapEntryNode createEntry(final int id, final String firstValue, final String secondValue) {
+        return ImmutableNodes.mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id)
+                .withChild(ImmutableNodes.mapNodeBuilder(TestModel.INNER_LIST_QNAME)
+                    .withChild(createInnerEntry("a", firstValue))
+                    .withChild(createInnerEntry("b", secondValue))
+                    .build())
+                .build();
+    }
+
+    private static MapEntryNode createInnerEntry(final String name, final String value) {
+        final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> builder =
+                ImmutableNodes.mapEntryBuilder(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, name);
+        if (value != null) {
+            builder.withChild(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, value));
+        }
+        return builder.build();
+    }
+}
@@ -70,6 +70,55 @@ public class Bug5830Test {
         testMultipleContainers();
     }
 
+    @Test
+    public void testModifiedMandatoryNodes() throws DataValidationFailedException {
+        final SchemaContext schemaContext = TestModel.createTestContext("/bug5830/foo-non-presence.yang");
+        assertNotNull("Schema context must not be null.", schemaContext);
+        final DataTree inMemoryDataTree = initDataTree(schemaContext);
+        final YangInstanceIdentifier taskPath = YangInstanceIdentifier.of(TASK_CONTAINER).node(TASK)
+                .node(new NodeIdentifierWithPredicates(TASK, ImmutableMap.of(TASK_ID, "123")));
+        final YangInstanceIdentifier taskDataPath = taskPath.node(TASK_DATA);
+
+        DataTreeModification modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(taskPath, Builders.mapEntryBuilder()
+                .withNodeIdentifier(new NodeIdentifierWithPredicates(TASK, ImmutableMap.of(TASK_ID, "123")))
+                .withChild(ImmutableNodes.leafNode(TASK_ID, "123"))
+                .withChild(ImmutableNodes.leafNode(TASK_MANDATORY_LEAF, "mandatory data"))
+                .withChild(createTaskDataContainer(true)).build());
+        commit(inMemoryDataTree, modificationTree);
+
+        // Modifying a non-mandatory leaf is fine
+        modificationTree = inMemoryDataTree.takeSnapshot().newModification();
+        modificationTree.write(taskDataPath.node(OTHER_DATA), ImmutableNodes.leafNode(OTHER_DATA, "bar"));
+        commit(inMemoryDataTree, modificationTree);
+
+        assertMissingMandatory(inMemoryDataTree, taskPath.node(TASK_MANDATORY_LEAF),
+            "/(foo?revision=2016-05-17)task-mandatory-leaf");
+        assertMissingMandatory(inMemoryDataTree, taskDataPath.node(MANDATORY_DATA),
+            "/(foo?revision=2016-05-17)task-data/mandatory-data");
+        assertMissingMandatory(inMemoryDataTree, taskDataPath, "/(foo?revision=2016-05-17)task-data/mandatory-data");
+    }
+
+    private static void assertMissingMandatory(final DataTree dataTree, final YangInstanceIdentifier path,
+            final String descendant) throws DataValidationFailedException {
+        final DataTreeModification modificationTree = dataTree.takeSnapshot().newModification();
+        modificationTree.delete(path);
+        try {
+            commit(dataTree, modificationTree);
+            fail("Should fail due to missing mandatory node.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Node (foo?revision=2016-05-17)task[{(foo?revision=2016-05-17)task-id=123}] is missing "
+                    + "mandatory descendant " + descendant, e.getMessage());
+        }
+    }
+
+    private static void commit(final DataTree dataTree, final DataTreeModification modificationTree)
+            throws DataValidationFailedException {
+        modificationTree.ready();
+        dataTree.validate(modificationTree);
+        dataTree.commit(dataTree.prepare(modificationTree));
+    }
+
     private static void testPresenceContainer() throws DataValidationFailedException {
         final SchemaContext schemaContext = TestModel.createTestContext("/bug5830/foo-presence.yang");
         assertNotNull("Schema context must not be null.", schemaContext);
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
+
+public class ConflictRebaseTest {
+    private static final YangInstanceIdentifier ENTRY_PATH = TestModel.OUTER_LIST_PATH.node(
+        ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1).getIdentifier());
+
+    @Test(expected = ConflictingModificationAppliedException.class)
+    public void testRebaseDisabled() throws DataValidationFailedException {
+        final DataTree tree = createTree(false);
+        final DataTreeModification first = writeTest(tree, innerContainer("a"));
+        final DataTreeModification second = writeTest(tree, outerList());
+        commit(tree, first);
+        commit(tree, second);
+    }
+
+    @Test
+    public void testDisjointWrites() throws DataValidationFailedException {
+        final DataTree tree = createTree(true);
+        final DataTreeModification first = writeTest(tree, innerContainer("a"));
+        final DataTreeModification second = writeTest(tree, outerList());
+        commit(tree, first);
+        commit(tree, second);
+
+        assertEquals(Optional.of(innerContainer("a")), tree.takeSnapshot().readNode(
+            TestModel.INNER_CONTAINER_PATH));
+        assertTrue(tree.takeSnapshot().readNode(ENTRY_PATH).isPresent());
+    }
+
+    @Test
+    public void testSameWrites() throws DataValidationFailedException {
+        final DataTree tree = createTree(true);
+        final DataTreeModification first = writeTest(tree, innerContainer("a"));
+        final DataTreeModification second = writeTest(tree, innerContainer("a"));
+        commit(tree, first);
+        commit(tree, second);
+
+        assertEquals(Optional.of(innerContainer("a")), tree.takeSnapshot().readNode(
+            TestModel.INNER_CONTAINER_PATH));
+    }
+
+    @Test(expected = ConflictingModificationAppliedException.class)
+    public void testConflictingWrites() throws DataValidationFailedException {
+        final DataTree tree = createTree(true);
+        final DataTreeModification first = writeTest(tree, innerContainer("a"));
+        final DataTreeModification second = writeTest(tree, innerContainer("b"));
+        commit(tree, first);
+        commit(tree, second);
+    }
+
+    @Test
+    public void testModifyDeleted() throws DataValidationFailedException {
+        final DataTree tree = createTree(true);
+        commit(tree, writeTest(tree, innerContainer("a"), outerList()));
+
+        final DataTreeModification delete = tree.takeSnapshot().newModification();
+        delete.delete(TestModel.INNER_CONTAINER_PATH);
+        delete.ready();
+        final DataTreeModification modify = writeTest(tree, innerContainer("b"));
+        commit(tree, delete);
+
+        try {
+            commit(tree, modify);
+        } catch (ConflictingModificationAppliedException e) {
+            assertEquals(TestModel.INNER_CONTAINER_PATH, e.getPath());
+            assertFalse(tree.takeSnapshot().readNode(TestModel.INNER_CONTAINER_PATH).isPresent());
+            return;
+        }
+        throw new AssertionError("Conflict not detected");
+    }
+
+    private static DataTree createTree(final boolean rebase) throws DataValidationFailedException {
+        final DataTree tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.builder(TreeType.OPERATIONAL)
+            .setMandatoryNodesValidation(true).setConflictRebase(rebase).build(), TestModel.createTestContext());
+        commit(tree, writeTest(tree));
+        return tree;
+    }
+
+    private static ContainerNode innerContainer(final String value) {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TestModel.INNER_CONTAINER_QNAME))
+                .withChild(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, value)).build();
+    }
+
+    private static MapNode outerList() {
+        return ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+                .withChild(ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1)).build();
+    }
+
+    private static DataTreeModification writeTest(final DataTree tree, final DataContainerChild<?, ?>... children) {
+        final DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> builder = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME));
+        for (DataContainerChild<?, ?> child : children) {
+            builder.withChild(child);
+        }
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, builder.build());
+        mod.ready();
+        return mod;
+    }
+
+    private static void commit(final DataTree tree, final DataTreeModification mod)
+            throws DataValidationFailedException {
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+}
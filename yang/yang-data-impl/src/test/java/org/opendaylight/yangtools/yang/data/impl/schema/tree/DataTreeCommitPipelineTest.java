@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.DataTreeCommitPipeline.FailurePolicy;
+
+public class DataTreeCommitPipelineTest {
+    private DataTree tree;
+
+    @Before
+    public void setUp() throws DataValidationFailedException {
+        tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_OPERATIONAL,
+            TestModel.createTestContext());
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build());
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    @Test
+    public void testPipelinedCommit() throws DataValidationFailedException, ExecutionException,
+            InterruptedException {
+        final DataTreeCommitPipeline pipeline = DataTreeCommitPipeline.create(tree, 2, FailurePolicy.CASCADE_ABORT);
+        final ListenableFuture<DataTreeCandidate> first = pipeline.submit(writeEntry(1));
+        final ListenableFuture<DataTreeCandidate> second = pipeline.submit(writeEntry(2));
+        assertFalse(pipeline.canSubmit());
+        assertTrue(pipeline.getTip().prepare(writeEntry(3)) != null);
+
+        // Nothing is visible until the candidates are committed
+        assertFalse(readEntry(1).isPresent());
+        assertFalse(first.isDone());
+
+        final Optional<DataTreeCandidate> committed = pipeline.commitNext();
+        assertTrue(committed.isPresent());
+        assertSame(committed.get(), first.get());
+        assertTrue(readEntry(1).isPresent());
+        assertFalse(readEntry(2).isPresent());
+
+        pipeline.commitNext();
+        assertTrue(second.isDone());
+        assertTrue(readEntry(2).isPresent());
+        assertEquals(0, pipeline.size());
+        assertFalse(pipeline.commitNext().isPresent());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitFull() throws DataValidationFailedException {
+        final DataTreeCommitPipeline pipeline = DataTreeCommitPipeline.create(tree, 1, FailurePolicy.CASCADE_ABORT);
+        pipeline.submit(writeEntry(1));
+        pipeline.submit(writeEntry(2));
+    }
+
+    @Test
+    public void testCascadeAbort() throws DataValidationFailedException {
+        final DataTreeCommitPipeline pipeline = DataTreeCommitPipeline.create(tree, 4, FailurePolicy.CASCADE_ABORT);
+        final ListenableFuture<DataTreeCandidate> first = pipeline.submit(writeEntry(1));
+        final ListenableFuture<DataTreeCandidate> second = pipeline.submit(writeEntry(2));
+
+        final Exception cause = new Exception("test");
+        assertTrue(pipeline.abortNext(cause));
+        assertSame(cause, getFailure(first));
+        assertTrue(getFailure(second) instanceof DataValidationFailedException);
+        assertSame(cause, getFailure(second).getCause());
+        assertEquals(0, pipeline.size());
+        assertFalse(pipeline.abortNext(cause));
+    }
+
+    @Test
+    public void testRebaseOnAbort() throws DataValidationFailedException {
+        final DataTreeCommitPipeline pipeline = DataTreeCommitPipeline.create(tree, 4, FailurePolicy.REBASE);
+        final ListenableFuture<DataTreeCandidate> first = pipeline.submit(writeEntry(1));
+        final ListenableFuture<DataTreeCandidate> second = pipeline.submit(writeEntry(2));
+
+        assertTrue(pipeline.abortNext(new Exception("test")));
+        assertTrue(first.isDone());
+        assertEquals(1, pipeline.size());
+
+        assertTrue(pipeline.commitNext().isPresent());
+        assertTrue(second.isDone());
+        assertFalse(readEntry(1).isPresent());
+        assertTrue(readEntry(2).isPresent());
+    }
+
+    @Test
+    public void testRebaseOnConcurrentCommit() throws DataValidationFailedException {
+        final DataTreeCommitPipeline pipeline = DataTreeCommitPipeline.create(tree, 4, FailurePolicy.REBASE);
+        final ListenableFuture<DataTreeCandidate> first = pipeline.submit(writeEntry(1));
+        final ListenableFuture<DataTreeCandidate> second = pipeline.submit(writeEntry(2));
+
+        // Commit outside of the pipeline, conflicting with the second modification
+        final DataTreeModification external = writeEntry(2);
+        tree.validate(external);
+        tree.commit(tree.prepare(external));
+
+        assertTrue(pipeline.commitNext().isPresent());
+        assertTrue(first.isDone());
+        assertTrue(readEntry(1).isPresent());
+        assertTrue(getFailure(second) instanceof ConflictingModificationAppliedException);
+        assertEquals(0, pipeline.size());
+    }
+
+    @Test
+    public void testCascadeOnConcurrentCommit() throws DataValidationFailedException {
+        final DataTreeCommitPipeline pipeline = DataTreeCommitPipeline.create(tree, 4, FailurePolicy.CASCADE_ABORT);
+        final ListenableFuture<DataTreeCandidate> first = pipeline.submit(writeEntry(1));
+        final ListenableFuture<DataTreeCandidate> second = pipeline.submit(writeEntry(2));
+
+        final DataTreeModification external = writeEntry(3);
+        tree.validate(external);
+        tree.commit(tree.prepare(external));
+
+        assertFalse(pipeline.commitNext().isPresent());
+        assertTrue(getFailure(first) instanceof IllegalStateException);
+        assertTrue(getFailure(second) instanceof DataValidationFailedException);
+        assertFalse(readEntry(1).isPresent());
+    }
+
+    @Test
+    public void testRebaseAttemptsBounded() throws DataValidationFailedException {
+        // A data tree which keeps moving underneath the pipeline
+        final DataTree moving = mock(DataTree.class);
+        final DataTreeCandidateTip candidate = mock(DataTreeCandidateTip.class);
+        doReturn(candidate).when(moving).prepare(any(DataTreeModification.class));
+        doThrow(new IllegalStateException("moved")).when(moving).commit(candidate);
+
+        final DataTreeCommitPipeline pipeline = DataTreeCommitPipeline.create(moving, 4, FailurePolicy.REBASE);
+        final ListenableFuture<DataTreeCandidate> first = pipeline.submit(writeEntry(1));
+
+        assertFalse(pipeline.commitNext().isPresent());
+        assertTrue(getFailure(first) instanceof IllegalStateException);
+        assertEquals(0, pipeline.size());
+        verify(moving, times(DataTreeCommitPipeline.MAX_REBASE_ATTEMPTS + 1)).commit(candidate);
+    }
+
+    @Test
+    public void testRebaseAttemptsPerModification() throws DataValidationFailedException {
+        final DataTree moving = mock(DataTree.class);
+        final DataTreeCandidateTip firstCandidate = mock(DataTreeCandidateTip.class);
+        final DataTreeCandidateTip secondCandidate = mock(DataTreeCandidateTip.class);
+        final DataTreeModification firstMod = writeEntry(1);
+        final DataTreeModification secondMod = writeEntry(2);
+        doReturn(firstCandidate).when(moving).prepare(firstMod);
+        doReturn(secondCandidate).when(firstCandidate).prepare(secondMod);
+        doReturn(secondCandidate).when(moving).prepare(secondMod);
+
+        // The first modification no longer applies once rebased, the second one needs all of its rebase attempts
+        doThrow(new IllegalStateException("moved")).when(moving).commit(firstCandidate);
+        final DataTreeCommitPipeline pipeline = DataTreeCommitPipeline.create(moving, 4, FailurePolicy.REBASE);
+        final ListenableFuture<DataTreeCandidate> first = pipeline.submit(firstMod);
+        final ListenableFuture<DataTreeCandidate> second = pipeline.submit(secondMod);
+        doThrow(new DataValidationFailedException(YangInstanceIdentifier.EMPTY, "conflict")).when(moving)
+            .validate(firstMod);
+        doThrow(new IllegalStateException("moved")).doThrow(new IllegalStateException("moved"))
+            .doThrow(new IllegalStateException("moved")).doNothing().when(moving).commit(secondCandidate);
+
+        assertEquals(Optional.of(secondCandidate), pipeline.commitNext());
+        assertTrue(getFailure(first) instanceof DataValidationFailedException);
+        assertTrue(second.isDone());
+        assertEquals(0, pipeline.size());
+        verify(moving, times(DataTreeCommitPipeline.MAX_REBASE_ATTEMPTS + 1)).commit(secondCandidate);
+    }
+
+    private static YangInstanceIdentifier entryPath(final int id) {
+        return TestModel.OUTER_LIST_PATH.node(new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME,
+            TestModel.ID_QNAME, id));
+    }
+
+    private DataTreeModification writeEntry(final int id) {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(entryPath(id), ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id));
+        mod.ready();
+        return mod;
+    }
+
+    private Optional<?> readEntry(final int id) {
+        return tree.takeSnapshot().readNode(entryPath(id));
+    }
+
+    private static Throwable getFailure(final ListenableFuture<?> future) {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        fail("Future " + future + " has not failed");
+        return null;
+    }
+}
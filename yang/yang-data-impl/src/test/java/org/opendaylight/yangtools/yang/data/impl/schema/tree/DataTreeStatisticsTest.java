@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModifiedNodeDoesNotExistException;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.DataTreeStatistics.LatencyHistogram;
+
+public class DataTreeStatisticsTest {
+    private static final YangInstanceIdentifier ENTRY_PATH = TestModel.OUTER_LIST_PATH.node(
+        ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1).getIdentifier());
+
+    private DataTreeStatistics stats;
+    private DataTree tree;
+
+    @Before
+    public void before() {
+        stats = new DataTreeStatistics();
+        tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_OPERATIONAL,
+            TestModel.createTestContext(), stats);
+    }
+
+    @Test
+    public void testCommit() throws DataValidationFailedException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.write(TestModel.INNER_VALUE_PATH, ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "value"));
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+
+        assertCounts(stats.getSealLatency(), stats.getValidateLatency(), stats.getPrepareLatency(),
+            stats.getCommitLatency());
+        // root and test, the nested write is merged into the written value when the modification is sealed
+        assertEquals(2, stats.getModifiedNodes());
+        assertEquals(2, stats.getChangedNodes());
+        assertEquals(0, stats.getRebased());
+        assertEquals(0, stats.getConflicts());
+        assertEquals(0, stats.getRejections());
+        assertEquals(0, stats.getCommitRetries());
+    }
+
+    @Test
+    public void testConflict() throws DataValidationFailedException {
+        final DataTreeModification first = writeTest();
+        final DataTreeModification second = writeTest();
+        tree.validate(first);
+        tree.commit(tree.prepare(first));
+
+        try {
+            tree.validate(second);
+            fail("Conflict not detected");
+        } catch (ConflictingModificationAppliedException e) {
+            // Expected
+        }
+
+        assertEquals(2, stats.getSealLatency().getCount());
+        assertEquals(2, stats.getValidateLatency().getCount());
+        assertEquals(1, stats.getPrepareLatency().getCount());
+        assertEquals(1, stats.getConflicts());
+        assertEquals(0, stats.getRejections());
+    }
+
+    @Test
+    public void testRejection() throws DataValidationFailedException {
+        final DataTreeModification test = writeTest();
+        tree.validate(test);
+        tree.commit(tree.prepare(test));
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.merge(ENTRY_PATH.node(TestModel.ID_QNAME), ImmutableNodes.leafNode(TestModel.ID_QNAME, 1));
+        mod.ready();
+        try {
+            tree.validate(mod);
+            fail("Missing parent not detected");
+        } catch (ModifiedNodeDoesNotExistException e) {
+            // Expected
+        }
+
+        assertEquals(2, stats.getValidateLatency().getCount());
+        assertEquals(0, stats.getConflicts());
+        assertEquals(1, stats.getRejections());
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(50));
+
+        histogram.record(0);
+        histogram.record(3);
+        histogram.record(1000);
+        assertEquals(3, histogram.getCount());
+        assertEquals(1004, histogram.getTotalNanos());
+        assertEquals(1, histogram.getPercentileNanos(10));
+        assertEquals(3, histogram.getPercentileNanos(50));
+        assertEquals(1023, histogram.getPercentileNanos(100));
+    }
+
+    private DataTreeModification writeTest() {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.ready();
+        return mod;
+    }
+
+    private static void assertCounts(final LatencyHistogram... histograms) {
+        for (LatencyHistogram histogram : histograms) {
+            assertEquals(1, histogram.getCount());
+            assertTrue(histogram.getPercentileNanos(100) > 0);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Optional;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.ListNodeBuilder;
+
+public class InMemoryDataTreeLoaderTest {
+    private static final DataTreeConfiguration CONFIG = DataTreeConfiguration.builder(TreeType.CONFIGURATION)
+            .setMandatoryNodesValidation(true).build();
+    private static final QName MASTER_CONTAINER_QNAME = QName.create(
+            "urn:opendaylight:params:xml:ns:yang:list-constraints-validation-test-model", "2015-02-02",
+            "master-container");
+    private static final QName MIN_MAX_LEAF_LIST_QNAME = QName.create(MASTER_CONTAINER_QNAME, "min-max-leaf-list");
+    private static final QName UNBOUNDED_LEAF_LIST_QNAME = QName.create(MASTER_CONTAINER_QNAME, "unbounded-leaf-list");
+
+    @Test
+    public void testLoad() throws DataValidationFailedException, IOException {
+        final ContainerNode test = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+                .withChild(ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+                    .withChild(ImmutableNodes.mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1)
+                        .withChild(Builders.choiceBuilder()
+                            .withNodeIdentifier(new NodeIdentifier(TestModel.OUTER_CHOICE_QNAME))
+                            .withChild(ImmutableNodes.leafNode(TestModel.TWO_QNAME, "two"))
+                            .build())
+                        .build())
+                    .withChild(ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 2))
+                    .build())
+                .withChild(Builders.containerBuilder()
+                    .withNodeIdentifier(new NodeIdentifier(TestModel.INNER_CONTAINER_QNAME))
+                    .withChild(ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "value"))
+                    .build())
+                .build();
+
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(
+            DataTreeConfiguration.DEFAULT_OPERATIONAL, TestModel.createTestContext());
+        load(loader, test);
+        final DataTree tree = loader.build();
+        assertEquals(Optional.of(test), tree.takeSnapshot().readNode(TestModel.TEST_PATH));
+
+        // The tree has to be fully functional
+        final YangInstanceIdentifier entryPath = TestModel.OUTER_LIST_PATH.node(
+            ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3).getIdentifier());
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(entryPath, ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 3));
+        mod.delete(TestModel.INNER_CONTAINER_PATH);
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+
+        assertTrue(tree.takeSnapshot().readNode(entryPath).isPresent());
+        assertEquals(Optional.empty(), tree.takeSnapshot().readNode(TestModel.INNER_CONTAINER_PATH));
+    }
+
+    @Test
+    public void testLoadWithMetrics() throws DataValidationFailedException, IOException {
+        final DataTreeStatistics stats = new DataTreeStatistics();
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(
+            DataTreeConfiguration.DEFAULT_OPERATIONAL, TestModel.createTestContext(), stats);
+        load(loader, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        final DataTree tree = loader.build();
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.INNER_VALUE_PATH, ImmutableNodes.leafNode(TestModel.VALUE_QNAME, "value"));
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        assertEquals(1, stats.getCommitLatency().getCount());
+    }
+
+    @Test
+    public void testKeyValueShared() throws IOException {
+        final NodeIdentifierWithPredicates entryId = new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME,
+            TestModel.ID_QNAME, 1000);
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(
+            DataTreeConfiguration.DEFAULT_OPERATIONAL, TestModel.createTestContext());
+        final NormalizedNodeStreamWriter writer = loader.getWriter();
+        writer.startContainerNode(new NodeIdentifier(TestModel.TEST_QNAME), 1);
+        writer.startMapNode(new NodeIdentifier(TestModel.OUTER_LIST_QNAME), 1);
+        writer.startMapEntryNode(entryId, 1);
+        // A distinct instance, as a parser would produce
+        writer.leafNode(new NodeIdentifier(TestModel.ID_QNAME), new Integer(1000));
+        writer.endNode();
+        writer.endNode();
+        writer.endNode();
+
+        final MapEntryNode entry = (MapEntryNode) loader.build().takeSnapshot().readNode(
+            TestModel.OUTER_LIST_PATH.node(entryId)).get();
+        assertSame(entryId.getKeyValues().get(TestModel.ID_QNAME),
+            entry.getChild(new NodeIdentifier(TestModel.ID_QNAME)).get().getValue());
+    }
+
+    @Test(expected = SchemaValidationFailedException.class)
+    public void testUnknownChild() throws IOException {
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(CONFIG,
+            TestModel.createTestContext());
+        load(loader, Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(ImmutableNodes.leafNode(QName.create(TestModel.TEST_QNAME, "unknown"), "value")).build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMandatoryLeafViolation() throws IOException {
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(CONFIG,
+            TestModel.createTestContext("/mandatory-leaf-test.yang"));
+        try {
+            load(loader, Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+                .withChild(Builders.choiceBuilder()
+                    .withNodeIdentifier(new NodeIdentifier(QName.create(TestModel.TEST_QNAME, "choice1")))
+                    .withChild(Builders.containerBuilder()
+                        .withNodeIdentifier(new NodeIdentifier(QName.create(TestModel.TEST_QNAME, "case2-cont")))
+                        .withChild(ImmutableNodes.leafNode(QName.create(TestModel.TEST_QNAME, "case2-leaf2"),
+                            "value"))
+                        .build())
+                    .build())
+                .build());
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().endsWith("is missing mandatory descendant /(urn:opendaylight:params:xml:ns:"
+                + "yang:controller:md:sal:dom:store:test?revision=2014-03-13)case2-cont/case2-leaf1"));
+            throw e;
+        }
+    }
+
+    @Test
+    public void testLoadLeafSet() throws IOException {
+        final ContainerNode master = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(MASTER_CONTAINER_QNAME))
+                .withChild(leafSet(MIN_MAX_LEAF_LIST_QNAME, "x"))
+                .withChild(leafSet(UNBOUNDED_LEAF_LIST_QNAME, "a", "b", "c", "d", "e"))
+                .build();
+
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(CONFIG,
+            TestModel.createTestContext("/list-constraints-validation-test-model.yang"));
+        load(loader, master);
+        assertEquals(Optional.of(master), loader.build().takeSnapshot().readNode(
+            YangInstanceIdentifier.of(MASTER_CONTAINER_QNAME)));
+    }
+
+    @Test(expected = SchemaValidationFailedException.class)
+    public void testLeafSetMaxElementsViolation() throws IOException {
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(CONFIG,
+            TestModel.createTestContext("/list-constraints-validation-test-model.yang"));
+        load(loader, Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(MASTER_CONTAINER_QNAME))
+            .withChild(leafSet(MIN_MAX_LEAF_LIST_QNAME, "a", "b", "c", "d")).build());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnfinishedBuild() throws IOException {
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(CONFIG,
+            TestModel.createTestContext());
+        loader.getWriter().startContainerNode(new NodeIdentifier(TestModel.TEST_QNAME), 1);
+        loader.build();
+    }
+
+    private static LeafSetNode<Object> leafSet(final QName name, final Object... values) {
+        final ListNodeBuilder<Object, LeafSetEntryNode<Object>> builder = Builders.leafSetBuilder()
+                .withNodeIdentifier(new NodeIdentifier(name));
+        for (Object value : values) {
+            builder.withChildValue(value);
+        }
+        return builder.build();
+    }
+
+    private static void load(final InMemoryDataTreeLoader loader, final NormalizedNode<?, ?> node)
+            throws IOException {
+        NormalizedNodeWriter.forStreamWriter(loader.getWriter()).write(node).flush();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class SchemaUpgradeTest {
+    private static SchemaContext INITIAL_CONTEXT;
+    private static SchemaContext UPGRADED_CONTEXT;
+
+    @BeforeClass
+    public static void beforeClass() {
+        INITIAL_CONTEXT = YangParserTestUtils.parseYangResources(SchemaUpgradeTest.class,
+            "/odl-datastore-test.yang");
+        UPGRADED_CONTEXT = YangParserTestUtils.parseYangResources(SchemaUpgradeTest.class,
+            "/odl-datastore-test.yang", "/leafref-test.yang");
+    }
+
+    @Test
+    public void testEquivalence() {
+        assertTrue(SchemaEquivalence.equivalent(INITIAL_CONTEXT.getDataChildByName(TestModel.TEST_QNAME),
+            UPGRADED_CONTEXT.getDataChildByName(TestModel.TEST_QNAME)));
+        assertFalse(SchemaEquivalence.equivalentChildren(INITIAL_CONTEXT, UPGRADED_CONTEXT));
+    }
+
+    @Test
+    public void testTypeRestrictionChange() {
+        final QName top = QName.create("urn:opendaylight:params:xml:ns:yang:upgrade-test", "2018-01-01", "top");
+        final SchemaContext first = YangParserTestUtils.parseYangResource("/schema-upgrade/upgrade-test.yang");
+        final SchemaContext second = YangParserTestUtils.parseYangResource(
+            "/schema-upgrade/restricted/upgrade-test.yang");
+        assertTrue(SchemaEquivalence.equivalent(first.findDataChildByName(top).get(),
+            YangParserTestUtils.parseYangResource("/schema-upgrade/upgrade-test.yang").findDataChildByName(top).get()));
+        assertFalse(SchemaEquivalence.equivalent(first.findDataChildByName(top).get(),
+            second.findDataChildByName(top).get()));
+    }
+
+    @Test
+    public void testInheritUnchangedChildren() {
+        final NodeIdentifier testId = new NodeIdentifier(TestModel.TEST_QNAME);
+        final ContainerModificationStrategy initial = new ContainerModificationStrategy(INITIAL_CONTEXT,
+            DataTreeConfiguration.DEFAULT_CONFIGURATION);
+        final ModificationApplyOperation testOperation = initial.getChild(testId).get();
+
+        final ContainerModificationStrategy upgraded = new ContainerModificationStrategy(UPGRADED_CONTEXT,
+            DataTreeConfiguration.DEFAULT_CONFIGURATION);
+        upgraded.inheritFrom(initial);
+
+        // Children which have not been looked up are carried over to subsequent upgrades
+        final ContainerModificationStrategy reverted = new ContainerModificationStrategy(INITIAL_CONTEXT,
+            DataTreeConfiguration.DEFAULT_CONFIGURATION);
+        reverted.inheritFrom(upgraded);
+        assertSame(testOperation, reverted.getChild(testId).get());
+        assertSame(testOperation, upgraded.getChild(testId).get());
+
+        final ContainerModificationStrategy fresh = new ContainerModificationStrategy(UPGRADED_CONTEXT,
+            DataTreeConfiguration.DEFAULT_CONFIGURATION);
+        assertNotSame(testOperation, fresh.getChild(testId).get());
+    }
+
+    @Test
+    public void testDataTreeUpgrade() throws DataValidationFailedException {
+        final DataTree dataTree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_CONFIGURATION,
+            INITIAL_CONTEXT);
+        DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        modification.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        commit(dataTree, modification);
+
+        dataTree.setSchemaContext(UPGRADED_CONTEXT);
+
+        modification = dataTree.takeSnapshot().newModification();
+        modification.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .withChild(ImmutableNodes.mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1)).build());
+        commit(dataTree, modification);
+
+        assertEquals(1, dataTree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH).map(
+            node -> ((MapNode) node).getValue().size()).orElse(0)
+            .intValue());
+    }
+
+    @Test
+    public void testPreviousContextNotRetained() throws DataValidationFailedException, InterruptedException {
+        SchemaContext previous = YangParserTestUtils.parseYangResources(SchemaUpgradeTest.class,
+            "/odl-datastore-test.yang");
+        final WeakReference<SchemaContext> ref = new WeakReference<>(previous);
+        final DataTree dataTree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_CONFIGURATION,
+            previous);
+        previous = null;
+
+        DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        modification.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        commit(dataTree, modification);
+
+        // Operations for the 'test' container are reused, those for the root are not
+        dataTree.setSchemaContext(UPGRADED_CONTEXT);
+        modification = dataTree.takeSnapshot().newModification();
+        modification.write(TestModel.OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+            .build());
+        commit(dataTree, modification);
+
+        for (int i = 0; i < 10 && ref.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        assertNull(ref.get());
+    }
+
+    private static void commit(final DataTree dataTree, final DataTreeModification modification)
+            throws DataValidationFailedException {
+        modification.ready();
+        dataTree.validate(modification);
+        dataTree.commit(dataTree.prepare(modification));
+    }
+}
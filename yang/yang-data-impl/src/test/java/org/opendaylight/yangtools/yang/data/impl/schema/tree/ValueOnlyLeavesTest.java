@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.Optional;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapEntryNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.nodes.AbstractLeafValueDataContainerNode;
+
+public class ValueOnlyLeavesTest {
+    private static final NodeIdentifier VALUE = new NodeIdentifier(TestModel.VALUE_QNAME);
+    private static final NodeIdentifier NAME = new NodeIdentifier(TestModel.NAME_QNAME);
+
+    @Test
+    public void testBuilder() throws IOException {
+        final MapEntryNode expected = createEntry("a", "value a");
+        final MapEntryNode entry = ImmutableMapEntryNodeBuilder.createValueOnly(expected).build();
+
+        assertTrue(entry instanceof AbstractLeafValueDataContainerNode);
+        assertEquals(entry, ImmutableMapEntryNodeBuilder.createValueOnly(expected).build());
+        assertEquals(expected, materialize(entry));
+
+        // Equality does not depend on how leaves are stored
+        assertEquals(expected, entry);
+        assertEquals(entry, expected);
+        assertEquals(expected.hashCode(), entry.hashCode());
+        assertNotEquals(entry, createEntry("a", "other value"));
+        assertNotEquals(createEntry("a", "other value"), entry);
+        assertNotEquals(entry, Builders.containerBuilder().withNodeIdentifier(VALUE).build());
+
+        // Other implementations are not equal to either kind of entry, in both directions
+        final MapEntryNode foreign = mock(MapEntryNode.class);
+        doReturn(expected.getIdentifier()).when(foreign).getIdentifier();
+        doReturn(expected.getValue()).when(foreign).getValue();
+        assertNotEquals(entry, foreign);
+        assertNotEquals(expected, foreign);
+        assertNotEquals(foreign, entry);
+        assertNotEquals(foreign, expected);
+
+        assertEquals(2, entry.getValue().size());
+        assertEquals(Optional.of(ImmutableNodes.leafNode(NAME, "a")), entry.getChild(NAME));
+        assertEquals(Optional.of(ImmutableNodes.leafNode(VALUE, "value a")), entry.getChild(VALUE));
+        assertFalse(entry.getChild(new NodeIdentifier(TestModel.ID_QNAME)).isPresent());
+
+        // Entries with attributes are built as regular entries
+        final MapEntryNode withAttributes = ImmutableMapEntryNodeBuilder.createValueOnly()
+                .withNodeIdentifier(entry.getIdentifier()).withValue(expected.getValue())
+                .withAttributes(ImmutableMap.of(TestModel.VALUE_QNAME, "attribute")).build();
+        assertFalse(withAttributes instanceof AbstractLeafValueDataContainerNode);
+    }
+
+    @Test
+    public void testStreamWriter() throws IOException {
+        final ContainerNode expected = createTestContainer();
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                ImmutableNormalizedNodeStreamWriter.valueOnlyFrom(result))) {
+            writer.write(expected);
+        }
+
+        final NormalizedNode<?, ?> container = result.getResult();
+        assertTrue(container instanceof AbstractLeafValueDataContainerNode);
+        assertEquals(expected, materialize(container));
+    }
+
+    @Test
+    public void testDataTree() throws DataValidationFailedException, IOException {
+        final DataTree tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.builder(TreeType.OPERATIONAL)
+            .setValueOnlyLeaves(true).build(), TestModel.createTestContext());
+
+        DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, createTestContainer());
+        commit(tree, mod);
+        assertTrue(tree.takeSnapshot().readNode(entryPath("a")).get() instanceof AbstractLeafValueDataContainerNode);
+
+        // Modified entries and containers remain value-only
+        mod = tree.takeSnapshot().newModification();
+        mod.write(entryPath("a").node(VALUE), ImmutableNodes.leafNode(VALUE, "modified"));
+        mod.merge(entryPath("c"), createEntry("c", "value c"));
+        mod.write(TestModel.INNER_VALUE_PATH, ImmutableNodes.leafNode(VALUE, "inner"));
+        commit(tree, mod);
+
+        final Optional<NormalizedNode<?, ?>> entry = tree.takeSnapshot().readNode(entryPath("a"));
+        assertTrue(entry.get() instanceof AbstractLeafValueDataContainerNode);
+        assertEquals(createEntry("a", "modified"), materialize(entry.get()));
+        assertTrue(tree.takeSnapshot().readNode(entryPath("c")).get() instanceof AbstractLeafValueDataContainerNode);
+        assertTrue(tree.takeSnapshot().readNode(TestModel.INNER_CONTAINER_PATH).get()
+            instanceof AbstractLeafValueDataContainerNode);
+        assertEquals(Optional.of(ImmutableNodes.leafNode(VALUE, "inner")),
+            tree.takeSnapshot().readNode(TestModel.INNER_VALUE_PATH));
+    }
+
+    @Test
+    public void testWriteValueOnlyData() throws DataValidationFailedException, IOException {
+        final DataTree tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.builder(TreeType.OPERATIONAL)
+            .setValueOnlyLeaves(true).build(), TestModel.createTestContext());
+
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                ImmutableNormalizedNodeStreamWriter.valueOnlyFrom(result))) {
+            writer.write(createTestContainer());
+        }
+        final NormalizedNode<?, ?> container = result.getResult();
+
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, container);
+        commit(tree, mod);
+
+        // Data which is already value-only is stored as it is
+        assertSame(container, tree.takeSnapshot().readNode(TestModel.TEST_PATH).get());
+        assertEquals(createTestContainer(), tree.takeSnapshot().readNode(TestModel.TEST_PATH).get());
+    }
+
+    private static void commit(final DataTree tree, final DataTreeModification mod)
+            throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    private static NormalizedNode<?, ?> materialize(final NormalizedNode<?, ?> node) throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (NormalizedNodeWriter writer = NormalizedNodeWriter.forStreamWriter(
+                ImmutableNormalizedNodeStreamWriter.from(result))) {
+            writer.write(node);
+        }
+        return result.getResult();
+    }
+
+    private static YangInstanceIdentifier entryPath(final String name) {
+        return TestModel.OUTER_LIST_PATH.node(new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME,
+            TestModel.ID_QNAME, 1)).node(TestModel.INNER_LIST_QNAME).node(new NodeIdentifierWithPredicates(
+                TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, name));
+    }
+
+    private static ContainerNode createTestContainer() {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+                .withChild(ImmutableNodes.mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+                    .withChild(ImmutableNodes.mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1)
+                        .withChild(ImmutableNodes.mapNodeBuilder(TestModel.INNER_LIST_QNAME)
+                            .withChild(createEntry("a", "value a"))
+                            .withChild(createEntry("b", "value b"))
+                            .build())
+                        .build())
+                    .build())
+                .withChild(Builders.containerBuilder()
+                    .withNodeIdentifier(new NodeIdentifier(TestModel.INNER_CONTAINER_QNAME))
+                    .withChild(ImmutableNodes.leafNode(VALUE, "value"))
+                    .build())
+                .build();
+    }
+
+    private static MapEntryNode createEntry(final String name, final String value) {
+        return ImmutableNodes.mapEntryBuilder(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, name)
+                .withChild(ImmutableNodes.leafNode(VALUE, value)).build();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.collect.ImmutableList;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * Decoder of {@link DataTreeCandidate}s encoded by {@link CandidateWriter}. Each instance decodes a single record.
+ */
+@NotThreadSafe
+final class CandidateReader extends NodeDecoder {
+    private CandidateReader(final DataInput input) {
+        super(input);
+    }
+
+    /**
+     * Decode a candidate.
+     *
+     * @param stream Stream holding the encoded candidate
+     * @return Decoded candidate
+     * @throws IOException if the candidate cannot be decoded
+     */
+    static DataTreeCandidate read(final InputStream stream) throws IOException {
+        final CandidateReader reader = new CandidateReader(new DataInputStream(stream));
+        final YangInstanceIdentifier rootPath = reader.readPath();
+        return DataTreeCandidates.newDataTreeCandidate(rootPath, reader.readNode(true));
+    }
+
+    private DataTreeCandidateNode readNode(final boolean root) throws IOException {
+        final byte type = readByte();
+        final PathArgument identifier = root ? null : readPathArgument();
+        switch (type) {
+            case JournalFormat.MOD_UNMODIFIED:
+                return new JournalCandidateNode(identifier, ModificationType.UNMODIFIED, Optional.empty(),
+                    ImmutableList.of());
+            case JournalFormat.MOD_WRITE:
+                return new JournalCandidateNode(identifier, ModificationType.WRITE, Optional.of(readNormalizedNode()),
+                    ImmutableList.of());
+            case JournalFormat.MOD_DELETE:
+                return new JournalCandidateNode(identifier, ModificationType.DELETE, Optional.empty(),
+                    ImmutableList.of());
+            case JournalFormat.MOD_SUBTREE_MODIFIED:
+                final int size = readSize();
+                final List<DataTreeCandidateNode> children = new ArrayList<>(size);
+                for (int i = 0; i < size; ++i) {
+                    children.add(readNode(false));
+                }
+                return new JournalCandidateNode(identifier, ModificationType.SUBTREE_MODIFIED, Optional.empty(),
+                    children);
+            default:
+                throw new IOException("Unknown modification type " + type);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * Encoder of {@link DataTreeCandidate}s into the format described by {@link JournalFormat}. Each instance encodes
+ * a single record, as it holds the QName dictionary of that record.
+ */
+@NotThreadSafe
+final class CandidateWriter extends NodeEncoder {
+    private final NormalizedNodeWriter nodeWriter;
+
+    private CandidateWriter(final ByteArrayDataOutput output) {
+        super(output);
+        nodeWriter = NormalizedNodeWriter.forStreamWriter(this, false);
+    }
+
+    /**
+     * Encode a candidate.
+     *
+     * @param candidate Candidate to encode
+     * @return Encoded candidate
+     * @throws IOException if the candidate contains data which cannot be encoded
+     */
+    static byte[] write(final DataTreeCandidate candidate) throws IOException {
+        final CandidateWriter writer = new CandidateWriter(ByteStreams.newDataOutput());
+        writer.writePath(candidate.getRootPath());
+        writer.writeNode(candidate.getRootNode(), true);
+        return writer.toByteArray();
+    }
+
+    private void writeNode(final DataTreeCandidateNode node, final boolean root) throws IOException {
+        final ModificationType type = node.getModificationType();
+        switch (type) {
+            case UNMODIFIED:
+                writeByte(JournalFormat.MOD_UNMODIFIED);
+                writeIdentifier(node, root);
+                break;
+            case WRITE:
+                writeByte(JournalFormat.MOD_WRITE);
+                writeIdentifier(node, root);
+                nodeWriter.write(node.getDataAfter().get());
+                break;
+            case DELETE:
+                writeByte(JournalFormat.MOD_DELETE);
+                writeIdentifier(node, root);
+                break;
+            case APPEARED:
+            case DISAPPEARED:
+            case SUBTREE_MODIFIED:
+                // Replay treats these three identically, as they are all expressed through their children
+                writeByte(JournalFormat.MOD_SUBTREE_MODIFIED);
+                writeIdentifier(node, root);
+
+                final List<DataTreeCandidateNode> children = new ArrayList<>();
+                for (DataTreeCandidateNode child : node.getChildNodes()) {
+                    if (child.getModificationType() != ModificationType.UNMODIFIED) {
+                        children.add(child);
+                    }
+                }
+                writeSize(children.size());
+                for (DataTreeCandidateNode child : children) {
+                    writeNode(child, false);
+                }
+                break;
+            default:
+                throw new IOException("Unsupported modification type " + type);
+        }
+    }
+
+    private void writeIdentifier(final DataTreeCandidateNode node, final boolean root) throws IOException {
+        // The root node is identified by the candidate's root path
+        if (!root) {
+            writePathArgument(node.getIdentifier());
+        }
+    }
+}
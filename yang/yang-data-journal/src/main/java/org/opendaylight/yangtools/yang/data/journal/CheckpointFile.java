@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A single checkpoint generation file of a {@link DataTreeCheckpointStore}. Chunks can be appended concurrently, each
+ * append reserves space at the end of the file and writes the record there. Since the records are not written in
+ * order, a generation is not valid until all appends have finished and {@link #commit(long, long)} has been invoked.
+ */
+@ThreadSafe
+final class CheckpointFile {
+    private static final int CHUNK_PREFIX_SIZE = JournalFormat.RECORD_HEADER_SIZE + 1 + Long.BYTES;
+    private static final int COMMIT_PAYLOAD_SIZE = 1 + 2 * Long.BYTES;
+
+    private final AtomicLong end;
+    private final FileChannel channel;
+    private final long generation;
+    private final Path file;
+
+    // Set once the generation has been committed
+    private volatile long rootChunk = -1;
+    private volatile long nextChunk = -1;
+
+    private CheckpointFile(final Path file, final long generation, final FileChannel channel, final long end) {
+        this.file = file;
+        this.generation = generation;
+        this.channel = channel;
+        this.end = new AtomicLong(end);
+    }
+
+    /**
+     * Create a new checkpoint file.
+     *
+     * @param file Checkpoint file, which must not exist
+     * @param generation Generation stored in the file
+     * @return A new checkpoint file
+     * @throws IOException if the file cannot be created
+     */
+    static CheckpointFile create(final Path file, final long generation) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(JournalFormat.CHECKPOINT_HEADER_SIZE);
+            header.putInt(JournalFormat.CHECKPOINT_MAGIC).putInt(JournalFormat.CHECKPOINT_VERSION)
+                .putLong(generation).flip();
+            writeFully(channel, header, 0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new CheckpointFile(file, generation, channel, JournalFormat.CHECKPOINT_HEADER_SIZE);
+    }
+
+    /**
+     * Open an existing checkpoint file and locate all chunks stored in it. Chunk checksums are not verified until they
+     * are read.
+     *
+     * @param file Checkpoint file
+     * @param generation Expected generation of the file
+     * @param chunks Map to which locations of chunks found in the file are added
+     * @return An opened checkpoint file, which may not be committed
+     * @throws IOException if the file cannot be opened or is not a checkpoint file
+     */
+    static CheckpointFile open(final Path file, final long generation, final Map<Long, ChunkLocation> chunks)
+            throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(JournalFormat.CHECKPOINT_HEADER_SIZE);
+            if (readFully(channel, header, 0) != header.capacity()) {
+                throw new IOException("Checkpoint " + file + " is truncated");
+            }
+            header.flip();
+            final int magic = header.getInt();
+            final int version = header.getInt();
+            final long fileGeneration = header.getLong();
+            if (magic != JournalFormat.CHECKPOINT_MAGIC || version != JournalFormat.CHECKPOINT_VERSION
+                    || fileGeneration != generation) {
+                throw new IOException(String.format("Checkpoint %s has unrecognized header %08x version %s generation"
+                    + " %s", file, magic, version, fileGeneration));
+            }
+
+            final long size = channel.size();
+            final CheckpointFile ret = new CheckpointFile(file, generation, channel, size);
+            ret.scan(size, chunks);
+            return ret;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void scan(final long size, final Map<Long, ChunkLocation> chunks) throws IOException {
+        final ByteBuffer prefix = ByteBuffer.allocate(CHUNK_PREFIX_SIZE);
+        long offset = JournalFormat.CHECKPOINT_HEADER_SIZE;
+        while (offset < size) {
+            prefix.clear();
+            if (readFully(channel, prefix, offset) < JournalFormat.RECORD_HEADER_SIZE + 1) {
+                // Truncated record header
+                return;
+            }
+
+            final int length = prefix.getInt(0);
+            final long next = offset + JournalFormat.RECORD_HEADER_SIZE + length;
+            if (length <= 0 || next > size) {
+                // Torn record, the generation cannot have been committed
+                return;
+            }
+
+            final byte type = prefix.get(JournalFormat.RECORD_HEADER_SIZE);
+            if (type == JournalFormat.RECORD_CHUNK) {
+                if (prefix.position() < CHUNK_PREFIX_SIZE) {
+                    return;
+                }
+                final long id = prefix.getLong(JournalFormat.RECORD_HEADER_SIZE + 1);
+                chunks.put(id, new ChunkLocation(this, offset, length));
+            } else if (type == JournalFormat.RECORD_COMMIT && next == size && length == COMMIT_PAYLOAD_SIZE) {
+                final ByteBuffer payload = readRecord(offset, length);
+                payload.get();
+                rootChunk = payload.getLong();
+                nextChunk = payload.getLong();
+                return;
+            } else {
+                // Unknown record or a commit which is not last, the file has been overwritten
+                return;
+            }
+
+            offset = next;
+        }
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    boolean isCommitted() {
+        return rootChunk != -1;
+    }
+
+    long getRootChunk() {
+        return rootChunk;
+    }
+
+    long getNextChunk() {
+        return nextChunk;
+    }
+
+    /**
+     * Append a chunk to this file.
+     *
+     * @param id Chunk identifier
+     * @param body Encoded chunk contents
+     * @return Location of the chunk
+     * @throws IOException if the chunk cannot be written
+     */
+    ChunkLocation appendChunk(final long id, final byte[] body) throws IOException {
+        final int length = 1 + Long.BYTES + body.length;
+        final ByteBuffer record = ByteBuffer.allocate(JournalFormat.RECORD_HEADER_SIZE + length);
+        record.putInt(length).putInt(0).put(JournalFormat.RECORD_CHUNK).putLong(id).put(body);
+        record.putInt(4, checksum(record));
+        record.flip();
+
+        final long offset = end.getAndAdd(record.remaining());
+        writeFully(channel, record, offset);
+        return new ChunkLocation(this, offset, length);
+    }
+
+    /**
+     * Copy a chunk from another file to this file. This method must not be invoked concurrently with any other
+     * method reading from the source file.
+     *
+     * @param source Location of the chunk
+     * @return Location of the copy
+     * @throws IOException if the chunk cannot be copied
+     */
+    ChunkLocation copyChunk(final ChunkLocation source) throws IOException {
+        final long size = JournalFormat.RECORD_HEADER_SIZE + source.getLength();
+        final long offset = end.getAndAdd(size);
+        final FileChannel sourceChannel = source.getFile().channel;
+        sourceChannel.position(source.getOffset());
+
+        long copied = 0;
+        while (copied < size) {
+            final long bytes = channel.transferFrom(sourceChannel, offset + copied, size - copied);
+            if (bytes <= 0) {
+                throw new IOException("Failed to copy chunk from " + source);
+            }
+            copied += bytes;
+        }
+        return new ChunkLocation(this, offset, source.getLength());
+    }
+
+    /**
+     * Commit the generation stored in this file. All chunks have to be appended before this method is invoked and
+     * no chunks may be appended after it. The file is forced to persistent storage both before and after the commit
+     * record is written, so that the commit record cannot become durable without the chunks.
+     *
+     * @param root Identifier of the root chunk
+     * @param next Next unused chunk identifier
+     * @throws IOException if the commit record cannot be written
+     */
+    void commit(final long root, final long next) throws IOException {
+        channel.force(false);
+
+        final ByteBuffer record = ByteBuffer.allocate(JournalFormat.RECORD_HEADER_SIZE + COMMIT_PAYLOAD_SIZE);
+        record.putInt(COMMIT_PAYLOAD_SIZE).putInt(0).put(JournalFormat.RECORD_COMMIT).putLong(root).putLong(next);
+        record.putInt(4, checksum(record));
+        record.flip();
+        writeFully(channel, record, end.getAndAdd(record.remaining()));
+        channel.force(false);
+
+        rootChunk = root;
+        nextChunk = next;
+    }
+
+    /**
+     * Read the contents of a chunk stored in this file, verifying its checksum.
+     *
+     * @param location Location of the chunk
+     * @param id Expected chunk identifier
+     * @return Encoded chunk contents
+     * @throws IOException if the chunk cannot be read or is corrupted
+     */
+    byte[] readChunk(final ChunkLocation location, final long id) throws IOException {
+        final ByteBuffer payload = readRecord(location.getOffset(), location.getLength());
+        if (payload.get() != JournalFormat.RECORD_CHUNK || payload.getLong() != id) {
+            throw new IOException("Checkpoint " + file + " does not contain chunk " + id + " at offset "
+                    + location.getOffset());
+        }
+
+        final byte[] body = new byte[payload.remaining()];
+        payload.get(body);
+        return body;
+    }
+
+    private ByteBuffer readRecord(final long offset, final int length) throws IOException {
+        final ByteBuffer record = ByteBuffer.allocate(JournalFormat.RECORD_HEADER_SIZE + length);
+        if (readFully(channel, record, offset) != record.capacity()) {
+            throw new IOException("Checkpoint " + file + " is truncated at offset " + offset);
+        }
+
+        final int crc = record.getInt(4);
+        if (record.getInt(0) != length || checksum(record) != crc) {
+            throw new IOException("Checkpoint " + file + " is corrupted at offset " + offset);
+        }
+
+        record.position(JournalFormat.RECORD_HEADER_SIZE);
+        return record;
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    private static int checksum(final ByteBuffer record) {
+        final ByteBuffer payload = record.duplicate();
+        payload.position(JournalFormat.RECORD_HEADER_SIZE).limit(record.capacity());
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final long offset)
+            throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static int readFully(final FileChannel channel, final ByteBuffer buffer, final long offset)
+            throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            final int bytes = channel.read(buffer, position);
+            if (bytes < 0) {
+                break;
+            }
+            position += bytes;
+        }
+        return buffer.position();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("file", file).add("generation", generation)
+                .add("committed", isCommitted()).toString();
+    }
+}
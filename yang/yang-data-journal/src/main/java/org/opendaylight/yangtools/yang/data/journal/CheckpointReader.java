@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+
+/**
+ * Reader of a checkpoint stored by {@link DataTreeCheckpointStore}. Chunks are streamed into a
+ * {@link NormalizedNodeStreamWriter} as they are referenced, so that only the chunks on the path to the node being
+ * read are held in memory. While reading, the reader rebuilds the {@link ChunkIndex} of the checkpoint.
+ */
+@NotThreadSafe
+final class CheckpointReader {
+    private final Map<Long, ChunkLocation> chunks;
+
+    CheckpointReader(final Map<Long, ChunkLocation> chunks) {
+        this.chunks = requireNonNull(chunks);
+    }
+
+    /**
+     * Read a checkpoint, emitting the children of its root node into a writer.
+     *
+     * @param rootChunk Identifier of the root chunk
+     * @param writer Writer to emit events into
+     * @return Index of the checkpoint, with all chunk versions unset
+     * @throws IOException if a chunk cannot be read or decoded, or the writer fails
+     */
+    ChunkIndex read(final long rootChunk, final NormalizedNodeStreamWriter writer) throws IOException {
+        final IndexingWriter indexing = new IndexingWriter(writer);
+        final ChunkLocation location = lookup(rootChunk);
+        final ChunkDecoder decoder = new ChunkDecoder(location.getFile().readChunk(location, rootChunk));
+        final int size = decoder.readSize();
+        for (int i = 0; i < size; ++i) {
+            decoder.readEvents(indexing, decoder.readByte());
+        }
+        return ChunkIndex.chunk(rootChunk, null, location, indexing.getRootChildren());
+    }
+
+    private ChunkLocation lookup(final long id) throws IOException {
+        final ChunkLocation location = chunks.get(id);
+        if (location == null) {
+            throw new IOException("Checkpoint chunk " + id + " is missing");
+        }
+        return location;
+    }
+
+    private final class ChunkDecoder extends NodeDecoder {
+        ChunkDecoder(final byte[] body) {
+            super(new DataInputStream(new ByteArrayInputStream(body)));
+        }
+
+        @Override
+        void readOtherEvent(final NormalizedNodeStreamWriter writer, final byte type) throws IOException {
+            if (type != JournalFormat.NODE_CHUNK) {
+                super.readOtherEvent(writer, type);
+                return;
+            }
+
+            final long id = readVarLong();
+            final ChunkLocation location = lookup(id);
+            final ChunkDecoder decoder = new ChunkDecoder(location.getFile().readChunk(location, id));
+            ((IndexingWriter) writer).expectChunk(id, location);
+            decoder.readEvents(writer, decoder.readByte());
+        }
+    }
+
+    private static final class Frame {
+        final PathArgument identifier;
+        final ChunkLocation location;
+        final long chunk;
+        Map<PathArgument, ChunkIndex> children;
+
+        Frame(final PathArgument identifier, final long chunk, final ChunkLocation location) {
+            this.identifier = identifier;
+            this.chunk = chunk;
+            this.location = location;
+        }
+
+        void addChild(final PathArgument child, final ChunkIndex index) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            children.put(child, index);
+        }
+
+        ChunkIndex toIndex() {
+            if (location != null) {
+                return ChunkIndex.chunk(chunk, null, location, children == null ? Collections.emptyMap() : children);
+            }
+            return children == null ? null : ChunkIndex.inline(children);
+        }
+    }
+
+    /**
+     * A writer forwarding events to a delegate, which tracks the position of chunks in the data tree.
+     */
+    private static final class IndexingWriter implements NormalizedNodeStreamWriter {
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final NormalizedNodeStreamWriter delegate;
+        private final Frame root = new Frame(null, -1, null);
+        private ChunkLocation nextLocation;
+        private long nextChunk;
+
+        IndexingWriter(final NormalizedNodeStreamWriter delegate) {
+            this.delegate = requireNonNull(delegate);
+            frames.push(root);
+        }
+
+        Map<PathArgument, ChunkIndex> getRootChildren() {
+            return root.children == null ? Collections.emptyMap() : root.children;
+        }
+
+        void expectChunk(final long id, final ChunkLocation location) {
+            nextChunk = id;
+            nextLocation = location;
+        }
+
+        private void enter(final PathArgument identifier) {
+            frames.push(new Frame(identifier, nextChunk, nextLocation));
+            nextLocation = null;
+        }
+
+        @Override
+        public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+            delegate.leafNode(name, value);
+        }
+
+        @Override
+        public void startLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            enter(name);
+            delegate.startLeafSet(name, childSizeHint);
+        }
+
+        @Override
+        public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            enter(name);
+            delegate.startOrderedLeafSet(name, childSizeHint);
+        }
+
+        @Override
+        public void leafSetEntryNode(final QName name, final Object value) throws IOException {
+            delegate.leafSetEntryNode(name, value);
+        }
+
+        @Override
+        public void startContainerNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            enter(name);
+            delegate.startContainerNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            enter(name);
+            delegate.startUnkeyedList(name, childSizeHint);
+        }
+
+        @Override
+        public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            enter(name);
+            delegate.startUnkeyedListItem(name, childSizeHint);
+        }
+
+        @Override
+        public void startMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            enter(name);
+            delegate.startMapNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint)
+                throws IOException {
+            enter(identifier);
+            delegate.startMapEntryNode(identifier, childSizeHint);
+        }
+
+        @Override
+        public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            enter(name);
+            delegate.startOrderedMapNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+            enter(name);
+            delegate.startChoiceNode(name, childSizeHint);
+        }
+
+        @Override
+        public void startAugmentationNode(final AugmentationIdentifier identifier) throws IOException {
+            enter(identifier);
+            delegate.startAugmentationNode(identifier);
+        }
+
+        @Override
+        public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+            delegate.anyxmlNode(name, value);
+        }
+
+        @Override
+        public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint)
+                throws IOException {
+            enter(name);
+            delegate.startYangModeledAnyXmlNode(name, childSizeHint);
+        }
+
+        @Override
+        public void endNode() throws IOException {
+            delegate.endNode();
+            final Frame frame = frames.pop();
+            final ChunkIndex index = frame.toIndex();
+            if (index != null) {
+                frames.peek().addChild(frame.identifier, index);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+
+/**
+ * A single checkpoint run of {@link DataTreeCheckpointStore}. The data tree is split into chunks: the root node and
+ * any containers, choices, augmentations, lists and list entries whose parent has at least as many children as
+ * the split threshold are stored as separate chunks. A chunk whose subtree version matches the previous checkpoint
+ * is referenced without being written again. Chunks which need to be written are encoded and appended in parallel,
+ * each of them in a separate {@link RecursiveTask}.
+ */
+@NotThreadSafe
+final class CheckpointWriter {
+    private final LongAdder writtenChunks = new LongAdder();
+    private final LongAdder reusedChunks = new LongAdder();
+    private final LongAdder writtenBytes = new LongAdder();
+    private final AtomicLong nextChunk;
+    private final CheckpointFile file;
+    private final Version restoredVersion;
+    private final int splitThreshold;
+
+    CheckpointWriter(final CheckpointFile file, final long nextChunk, final int splitThreshold,
+            @Nullable final Version restoredVersion) {
+        this.file = requireNonNull(file);
+        this.nextChunk = new AtomicLong(nextChunk);
+        this.splitThreshold = splitThreshold;
+        this.restoredVersion = restoredVersion;
+    }
+
+    /**
+     * Write all chunks of a data tree which have changed since the previous checkpoint.
+     *
+     * @param pool Pool to execute chunk writers in
+     * @param root Root node of the data tree
+     * @param previous Index of the previous checkpoint, null if there is none
+     * @return Index of the written checkpoint
+     * @throws IOException if a chunk cannot be encoded or written
+     */
+    @SuppressWarnings("checkstyle:avoidHidingCauseException")
+    ChunkIndex write(final ForkJoinPool pool, final TreeNode root, @Nullable final ChunkIndex previous)
+            throws IOException {
+        try {
+            return pool.invoke(new ChunkTask(root, previous, nextChunk.getAndIncrement(), true));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    long getNextChunk() {
+        return nextChunk.get();
+    }
+
+    long getWrittenChunks() {
+        return writtenChunks.sum();
+    }
+
+    long getReusedChunks() {
+        return reusedChunks.sum();
+    }
+
+    long getWrittenBytes() {
+        return writtenBytes.sum();
+    }
+
+    private static boolean isSplittable(final NormalizedNode<?, ?> node) {
+        return node instanceof ContainerNode || node instanceof MapEntryNode || node instanceof MapNode
+                || node instanceof ChoiceNode || node instanceof AugmentationNode;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> castContainer(
+            final NormalizedNode<?, ?> node) {
+        return (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) node;
+    }
+
+    private static final class ChunkEncoder extends NodeEncoder {
+        private final NormalizedNodeWriter nodeWriter;
+
+        ChunkEncoder() {
+            super(ByteStreams.newDataOutput());
+            nodeWriter = NormalizedNodeWriter.forStreamWriter(this, false);
+        }
+
+        void writeChunk(final long id) {
+            writeByte(JournalFormat.NODE_CHUNK);
+            writeVarLong(id);
+        }
+
+        void writeNode(final NormalizedNode<?, ?> node) throws IOException {
+            nodeWriter.write(node);
+        }
+
+        void startNode(final NormalizedNode<?, ?> node) throws IOException {
+            final int size = castContainer(node).getValue().size();
+            if (node instanceof ContainerNode) {
+                startContainerNode(((ContainerNode) node).getIdentifier(), size);
+            } else if (node instanceof MapEntryNode) {
+                startMapEntryNode(((MapEntryNode) node).getIdentifier(), size);
+            } else if (node instanceof OrderedMapNode) {
+                startOrderedMapNode(((OrderedMapNode) node).getIdentifier(), size);
+            } else if (node instanceof MapNode) {
+                startMapNode(((MapNode) node).getIdentifier(), size);
+            } else if (node instanceof ChoiceNode) {
+                startChoiceNode(((ChoiceNode) node).getIdentifier(), size);
+            } else if (node instanceof AugmentationNode) {
+                startAugmentationNode(((AugmentationNode) node).getIdentifier());
+            } else {
+                throw new IOException("Unhandled node " + node);
+            }
+        }
+    }
+
+    /**
+     * Index node of an inline node, which becomes part of its parent's index only if a chunk is reachable through it.
+     * This is not known until all child chunk tasks have completed.
+     */
+    private static final class InlineNode {
+        final Map<PathArgument, ChunkIndex> parent;
+        final Map<PathArgument, ChunkIndex> children;
+        final PathArgument identifier;
+
+        InlineNode(final Map<PathArgument, ChunkIndex> parent, final PathArgument identifier,
+                final Map<PathArgument, ChunkIndex> children) {
+            this.parent = parent;
+            this.identifier = identifier;
+            this.children = children;
+        }
+    }
+
+    private static final class ChildChunk {
+        final Map<PathArgument, ChunkIndex> parent;
+        final PathArgument identifier;
+        final ChunkTask task;
+
+        ChildChunk(final Map<PathArgument, ChunkIndex> parent, final PathArgument identifier, final ChunkTask task) {
+            this.parent = parent;
+            this.identifier = identifier;
+            this.task = task;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class ChunkTask extends RecursiveTask<ChunkIndex> {
+        private final List<ChildChunk> childChunks = new ArrayList<>();
+        private final List<InlineNode> inlineNodes = new ArrayList<>();
+        private final ChunkEncoder encoder = new ChunkEncoder();
+        private final ChunkIndex previous;
+        private final TreeNode node;
+        private final boolean root;
+        private final long id;
+
+        ChunkTask(final TreeNode node, @Nullable final ChunkIndex previous, final long id, final boolean root) {
+            this.node = requireNonNull(node);
+            this.previous = previous;
+            this.id = id;
+            this.root = root;
+        }
+
+        @Override
+        protected ChunkIndex compute() {
+            final Map<PathArgument, ChunkIndex> children = new HashMap<>();
+            final ChunkLocation location;
+            try {
+                if (root) {
+                    // The root node is implied by the data tree, hence we store only its children
+                    final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> data =
+                            castContainer(node.getData());
+                    final boolean split = data.getValue().size() >= splitThreshold;
+                    encoder.writeSize(data.getValue().size());
+                    for (NormalizedNode<?, ?> child : data.getValue()) {
+                        writeChild(node, child, previous, children, split);
+                    }
+                } else {
+                    writeChildren(node, previous, children);
+                }
+
+                final byte[] body = encoder.toByteArray();
+                location = file.appendChunk(id, body);
+                writtenChunks.increment();
+                writtenBytes.add(body.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for (ChildChunk child : childChunks) {
+                child.parent.put(child.identifier, child.task.join());
+            }
+            // Inline nodes are recorded after their children, hence their children are complete when we get to them
+            for (InlineNode inline : inlineNodes) {
+                if (!inline.children.isEmpty()) {
+                    inline.parent.put(inline.identifier, ChunkIndex.inline(inline.children));
+                }
+            }
+            return ChunkIndex.chunk(id, node.getSubtreeVersion(), location, children);
+        }
+
+        private void writeChildren(final TreeNode tree, @Nullable final ChunkIndex prev,
+                final Map<PathArgument, ChunkIndex> index) throws IOException {
+            final NormalizedNode<?, ?> data = tree.getData();
+            final int size = castContainer(data).getValue().size();
+            final boolean split = size >= splitThreshold;
+
+            encoder.startNode(data);
+            for (NormalizedNode<?, ?> child : castContainer(data).getValue()) {
+                writeChild(tree, child, prev, index, split);
+            }
+            encoder.endNode();
+        }
+
+        private void writeChild(final TreeNode parent, final NormalizedNode<?, ?> child,
+                @Nullable final ChunkIndex prevParent, final Map<PathArgument, ChunkIndex> index, final boolean split)
+                throws IOException {
+            if (!isSplittable(child)) {
+                encoder.writeNode(child);
+                return;
+            }
+
+            final PathArgument identifier = child.getIdentifier();
+            final TreeNode tree = parent.getChild(identifier).get();
+            final ChunkIndex prev = prevParent == null ? null : prevParent.getChild(identifier);
+            if (split) {
+                if (prev != null && prev.matches(tree.getSubtreeVersion(), restoredVersion)) {
+                    encoder.writeChunk(prev.getId());
+                    index.put(identifier, prev);
+                    reusedChunks.increment();
+                    return;
+                }
+
+                final ChunkTask task = new ChunkTask(tree, prev, nextChunk.getAndIncrement(), false);
+                task.fork();
+                childChunks.add(new ChildChunk(index, identifier, task));
+                encoder.writeChunk(task.id);
+                return;
+            }
+
+            final Map<PathArgument, ChunkIndex> children = new HashMap<>();
+            writeChildren(tree, prev, children);
+            inlineNodes.add(new InlineNode(index, identifier, children));
+        }
+    }
+}
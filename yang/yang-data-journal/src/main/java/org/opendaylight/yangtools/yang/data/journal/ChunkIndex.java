@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+
+/**
+ * In-memory index of the chunks making up the latest checkpoint. It mirrors the structure of the data tree, but holds
+ * only nodes which are stored as separate chunks and the nodes through which they are reachable. Each chunk records
+ * the subtree version of the TreeNode it has been written from, so the next checkpoint can reference it instead of
+ * writing it again, as long as the subtree version has not changed.
+ *
+ * <p>
+ * The structure of the index is immutable. Chunk locations are updated when chunks are moved by compaction, which
+ * is serialized with checkpoints by {@link DataTreeCheckpointStore}.
+ */
+final class ChunkIndex {
+    private static final long INLINE = -1;
+
+    private final Map<PathArgument, ChunkIndex> children;
+    private final Version version;
+    private final long id;
+    private ChunkLocation location;
+
+    private ChunkIndex(final long id, final Version version, final ChunkLocation location,
+            final Map<PathArgument, ChunkIndex> children) {
+        this.id = id;
+        this.version = version;
+        this.location = location;
+        this.children = requireNonNull(children);
+    }
+
+    /**
+     * Create an index node for a chunk.
+     *
+     * @param id Chunk identifier
+     * @param version Subtree version the chunk has been written from, null if the chunk has been restored
+     * @param location Chunk location
+     * @param children Children of the chunk
+     * @return A chunk index node
+     */
+    static ChunkIndex chunk(final long id, @Nullable final Version version, final ChunkLocation location,
+            final Map<PathArgument, ChunkIndex> children) {
+        return new ChunkIndex(id, version, requireNonNull(location), children.isEmpty() ? Collections.emptyMap()
+                : children);
+    }
+
+    /**
+     * Create an index node for a node stored inline in its parent's chunk.
+     *
+     * @param children Children of the node, which must not be empty
+     * @return An inline index node
+     */
+    static ChunkIndex inline(final Map<PathArgument, ChunkIndex> children) {
+        return new ChunkIndex(INLINE, null, null, children);
+    }
+
+    boolean isChunk() {
+        return id != INLINE;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Check whether a subtree version matches the version this chunk has been written from.
+     *
+     * @param subtreeVersion Current subtree version
+     * @param restoredVersion Version of the data tree this index has been restored into, if any
+     * @return True if the chunk can be reused
+     */
+    boolean matches(final Version subtreeVersion, @Nullable final Version restoredVersion) {
+        return isChunk() && subtreeVersion == (version != null ? version : restoredVersion);
+    }
+
+    @Nullable ChunkIndex getChild(final PathArgument child) {
+        return children.get(child);
+    }
+
+    Collection<ChunkIndex> getChildren() {
+        return children.values();
+    }
+
+    ChunkLocation getLocation() {
+        return location;
+    }
+
+    void setLocation(final ChunkLocation location) {
+        this.location = requireNonNull(location);
+    }
+
+    /**
+     * Add all chunks reachable through this node, including this node, to a collection.
+     *
+     * @param chunks Collection to which chunks are added
+     */
+    void collectChunks(final Collection<ChunkIndex> chunks) {
+        if (isChunk()) {
+            chunks.add(this);
+        }
+        for (ChunkIndex child : children.values()) {
+            child.collectChunks(chunks);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("id", id).add("location", location)
+                .add("children", children.size()).toString();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Location of a chunk record in a {@link CheckpointFile}.
+ */
+final class ChunkLocation {
+    private final CheckpointFile file;
+    private final long offset;
+    private final int length;
+
+    ChunkLocation(final CheckpointFile file, final long offset, final int length) {
+        this.file = requireNonNull(file);
+        this.offset = offset;
+        this.length = length;
+    }
+
+    CheckpointFile getFile() {
+        return file;
+    }
+
+    /**
+     * Return the offset of the record, including its header.
+     *
+     * @return Record offset
+     */
+    long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Return the length of the record payload.
+     *
+     * @return Payload length
+     */
+    int getLength() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("generation", file.getGeneration()).add("offset", offset)
+                .add("length", length).toString();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Summary of a checkpoint taken by {@link DataTreeCheckpointStore#checkpoint(
+ * org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot)}.
+ */
+@Beta
+public final class DataTreeCheckpoint {
+    private final long generation;
+    private final long writtenChunks;
+    private final long reusedChunks;
+    private final long writtenBytes;
+    private final long elapsedNanos;
+
+    DataTreeCheckpoint(final long generation, final long writtenChunks, final long reusedChunks,
+            final long writtenBytes, final long elapsedNanos) {
+        this.generation = generation;
+        this.writtenChunks = writtenChunks;
+        this.reusedChunks = reusedChunks;
+        this.writtenBytes = writtenBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Return the generation holding this checkpoint.
+     *
+     * @return Checkpoint generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Return the number of chunks written by this checkpoint.
+     *
+     * @return Number of written chunks
+     */
+    public long getWrittenChunks() {
+        return writtenChunks;
+    }
+
+    /**
+     * Return the number of unchanged chunks this checkpoint references from previous generations. Chunks nested in
+     * a referenced chunk are not counted.
+     *
+     * @return Number of reused chunks
+     */
+    public long getReusedChunks() {
+        return reusedChunks;
+    }
+
+    /**
+     * Return the number of bytes of encoded data written by this checkpoint.
+     *
+     * @return Number of written bytes
+     */
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    /**
+     * Return the time it took to take this checkpoint, in nanoseconds.
+     *
+     * @return Elapsed time
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("generation", generation).add("writtenChunks", writtenChunks)
+                .add("reusedChunks", reusedChunks).add("writtenBytes", writtenBytes)
+                .add("elapsedNanos", elapsedNanos).toString();
+    }
+}
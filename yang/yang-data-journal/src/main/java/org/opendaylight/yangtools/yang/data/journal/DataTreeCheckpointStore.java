@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeLoader;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeSnapshots;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A store of incremental checkpoints of an in-memory {@link DataTree}. Checkpoints are taken from
+ * {@link DataTreeSnapshot}s, which are immutable, hence taking a checkpoint does not block commits to the data tree
+ * and does not copy any data.
+ *
+ * <p>
+ * Each checkpoint is stored as a new generation file, which holds only the subtrees whose
+ * {@link TreeNode#getSubtreeVersion()} has changed since the previous checkpoint. Unchanged subtrees are referenced
+ * from the generations they have been written to. Subtrees are split into separately-stored chunks at nodes with at
+ * least a configured number of children, such as list entries of large lists. Chunks which need to be written are
+ * encoded in parallel.
+ *
+ * <p>
+ * Versions are tracked only in memory, hence the first checkpoint taken after the store is opened is a full one,
+ * unless the data tree has been created by {@link #restore(DataTreeConfiguration, SchemaContext)}.
+ *
+ * <p>
+ * Once the number of generations exceeds the configured maximum, the store is compacted: chunks which are still
+ * referenced are copied from old generations into a new one and the old generations are deleted. Compaction copies
+ * the stored chunks without decoding them.
+ */
+@Beta
+@ThreadSafe
+public final class DataTreeCheckpointStore implements AutoCloseable {
+    /**
+     * Default minimum number of children a node needs to have for its children to be stored as separate chunks.
+     */
+    public static final int DEFAULT_SPLIT_THRESHOLD = 32;
+
+    /**
+     * Default number of generations which triggers compaction.
+     */
+    public static final int DEFAULT_MAX_GENERATIONS = 8;
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataTreeCheckpointStore.class);
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    @GuardedBy("this")
+    private final TreeMap<Long, CheckpointFile> files;
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+    private final int maxGenerations;
+
+    // Chunks found when opening the store, until we have an index of the latest checkpoint
+    @GuardedBy("this")
+    private Map<Long, ChunkLocation> openedChunks;
+    @GuardedBy("this")
+    private ChunkIndex index;
+    @GuardedBy("this")
+    private Version restoredVersion;
+    @GuardedBy("this")
+    private long nextChunk;
+    @GuardedBy("this")
+    private boolean closed;
+
+    private DataTreeCheckpointStore(final Path directory, final int splitThreshold, final int maxGenerations,
+            final ForkJoinPool pool, final TreeMap<Long, CheckpointFile> files,
+            final Map<Long, ChunkLocation> openedChunks, final long nextChunk) {
+        this.directory = directory;
+        this.splitThreshold = splitThreshold;
+        this.maxGenerations = maxGenerations;
+        this.pool = pool;
+        this.files = files;
+        this.openedChunks = openedChunks;
+        this.nextChunk = nextChunk;
+    }
+
+    /**
+     * Open a checkpoint store with default settings, creating it if it does not exist. Chunks are written in
+     * {@link ForkJoinPool#commonPool()}.
+     *
+     * @param directory Checkpoint directory
+     * @return An open checkpoint store
+     * @throws IOException if the store cannot be opened or is corrupted
+     */
+    public static DataTreeCheckpointStore open(final Path directory) throws IOException {
+        return open(directory, DEFAULT_SPLIT_THRESHOLD, DEFAULT_MAX_GENERATIONS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Open a checkpoint store, creating it if it does not exist. Any incomplete checkpoint left behind by a crash is
+     * discarded.
+     *
+     * @param directory Checkpoint directory
+     * @param splitThreshold Minimum number of children a node needs to have for its children to be stored as
+     *                       separate chunks
+     * @param maxGenerations Number of generations which triggers compaction, at least 2
+     * @param pool Pool in which chunks are written
+     * @return An open checkpoint store
+     * @throws IllegalArgumentException if splitThreshold or maxGenerations is invalid
+     * @throws IOException if the store cannot be opened or is corrupted
+     */
+    public static DataTreeCheckpointStore open(final Path directory, final int splitThreshold,
+            final int maxGenerations, final ForkJoinPool pool) throws IOException {
+        Preconditions.checkArgument(splitThreshold > 0, "Split threshold %s is not positive", splitThreshold);
+        Preconditions.checkArgument(maxGenerations >= 2, "Maximum generations %s is less than 2", maxGenerations);
+        requireNonNull(pool);
+        Files.createDirectories(directory);
+
+        final TreeMap<Long, Path> paths = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + CHECKPOINT_SUFFIX)) {
+            for (Path file : stream) {
+                final String name = file.getFileName().toString();
+                try {
+                    paths.put(Long.parseUnsignedLong(name.substring(0,
+                        name.length() - CHECKPOINT_SUFFIX.length()), 16), file);
+                } catch (NumberFormatException e) {
+                    LOG.warn("Ignoring unrecognized file {}", file, e);
+                }
+            }
+        }
+
+        final TreeMap<Long, CheckpointFile> files = new TreeMap<>();
+        final Map<Long, ChunkLocation> chunks = new HashMap<>();
+        try {
+            for (Entry<Long, Path> entry : paths.entrySet()) {
+                files.put(entry.getKey(), CheckpointFile.open(entry.getValue(), entry.getKey(), chunks));
+            }
+
+            // Only the last generation can be incomplete, as a new one is not started before the previous one
+            // has been committed
+            while (!files.isEmpty() && !files.lastEntry().getValue().isCommitted()) {
+                final CheckpointFile incomplete = files.pollLastEntry().getValue();
+                LOG.warn("Discarding incomplete checkpoint {}", incomplete);
+                chunks.values().removeIf(location -> location.getFile() == incomplete);
+                incomplete.delete();
+            }
+            for (CheckpointFile file : files.values()) {
+                if (!file.isCommitted()) {
+                    throw new IOException("Checkpoint " + file + " is incomplete");
+                }
+            }
+        } catch (IOException e) {
+            for (CheckpointFile file : files.values()) {
+                try {
+                    file.close();
+                } catch (IOException ce) {
+                    e.addSuppressed(ce);
+                }
+            }
+            throw e;
+        }
+
+        long nextChunk = files.isEmpty() ? 0 : files.lastEntry().getValue().getNextChunk();
+        for (Long id : chunks.keySet()) {
+            nextChunk = Math.max(nextChunk, id + 1);
+        }
+
+        LOG.debug("Opened checkpoint store {} with {} generations", directory, files.size());
+        return new DataTreeCheckpointStore(directory, splitThreshold, maxGenerations, pool, files, chunks,
+            nextChunk);
+    }
+
+    private Path checkpointFile(final long generation) {
+        return directory.resolve(String.format("%016x%s", generation, CHECKPOINT_SUFFIX));
+    }
+
+    /**
+     * Restore a data tree from the latest checkpoint. The data is verified against the schema as it is loaded, as
+     * described in {@link InMemoryDataTreeLoader}. Subsequent checkpoints of the restored data tree are incremental
+     * to the restored checkpoint.
+     *
+     * @param treeConfig Configuration of the restored data tree
+     * @param schemaContext SchemaContext of the restored data tree
+     * @return Restored data tree, or empty if this store does not hold any checkpoint
+     * @throws IllegalStateException if this store has been closed
+     * @throws IOException if the checkpoint cannot be read
+     */
+    public synchronized Optional<DataTree> restore(final DataTreeConfiguration treeConfig,
+            final SchemaContext schemaContext) throws IOException {
+        checkOpen();
+        if (files.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final Map<Long, ChunkLocation> chunks;
+        if (index != null) {
+            final List<ChunkIndex> live = new ArrayList<>();
+            index.collectChunks(live);
+            chunks = new HashMap<>(live.size());
+            for (ChunkIndex chunk : live) {
+                chunks.put(chunk.getId(), chunk.getLocation());
+            }
+        } else {
+            chunks = openedChunks;
+        }
+
+        final InMemoryDataTreeLoader loader = new InMemoryDataTreeFactory().createLoader(treeConfig, schemaContext);
+        final ChunkIndex restored = new CheckpointReader(chunks).read(files.lastEntry().getValue().getRootChunk(),
+            loader.getWriter());
+        final DataTree tree = loader.build();
+
+        // All nodes of a freshly-loaded data tree share the same version
+        index = restored;
+        restoredVersion = InMemoryDataTreeSnapshots.getRootNode(tree.takeSnapshot()).getSubtreeVersion();
+        openedChunks = null;
+        return Optional.of(tree);
+    }
+
+    /**
+     * Take a checkpoint of a data tree snapshot. Only subtrees which have changed since the previous checkpoint are
+     * written. This method returns once the checkpoint has been forced to persistent storage.
+     *
+     * @param snapshot Snapshot of an in-memory data tree
+     * @return Summary of the checkpoint
+     * @throws IllegalArgumentException if the snapshot has not been taken from an in-memory data tree
+     * @throws IllegalStateException if this store has been closed
+     * @throws IOException if the snapshot contains data which cannot be encoded, or the checkpoint cannot be written
+     */
+    @SuppressWarnings("checkstyle:illegalCatch")
+    public synchronized DataTreeCheckpoint checkpoint(final DataTreeSnapshot snapshot) throws IOException {
+        checkOpen();
+        final TreeNode root = InMemoryDataTreeSnapshots.getRootNode(snapshot);
+        final long startNanos = System.nanoTime();
+        if (index != null && index.matches(root.getSubtreeVersion(), restoredVersion)) {
+            LOG.debug("Data tree has not changed since checkpoint {}", files.lastKey());
+            return new DataTreeCheckpoint(files.lastKey(), 0, 1, 0, System.nanoTime() - startNanos);
+        }
+
+        final long generation = files.isEmpty() ? 0 : files.lastKey() + 1;
+        final CheckpointFile file = CheckpointFile.create(checkpointFile(generation), generation);
+        final CheckpointWriter writer = new CheckpointWriter(file, nextChunk, splitThreshold, restoredVersion);
+        final ChunkIndex written;
+        try {
+            written = writer.write(pool, root, index);
+            file.commit(written.getId(), writer.getNextChunk());
+        } catch (IOException | RuntimeException e) {
+            try {
+                file.delete();
+            } catch (IOException de) {
+                e.addSuppressed(de);
+            }
+            throw e;
+        }
+
+        files.put(generation, file);
+        index = written;
+        nextChunk = writer.getNextChunk();
+        openedChunks = null;
+
+        final DataTreeCheckpoint ret = new DataTreeCheckpoint(generation, writer.getWrittenChunks(),
+            writer.getReusedChunks(), writer.getWrittenBytes(), System.nanoTime() - startNanos);
+        LOG.debug("Checkpoint {} completed", ret);
+
+        if (files.size() > maxGenerations) {
+            compact();
+        }
+        return ret;
+    }
+
+    /**
+     * Compact this store. Chunks of the latest checkpoint which are stored in older generations are copied to a new
+     * generation, after which all generations except the two most recent ones are deleted. Compaction requires an
+     * index of the latest checkpoint, hence it does nothing if no checkpoint has been taken or restored since this
+     * store has been opened.
+     *
+     * @throws IllegalStateException if this store has been closed
+     * @throws IOException if chunks cannot be copied or old generations cannot be deleted
+     */
+    public synchronized void compact() throws IOException {
+        checkOpen();
+        if (files.size() < 2 || index == null) {
+            return;
+        }
+
+        final CheckpointFile latest = files.lastEntry().getValue();
+        final List<ChunkIndex> live = new ArrayList<>();
+        index.collectChunks(live);
+        live.removeIf(chunk -> chunk.getLocation().getFile() == latest);
+
+        if (!live.isEmpty()) {
+            // Copy chunks in file order, so old generations are read sequentially
+            live.sort(Comparator.comparingLong((ChunkIndex chunk) -> chunk.getLocation().getFile().getGeneration())
+                .thenComparingLong(chunk -> chunk.getLocation().getOffset()));
+
+            final long generation = latest.getGeneration() + 1;
+            final CheckpointFile file = CheckpointFile.create(checkpointFile(generation), generation);
+            final List<ChunkLocation> copies = new ArrayList<>(live.size());
+            try {
+                for (ChunkIndex chunk : live) {
+                    copies.add(file.copyChunk(chunk.getLocation()));
+                }
+                file.commit(index.getId(), nextChunk);
+            } catch (IOException e) {
+                try {
+                    file.delete();
+                } catch (IOException de) {
+                    e.addSuppressed(de);
+                }
+                throw e;
+            }
+
+            for (int i = 0; i < live.size(); ++i) {
+                live.get(i).setLocation(copies.get(i));
+            }
+            files.put(generation, file);
+        }
+
+        // Everything still referenced is now in the latest two generations
+        final Iterator<CheckpointFile> it = files.headMap(latest.getGeneration()).values().iterator();
+        while (it.hasNext()) {
+            final CheckpointFile file = it.next();
+            it.remove();
+            file.delete();
+        }
+        LOG.debug("Compacted checkpoint store {}, copied {} chunks", directory, live.size());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        IOException failure = null;
+        for (CheckpointFile file : files.values()) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @GuardedBy("this")
+    private void checkOpen() {
+        Preconditions.checkState(!closed, "Checkpoint store %s has been closed", directory);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("directory", directory).add("splitThreshold", splitThreshold)
+                .add("maxGenerations", maxGenerations).toString();
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Verify;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A write-ahead journal of {@link DataTreeCandidate}s, which allows the state of a data tree to be recovered after
+ * a crash. The journal is stored in a directory, in a sequence of memory-mapped segment files. Each appended candidate
+ * is stored as a single checksummed record, in the format described by {@link JournalFormat}.
+ *
+ * <p>
+ * {@link #append(DataTreeCandidate)} returns only after the candidate has been forced to persistent storage.
+ * Concurrent appends are committed as a group: while one thread forces the journal, others append their records and
+ * wait, the next force then covers all of them. Throughput therefore scales with the number of concurrent committers,
+ * rather than being limited by the latency of a single force.
+ *
+ * <p>
+ * On {@link #open(Path, int)}, all records are verified. Invalid records at the end of the last segment are assumed to
+ * be the result of a crash during append, are discarded and any subsequent appends overwrite them. Invalid records
+ * anywhere else are reported as an {@link IOException}.
+ *
+ * <p>
+ * Anyxml nodes are not supported and cause {@link #append(DataTreeCandidate)} to fail.
+ */
+@Beta
+@ThreadSafe
+public final class DataTreeJournal implements AutoCloseable {
+    /**
+     * Default size of a segment file, in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataTreeJournal.class);
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition syncCompleted = lock.newCondition();
+    @GuardedBy("lock")
+    private final List<JournalSegment> segments;
+    private final Path directory;
+    private final int segmentSize;
+
+    @GuardedBy("lock")
+    private JournalSegment current;
+    @GuardedBy("lock")
+    private long nextSegmentIndex;
+    @GuardedBy("lock")
+    private long appended;
+    @GuardedBy("lock")
+    private long synced;
+    @GuardedBy("lock")
+    private long syncCount;
+    @GuardedBy("lock")
+    private boolean syncing;
+    @GuardedBy("lock")
+    private boolean closed;
+
+    private DataTreeJournal(final Path directory, final int segmentSize, final List<JournalSegment> segments,
+            final long nextSegmentIndex) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.segments = segments;
+        this.nextSegmentIndex = nextSegmentIndex;
+        current = segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Open a journal with {@link #DEFAULT_SEGMENT_SIZE}, creating it if it does not exist.
+     *
+     * @param directory Journal directory
+     * @return An open journal
+     * @throws IOException if the journal cannot be opened or is corrupted
+     */
+    public static DataTreeJournal open(final Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Open a journal, creating it if it does not exist.
+     *
+     * @param directory Journal directory
+     * @param segmentSize Size of newly-created segment files, in bytes. Records larger than this size are stored in
+     *                    segments sized to fit them.
+     * @return An open journal
+     * @throws IllegalArgumentException if segmentSize is too small
+     * @throws IOException if the journal cannot be opened or is corrupted
+     */
+    public static DataTreeJournal open(final Path directory, final int segmentSize) throws IOException {
+        Preconditions.checkArgument(segmentSize > JournalFormat.SEGMENT_HEADER_SIZE + JournalFormat.RECORD_HEADER_SIZE,
+            "Segment size %s is too small", segmentSize);
+        Files.createDirectories(directory);
+
+        final TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                final String name = file.getFileName().toString();
+                final long index;
+                try {
+                    index = Long.parseUnsignedLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()), 16);
+                } catch (NumberFormatException e) {
+                    LOG.warn("Ignoring unrecognized file {}", file, e);
+                    continue;
+                }
+                files.put(index, file);
+            }
+        }
+
+        final List<JournalSegment> segments = new ArrayList<>(files.size() + 1);
+        try {
+            for (Path file : files.values()) {
+                segments.add(JournalSegment.open(file, segments.size() == files.size() - 1));
+            }
+            final long nextIndex;
+            if (segments.isEmpty()) {
+                // The journal directory may have just been created, make sure it survives a crash
+                final Path parent = directory.toAbsolutePath().getParent();
+                if (parent != null) {
+                    JournalSegment.forceDirectory(parent);
+                }
+                segments.add(JournalSegment.create(segmentFile(directory, 0), segmentSize));
+                nextIndex = 1;
+            } else {
+                nextIndex = files.lastKey() + 1;
+            }
+
+            LOG.debug("Opened journal {} with {} segments", directory, segments.size());
+            return new DataTreeJournal(directory, segmentSize, segments, nextIndex);
+        } catch (IOException e) {
+            for (JournalSegment segment : segments) {
+                try {
+                    segment.close();
+                } catch (IOException ce) {
+                    e.addSuppressed(ce);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static Path segmentFile(final Path directory, final long index) {
+        return directory.resolve(String.format("%016x%s", index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Append a candidate to this journal. This method returns once the candidate has been forced to persistent
+     * storage.
+     *
+     * @param candidate Candidate to append
+     * @throws IllegalStateException if this journal has been closed
+     * @throws IOException if the candidate cannot be encoded or the journal cannot be written
+     */
+    public void append(final DataTreeCandidate candidate) throws IOException {
+        // Encoding is the expensive part, do it before taking the lock
+        final byte[] payload = CandidateWriter.write(candidate);
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        final long sequence;
+        lock.lock();
+        try {
+            Preconditions.checkState(!closed, "Journal %s has been closed", directory);
+            if (!current.append(payload, (int) crc.getValue())) {
+                nextSegment(payload.length);
+                Verify.verify(current.append(payload, (int) crc.getValue()));
+            }
+            sequence = ++appended;
+        } finally {
+            lock.unlock();
+        }
+
+        sync(sequence);
+    }
+
+    @GuardedBy("lock")
+    private void nextSegment(final int payloadSize) throws IOException {
+        // The previous segment has to be durable before we move on, as the group sync only forces the current one
+        current.force();
+
+        final int size = Math.max(segmentSize, JournalFormat.SEGMENT_HEADER_SIZE + JournalFormat.RECORD_HEADER_SIZE
+            + payloadSize);
+        final JournalSegment segment = JournalSegment.create(segmentFile(directory, nextSegmentIndex), size);
+        nextSegmentIndex++;
+        segments.add(segment);
+        current = segment;
+        LOG.debug("Journal {} moved to segment {}", directory, segment);
+    }
+
+    private void sync(final long sequence) {
+        lock.lock();
+        try {
+            while (synced < sequence) {
+                if (syncing) {
+                    // Some other thread is forcing the journal, wait for it and then see if it covered our record
+                    syncCompleted.awaitUninterruptibly();
+                    continue;
+                }
+
+                // Force everything appended so far on behalf of all waiting appenders
+                syncing = true;
+                final long target = appended;
+                final JournalSegment segment = current;
+                lock.unlock();
+                try {
+                    segment.force();
+                } finally {
+                    lock.lock();
+                    syncing = false;
+                    syncCompleted.signalAll();
+                }
+
+                synced = target;
+                syncCount++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replay all candidates in this journal into a modification, in the order in which they were appended. Each
+     * candidate is applied via {@link DataTreeCandidates#applyToModification(DataTreeModification, DataTreeCandidate)}.
+     * The modification is not sealed.
+     *
+     * @param modification Modification to which candidates should be applied
+     * @return Number of candidates replayed
+     * @throws IllegalStateException if this journal has been closed
+     * @throws IOException if a candidate cannot be decoded
+     */
+    public long replay(final DataTreeModification modification) throws IOException {
+        final JournalSegment[] toReplay;
+        final int[] ends;
+        lock.lock();
+        try {
+            Preconditions.checkState(!closed, "Journal %s has been closed", directory);
+            toReplay = segments.toArray(new JournalSegment[0]);
+            ends = new int[toReplay.length];
+            for (int i = 0; i < toReplay.length; ++i) {
+                ends[i] = toReplay[i].end();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        final long[] count = new long[1];
+        for (int i = 0; i < toReplay.length; ++i) {
+            toReplay[i].readRecords(ends[i], payload -> {
+                DataTreeCandidates.applyToModification(modification,
+                    CandidateReader.read(new ByteArrayInputStream(payload)));
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+
+    /**
+     * Return the number of times this journal has been forced to persistent storage by appends. Comparing this number
+     * to the number of appends indicates the efficiency of group commit.
+     *
+     * @return Number of forces
+     */
+    public long getSyncCount() {
+        lock.lock();
+        try {
+            return syncCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            IOException failure = null;
+            for (JournalSegment segment : segments) {
+                try {
+                    segment.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("directory", directory).add("segmentSize", segmentSize)
+                .toString();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.util.Collection;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * A {@link DataTreeCandidateNode} read back from the journal. The journal does not record the state of data before
+ * a modification, hence {@link #getDataBefore()} is always empty. Like in the candidates which have been journaled,
+ * the root node does not have an identifier.
+ */
+final class JournalCandidateNode implements DataTreeCandidateNode {
+    private final Collection<DataTreeCandidateNode> children;
+    private final Optional<NormalizedNode<?, ?>> dataAfter;
+    private final ModificationType type;
+    private final PathArgument identifier;
+
+    JournalCandidateNode(@Nullable final PathArgument identifier, final ModificationType type,
+            final Optional<NormalizedNode<?, ?>> dataAfter, final Collection<DataTreeCandidateNode> children) {
+        this.identifier = identifier;
+        this.type = requireNonNull(type);
+        this.dataAfter = requireNonNull(dataAfter);
+        this.children = requireNonNull(children);
+    }
+
+    @Nonnull
+    @Override
+    public PathArgument getIdentifier() {
+        Preconditions.checkState(identifier != null, "Attempted to get identifier of the root node");
+        return identifier;
+    }
+
+    @Nonnull
+    @Override
+    public Collection<DataTreeCandidateNode> getChildNodes() {
+        return children;
+    }
+
+    @Override
+    public DataTreeCandidateNode getModifiedChild(final PathArgument childIdentifier) {
+        for (DataTreeCandidateNode child : children) {
+            if (childIdentifier.equals(child.getIdentifier())) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @Nonnull
+    @Override
+    public ModificationType getModificationType() {
+        return type;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<NormalizedNode<?, ?>> getDataAfter() {
+        return dataAfter;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<NormalizedNode<?, ?>> getDataBefore() {
+        return Optional.empty();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("identifier", identifier).add("type", type)
+                .add("children", children.size()).toString();
+    }
+}
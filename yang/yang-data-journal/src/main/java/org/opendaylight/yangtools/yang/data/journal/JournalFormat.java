@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+/**
+ * Constants defining the on-disk format of the journal and of checkpoints.
+ *
+ * <p>
+ * A journal is a directory of segment files, named after their sequence number. Each segment starts with
+ * a {@link #SEGMENT_MAGIC} and {@link #SEGMENT_VERSION}, followed by records. A record is a 4-byte payload length,
+ * a 4-byte CRC32 of the payload and the payload itself, which is a single encoded
+ * {@link org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate}. A zero payload length marks the
+ * end of records in a segment.
+ *
+ * <p>
+ * Candidates are encoded as their root path followed by their root node. Each candidate node is encoded as
+ * a modification type tag, its path argument and type-specific data: {@link #MOD_WRITE} is followed by the written
+ * node, {@link #MOD_SUBTREE_MODIFIED} is followed by the number of modified children and the children themselves.
+ * NormalizedNodes are encoded as a sequence of stream events. QNames and QNameModules are encoded as a reference
+ * into a per-record dictionary, with the first occurrence of each being encoded in full.
+ *
+ * <p>
+ * Checkpoints are stored in a separate directory, with one file per generation. Each checkpoint file starts with
+ * a {@link #CHECKPOINT_MAGIC}, {@link #CHECKPOINT_VERSION} and its generation, followed by records in the same
+ * framing as journal records. A {@link #RECORD_CHUNK} record holds a chunk identifier and the stream events of
+ * a subtree, in which {@link #NODE_CHUNK} events refer to other chunks, possibly stored in previous generations.
+ * The chunk holding the root node contains the number of its children, followed by the children themselves.
+ * A generation is complete once it ends with a {@link #RECORD_COMMIT} record, which holds the identifier of the root
+ * chunk and the next unused chunk identifier.
+ */
+final class JournalFormat {
+    static final int SEGMENT_MAGIC = 0x59445443;
+    static final int SEGMENT_VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 8;
+
+    static final int CHECKPOINT_MAGIC = 0x59444350;
+    static final int CHECKPOINT_VERSION = 1;
+    static final int CHECKPOINT_HEADER_SIZE = 16;
+
+    // Checkpoint record types
+    static final byte RECORD_CHUNK = 0;
+    static final byte RECORD_COMMIT = 1;
+
+    // Candidate node modification types
+    static final byte MOD_UNMODIFIED = 0;
+    static final byte MOD_WRITE = 1;
+    static final byte MOD_DELETE = 2;
+    static final byte MOD_SUBTREE_MODIFIED = 3;
+
+    // PathArgument types
+    static final byte PATH_NODE_IDENTIFIER = 0;
+    static final byte PATH_NODE_IDENTIFIER_WITH_PREDICATES = 1;
+    static final byte PATH_NODE_WITH_VALUE = 2;
+    static final byte PATH_AUGMENTATION_IDENTIFIER = 3;
+
+    // NormalizedNode stream events
+    static final byte NODE_END = 0;
+    static final byte NODE_LEAF = 1;
+    static final byte NODE_LEAF_SET = 2;
+    static final byte NODE_ORDERED_LEAF_SET = 3;
+    static final byte NODE_LEAF_SET_ENTRY = 4;
+    static final byte NODE_CONTAINER = 5;
+    static final byte NODE_UNKEYED_LIST = 6;
+    static final byte NODE_UNKEYED_LIST_ITEM = 7;
+    static final byte NODE_MAP = 8;
+    static final byte NODE_ORDERED_MAP = 9;
+    static final byte NODE_MAP_ENTRY = 10;
+    static final byte NODE_CHOICE = 11;
+    static final byte NODE_AUGMENTATION = 12;
+    static final byte NODE_CHUNK = 13;
+
+    // Leaf value types
+    static final byte VALUE_STRING = 0;
+    static final byte VALUE_TRUE = 1;
+    static final byte VALUE_FALSE = 2;
+    static final byte VALUE_BYTE = 3;
+    static final byte VALUE_SHORT = 4;
+    static final byte VALUE_INT = 5;
+    static final byte VALUE_LONG = 6;
+    static final byte VALUE_BIG_INTEGER = 7;
+    static final byte VALUE_BIG_DECIMAL = 8;
+    static final byte VALUE_BINARY = 9;
+    static final byte VALUE_BITS = 10;
+    static final byte VALUE_QNAME = 11;
+    static final byte VALUE_INSTANCE_IDENTIFIER = 12;
+    static final byte VALUE_EMPTY = 13;
+
+    private JournalFormat() {
+        throw new UnsupportedOperationException();
+    }
+}
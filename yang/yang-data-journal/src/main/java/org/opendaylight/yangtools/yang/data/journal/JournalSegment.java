@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single memory-mapped segment file of a {@link DataTreeJournal}. Segments are preallocated to their full size
+ * when created, records are appended until they do not fit, at which point the journal moves on to a new segment.
+ * Appends are synchronized by the journal, {@link #force()} may be invoked concurrently with them.
+ */
+@NotThreadSafe
+final class JournalSegment {
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(byte[] payload) throws IOException;
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalSegment.class);
+
+    private final MappedByteBuffer buffer;
+    private final FileChannel channel;
+    private final Path file;
+
+    private JournalSegment(final Path file, final FileChannel channel, final MappedByteBuffer buffer) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Create a new segment file.
+     *
+     * @param file Segment file, which must not exist
+     * @param size Size of the segment
+     * @return A new segment
+     * @throws IOException if the file cannot be created
+     */
+    static JournalSegment create(final Path file, final int size) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        final MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        // Make the header durable before any record is appended, so a crash cannot leave a segment with records, but
+        // without a header
+        buffer.putInt(JournalFormat.SEGMENT_MAGIC).putInt(JournalFormat.SEGMENT_VERSION);
+        buffer.force();
+
+        // The file itself is durable, but its directory entry may not be, in which case a crash would lose it
+        try {
+            forceDirectory(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new JournalSegment(file, channel, buffer);
+    }
+
+    /**
+     * Force the entries of a directory to persistent storage, so that files created in it survive a crash. Platforms
+     * which do not allow a directory to be opened, such as Windows, do not need this and are skipped.
+     *
+     * @param directory Directory to force
+     * @throws IOException if the directory cannot be forced
+     */
+    static void forceDirectory(final Path directory) throws IOException {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            LOG.debug("Cannot open directory {}, not forcing it", directory, e);
+            return;
+        }
+
+        try (FileChannel dir = channel) {
+            dir.force(true);
+        }
+    }
+
+    /**
+     * Open an existing segment file, verifying all records in it. If the segment is the last one in the journal, any
+     * records following the first invalid record are assumed to have been torn by a crash and are discarded.
+     * Otherwise an invalid record indicates the journal has been corrupted. A last segment which consists only of
+     * zeroes has been created, but its header has not reached persistent storage before a crash, and is treated as
+     * empty.
+     *
+     * @param file Segment file
+     * @param last True if this is the last segment of the journal
+     * @return An opened segment, positioned after its last valid record
+     * @throws IOException if the segment cannot be opened or is corrupted
+     */
+    static JournalSegment open(final Path file, final boolean last) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long size = channel.size();
+            if (size < JournalFormat.SEGMENT_HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Segment " + file + " has invalid size " + size);
+            }
+
+            final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+            final int magic = buffer.getInt();
+            final int version = buffer.getInt();
+            if (last && magic == 0 && version == 0 && isZero(buffer)) {
+                LOG.warn("Segment {} has no header, assuming it is empty", file);
+                buffer.putInt(0, JournalFormat.SEGMENT_MAGIC).putInt(4, JournalFormat.SEGMENT_VERSION);
+                buffer.force();
+                return new JournalSegment(file, channel, buffer);
+            }
+            if (magic != JournalFormat.SEGMENT_MAGIC || version != JournalFormat.SEGMENT_VERSION) {
+                throw new IOException(String.format("Segment %s has unrecognized header %08x version %s", file,
+                    magic, version));
+            }
+
+            final JournalSegment ret = new JournalSegment(file, channel, buffer);
+            ret.recover(last);
+            return ret;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean isZero(final ByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit(); ++i) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recover(final boolean last) throws IOException {
+        final CRC32 crc = new CRC32();
+        while (buffer.remaining() >= JournalFormat.RECORD_HEADER_SIZE) {
+            final int offset = buffer.position();
+            final int length = buffer.getInt(offset);
+            if (length == 0) {
+                return;
+            }
+
+            if (length < 0 || length > buffer.remaining() - JournalFormat.RECORD_HEADER_SIZE
+                    || checksum(crc, offset, length) != buffer.getInt(offset + 4)) {
+                if (!last) {
+                    throw new IOException("Segment " + file + " is corrupted at offset " + offset);
+                }
+
+                LOG.warn("Segment {} has a torn record at offset {}, discarding it", file, offset);
+                while (buffer.hasRemaining()) {
+                    buffer.put((byte) 0);
+                }
+                buffer.force();
+                buffer.position(offset);
+                return;
+            }
+
+            buffer.position(offset + JournalFormat.RECORD_HEADER_SIZE + length);
+        }
+    }
+
+    private int checksum(final CRC32 crc, final int offset, final int length) {
+        final ByteBuffer payload = buffer.duplicate();
+        payload.position(offset + JournalFormat.RECORD_HEADER_SIZE).limit(offset + JournalFormat.RECORD_HEADER_SIZE
+            + length);
+        crc.reset();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Append a record to this segment, if it fits.
+     *
+     * @param payload Record payload
+     * @param crc CRC32 of the payload
+     * @return True if the record has been appended, false if it does not fit into this segment
+     */
+    boolean append(final byte[] payload, final int crc) {
+        if (buffer.remaining() < JournalFormat.RECORD_HEADER_SIZE + payload.length) {
+            return false;
+        }
+
+        buffer.putInt(payload.length).putInt(crc).put(payload);
+        return true;
+    }
+
+    /**
+     * Return the offset at which the next record will be appended.
+     *
+     * @return Current end offset
+     */
+    int end() {
+        return buffer.position();
+    }
+
+    /**
+     * Force all appended records to persistent storage.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Read all records up to a specified offset.
+     *
+     * @param end End offset, as previously returned by {@link #end()}
+     * @param consumer Consumer of record payloads
+     * @throws IOException if the consumer fails
+     */
+    void readRecords(final int end, final RecordConsumer consumer) throws IOException {
+        final ByteBuffer records = buffer.duplicate();
+        records.position(JournalFormat.SEGMENT_HEADER_SIZE);
+        while (records.position() < end) {
+            final byte[] payload = new byte[records.getInt()];
+            records.getInt();
+            records.get(payload);
+            consumer.accept(payload);
+        }
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("file", file).add("end", end()).toString();
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.DataInput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.common.Empty;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+
+/**
+ * Decoder of NormalizedNodes encoded by {@link NodeEncoder}. Each instance decodes a single record, as it holds
+ * the QName dictionary of that record.
+ */
+@NotThreadSafe
+class NodeDecoder {
+    private final List<QNameModule> modules = new ArrayList<>();
+    private final List<QName> qnames = new ArrayList<>();
+    private final DataInput input;
+
+    NodeDecoder(final DataInput input) {
+        this.input = requireNonNull(input);
+    }
+
+    final byte readByte() throws IOException {
+        return input.readByte();
+    }
+
+    final int readSize() throws IOException {
+        int ret = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            final byte b = input.readByte();
+            ret |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return ret;
+            }
+        }
+        throw new IOException("Malformed size");
+    }
+
+    final long readVarLong() throws IOException {
+        long ret = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte b = input.readByte();
+            ret |= (b & 0x7FL) << shift;
+            if ((b & 0x80) == 0) {
+                return ret;
+            }
+        }
+        throw new IOException("Malformed long");
+    }
+
+    private byte[] readBytes() throws IOException {
+        final byte[] bytes = new byte[readSize()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private String readString() throws IOException {
+        return new String(readBytes(), UTF_8);
+    }
+
+    private QNameModule readModule() throws IOException {
+        final int index = readSize();
+        if (index < modules.size()) {
+            return modules.get(index);
+        }
+        if (index != modules.size()) {
+            throw new IOException("Invalid module reference " + index);
+        }
+
+        final URI namespace = URI.create(readString());
+        final String revision = readString();
+        final QNameModule module = QNameModule.create(namespace,
+            revision.isEmpty() ? Optional.empty() : Optional.of(Revision.of(revision))).intern();
+        modules.add(module);
+        return module;
+    }
+
+    private QName readQName() throws IOException {
+        final int index = readSize();
+        if (index < qnames.size()) {
+            return qnames.get(index);
+        }
+        if (index != qnames.size()) {
+            throw new IOException("Invalid QName reference " + index);
+        }
+
+        final QNameModule module = readModule();
+        final QName qname = QName.create(module, readString()).intern();
+        qnames.add(qname);
+        return qname;
+    }
+
+    final YangInstanceIdentifier readPath() throws IOException {
+        final int size = readSize();
+        final List<PathArgument> args = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            args.add(readPathArgument());
+        }
+        return YangInstanceIdentifier.create(args);
+    }
+
+    final PathArgument readPathArgument() throws IOException {
+        final byte type = input.readByte();
+        switch (type) {
+            case JournalFormat.PATH_NODE_IDENTIFIER:
+                return NodeIdentifier.create(readQName());
+            case JournalFormat.PATH_NODE_IDENTIFIER_WITH_PREDICATES:
+                return readPredicates();
+            case JournalFormat.PATH_NODE_WITH_VALUE:
+                return new NodeWithValue<>(readQName(), readValue());
+            case JournalFormat.PATH_AUGMENTATION_IDENTIFIER:
+                return readAugmentation();
+            default:
+                throw new IOException("Unknown path argument type " + type);
+        }
+    }
+
+    private NodeIdentifierWithPredicates readPredicates() throws IOException {
+        final QName qname = readQName();
+        final int size = readSize();
+        if (size == 1) {
+            return new NodeIdentifierWithPredicates(qname, readQName(), readValue());
+        }
+
+        final ImmutableMap.Builder<QName, Object> builder = ImmutableMap.builder();
+        for (int i = 0; i < size; ++i) {
+            builder.put(readQName(), readValue());
+        }
+        return new NodeIdentifierWithPredicates(qname, builder.build());
+    }
+
+    private AugmentationIdentifier readAugmentation() throws IOException {
+        final int size = readSize();
+        final ImmutableSet.Builder<QName> builder = ImmutableSet.builder();
+        for (int i = 0; i < size; ++i) {
+            builder.add(readQName());
+        }
+        return new AugmentationIdentifier(builder.build());
+    }
+
+    private Object readValue() throws IOException {
+        final byte type = input.readByte();
+        switch (type) {
+            case JournalFormat.VALUE_STRING:
+                return readString();
+            case JournalFormat.VALUE_TRUE:
+                return Boolean.TRUE;
+            case JournalFormat.VALUE_FALSE:
+                return Boolean.FALSE;
+            case JournalFormat.VALUE_BYTE:
+                return input.readByte();
+            case JournalFormat.VALUE_SHORT:
+                return input.readShort();
+            case JournalFormat.VALUE_INT:
+                return input.readInt();
+            case JournalFormat.VALUE_LONG:
+                return input.readLong();
+            case JournalFormat.VALUE_BIG_INTEGER:
+                return new BigInteger(readBytes());
+            case JournalFormat.VALUE_BIG_DECIMAL:
+                return new BigDecimal(readString());
+            case JournalFormat.VALUE_BINARY:
+                return readBytes();
+            case JournalFormat.VALUE_BITS:
+                final int size = readSize();
+                final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+                for (int i = 0; i < size; ++i) {
+                    builder.add(readString());
+                }
+                return builder.build();
+            case JournalFormat.VALUE_QNAME:
+                return readQName();
+            case JournalFormat.VALUE_INSTANCE_IDENTIFIER:
+                return readPath();
+            case JournalFormat.VALUE_EMPTY:
+                return Empty.getInstance();
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    final NormalizedNode<?, ?> readNormalizedNode() throws IOException {
+        final byte type = input.readByte();
+        if (type == JournalFormat.NODE_LEAF_SET_ENTRY) {
+            // Leaf set entries cannot be streamed on their own
+            final QName qname = readQName();
+            final Object value = readValue();
+            return Builders.leafSetEntryBuilder().withNodeIdentifier(new NodeWithValue<>(qname, value))
+                    .withValue(value).build();
+        }
+
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        readEvents(ImmutableNormalizedNodeStreamWriter.from(result), type);
+        return result.getResult();
+    }
+
+    /**
+     * Read the stream events of a single node and emit them into a writer. The first event has already been read
+     * from input.
+     *
+     * @param writer Writer to emit events into
+     * @param firstType Type of the first event
+     * @throws IOException if the node cannot be decoded or the writer fails
+     */
+    final void readEvents(final NormalizedNodeStreamWriter writer, final byte firstType) throws IOException {
+        byte type = firstType;
+        int depth = 0;
+        while (true) {
+            switch (type) {
+                case JournalFormat.NODE_END:
+                    writer.endNode();
+                    depth--;
+                    break;
+                case JournalFormat.NODE_LEAF:
+                    writer.leafNode(NodeIdentifier.create(readQName()), readValue());
+                    break;
+                case JournalFormat.NODE_LEAF_SET:
+                    writer.startLeafSet(NodeIdentifier.create(readQName()), NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                    depth++;
+                    break;
+                case JournalFormat.NODE_ORDERED_LEAF_SET:
+                    writer.startOrderedLeafSet(NodeIdentifier.create(readQName()),
+                        NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                    depth++;
+                    break;
+                case JournalFormat.NODE_LEAF_SET_ENTRY:
+                    writer.leafSetEntryNode(readQName(), readValue());
+                    break;
+                case JournalFormat.NODE_CONTAINER:
+                    writer.startContainerNode(NodeIdentifier.create(readQName()),
+                        NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                    depth++;
+                    break;
+                case JournalFormat.NODE_UNKEYED_LIST:
+                    writer.startUnkeyedList(NodeIdentifier.create(readQName()),
+                        NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                    depth++;
+                    break;
+                case JournalFormat.NODE_UNKEYED_LIST_ITEM:
+                    writer.startUnkeyedListItem(NodeIdentifier.create(readQName()),
+                        NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                    depth++;
+                    break;
+                case JournalFormat.NODE_MAP:
+                    writer.startMapNode(NodeIdentifier.create(readQName()), NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                    depth++;
+                    break;
+                case JournalFormat.NODE_ORDERED_MAP:
+                    writer.startOrderedMapNode(NodeIdentifier.create(readQName()),
+                        NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                    depth++;
+                    break;
+                case JournalFormat.NODE_MAP_ENTRY:
+                    writer.startMapEntryNode(readPredicates(), NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                    depth++;
+                    break;
+                case JournalFormat.NODE_CHOICE:
+                    writer.startChoiceNode(NodeIdentifier.create(readQName()),
+                        NormalizedNodeStreamWriter.UNKNOWN_SIZE);
+                    depth++;
+                    break;
+                case JournalFormat.NODE_AUGMENTATION:
+                    writer.startAugmentationNode(readAugmentation());
+                    depth++;
+                    break;
+                default:
+                    readOtherEvent(writer, type);
+            }
+
+            if (depth == 0) {
+                return;
+            }
+            type = input.readByte();
+        }
+    }
+
+    /**
+     * Read an event this class does not know about. Subclasses can use this method to extend the format with events
+     * which stand for a complete node. The default implementation throws an {@link IOException}.
+     *
+     * @param writer Writer to emit events into
+     * @param type Type of the event
+     * @throws IOException if the event cannot be decoded or the writer fails
+     */
+    void readOtherEvent(final NormalizedNodeStreamWriter writer, final byte type) throws IOException {
+        throw new IOException("Unknown node type " + type);
+    }
+}
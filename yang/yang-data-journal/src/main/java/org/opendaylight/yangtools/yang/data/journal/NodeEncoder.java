@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.io.ByteArrayDataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.common.Empty;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+
+/**
+ * Encoder of NormalizedNodes into the format described by {@link JournalFormat}. NormalizedNodes are encoded as they
+ * are streamed into this writer. Each instance encodes a single record, as it holds the QName dictionary of that
+ * record.
+ */
+@NotThreadSafe
+class NodeEncoder implements NormalizedNodeStreamWriter {
+    private final Map<QNameModule, Integer> modules = new HashMap<>();
+    private final Map<QName, Integer> qnames = new HashMap<>();
+    private final ByteArrayDataOutput output;
+
+    NodeEncoder(final ByteArrayDataOutput output) {
+        this.output = requireNonNull(output);
+    }
+
+    final byte[] toByteArray() {
+        return output.toByteArray();
+    }
+
+    final void writeByte(final int value) {
+        output.writeByte(value);
+    }
+
+    final void writeSize(final int size) {
+        int value = size;
+        while ((value & ~0x7F) != 0) {
+            output.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    final void writeVarLong(final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            output.writeByte((int) remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        output.writeByte((int) remaining);
+    }
+
+    private void writeString(final String str) {
+        final byte[] bytes = str.getBytes(UTF_8);
+        writeSize(bytes.length);
+        output.write(bytes);
+    }
+
+    private void writeModule(final QNameModule module) {
+        final Integer existing = modules.get(module);
+        if (existing != null) {
+            writeSize(existing);
+            return;
+        }
+
+        final int index = modules.size();
+        modules.put(module, index);
+        writeSize(index);
+        writeString(module.getNamespace().toString());
+        writeString(module.getRevision().map(Revision::toString).orElse(""));
+    }
+
+    private void writeQName(final QName qname) {
+        final Integer existing = qnames.get(qname);
+        if (existing != null) {
+            writeSize(existing);
+            return;
+        }
+
+        final int index = qnames.size();
+        qnames.put(qname, index);
+        writeSize(index);
+        writeModule(qname.getModule());
+        writeString(qname.getLocalName());
+    }
+
+    final void writePath(final YangInstanceIdentifier path) throws IOException {
+        final List<PathArgument> args = path.getPathArguments();
+        writeSize(args.size());
+        for (PathArgument arg : args) {
+            writePathArgument(arg);
+        }
+    }
+
+    final void writePathArgument(final PathArgument arg) throws IOException {
+        if (arg instanceof NodeIdentifier) {
+            output.writeByte(JournalFormat.PATH_NODE_IDENTIFIER);
+            writeQName(arg.getNodeType());
+        } else if (arg instanceof NodeIdentifierWithPredicates) {
+            output.writeByte(JournalFormat.PATH_NODE_IDENTIFIER_WITH_PREDICATES);
+            writePredicates((NodeIdentifierWithPredicates) arg);
+        } else if (arg instanceof NodeWithValue) {
+            output.writeByte(JournalFormat.PATH_NODE_WITH_VALUE);
+            writeQName(arg.getNodeType());
+            writeValue(((NodeWithValue<?>) arg).getValue());
+        } else if (arg instanceof AugmentationIdentifier) {
+            output.writeByte(JournalFormat.PATH_AUGMENTATION_IDENTIFIER);
+            writeAugmentation((AugmentationIdentifier) arg);
+        } else {
+            throw new IOException("Unsupported path argument " + arg);
+        }
+    }
+
+    private void writePredicates(final NodeIdentifierWithPredicates identifier) throws IOException {
+        writeQName(identifier.getNodeType());
+        final Map<QName, Object> keyValues = identifier.getKeyValues();
+        writeSize(keyValues.size());
+        for (Entry<QName, Object> entry : keyValues.entrySet()) {
+            writeQName(entry.getKey());
+            writeValue(entry.getValue());
+        }
+    }
+
+    private void writeAugmentation(final AugmentationIdentifier identifier) {
+        final Set<QName> childNames = identifier.getPossibleChildNames();
+        writeSize(childNames.size());
+        for (QName childName : childNames) {
+            writeQName(childName);
+        }
+    }
+
+    private void writeValue(final Object value) throws IOException {
+        if (value instanceof String) {
+            output.writeByte(JournalFormat.VALUE_STRING);
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? JournalFormat.VALUE_TRUE : JournalFormat.VALUE_FALSE);
+        } else if (value instanceof Byte) {
+            output.writeByte(JournalFormat.VALUE_BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            output.writeByte(JournalFormat.VALUE_SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(JournalFormat.VALUE_INT);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(JournalFormat.VALUE_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof BigInteger) {
+            output.writeByte(JournalFormat.VALUE_BIG_INTEGER);
+            final byte[] bytes = ((BigInteger) value).toByteArray();
+            writeSize(bytes.length);
+            output.write(bytes);
+        } else if (value instanceof BigDecimal) {
+            output.writeByte(JournalFormat.VALUE_BIG_DECIMAL);
+            writeString(value.toString());
+        } else if (value instanceof byte[]) {
+            output.writeByte(JournalFormat.VALUE_BINARY);
+            final byte[] bytes = (byte[]) value;
+            writeSize(bytes.length);
+            output.write(bytes);
+        } else if (value instanceof Set) {
+            output.writeByte(JournalFormat.VALUE_BITS);
+            final Set<?> bits = (Set<?>) value;
+            writeSize(bits.size());
+            for (Object bit : bits) {
+                writeString((String) bit);
+            }
+        } else if (value instanceof QName) {
+            output.writeByte(JournalFormat.VALUE_QNAME);
+            writeQName((QName) value);
+        } else if (value instanceof YangInstanceIdentifier) {
+            output.writeByte(JournalFormat.VALUE_INSTANCE_IDENTIFIER);
+            writePath((YangInstanceIdentifier) value);
+        } else if (value instanceof Empty) {
+            output.writeByte(JournalFormat.VALUE_EMPTY);
+        } else {
+            throw new IOException("Unsupported value " + value + " of " + value.getClass());
+        }
+    }
+
+    private void startNode(final byte type, final NodeIdentifier name) {
+        output.writeByte(type);
+        writeQName(name.getNodeType());
+    }
+
+    @Override
+    public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+        startNode(JournalFormat.NODE_LEAF, name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startLeafSet(final NodeIdentifier name, final int childSizeHint) {
+        startNode(JournalFormat.NODE_LEAF_SET, name);
+    }
+
+    @Override
+    public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) {
+        startNode(JournalFormat.NODE_ORDERED_LEAF_SET, name);
+    }
+
+    @Override
+    public void leafSetEntryNode(final QName name, final Object value) throws IOException {
+        output.writeByte(JournalFormat.NODE_LEAF_SET_ENTRY);
+        writeQName(name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startContainerNode(final NodeIdentifier name, final int childSizeHint) {
+        startNode(JournalFormat.NODE_CONTAINER, name);
+    }
+
+    @Override
+    public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) {
+        startNode(JournalFormat.NODE_UNKEYED_LIST, name);
+    }
+
+    @Override
+    public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) {
+        startNode(JournalFormat.NODE_UNKEYED_LIST_ITEM, name);
+    }
+
+    @Override
+    public void startMapNode(final NodeIdentifier name, final int childSizeHint) {
+        startNode(JournalFormat.NODE_MAP, name);
+    }
+
+    @Override
+    public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint)
+            throws IOException {
+        output.writeByte(JournalFormat.NODE_MAP_ENTRY);
+        writePredicates(identifier);
+    }
+
+    @Override
+    public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) {
+        startNode(JournalFormat.NODE_ORDERED_MAP, name);
+    }
+
+    @Override
+    public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) {
+        startNode(JournalFormat.NODE_CHOICE, name);
+    }
+
+    @Override
+    public void startAugmentationNode(final AugmentationIdentifier identifier) {
+        output.writeByte(JournalFormat.NODE_AUGMENTATION);
+        writeAugmentation(identifier);
+    }
+
+    @Override
+    public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+        throw new IOException("Encoding of anyxml node " + name + " is not supported");
+    }
+
+    @Override
+    public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        throw new IOException("Encoding of anyxml node " + name + " is not supported");
+    }
+
+    @Override
+    public void endNode() {
+        output.writeByte(JournalFormat.NODE_END);
+    }
+
+    @Override
+    public void close() {
+        // No-op
+    }
+
+    @Override
+    public void flush() {
+        // No-op
+    }
+}
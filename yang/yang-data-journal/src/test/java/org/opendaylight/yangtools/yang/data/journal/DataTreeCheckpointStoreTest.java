@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opendaylight.yangtools.yang.common.Empty;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class DataTreeCheckpointStoreTest {
+    private static final QName TEST = QName.create("urn:opendaylight:params:xml:ns:yang:yangtools:journal:test",
+        "2018-03-01", "test");
+    private static final QName OUTER_LIST = QName.create(TEST, "outer-list");
+    private static final QName ID = QName.create(TEST, "id");
+    private static final QName NAME = QName.create(TEST, "name");
+    private static final QName TAGS = QName.create(TEST, "tags");
+    private static final QName OUTER_CHOICE = QName.create(TEST, "outer-choice");
+    private static final QName ONE = QName.create(TEST, "one");
+    private static final QName TWO = QName.create(TEST, "two");
+    private static final QName INNER = QName.create(TEST, "inner");
+    private static final QName FLAG = QName.create(TEST, "flag");
+    private static final QName DATA = QName.create(TEST, "data");
+    private static final QName REF = QName.create(TEST, "ref");
+    private static final QName KIND = QName.create(TEST, "kind");
+    private static final QName OPTIONS = QName.create(TEST, "options");
+    private static final QName MARKER = QName.create(TEST, "marker");
+
+    private static final YangInstanceIdentifier TEST_PATH = YangInstanceIdentifier.of(TEST);
+    private static final YangInstanceIdentifier OUTER_LIST_PATH = TEST_PATH.node(OUTER_LIST);
+    private static final YangInstanceIdentifier INNER_PATH = TEST_PATH.node(INNER);
+
+    // Splitting at 5 children makes each outer-list entry, but none of their children, a separate chunk
+    private static final int SPLIT_THRESHOLD = 5;
+    private static final int ENTRY_COUNT = 10;
+
+    private static SchemaContext schemaContext;
+    private static ForkJoinPool pool;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void beforeClass() {
+        schemaContext = YangParserTestUtils.parseYangResource("/journal-test.yang");
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testCheckpointRestore() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createPopulatedTree();
+
+        try (DataTreeCheckpointStore store = open(dir, DataTreeCheckpointStore.DEFAULT_MAX_GENERATIONS)) {
+            final DataTreeCheckpoint checkpoint = store.checkpoint(tree.takeSnapshot());
+            assertEquals(0, checkpoint.getGeneration());
+            assertEquals(1 + ENTRY_COUNT, checkpoint.getWrittenChunks());
+            assertEquals(0, checkpoint.getReusedChunks());
+        }
+
+        try (DataTreeCheckpointStore store = open(dir, DataTreeCheckpointStore.DEFAULT_MAX_GENERATIONS)) {
+            assertRestored(tree, store);
+        }
+    }
+
+    @Test
+    public void testEmptyStore() throws IOException {
+        try (DataTreeCheckpointStore store = DataTreeCheckpointStore.open(folder.getRoot().toPath())) {
+            assertFalse(store.restore(DataTreeConfiguration.DEFAULT_OPERATIONAL, schemaContext).isPresent());
+        }
+    }
+
+    @Test
+    public void testIncrementalCheckpoint() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createPopulatedTree();
+
+        try (DataTreeCheckpointStore store = open(dir, DataTreeCheckpointStore.DEFAULT_MAX_GENERATIONS)) {
+            store.checkpoint(tree.takeSnapshot());
+
+            // Only the root chunk and the modified entry are written
+            DataTreeModification mod = tree.takeSnapshot().newModification();
+            mod.write(entryPath(3).node(NAME), ImmutableNodes.leafNode(NAME, "modified"));
+            commit(tree, mod);
+            DataTreeCheckpoint checkpoint = store.checkpoint(tree.takeSnapshot());
+            assertEquals(1, checkpoint.getGeneration());
+            assertEquals(2, checkpoint.getWrittenChunks());
+            assertEquals(ENTRY_COUNT - 1, checkpoint.getReusedChunks());
+
+            // Removed and added entries
+            mod = tree.takeSnapshot().newModification();
+            mod.delete(entryPath(1));
+            mod.write(entryPath(ENTRY_COUNT), entry(ENTRY_COUNT));
+            commit(tree, mod);
+            checkpoint = store.checkpoint(tree.takeSnapshot());
+            assertEquals(2, checkpoint.getGeneration());
+            assertEquals(2, checkpoint.getWrittenChunks());
+            assertEquals(ENTRY_COUNT - 1, checkpoint.getReusedChunks());
+
+            // Nothing changed, nothing is written
+            checkpoint = store.checkpoint(tree.takeSnapshot());
+            assertEquals(2, checkpoint.getGeneration());
+            assertEquals(0, checkpoint.getWrittenChunks());
+            assertEquals(3, checkpointFiles(dir).size());
+
+            assertRestored(tree, store);
+        }
+
+        try (DataTreeCheckpointStore store = open(dir, DataTreeCheckpointStore.DEFAULT_MAX_GENERATIONS)) {
+            assertRestored(tree, store);
+        }
+    }
+
+    @Test
+    public void testCheckpointAfterRestore() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createPopulatedTree();
+
+        try (DataTreeCheckpointStore store = open(dir, DataTreeCheckpointStore.DEFAULT_MAX_GENERATIONS)) {
+            store.checkpoint(tree.takeSnapshot());
+        }
+
+        try (DataTreeCheckpointStore store = open(dir, DataTreeCheckpointStore.DEFAULT_MAX_GENERATIONS)) {
+            final DataTree restored = store.restore(DataTreeConfiguration.DEFAULT_OPERATIONAL, schemaContext).get();
+
+            // The restored tree is known to match the checkpoint, hence checkpoints stay incremental
+            final DataTreeModification mod = restored.takeSnapshot().newModification();
+            mod.write(entryPath(5).node(NAME), ImmutableNodes.leafNode(NAME, "modified"));
+            commit(restored, mod);
+            final DataTreeCheckpoint checkpoint = store.checkpoint(restored.takeSnapshot());
+            assertEquals(1, checkpoint.getGeneration());
+            assertEquals(2, checkpoint.getWrittenChunks());
+            assertEquals(ENTRY_COUNT - 1, checkpoint.getReusedChunks());
+
+            assertRestored(restored, store);
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createPopulatedTree();
+
+        try (DataTreeCheckpointStore store = open(dir, 3)) {
+            store.checkpoint(tree.takeSnapshot());
+            for (int i = 0; i < 2 * ENTRY_COUNT; ++i) {
+                final DataTreeModification mod = tree.takeSnapshot().newModification();
+                mod.write(entryPath(i % ENTRY_COUNT).node(NAME), ImmutableNodes.leafNode(NAME, "modified " + i));
+                commit(tree, mod);
+                store.checkpoint(tree.takeSnapshot());
+                assertTrue(checkpointFiles(dir).size() <= 3);
+            }
+
+            assertRestored(tree, store);
+        }
+
+        try (DataTreeCheckpointStore store = open(dir, 3)) {
+            assertRestored(tree, store);
+        }
+    }
+
+    @Test
+    public void testIncompleteCheckpoint() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createPopulatedTree();
+
+        try (DataTreeCheckpointStore store = open(dir, DataTreeCheckpointStore.DEFAULT_MAX_GENERATIONS)) {
+            store.checkpoint(tree.takeSnapshot());
+        }
+
+        // A checkpoint interrupted while writing a chunk
+        final Path incomplete = dir.resolve(String.format("%016x.checkpoint", 1));
+        try (OutputStream os = Files.newOutputStream(incomplete);
+                DataOutputStream out = new DataOutputStream(os)) {
+            out.writeInt(JournalFormat.CHECKPOINT_MAGIC);
+            out.writeInt(JournalFormat.CHECKPOINT_VERSION);
+            out.writeLong(1);
+            out.writeInt(1000);
+            out.writeInt(0);
+            out.writeByte(JournalFormat.RECORD_CHUNK);
+        }
+
+        try (DataTreeCheckpointStore store = open(dir, DataTreeCheckpointStore.DEFAULT_MAX_GENERATIONS)) {
+            assertFalse(Files.exists(incomplete));
+            assertRestored(tree, store);
+        }
+    }
+
+    private static DataTreeCheckpointStore open(final Path dir, final int maxGenerations) throws IOException {
+        return DataTreeCheckpointStore.open(dir, SPLIT_THRESHOLD, maxGenerations, pool);
+    }
+
+    private static void assertRestored(final DataTree expected, final DataTreeCheckpointStore store)
+            throws IOException {
+        final DataTree restored = store.restore(DataTreeConfiguration.DEFAULT_OPERATIONAL, schemaContext).get();
+        assertEquals(expected.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY),
+            restored.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY));
+    }
+
+    private static DataTree createPopulatedTree() throws DataValidationFailedException {
+        final DataTree tree = new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_OPERATIONAL,
+            schemaContext);
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        mod.write(TEST_PATH, Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TEST))
+            .withChild(ImmutableNodes.mapNodeBuilder(OUTER_LIST).build()).build());
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            mod.write(entryPath(i), entry(i));
+        }
+        mod.write(INNER_PATH, inner());
+        commit(tree, mod);
+        return tree;
+    }
+
+    private static void commit(final DataTree tree, final DataTreeModification mod)
+            throws DataValidationFailedException {
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+    }
+
+    private static List<Path> checkpointFiles(final Path dir) throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static YangInstanceIdentifier entryPath(final int id) {
+        return OUTER_LIST_PATH.node(new NodeIdentifierWithPredicates(OUTER_LIST, ID, id));
+    }
+
+    private static MapEntryNode entry(final int id) {
+        return ImmutableNodes.mapEntryBuilder(OUTER_LIST, ID, id)
+                .withChild(ImmutableNodes.leafNode(NAME, "entry " + id))
+                .withChild(Builders.orderedLeafSetBuilder().withNodeIdentifier(new NodeIdentifier(TAGS))
+                    .withChildValue("b").withChildValue("a").build())
+                .withChild(Builders.choiceBuilder().withNodeIdentifier(new NodeIdentifier(OUTER_CHOICE))
+                    .withChild(id % 2 == 0 ? ImmutableNodes.leafNode(ONE, BigInteger.valueOf(id))
+                        : ImmutableNodes.leafNode(TWO, new BigDecimal("1.25")))
+                    .build())
+                .build();
+    }
+
+    private static ContainerNode inner() {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(INNER))
+                .withChild(ImmutableNodes.leafNode(FLAG, Boolean.TRUE))
+                .withChild(ImmutableNodes.leafNode(DATA, new byte[] { 1, 2, 3 }))
+                .withChild(ImmutableNodes.leafNode(REF, entryPath(2).node(NAME)))
+                .withChild(ImmutableNodes.leafNode(KIND, QName.create(TEST, "base-identity")))
+                .withChild(ImmutableNodes.leafNode(OPTIONS, ImmutableSet.of("first", "second")))
+                .withChild(ImmutableNodes.leafNode(MARKER, Empty.getInstance()))
+                .build();
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opendaylight.yangtools.yang.common.Empty;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class DataTreeJournalTest {
+    private static final QName TEST = QName.create("urn:opendaylight:params:xml:ns:yang:yangtools:journal:test",
+        "2018-03-01", "test");
+    private static final QName OUTER_LIST = QName.create(TEST, "outer-list");
+    private static final QName ID = QName.create(TEST, "id");
+    private static final QName NAME = QName.create(TEST, "name");
+    private static final QName TAGS = QName.create(TEST, "tags");
+    private static final QName OUTER_CHOICE = QName.create(TEST, "outer-choice");
+    private static final QName ONE = QName.create(TEST, "one");
+    private static final QName TWO = QName.create(TEST, "two");
+    private static final QName INNER = QName.create(TEST, "inner");
+    private static final QName FLAG = QName.create(TEST, "flag");
+    private static final QName DATA = QName.create(TEST, "data");
+    private static final QName REF = QName.create(TEST, "ref");
+    private static final QName KIND = QName.create(TEST, "kind");
+    private static final QName OPTIONS = QName.create(TEST, "options");
+    private static final QName MARKER = QName.create(TEST, "marker");
+
+    private static final YangInstanceIdentifier TEST_PATH = YangInstanceIdentifier.of(TEST);
+    private static final YangInstanceIdentifier OUTER_LIST_PATH = TEST_PATH.node(OUTER_LIST);
+    private static final YangInstanceIdentifier INNER_PATH = TEST_PATH.node(INNER);
+
+    private static SchemaContext schemaContext;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void beforeClass() {
+        schemaContext = YangParserTestUtils.parseYangResource("/journal-test.yang");
+    }
+
+    @Test
+    public void testAppendReplay() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createTree();
+
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            DataTreeModification mod = tree.takeSnapshot().newModification();
+            mod.write(TEST_PATH, testContainer());
+            mod.write(OUTER_LIST_PATH, ImmutableNodes.mapNodeBuilder(OUTER_LIST).withChild(entry(1))
+                .withChild(entry(2)).build());
+            mod.write(INNER_PATH, inner());
+            commit(tree, journal, mod);
+
+            mod = tree.takeSnapshot().newModification();
+            mod.merge(entryPath(3), entry(3));
+            mod.delete(entryPath(1));
+            mod.write(INNER_PATH.node(FLAG), ImmutableNodes.leafNode(FLAG, Boolean.FALSE));
+            commit(tree, journal, mod);
+
+            mod = tree.takeSnapshot().newModification();
+            mod.delete(INNER_PATH.node(DATA));
+            commit(tree, journal, mod);
+        }
+
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            assertEquals(3, replayInto(journal, tree));
+        }
+    }
+
+    @Test
+    public void testSegmentRollover() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createTree();
+
+        try (DataTreeJournal journal = DataTreeJournal.open(dir, 256)) {
+            DataTreeModification mod = tree.takeSnapshot().newModification();
+            mod.write(TEST_PATH, testContainer());
+            commit(tree, journal, mod);
+
+            for (int i = 0; i < 50; ++i) {
+                mod = tree.takeSnapshot().newModification();
+                mod.write(entryPath(i), entry(i));
+                commit(tree, journal, mod);
+            }
+
+            // A record which does not fit into a segment
+            final List<MapEntryNode> entries = new ArrayList<>();
+            for (int i = 50; i < 100; ++i) {
+                entries.add(entry(i));
+            }
+            mod = tree.takeSnapshot().newModification();
+            for (MapEntryNode entry : entries) {
+                mod.write(OUTER_LIST_PATH.node(entry.getIdentifier()), entry);
+            }
+            commit(tree, journal, mod);
+
+            // Replay should see records appended by this instance
+            assertEquals(52, replayInto(journal, tree));
+        }
+
+        assertTrue(segmentFiles(dir).size() > 10);
+        try (DataTreeJournal journal = DataTreeJournal.open(dir, 256)) {
+            assertEquals(52, replayInto(journal, tree));
+        }
+    }
+
+    @Test
+    public void testTornRecord() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createTree();
+
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            DataTreeModification mod = tree.takeSnapshot().newModification();
+            mod.write(TEST_PATH, testContainer());
+            commit(tree, journal, mod);
+
+            mod = tree.takeSnapshot().newModification();
+            mod.write(entryPath(1), entry(1));
+            commit(tree, journal, mod);
+        }
+
+        // Corrupt the last byte of the last record
+        final Path segment = segmentFiles(dir).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long lastEnd = JournalFormat.SEGMENT_HEADER_SIZE;
+            while (true) {
+                file.seek(lastEnd);
+                final int length = file.readInt();
+                if (length == 0) {
+                    break;
+                }
+                lastEnd += JournalFormat.RECORD_HEADER_SIZE + length;
+            }
+            file.seek(lastEnd - 1);
+            final int last = file.read();
+            file.seek(lastEnd - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        final DataTree recovered = createTree();
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            assertEquals(1, replay(journal, recovered));
+            assertEquals(testContainer(), recovered.takeSnapshot().readNode(TEST_PATH).get());
+
+            // Subsequent appends overwrite the torn record
+            final DataTreeModification mod = recovered.takeSnapshot().newModification();
+            mod.write(entryPath(2), entry(2));
+            commit(recovered, journal, mod);
+        }
+
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            assertEquals(2, replayInto(journal, recovered));
+        }
+    }
+
+    @Test
+    public void testUnwrittenSegmentHeader() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createTree();
+
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            final DataTreeModification mod = tree.takeSnapshot().newModification();
+            mod.write(TEST_PATH, testContainer());
+            commit(tree, journal, mod);
+        }
+
+        // A segment which has been created, but none of its contents has been forced before a crash
+        final Path first = segmentFiles(dir).get(0);
+        final Path unwritten = dir.resolve(String.format("%016x%s", 1, first.getFileName().toString().substring(16)));
+        Files.write(unwritten, new byte[(int) Files.size(first)]);
+
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            assertEquals(1, replayInto(journal, tree));
+
+            final DataTreeModification mod = tree.takeSnapshot().newModification();
+            mod.write(entryPath(1), entry(1));
+            commit(tree, journal, mod);
+        }
+
+        assertEquals(2, segmentFiles(dir).size());
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            assertEquals(2, replayInto(journal, tree));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptedSegment() throws IOException, DataValidationFailedException {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createTree();
+
+        try (DataTreeJournal journal = DataTreeJournal.open(dir, 64)) {
+            DataTreeModification mod = tree.takeSnapshot().newModification();
+            mod.write(TEST_PATH, testContainer());
+            commit(tree, journal, mod);
+
+            mod = tree.takeSnapshot().newModification();
+            mod.write(entryPath(1), entry(1));
+            commit(tree, journal, mod);
+        }
+
+        // The initial segment is too small for any record, hence each record ends up in a separate segment
+        final List<Path> segments = segmentFiles(dir);
+        assertEquals(3, segments.size());
+        try (RandomAccessFile file = new RandomAccessFile(segments.get(1).toFile(), "rw")) {
+            file.seek(JournalFormat.SEGMENT_HEADER_SIZE + JournalFormat.RECORD_HEADER_SIZE);
+            final int first = file.read();
+            file.seek(JournalFormat.SEGMENT_HEADER_SIZE + JournalFormat.RECORD_HEADER_SIZE);
+            file.write(first ^ 0xFF);
+        }
+
+        DataTreeJournal.open(dir, 64).close();
+    }
+
+    @Test
+    public void testConcurrentAppends() throws Exception {
+        final Path dir = folder.getRoot().toPath();
+        final DataTree tree = createTree();
+        final int threads = 8;
+        final int appends = 50;
+
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            final DataTreeModification init = tree.takeSnapshot().newModification();
+            init.write(TEST_PATH, testContainer());
+            commit(tree, journal, init);
+
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                final List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; ++i) {
+                    final int thread = i;
+                    futures.add(executor.submit(() -> {
+                        for (int j = 0; j < appends; ++j) {
+                            final DataTreeModification mod = tree.takeSnapshot().newModification();
+                            final int id = thread * appends + j;
+                            mod.write(entryPath(id), entry(id));
+                            mod.ready();
+                            tree.validate(mod);
+                            journal.append(tree.prepare(mod));
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertTrue(journal.getSyncCount() <= threads * appends + 1);
+        }
+
+        // Candidates have not been committed to the tree, but each of them writes a different entry
+        try (DataTreeJournal journal = DataTreeJournal.open(dir)) {
+            assertEquals(threads * appends + 1, replay(journal, createTree()));
+        }
+    }
+
+    private static DataTree createTree() {
+        return new InMemoryDataTreeFactory().create(DataTreeConfiguration.DEFAULT_OPERATIONAL, schemaContext);
+    }
+
+    private static void commit(final DataTree tree, final DataTreeJournal journal, final DataTreeModification mod)
+            throws DataValidationFailedException, IOException {
+        mod.ready();
+        tree.validate(mod);
+        final DataTreeCandidate candidate = tree.prepare(mod);
+        journal.append(candidate);
+        tree.commit(candidate);
+    }
+
+    private static long replay(final DataTreeJournal journal, final DataTree tree)
+            throws DataValidationFailedException, IOException {
+        final DataTreeModification mod = tree.takeSnapshot().newModification();
+        final long ret = journal.replay(mod);
+        mod.ready();
+        tree.validate(mod);
+        tree.commit(tree.prepare(mod));
+        return ret;
+    }
+
+    // Replay a journal into a fresh tree and verify it ends up with the same contents as the original tree
+    private static long replayInto(final DataTreeJournal journal, final DataTree expected)
+            throws DataValidationFailedException, IOException {
+        final DataTree tree = createTree();
+        final long ret = replay(journal, tree);
+        assertEquals(expected.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY),
+            tree.takeSnapshot().readNode(YangInstanceIdentifier.EMPTY));
+        return ret;
+    }
+
+    private static List<Path> segmentFiles(final Path dir) throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static ContainerNode testContainer() {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TEST))
+                .withChild(ImmutableNodes.mapNodeBuilder(OUTER_LIST).build()).build();
+    }
+
+    private static YangInstanceIdentifier entryPath(final int id) {
+        return OUTER_LIST_PATH.node(new NodeIdentifierWithPredicates(OUTER_LIST, ID, id));
+    }
+
+    private static MapEntryNode entry(final int id) {
+        return ImmutableNodes.mapEntryBuilder(OUTER_LIST, ID, id)
+                .withChild(ImmutableNodes.leafNode(NAME, "entry " + id))
+                .withChild(Builders.orderedLeafSetBuilder().withNodeIdentifier(new NodeIdentifier(TAGS))
+                    .withChildValue("b").withChildValue("a").build())
+                .withChild(Builders.choiceBuilder().withNodeIdentifier(new NodeIdentifier(OUTER_CHOICE))
+                    .withChild(id % 2 == 0 ? ImmutableNodes.leafNode(ONE, BigInteger.valueOf(id))
+                        : ImmutableNodes.leafNode(TWO, new BigDecimal("1.25")))
+                    .build())
+                .build();
+    }
+
+    private static ContainerNode inner() {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(INNER))
+                .withChild(ImmutableNodes.leafNode(FLAG, Boolean.TRUE))
+                .withChild(ImmutableNodes.leafNode(DATA, new byte[] { 1, 2, 3 }))
+                .withChild(ImmutableNodes.leafNode(REF, entryPath(2).node(NAME)))
+                .withChild(ImmutableNodes.leafNode(KIND, QName.create(TEST, "base-identity")))
+                .withChild(ImmutableNodes.leafNode(OPTIONS, ImmutableSet.of("first", "second")))
+                .withChild(ImmutableNodes.leafNode(MARKER, Empty.getInstance()))
+                .build();
+    }
+}
@@ -21,6 +21,14 @@ import org.opendaylight.yangtools.yang.model.api.Module;
  */
 @Beta
 public abstract class AbstractModuleStringInstanceIdentifierCodec extends AbstractStringInstanceIdentifierCodec {
+    protected AbstractModuleStringInstanceIdentifierCodec() {
+        // Default constructor
+    }
+
+    protected AbstractModuleStringInstanceIdentifierCodec(final StringInstanceIdentifierCache cache) {
+        super(cache);
+    }
+
     /**
      * Resolve a string prefix into the corresponding module.
      *
@@ -13,24 +13,53 @@ import static java.util.Objects.requireNonNull;
 import com.google.common.annotations.Beta;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.codec.InstanceIdentifierCodec;
+import org.opendaylight.yangtools.yang.data.util.StringInstanceIdentifierCache.ParsedPath;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 
 /**
  * Abstract utility class for representations which encode {@link YangInstanceIdentifier} as a
  * prefix:name tuple. Typical uses are RESTCONF/JSON (module:name) and XML (prefix:name).
+ *
+ * <p>
+ * Codecs can be constructed with a {@link StringInstanceIdentifierCache}, in which case results are looked up there
+ * before being computed.
  */
 @Beta
 public abstract class AbstractStringInstanceIdentifierCodec extends AbstractNamespaceCodec
         implements InstanceIdentifierCodec<String> {
+    private final @Nullable StringInstanceIdentifierCache cache;
+
+    protected AbstractStringInstanceIdentifierCodec() {
+        this.cache = null;
+    }
+
+    protected AbstractStringInstanceIdentifierCodec(final StringInstanceIdentifierCache cache) {
+        this.cache = requireNonNull(cache);
+    }
 
     @Override
     public final String serialize(final YangInstanceIdentifier data) {
+        if (cache == null) {
+            return serializeUncached(data);
+        }
+
+        final String cached = cache.getSerialized(data);
+        if (cached != null) {
+            return cached;
+        }
+        final String str = serializeUncached(data);
+        cache.putSerialized(data, str);
+        return str;
+    }
+
+    private String serializeUncached(final YangInstanceIdentifier data) {
         StringBuilder sb = new StringBuilder();
         DataSchemaContextNode<?> current = getDataContextTree().getRoot();
         for (PathArgument arg : data.getPathArguments()) {
@@ -93,10 +122,71 @@ public abstract class AbstractStringInstanceIdentifierCodec extends AbstractName
         return value;
     }
 
+    /**
+     * Return the namespace a prefix is bound to in the current context. This method is used to prevent results
+     * cached under a different binding from being reused. Codecs whose prefixes resolve to namespaces independently
+     * of context, like module names, do not need to override this method.
+     *
+     * @param prefix Prefix
+     * @return Namespace bound to the prefix, or null if the binding does not depend on context
+     */
+    @Nullable protected String boundNamespace(@Nonnull final String prefix) {
+        return null;
+    }
+
     @Override
     public final YangInstanceIdentifier deserialize(final String data) {
-        XpathStringParsingPathArgumentBuilder builder = new XpathStringParsingPathArgumentBuilder(this,
-            requireNonNull(data));
+        requireNonNull(data);
+        if (cache != null) {
+            try {
+                return deserializeCached(data).path;
+            } catch (IllegalArgumentException e) {
+                // Report the error with respect to the entire string, not its parent path
+                deserializeUncached(data);
+                throw e;
+            }
+        }
+        return deserializeUncached(data);
+    }
+
+    private YangInstanceIdentifier deserializeUncached(final String data) {
+        XpathStringParsingPathArgumentBuilder builder = new XpathStringParsingPathArgumentBuilder(this, data);
         return YangInstanceIdentifier.create(builder.build());
     }
+
+    private ParsedPath deserializeCached(final String data) {
+        final ParsedPath cached = cache.getParsed(data);
+        if (cached != null && cached.isValidFor(this)) {
+            return cached;
+        }
+
+        // Continue from the parent path, which is likely to be shared with other strings
+        final int parentEnd = lastStepOffset(data);
+        final ParsedPath parent = parentEnd > 0 ? deserializeCached(data.substring(0, parentEnd)) : null;
+        final ParsedPath parsed = new XpathStringParsingPathArgumentBuilder(this, data, parent, parentEnd)
+                .buildParsed();
+        if (parsed.cacheable) {
+            cache.putParsed(data, parsed);
+        }
+        return parsed;
+    }
+
+    // Offset of the last '/' which is not part of a quoted value
+    private static int lastStepOffset(final String data) {
+        int last = 0;
+        int offset = 0;
+        while (offset < data.length()) {
+            final char ch = data.charAt(offset);
+            if (ch == '/') {
+                last = offset;
+            } else if (ch == '\'' || ch == '"') {
+                offset = data.indexOf(ch, offset + 1);
+                if (offset == -1) {
+                    break;
+                }
+            }
+            offset++;
+        }
+        return last;
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.Beta;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+
+/**
+ * Bounded cache of results of an {@link AbstractStringInstanceIdentifierCodec}, in both directions. Parsed strings
+ * retain the schema context node they resolved to, so parsing a string which is not cached can continue from its
+ * longest cached parent path, sharing the parent {@link YangInstanceIdentifier} with it. Instances are safe for
+ * concurrent use and are meant to be shared by all codecs of a SchemaContext with the same prefix mapping.
+ */
+@Beta
+public final class StringInstanceIdentifierCache {
+    /**
+     * Default maximum number of entries in each direction.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 8192;
+
+    /**
+     * A parsed instance identifier along with the state needed to continue parsing its children.
+     */
+    static final class ParsedPath {
+        private static final String[] EMPTY_PREFIXES = new String[0];
+
+        final YangInstanceIdentifier path;
+        final DataSchemaContextNode<?> node;
+        // Prefixes used in the string and the namespaces they were bound to, if the binding depends on context
+        final String[] prefixes;
+        final String[] namespaces;
+        // False if the result depends on context in a way which is not captured by prefixes
+        final boolean cacheable;
+
+        ParsedPath(final YangInstanceIdentifier path, final DataSchemaContextNode<?> node,
+                final List<String> prefixes, final List<String> namespaces, final boolean cacheable) {
+            this.path = path;
+            this.node = node;
+            this.cacheable = cacheable;
+            if (prefixes.isEmpty()) {
+                this.prefixes = EMPTY_PREFIXES;
+                this.namespaces = EMPTY_PREFIXES;
+            } else {
+                this.prefixes = prefixes.toArray(new String[0]);
+                this.namespaces = namespaces.toArray(new String[0]);
+            }
+        }
+
+        boolean isValidFor(final AbstractStringInstanceIdentifierCodec codec) {
+            for (int i = 0; i < prefixes.length; ++i) {
+                if (!namespaces[i].equals(codec.boundNamespace(prefixes[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final Cache<String, ParsedPath> parsed;
+    private final Cache<YangInstanceIdentifier, String> serialized;
+
+    private StringInstanceIdentifierCache(final int maximumSize) {
+        checkArgument(maximumSize > 0, "Maximum size %s is not positive", maximumSize);
+        parsed = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+        serialized = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Create a new cache holding up to {@link #DEFAULT_MAXIMUM_SIZE} entries in each direction.
+     *
+     * @return A new cache
+     */
+    public static StringInstanceIdentifierCache create() {
+        return create(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a new cache holding up to specified number of entries in each direction.
+     *
+     * @param maximumSize Maximum number of entries
+     * @return A new cache
+     * @throws IllegalArgumentException if maximumSize is not positive
+     */
+    public static StringInstanceIdentifierCache create(final int maximumSize) {
+        return new StringInstanceIdentifierCache(maximumSize);
+    }
+
+    @Nullable ParsedPath getParsed(final String str) {
+        return parsed.getIfPresent(str);
+    }
+
+    void putParsed(final String str, final ParsedPath path) {
+        parsed.put(str, path);
+    }
+
+    @Nullable String getSerialized(final YangInstanceIdentifier path) {
+        return serialized.getIfPresent(path);
+    }
+
+    void putSerialized(final YangInstanceIdentifier path, final String str) {
+        serialized.put(path, str);
+    }
+}
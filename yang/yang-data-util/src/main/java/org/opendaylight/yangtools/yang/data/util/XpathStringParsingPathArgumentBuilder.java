@@ -13,13 +13,17 @@ import com.google.common.base.CharMatcher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.concepts.Builder;
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.util.StringInstanceIdentifierCache.ParsedPath;
 
 /**
  * Iterator which lazily parses {@link PathArgument} from string representation.
@@ -63,6 +67,12 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Collection<PathAr
 
     private final List<PathArgument> product = new ArrayList<>();
 
+    // Parsed parent path and context-dependent prefixes, used only when building a ParsedPath
+    private final @Nullable ParsedPath parent;
+    private final @Nullable List<String> prefixes;
+    private final @Nullable List<String> namespaces;
+    private boolean cacheable;
+
     private DataSchemaContextNode<?> current;
     private int offset;
 
@@ -71,6 +81,36 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Collection<PathAr
         this.data = requireNonNull(data);
         this.current = codec.getDataContextTree().getRoot();
         this.offset = 0;
+        this.parent = null;
+        this.prefixes = null;
+        this.namespaces = null;
+    }
+
+    /**
+     * Create a builder of a {@link ParsedPath}, which continues parsing after a parsed parent path.
+     *
+     * @param codec Codec
+     * @param data String representation
+     * @param parent Parsed parent path, or null if parsing should start at the root
+     * @param offset Offset at which the parent path ends
+     */
+    XpathStringParsingPathArgumentBuilder(final AbstractStringInstanceIdentifierCodec codec, final String data,
+            final @Nullable ParsedPath parent, final int offset) {
+        this.codec = requireNonNull(codec);
+        this.data = requireNonNull(data);
+        this.parent = parent;
+        this.offset = offset;
+        if (parent != null) {
+            this.current = parent.node;
+            this.prefixes = new ArrayList<>(Arrays.asList(parent.prefixes));
+            this.namespaces = new ArrayList<>(Arrays.asList(parent.namespaces));
+            this.cacheable = parent.cacheable;
+        } else {
+            this.current = codec.getDataContextTree().getRoot();
+            this.prefixes = new ArrayList<>();
+            this.namespaces = new ArrayList<>();
+            this.cacheable = true;
+        }
     }
 
     @Override
@@ -81,6 +121,29 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Collection<PathAr
         return ImmutableList.copyOf(product);
     }
 
+    /**
+     * Parse the remainder of the string into a {@link ParsedPath}. Only valid for builders created with a parent.
+     *
+     * @return Parsed path
+     */
+    ParsedPath buildParsed() {
+        while (!allCharactersConsumed()) {
+            product.add(computeNextArgument());
+        }
+
+        YangInstanceIdentifier path;
+        if (parent != null) {
+            // Share the parent path
+            path = parent.path;
+            for (PathArgument arg : product) {
+                path = path.node(arg);
+            }
+        } else {
+            path = YangInstanceIdentifier.create(product);
+        }
+        return new ParsedPath(path, current, prefixes, namespaces, cacheable);
+    }
+
     private PathArgument computeNextArgument() {
         checkValid(SLASH == currentChar(), "Identifier must start with '/'.");
         skipCurrentChar();
@@ -138,6 +201,10 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Collection<PathAr
             checkCurrentAndSkip(EQUALS, "Precondition must contain '='");
             skipWhitespaces();
             final String keyValue = nextQuotedValue();
+            if (prefixes != null && !prefixes.isEmpty() && keyValue.indexOf(COLON) != -1) {
+                // Values may contain prefixes, like identityrefs, which we do not track
+                cacheable = false;
+            }
             skipWhitespaces();
             checkCurrentAndSkip(PRECONDITION_END, "Precondition must ends with ']'");
 
@@ -180,6 +247,13 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Collection<PathAr
             prefix = "";
             localName = maybePrefix;
         }
+        if (prefixes != null && !prefixes.contains(prefix)) {
+            final String namespace = codec.boundNamespace(prefix);
+            if (namespace != null) {
+                prefixes.add(prefix);
+                namespaces.add(namespace);
+            }
+        }
         return codec.createQName(prefix, localName);
     }
 
@@ -74,4 +74,16 @@ public interface BasicCodeGenerator {
     default ImportResolutionMode getImportResolutionMode() {
         return ImportResolutionMode.REVISION_EXACT_OR_LATEST;
     }
+
+    /**
+     * Indicate whether this code generator can run concurrently with other code generators. A thread-safe generator
+     * must not share mutable state with other generators and must confine its file system access to its output and
+     * resource directories. Default implementation indicates it cannot.
+     *
+     * @return True if {@link #generateSources(SchemaContext, File, Set, Function)} can be invoked concurrently with
+     *         other code generators.
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang2sources.plugin;
+
+import static java.util.Objects.requireNonNull;
+import static org.opendaylight.yangtools.yang2sources.plugin.YangToSourcesProcessor.LOG_PREFIX;
+
+import com.google.common.base.MoreObjects;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+import org.opendaylight.yangtools.yang2sources.plugin.ConfigArg.CodeGeneratorArg;
+import org.opendaylight.yangtools.yang2sources.spi.BasicCodeGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single invocation of a fully-configured {@link BasicCodeGenerator}. Instances are created on the thread driving
+ * {@link YangToSourcesProcessor}, which also performs all interactions with the Maven project, and then may be
+ * executed on a different thread if the generator declares itself thread-safe.
+ */
+final class GeneratorTask implements Callable<Collection<File>> {
+    private static final Logger LOG = LoggerFactory.getLogger(GeneratorTask.class);
+
+    private final CodeGeneratorArg codeGeneratorCfg;
+    private final BasicCodeGenerator generator;
+    private final ContextHolder context;
+    private final File outputDir;
+    private final File resourceBaseDir;
+    private final String fingerprint;
+
+    GeneratorTask(final CodeGeneratorArg codeGeneratorCfg, final BasicCodeGenerator generator,
+            final ContextHolder context, final File outputDir, final File resourceBaseDir, final String fingerprint) {
+        this.codeGeneratorCfg = requireNonNull(codeGeneratorCfg);
+        this.generator = requireNonNull(generator);
+        this.context = requireNonNull(context);
+        this.outputDir = requireNonNull(outputDir);
+        this.resourceBaseDir = requireNonNull(resourceBaseDir);
+        this.fingerprint = fingerprint;
+    }
+
+    CodeGeneratorArg getCodeGeneratorCfg() {
+        return codeGeneratorCfg;
+    }
+
+    File getOutputDir() {
+        return outputDir;
+    }
+
+    File getResourceBaseDir() {
+        return resourceBaseDir;
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    boolean isThreadSafe() {
+        return generator.isThreadSafe();
+    }
+
+    @Override
+    public Collection<File> call() throws IOException {
+        if (outputDir.exists()) {
+            try (Stream<Path> paths = Files.walk(outputDir.toPath())) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+            LOG.info("{} Succesfully deleted output directory {}", LOG_PREFIX, outputDir);
+        }
+
+        return generator.generateSources(context.getContext(), outputDir, context.getYangModules(),
+            context::moduleToResourcePath);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("generator", codeGeneratorCfg.getCodeGeneratorClass())
+                .add("outputDir", outputDir).add("resourceBaseDir", resourceBaseDir).toString();
+    }
+}
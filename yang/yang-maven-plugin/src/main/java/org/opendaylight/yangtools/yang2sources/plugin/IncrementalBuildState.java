@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang2sources.plugin;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.apache.maven.project.MavenProject;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang2sources.plugin.ConfigArg.CodeGeneratorArg;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent state of {@link YangToSourcesProcessor} executions. It records a content fingerprint of all files
+ * affecting the YANG context and, for each code generator, a fingerprint of its configuration and of the output
+ * it has produced. A subsequent build with unchanged fingerprints can skip parsing and code generation.
+ */
+@NotThreadSafe
+final class IncrementalBuildState {
+    private static final Logger LOG = LoggerFactory.getLogger(IncrementalBuildState.class);
+    private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+    private static final String STATE_DIR = "yang-maven-plugin";
+    private static final String STATE_FILE = "incremental-state.properties";
+    private static final String PARSED_SOURCES_DIR = "parsed-sources";
+    private static final String META_INF_KEY = "META-INF/yang";
+    private static final String INPUT_SUFFIX = ".input";
+    private static final String OUTPUT_SUFFIX = ".output";
+
+    private final Properties previous;
+    private final Properties current = new Properties();
+    private final File stateFile;
+
+    private IncrementalBuildState(final File stateFile, final Properties previous) {
+        this.stateFile = requireNonNull(stateFile);
+        this.previous = requireNonNull(previous);
+    }
+
+    /**
+     * Load the state of previous build of a project. If the project does not have a build directory, or the state
+     * cannot be read, an empty state is returned, which results in a full build.
+     *
+     * @param project Maven project
+     * @return Incremental build state, or empty if the project does not have a build directory
+     */
+    static Optional<IncrementalBuildState> load(final MavenProject project) {
+        final String buildDirectory = project.getBuild() == null ? null : project.getBuild().getDirectory();
+        if (buildDirectory == null) {
+            LOG.debug("{} Project {} does not have a build directory, incremental build disabled",
+                YangToSourcesProcessor.LOG_PREFIX, project);
+            return Optional.empty();
+        }
+
+        final File stateFile = new File(new File(buildDirectory, STATE_DIR), STATE_FILE);
+        final Properties previous = new Properties();
+        if (stateFile.isFile()) {
+            try (InputStream is = Files.newInputStream(stateFile.toPath())) {
+                previous.load(is);
+            } catch (IOException e) {
+                LOG.warn("{} Failed to read incremental build state from {}, ignoring it",
+                    YangToSourcesProcessor.LOG_PREFIX, stateFile, e);
+                previous.clear();
+            }
+        }
+        return Optional.of(new IncrementalBuildState(stateFile, previous));
+    }
+
+    /**
+     * Compute the fingerprint of the inputs to YANG context assembly. This includes the contents of all project files
+     * and all YANG sources found in dependencies.
+     *
+     * @param projectFiles YANG files in the current project
+     * @param dependencySources YANG sources found in dependencies
+     * @return Input fingerprint
+     * @throws IOException if a source cannot be read
+     */
+    static String inputFingerprint(final Collection<File> projectFiles,
+            final Collection<YangTextSchemaSource> dependencySources) throws IOException {
+        final Hasher hasher = HASH_FUNCTION.newHasher();
+        for (File file : projectFiles.stream().sorted().collect(Collectors.toList())) {
+            hasher.putString(file.getPath(), StandardCharsets.UTF_8)
+                .putBytes(com.google.common.io.Files.asByteSource(file).hash(HASH_FUNCTION).asBytes());
+        }
+        for (YangTextSchemaSource source : dependencySources) {
+            hasher.putString(source.getIdentifier().toYangFilename(), StandardCharsets.UTF_8)
+                .putBytes(source.hash(HASH_FUNCTION).asBytes());
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Compute the fingerprint of a code generator run. It covers the inputs, generator class and where it is loaded
+     * from, and its configuration.
+     *
+     * @param inputFingerprint input fingerprint, as computed by {@link #inputFingerprint(Collection, Collection)}
+     * @param arg code generator configuration
+     * @param project Maven project
+     * @return Code generator fingerprint
+     */
+    static String generatorFingerprint(final String inputFingerprint, final CodeGeneratorArg arg,
+            final MavenProject project) {
+        final Hasher hasher = HASH_FUNCTION.newHasher()
+                .putString(inputFingerprint, StandardCharsets.UTF_8)
+                .putString(arg.getCodeGeneratorClass(), StandardCharsets.UTF_8)
+                .putString(String.valueOf(arg.getResourceBaseDir(project)), StandardCharsets.UTF_8);
+        putCodeSource(hasher, arg.getCodeGeneratorClass());
+        for (Entry<String, String> e : new TreeMap<>(arg.getAdditionalConfiguration()).entrySet()) {
+            hasher.putString(e.getKey(), StandardCharsets.UTF_8).putString(String.valueOf(e.getValue()),
+                StandardCharsets.UTF_8);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Compute the fingerprint of the code a class is loaded from.
+     *
+     * @param clazz class to fingerprint
+     * @return Code source fingerprint
+     */
+    static String codeSourceFingerprint(final Class<?> clazz) {
+        final Hasher hasher = HASH_FUNCTION.newHasher().putString(clazz.getName(), StandardCharsets.UTF_8);
+        putCodeSource(hasher, clazz);
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Return the cache of parsed sources associated with this state.
+     *
+     * @return A new ParsedSourceCache
+     */
+    ParsedSourceCache parsedSourceCache() {
+        return new ParsedSourceCache(new File(stateFile.getParentFile(), PARSED_SOURCES_DIR));
+    }
+
+    /**
+     * Check whether the META-INF/yang directory has been produced from specified inputs and has not been modified
+     * since.
+     *
+     * @param inputFingerprint input fingerprint
+     * @param directory directory holding copies of YANG files
+     * @return True if the directory is up to date
+     */
+    boolean isMetaInfUpToDate(final String inputFingerprint, final File directory) {
+        return isUpToDate(META_INF_KEY, inputFingerprint, directory);
+    }
+
+    void recordMetaInf(final String inputFingerprint, final File directory) {
+        record(META_INF_KEY, inputFingerprint, directory);
+    }
+
+    /**
+     * Check whether the output of a code generator has been produced with the specified fingerprint and has not
+     * been modified since. Both the source output directory and the resource directory are checked.
+     *
+     * @param outputDir generator output directory
+     * @param resourceBaseDir generator resource directory
+     * @param fingerprint code generator fingerprint, as computed by
+     *                    {@link #generatorFingerprint(String, CodeGeneratorArg, MavenProject)}
+     * @return True if the output directories are up to date
+     */
+    boolean isGeneratorUpToDate(final File outputDir, final File resourceBaseDir, final String fingerprint) {
+        return isUpToDate(outputDir.getAbsolutePath(), fingerprint, outputDir, resourceBaseDir);
+    }
+
+    void recordGenerator(final File outputDir, final File resourceBaseDir, final String fingerprint) {
+        record(outputDir.getAbsolutePath(), fingerprint, outputDir, resourceBaseDir);
+    }
+
+    /**
+     * Persist the state recorded during this build, replacing the previous state atomically.
+     */
+    void store() {
+        final File dir = stateFile.getParentFile();
+        try {
+            Files.createDirectories(dir.toPath());
+            final Path tmp = Files.createTempFile(dir.toPath(), STATE_FILE, ".tmp");
+            try (OutputStream os = Files.newOutputStream(tmp)) {
+                current.store(os, "yang-maven-plugin incremental build state");
+            }
+            Files.move(tmp, stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("{} Failed to store incremental build state in {}, next build will be a full build",
+                YangToSourcesProcessor.LOG_PREFIX, stateFile, e);
+        }
+    }
+
+    private boolean isUpToDate(final String key, final String fingerprint, final File... directories) {
+        if (!fingerprint.equals(previous.getProperty(key + INPUT_SUFFIX))) {
+            return false;
+        }
+
+        final String expected = previous.getProperty(key + OUTPUT_SUFFIX);
+        final String actual;
+        try {
+            actual = outputFingerprint(directories);
+        } catch (IOException e) {
+            LOG.debug("{} Failed to fingerprint {}", YangToSourcesProcessor.LOG_PREFIX, directories, e);
+            return false;
+        }
+        if (!actual.equals(expected)) {
+            return false;
+        }
+
+        current.setProperty(key + INPUT_SUFFIX, fingerprint);
+        current.setProperty(key + OUTPUT_SUFFIX, actual);
+        return true;
+    }
+
+    private void record(final String key, final String fingerprint, final File... directories) {
+        try {
+            current.setProperty(key + OUTPUT_SUFFIX, outputFingerprint(directories));
+            current.setProperty(key + INPUT_SUFFIX, fingerprint);
+        } catch (IOException e) {
+            LOG.warn("{} Failed to fingerprint {}, it will be regenerated on next build",
+                YangToSourcesProcessor.LOG_PREFIX, directories, e);
+        }
+    }
+
+    /**
+     * Fingerprint directories based on relative paths, sizes and modification times of the files they contain. This
+     * is sufficient to detect external modifications to output without reading all generated files.
+     */
+    private static String outputFingerprint(final File... directories) throws IOException {
+        final Hasher hasher = HASH_FUNCTION.newHasher();
+        for (File directory : directories) {
+            hasher.putString(directory.getAbsolutePath(), StandardCharsets.UTF_8);
+            if (directory.isDirectory()) {
+                final Path root = directory.toPath();
+                final List<Path> files;
+                try (Stream<Path> stream = Files.walk(root)) {
+                    files = stream.filter(Files::isRegularFile).sorted(Comparator.naturalOrder())
+                            .collect(Collectors.toList());
+                }
+                for (Path file : files) {
+                    hasher.putString(root.relativize(file).toString(), StandardCharsets.UTF_8)
+                        .putLong(Files.size(file))
+                        .putLong(Files.getLastModifiedTime(file).toMillis());
+                }
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void putCodeSource(final Hasher hasher, final String className) {
+        final Class<?> clazz;
+        try {
+            clazz = Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            // Will be reported when the generator is instantiated
+            return;
+        }
+        putCodeSource(hasher, clazz);
+    }
+
+    private static void putCodeSource(final Hasher hasher, final Class<?> clazz) {
+        final CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+        final URL location = codeSource == null ? null : codeSource.getLocation();
+        if (location != null) {
+            hasher.putString(location.toString(), StandardCharsets.UTF_8);
+            try {
+                final File file = new File(location.toURI());
+                if (file.isFile()) {
+                    hasher.putLong(file.length()).putLong(file.lastModified());
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                LOG.debug("{} Cannot access code source {}", YangToSourcesProcessor.LOG_PREFIX, location, e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("stateFile", stateFile).toString();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang2sources.plugin;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.ASTSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.TextToASTTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of parsed YANG sources, kept alongside {@link IncrementalBuildState}. Each entry holds the AST of
+ * a single source and is keyed by the hash of its text, so that a build only parses sources whose contents changed
+ * since the previous build. Entries are also keyed by the parser implementation, so that upgrading the parser
+ * invalidates them. Entries not used by a build are removed by {@link #prune()}.
+ */
+@NotThreadSafe
+final class ParsedSourceCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ParsedSourceCache.class);
+    private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+    private static final String SUFFIX = ".ast";
+
+    private final Set<Path> used = new HashSet<>();
+    private final String parserFingerprint;
+    private final Path directory;
+    private int hits;
+    private int misses;
+
+    ParsedSourceCache(final File directory) {
+        this.directory = directory.toPath();
+        parserFingerprint = IncrementalBuildState.codeSourceFingerprint(ASTSchemaSource.class);
+    }
+
+    /**
+     * Return the AST of a source, either from this cache or by parsing its text. Parsed sources are added to
+     * the cache.
+     *
+     * @param source YANG text source
+     * @return AST representation of the source
+     * @throws IOException if the source cannot be read
+     * @throws SchemaSourceException if the source cannot be parsed
+     * @throws YangSyntaxErrorException if the source is not syntactically valid
+     */
+    ASTSchemaSource parse(final YangTextSchemaSource source) throws IOException, SchemaSourceException,
+            YangSyntaxErrorException {
+        final Path file = directory.resolve(HASH_FUNCTION.newHasher()
+            .putString(parserFingerprint, StandardCharsets.UTF_8)
+            .putBytes(source.read())
+            .hash() + SUFFIX);
+        used.add(file);
+
+        if (Files.isRegularFile(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                final ASTSchemaSource ast = ASTSchemaSource.readFrom(source.getIdentifier(),
+                    source.getSymbolicName().orElse(null), in);
+                hits++;
+                return ast;
+            } catch (IOException | YangSyntaxErrorException e) {
+                LOG.debug("{} Failed to read cached {} from {}, parsing it again", YangToSourcesProcessor.LOG_PREFIX,
+                    source, file, e);
+            }
+        }
+
+        final ASTSchemaSource ast = TextToASTTransformer.transformText(requireNonNull(source));
+        misses++;
+        store(file, ast);
+        return ast;
+    }
+
+    /**
+     * Remove all entries which have not been used since this cache was instantiated.
+     */
+    void prune() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                if (!used.contains(file)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("{} Failed to prune {}", YangToSourcesProcessor.LOG_PREFIX, directory, e);
+        }
+    }
+
+    int getHits() {
+        return hits;
+    }
+
+    int getMisses() {
+        return misses;
+    }
+
+    private void store(final Path file, final ASTSchemaSource ast) {
+        try {
+            Files.createDirectories(directory);
+            final Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(tmp)))) {
+                    ast.writeTo(out);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException | IllegalStateException e) {
+            LOG.debug("{} Failed to cache {} in {}", YangToSourcesProcessor.LOG_PREFIX, ast, file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("directory", directory).add("hits", hits).add("misses", misses)
+                .toString();
+    }
+}
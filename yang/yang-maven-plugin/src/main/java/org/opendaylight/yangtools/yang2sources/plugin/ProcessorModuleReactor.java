@@ -15,6 +15,7 @@ import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.opendaylight.yangtools.yang.model.api.Module;
@@ -39,15 +40,26 @@ final class ProcessorModuleReactor {
 
     private final YangTextSchemaContextResolver resolver;
     private final Set<SourceIdentifier> sourcesInProject;
+    private final Optional<ParsedSourceCache> cache;
 
-    ProcessorModuleReactor(final YangTextSchemaContextResolver resolver) {
+    ProcessorModuleReactor(final YangTextSchemaContextResolver resolver, final Optional<ParsedSourceCache> cache) {
         this.resolver = Preconditions.checkNotNull(resolver);
+        this.cache = Preconditions.checkNotNull(cache);
         sourcesInProject = ImmutableSet.copyOf(resolver.getAvailableSources());
     }
 
     void registerSource(final YangTextSchemaSource source) throws SchemaSourceException, IOException,
             YangSyntaxErrorException {
-        resolver.registerSource(source);
+        registerSource(resolver, cache, source);
+    }
+
+    static void registerSource(final YangTextSchemaContextResolver resolver, final Optional<ParsedSourceCache> cache,
+            final YangTextSchemaSource source) throws SchemaSourceException, IOException, YangSyntaxErrorException {
+        if (cache.isPresent()) {
+            resolver.registerSource(source, cache.get().parse(source));
+        } else {
+            resolver.registerSource(source);
+        }
     }
 
     ContextHolder toContext() throws SchemaResolutionException {
@@ -12,17 +12,22 @@ import static org.opendaylight.yangtools.yang2sources.plugin.YangToSourcesProces
 import static org.opendaylight.yangtools.yang2sources.plugin.YangToSourcesProcessor.META_INF_YANG_STRING;
 import static org.opendaylight.yangtools.yang2sources.plugin.YangToSourcesProcessor.META_INF_YANG_STRING_JAR;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import org.apache.maven.artifact.Artifact;
@@ -155,57 +160,10 @@ final class Util {
         return element.isFile() && element.getName().endsWith(".jar");
     }
 
-    @SuppressWarnings("checkstyle:illegalCatch")
     static List<YangTextSchemaSource> findYangFilesInDependenciesAsStream(final MavenProject project)
             throws MojoFailureException {
-        try {
-            final List<File> filesOnCp = Util.getClassPath(project);
-            LOG.info("{} Searching for yang files in following dependencies: {}", LOG_PREFIX, filesOnCp);
-
-            final List<YangTextSchemaSource> yangsFromDependencies = new ArrayList<>();
-            for (File file : filesOnCp) {
-                final List<String> foundFilesForReporting = new ArrayList<>();
-                // is it jar file or directory?
-                if (file.isDirectory()) {
-                    //FIXME: code duplicate
-                    File yangDir = new File(file, META_INF_YANG_STRING);
-                    if (yangDir.exists() && yangDir.isDirectory()) {
-                        File[] yangFiles = yangDir.listFiles(
-                            (dir, name) -> name.endsWith(RFC6020_YANG_FILE_EXTENSION) && new File(dir, name).isFile());
-                        for (final File yangFile : yangFiles) {
-                            foundFilesForReporting.add(yangFile.getName());
-                            yangsFromDependencies.add(YangTextSchemaSource.forFile(yangFile));
-                        }
-                    }
-                } else {
-                    try (ZipFile zip = new ZipFile(file)) {
-                        final Enumeration<? extends ZipEntry> entries = zip.entries();
-                        while (entries.hasMoreElements()) {
-                            final ZipEntry entry = entries.nextElement();
-                            final String entryName = entry.getName();
-
-                            if (entryName.startsWith(META_INF_YANG_STRING_JAR) && !entry.isDirectory()
-                                    && entryName.endsWith(RFC6020_YANG_FILE_EXTENSION)) {
-                                foundFilesForReporting.add(entryName);
-
-                                yangsFromDependencies.add(YangTextSchemaSource.delegateForByteSource(
-                                    entryName.substring(entryName.lastIndexOf('/') + 1),
-                                    ByteSource.wrap(ByteStreams.toByteArray(zip.getInputStream(entry)))));
-                            }
-                        }
-                    }
-                }
-                if (foundFilesForReporting.size() > 0) {
-                    LOG.info("{} Found {} yang files in {}: {}", LOG_PREFIX, foundFilesForReporting.size(), file,
-                        foundFilesForReporting);
-                }
-
-            }
-
-            return yangsFromDependencies;
-        } catch (Exception e) {
-            throw new MojoFailureException(e.getMessage(), e);
-        }
+        return findYangSourcesInDependencies(project).values().stream().flatMap(List::stream)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -214,10 +172,22 @@ final class Util {
      *
      */
     //  FIXME: Rename to what class is actually doing.
-    @SuppressWarnings("checkstyle:illegalCatch")
     static Collection<File> findYangFilesInDependencies(final MavenProject project) throws MojoFailureException {
-        final List<File> yangsFilesFromDependencies = new ArrayList<>();
+        return findYangSourcesInDependencies(project).keySet();
+    }
 
+    /**
+     * Find all YANG sources in project dependencies, reading each dependency exactly once. Returned map is keyed
+     * by the file affecting YANG context: YANG files for directory dependencies and archives for jar dependencies.
+     * Iteration order matches the order in which dependencies are present on the classpath.
+     *
+     * @param project current project
+     * @return Map of YANG-bearing files to YANG sources they contain
+     * @throws MojoFailureException if a dependency cannot be read
+     */
+    @SuppressWarnings("checkstyle:illegalCatch")
+    static Map<File, List<YangTextSchemaSource>> findYangSourcesInDependencies(final MavenProject project)
+            throws MojoFailureException {
         final List<File> filesOnCp;
         try {
             filesOnCp = Util.getClassPath(project);
@@ -226,40 +196,66 @@ final class Util {
         }
         LOG.info("{} Searching for yang files in following dependencies: {}", LOG_PREFIX, filesOnCp);
 
+        final Map<File, List<YangTextSchemaSource>> yangsFromDependencies = new LinkedHashMap<>();
         for (File file : filesOnCp) {
             try {
                 // is it jar file or directory?
                 if (file.isDirectory()) {
-                    //FIXME: code duplicate
-                    File yangDir = new File(file, META_INF_YANG_STRING);
+                    final File yangDir = new File(file, META_INF_YANG_STRING);
                     if (yangDir.exists() && yangDir.isDirectory()) {
-                        File[] yangFiles = yangDir.listFiles(
+                        final File[] yangFiles = yangDir.listFiles(
                             (dir, name) -> name.endsWith(RFC6020_YANG_FILE_EXTENSION) && new File(dir, name).isFile());
-
-                        yangsFilesFromDependencies.addAll(Arrays.asList(yangFiles));
+                        for (final File yangFile : yangFiles) {
+                            yangsFromDependencies.put(yangFile,
+                                ImmutableList.of(YangTextSchemaSource.forFile(yangFile)));
+                        }
+                        if (yangFiles.length > 0) {
+                            LOG.info("{} Found {} yang files in {}: {}", LOG_PREFIX, yangFiles.length, file,
+                                Arrays.asList(yangFiles));
+                        }
                     }
                 } else {
-                    try (ZipFile zip = new ZipFile(file)) {
-
-                        final Enumeration<? extends ZipEntry> entries = zip.entries();
-                        while (entries.hasMoreElements()) {
-                            ZipEntry entry = entries.nextElement();
-                            String entryName = entry.getName();
-
-                            if (entryName.startsWith(META_INF_YANG_STRING_JAR)
-                                    && !entry.isDirectory() && entryName.endsWith(RFC6020_YANG_FILE_EXTENSION)) {
-                                LOG.debug("{} Found a YANG file in {}: {}", LOG_PREFIX, file, entryName);
-                                yangsFilesFromDependencies.add(file);
-                                break;
-                            }
-                        }
+                    final List<YangTextSchemaSource> sources = readYangEntries(file);
+                    if (!sources.isEmpty()) {
+                        yangsFromDependencies.put(file, sources);
                     }
                 }
             } catch (Exception e) {
                 throw new MojoFailureException("Failed to scan for YANG files in dependency: " + file.toString(), e);
             }
         }
-        return yangsFilesFromDependencies;
+
+        return yangsFromDependencies;
+    }
+
+    private static List<YangTextSchemaSource> readYangEntries(final File file) throws IOException {
+        final List<YangTextSchemaSource> sources = new ArrayList<>();
+        final List<String> foundFilesForReporting = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(file)) {
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final String entryName = entry.getName();
+
+                if (entryName.startsWith(META_INF_YANG_STRING_JAR) && !entry.isDirectory()
+                        && entryName.endsWith(RFC6020_YANG_FILE_EXTENSION)) {
+                    LOG.debug("{} Found a YANG file in {}: {}", LOG_PREFIX, file, entryName);
+                    foundFilesForReporting.add(entryName);
+
+                    try (InputStream is = zip.getInputStream(entry)) {
+                        sources.add(YangTextSchemaSource.delegateForByteSource(
+                            entryName.substring(entryName.lastIndexOf('/') + 1),
+                            ByteSource.wrap(ByteStreams.toByteArray(is))));
+                    }
+                }
+            }
+        }
+
+        if (!foundFilesForReporting.isEmpty()) {
+            LOG.info("{} Found {} yang files in {}: {}", LOG_PREFIX, foundFilesForReporting.size(), file,
+                foundFilesForReporting);
+        }
+        return sources;
     }
 
     static SourceIdentifier moduleToIdentifier(final Module module) {
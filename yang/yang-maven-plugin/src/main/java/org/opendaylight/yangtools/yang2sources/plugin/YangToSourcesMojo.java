@@ -76,6 +76,23 @@ public final class YangToSourcesMojo extends AbstractMojo {
     @Parameter(property = "inspectDependencies")
     private boolean inspectDependencies;
 
+    /**
+     * When set to "true", fingerprints of input files and code generator outputs, as well as parsed YANG sources, are
+     * persisted in the build directory. Subsequent builds with unchanged inputs skip YANG parsing and code generation,
+     * builds with changed inputs parse only the sources which have changed. Set to "false" to always perform a full
+     * build.
+     */
+    @Parameter(property = "yang.incremental", defaultValue = "true")
+    private boolean incremental;
+
+    /**
+     * Maximum number of code generators which are run concurrently. Only generators which declare themselves
+     * thread-safe are considered for concurrent execution. Values less than 1 select the number of available
+     * processors.
+     */
+    @Parameter(property = "yang.generatorThreads", defaultValue = "0")
+    private int generatorThreads;
+
     @Component
     private BuildContext buildContext;
 
@@ -118,7 +135,7 @@ public final class YangToSourcesMojo extends AbstractMojo {
             Collection<File> excludedFiles = processExcludeFiles(excludeFiles, yangFilesRootFile);
 
             yangToSourcesProcessor = new YangToSourcesProcessor(buildContext, yangFilesRootFile,
-                    excludedFiles, codeGeneratorArgs, project, inspectDependencies);
+                    excludedFiles, codeGeneratorArgs, project, inspectDependencies, incremental, generatorThreads);
         }
         yangToSourcesProcessor.conditionalExecute("true".equals(yangSkip));
     }
@@ -10,11 +10,16 @@ package org.opendaylight.yangtools.yang2sources.plugin;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
 import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
@@ -23,12 +28,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -63,18 +73,23 @@ class YangToSourcesProcessor {
     private final List<CodeGeneratorArg> codeGenerators;
     private final MavenProject project;
     private final boolean inspectDependencies;
+    private final boolean incremental;
+    private final int generatorThreads;
     private final BuildContext buildContext;
     private final YangProvider yangProvider;
 
     private YangToSourcesProcessor(final BuildContext buildContext, final File yangFilesRootDir,
             final Collection<File> excludedFiles, final List<CodeGeneratorArg> codeGenerators,
-            final MavenProject project, final boolean inspectDependencies, final YangProvider yangProvider) {
+            final MavenProject project, final boolean inspectDependencies, final boolean incremental,
+            final int generatorThreads, final YangProvider yangProvider) {
         this.buildContext = requireNonNull(buildContext, "buildContext");
         this.yangFilesRootDir = requireNonNull(yangFilesRootDir, "yangFilesRootDir");
         this.excludedFiles = ImmutableSet.copyOf(excludedFiles);
         this.codeGenerators = ImmutableList.copyOf(codeGenerators);
         this.project = requireNonNull(project);
         this.inspectDependencies = inspectDependencies;
+        this.incremental = incremental;
+        this.generatorThreads = generatorThreads;
         this.yangProvider = requireNonNull(yangProvider);
     }
 
@@ -82,14 +97,23 @@ class YangToSourcesProcessor {
     YangToSourcesProcessor(final File yangFilesRootDir, final Collection<File> excludedFiles,
             final List<CodeGeneratorArg> codeGenerators, final MavenProject project, final boolean inspectDependencies,
             final YangProvider yangProvider) {
+        this(yangFilesRootDir, excludedFiles, codeGenerators, project, inspectDependencies, false, 0, yangProvider);
+    }
+
+    @VisibleForTesting
+    YangToSourcesProcessor(final File yangFilesRootDir, final Collection<File> excludedFiles,
+            final List<CodeGeneratorArg> codeGenerators, final MavenProject project, final boolean inspectDependencies,
+            final boolean incremental, final int generatorThreads, final YangProvider yangProvider) {
         this(new DefaultBuildContext(), yangFilesRootDir, excludedFiles, codeGenerators, project,
-                inspectDependencies, yangProvider);
+                inspectDependencies, incremental, generatorThreads, yangProvider);
     }
 
     YangToSourcesProcessor(final BuildContext buildContext, final File yangFilesRootDir,
                 final Collection<File> excludedFiles, final List<CodeGeneratorArg> codeGenerators,
-                final MavenProject project, final boolean inspectDependencies) {
-        this(yangFilesRootDir, excludedFiles, codeGenerators, project, inspectDependencies, YangProvider.getInstance());
+                final MavenProject project, final boolean inspectDependencies, final boolean incremental,
+                final int generatorThreads) {
+        this(yangFilesRootDir, excludedFiles, codeGenerators, project, inspectDependencies, incremental,
+            generatorThreads, YangProvider.getInstance());
     }
 
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -97,36 +121,76 @@ class YangToSourcesProcessor {
     }
 
     void conditionalExecute(final boolean skip) throws MojoExecutionException, MojoFailureException {
-        final Optional<ProcessorModuleReactor> optReactor = createReactor();
-        if (!optReactor.isPresent()) {
+        final Optional<ProcessorInputs> optInputs = collectInputs();
+        if (!optInputs.isPresent()) {
             return;
         }
 
-        final ProcessorModuleReactor reactor = optReactor.get();
+        final ProcessorInputs inputs = optInputs.get();
+        final Optional<IncrementalBuildState> state = incremental ? IncrementalBuildState.load(project)
+                : Optional.empty();
+        final String fingerprint;
+        if (state.isPresent()) {
+            try {
+                fingerprint = inputs.fingerprint();
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to read input files " + inputs, e);
+            }
+        } else {
+            fingerprint = null;
+        }
+
+        final File generatedYangDir = new GeneratedDirectories(project).getYangDir();
+        if (!skip && state.isPresent() && isUpToDate(state.get(), fingerprint, generatedYangDir)) {
+            LOG.info("{} None of {} input files nor code generator configurations changed, reusing outputs",
+                LOG_PREFIX, inputs.size());
+            reuseOutputs(generatedYangDir);
+            state.get().store();
+            addServicesDir();
+            return;
+        }
+
+        final Optional<ParsedSourceCache> cache = state.map(IncrementalBuildState::parsedSourceCache);
+        final ProcessorModuleReactor reactor = createReactor(inputs, cache);
         if (!skip) {
             final ContextHolder holder;
 
             try {
-                holder = createContextHolder(reactor);
+                holder = createContextHolder(reactor, inputs);
             } catch (SchemaSourceException | YangSyntaxErrorException e) {
                 throw new MojoFailureException("Failed to process reactor " + reactor, e);
             } catch (IOException e) {
                 throw new MojoExecutionException("Failed to read reactor " + reactor, e);
             }
+            cache.ifPresent(c -> {
+                LOG.info("{} Reused {} parsed sources, parsed {} sources", LOG_PREFIX, c.getHits(), c.getMisses());
+                c.prune();
+            });
 
-            generateSources(holder);
+            generateSources(holder, state, fingerprint);
         } else {
             LOG.info("Skipping YANG code generation because property yang.skip is true");
         }
 
         // add META_INF/yang
-        final Collection<YangTextSchemaSource> models = reactor.getModelsInProject();
-        try {
-            yangProvider.addYangsToMetaInf(project, models);
-        } catch (IOException e) {
-            throw new MojoExecutionException("Failed write model files for " + models, e);
+        if (state.isPresent() && state.get().isMetaInfUpToDate(fingerprint, generatedYangDir)) {
+            LOG.debug("{} YANG files in {} are up to date", LOG_PREFIX, generatedYangDir);
+            YangProvider.setResource(generatedYangDir, project);
+        } else {
+            final Collection<YangTextSchemaSource> models = reactor.getModelsInProject();
+            try {
+                yangProvider.addYangsToMetaInf(project, models);
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed write model files for " + models, e);
+            }
+            state.ifPresent(s -> s.recordMetaInf(fingerprint, generatedYangDir));
         }
+        state.ifPresent(IncrementalBuildState::store);
 
+        addServicesDir();
+    }
+
+    private void addServicesDir() {
         // add META_INF/services
         File generatedServicesDir = new GeneratedDirectories(project).getYangServicesDir();
         YangProvider.setResource(generatedServicesDir, project);
@@ -135,21 +199,17 @@ class YangToSourcesProcessor {
     }
 
     @SuppressWarnings("checkstyle:illegalCatch")
-    private Optional<ProcessorModuleReactor> createReactor() throws MojoExecutionException {
+    private Optional<ProcessorInputs> collectInputs() throws MojoExecutionException {
         LOG.info("{} Inspecting {}", LOG_PREFIX, yangFilesRootDir);
         try {
             /*
              * Collect all files which affect YANG context. This includes all
              * files in current project and optionally any jars/files in the
-             * dependencies.
+             * dependencies. Each dependency is read exactly once.
              */
-            final Collection<File> yangFilesInProject = listFiles(yangFilesRootDir, excludedFiles);
-
-            final Collection<File> allFiles = new ArrayList<>(yangFilesInProject);
-            if (inspectDependencies) {
-                allFiles.addAll(Util.findYangFilesInDependencies(project));
-            }
-
+            final ProcessorInputs inputs = new ProcessorInputs(listFiles(yangFilesRootDir, excludedFiles),
+                inspectDependencies ? Util.findYangSourcesInDependencies(project) : ImmutableMap.of());
+            final Collection<File> allFiles = inputs.allFiles();
             if (allFiles.isEmpty()) {
                 LOG.info("{} No input files found", LOG_PREFIX);
                 return Optional.empty();
@@ -157,24 +217,38 @@ class YangToSourcesProcessor {
 
             /*
              * Check if any of the listed files changed. If no changes occurred,
-             * simply return null, which indicates and of execution.
+             * simply return empty, which indicates and of execution.
              */
             if (!allFiles.stream().anyMatch(buildContext::hasDelta)) {
                 LOG.info("{} None of {} input files changed", LOG_PREFIX, allFiles.size());
                 return Optional.empty();
             }
 
+            return Optional.of(inputs);
+        } catch (Exception e) {
+            // MojoExecutionException is thrown since execution cannot continue
+            LOG.error("{} Unable to parse YANG files from {}", LOG_PREFIX, yangFilesRootDir, e);
+            Throwable rootCause = Throwables.getRootCause(e);
+            throw new MojoExecutionException(LOG_PREFIX + " Unable to parse YANG files from " + yangFilesRootDir,
+                rootCause);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:illegalCatch")
+    private ProcessorModuleReactor createReactor(final ProcessorInputs inputs,
+            final Optional<ParsedSourceCache> cache) throws MojoExecutionException {
+        try {
             final YangTextSchemaContextResolver resolver = YangTextSchemaContextResolver.create("maven-plugin");
-            for (final File f : yangFilesInProject) {
-                resolver.registerSource(YangTextSchemaSource.forFile(f));
+            for (final File f : inputs.yangFilesInProject) {
+                ProcessorModuleReactor.registerSource(resolver, cache, YangTextSchemaSource.forFile(f));
             }
 
-            LOG.debug("Processed project files: {}", yangFilesInProject);
-            LOG.info("{} Project model files parsed: {}", LOG_PREFIX, yangFilesInProject.size());
+            LOG.debug("Processed project files: {}", inputs.yangFilesInProject);
+            LOG.info("{} Project model files parsed: {}", LOG_PREFIX, inputs.yangFilesInProject.size());
 
-            final ProcessorModuleReactor reactor = new ProcessorModuleReactor(resolver);
-            LOG.debug("Initialized reactor {}", reactor, yangFilesInProject);
-            return Optional.of(reactor);
+            final ProcessorModuleReactor reactor = new ProcessorModuleReactor(resolver, cache);
+            LOG.debug("Initialized reactor {}", reactor, inputs.yangFilesInProject);
+            return reactor;
         } catch (Exception e) {
             // MojoExecutionException is thrown since execution cannot continue
             LOG.error("{} Unable to parse YANG files from {}", LOG_PREFIX, yangFilesRootDir, e);
@@ -184,20 +258,46 @@ class YangToSourcesProcessor {
         }
     }
 
-    private ContextHolder createContextHolder(final ProcessorModuleReactor reactor) throws MojoFailureException,
-            IOException, SchemaSourceException, YangSyntaxErrorException {
+    private boolean isUpToDate(final IncrementalBuildState state, final String fingerprint,
+            final File generatedYangDir) {
+        if (!state.isMetaInfUpToDate(fingerprint, generatedYangDir)) {
+            return false;
+        }
+        for (CodeGeneratorArg codeGeneratorCfg : codeGenerators) {
+            final File outputDir = codeGeneratorCfg.getOutputBaseDir(project);
+            if (codeGeneratorCfg.getCodeGeneratorClass() == null || outputDir == null || !state.isGeneratorUpToDate(
+                    outputDir, codeGeneratorCfg.getResourceBaseDir(project),
+                    IncrementalBuildState.generatorFingerprint(fingerprint, codeGeneratorCfg, project))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reuseOutputs(final File generatedYangDir) {
+        for (CodeGeneratorArg codeGeneratorCfg : codeGenerators) {
+            reuseGeneratorOutput(codeGeneratorCfg, codeGeneratorCfg.getOutputBaseDir(project));
+        }
+        YangProvider.setResource(generatedYangDir, project);
+    }
+
+    private void reuseGeneratorOutput(final CodeGeneratorArg codeGeneratorCfg, final File outputDir) {
+        project.addCompileSourceRoot(outputDir.getAbsolutePath());
+        YangProvider.setResource(codeGeneratorCfg.getResourceBaseDir(project), project);
+        LOG.info("{} Sources generated by {} in {} are up to date", LOG_PREFIX,
+            codeGeneratorCfg.getCodeGeneratorClass(), outputDir);
+    }
+
+    private ContextHolder createContextHolder(final ProcessorModuleReactor reactor, final ProcessorInputs inputs)
+            throws IOException, SchemaSourceException, YangSyntaxErrorException {
         /**
          * Set contains all modules generated from input sources. Number of
          * modules may differ from number of sources due to submodules
          * (parsed submodule's data are added to its parent module). Set
          * cannot contains null values.
          */
-        if (inspectDependencies) {
-            final List<YangTextSchemaSource> sourcesInDependencies = Util.findYangFilesInDependenciesAsStream(
-                project);
-            for (YangTextSchemaSource s : toUniqueSources(sourcesInDependencies)) {
-                reactor.registerSource(s);
-            }
+        for (YangTextSchemaSource s : toUniqueSources(inputs.dependencySources())) {
+            reactor.registerSource(s);
         }
 
         return reactor.toContext();
@@ -232,42 +332,160 @@ class YangToSourcesProcessor {
     }
 
     /**
-     * Call generate on every generator from plugin configuration.
+     * Call generate on every generator from plugin configuration. Generators which declare themselves thread-safe
+     * and do not share their output or resource directory with another generator are executed concurrently on
+     * a bounded thread pool, all others are executed sequentially on the calling thread once the concurrent
+     * generators have completed. Results are reported
+     * in configuration order once all generators complete.
      */
     @SuppressWarnings("checkstyle:illegalCatch")
-    private void generateSources(final ContextHolder context) throws MojoFailureException {
+    private void generateSources(final ContextHolder context, final Optional<IncrementalBuildState> state,
+            final String fingerprint) throws MojoFailureException {
         if (codeGenerators.size() == 0) {
             LOG.warn("{} No code generators provided", LOG_PREFIX);
             return;
         }
 
-        final Map<String, String> thrown = new HashMap<>();
+        final Map<String, String> thrown = new LinkedHashMap<>();
+        final List<Throwable> causes = new ArrayList<>();
+        final List<GeneratorTask> tasks = new ArrayList<>();
         for (CodeGeneratorArg codeGenerator : codeGenerators) {
             try {
-                generateSourcesWithOneGenerator(context, codeGenerator);
+                createGeneratorTask(context, codeGenerator, state, fingerprint).ifPresent(tasks::add);
             } catch (Exception e) {
                 // try other generators, exception will be thrown after
                 LOG.error("{} Unable to generate sources with {} generator", LOG_PREFIX, codeGenerator
                         .getCodeGeneratorClass(), e);
                 thrown.put(codeGenerator.getCodeGeneratorClass(), e.getClass().getCanonicalName());
+                causes.add(e);
+            }
+        }
+
+        for (Entry<GeneratorTask, Object> result : executeGeneratorTasks(tasks).entrySet()) {
+            final GeneratorTask task = result.getKey();
+            final CodeGeneratorArg codeGenerator = task.getCodeGeneratorCfg();
+            if (result.getValue() instanceof Throwable) {
+                final Throwable e = (Throwable) result.getValue();
+                LOG.error("{} Unable to generate sources with {} generator", LOG_PREFIX, codeGenerator
+                        .getCodeGeneratorClass(), e);
+                thrown.put(codeGenerator.getCodeGeneratorClass(), e.getClass().getCanonicalName());
+                causes.add(e);
+            } else {
+                LOG.info("{} Sources generated by {}: {}", LOG_PREFIX, codeGenerator.getCodeGeneratorClass(),
+                    result.getValue());
+                state.ifPresent(s -> s.recordGenerator(task.getOutputDir(), task.getResourceBaseDir(),
+                    task.getFingerprint()));
             }
         }
 
         if (!thrown.isEmpty()) {
             String message = " One or more code generators failed, including failed list(generatorClass=exception) ";
             LOG.error("{}" + message + "{}", LOG_PREFIX, thrown.toString());
-            throw new MojoFailureException(LOG_PREFIX + message + thrown.toString());
+            final MojoFailureException ex = new MojoFailureException(LOG_PREFIX + message + thrown.toString());
+            causes.forEach(ex::addSuppressed);
+            throw ex;
+        }
+    }
+
+    /**
+     * Execute generator tasks, returning a map of task to either the collection of generated files or the failure
+     * cause. Returned map iterates in task order.
+     */
+    @SuppressWarnings("checkstyle:illegalCatch")
+    private Map<GeneratorTask, Object> executeGeneratorTasks(final List<GeneratorTask> tasks) {
+        final Map<GeneratorTask, Object> results = new LinkedHashMap<>();
+        tasks.forEach(task -> results.put(task, null));
+
+        // Thread-safe generators can run concurrently as long as neither their output directory nor their resource
+        // directory is used by any other generator
+        final Multiset<File> directories = HashMultiset.create();
+        for (GeneratorTask task : tasks) {
+            directories.add(task.getOutputDir());
+            directories.add(task.getResourceBaseDir());
+        }
+        final List<GeneratorTask> concurrent = tasks.stream()
+                .filter(task -> task.isThreadSafe() && hasExclusiveDirectories(task, directories))
+                .collect(Collectors.toList());
+        final int threads = Math.min(concurrent.size(), generatorThreads > 0 ? generatorThreads
+                : Runtime.getRuntime().availableProcessors());
+
+        final Map<GeneratorTask, Future<Collection<File>>> futures = new LinkedHashMap<>();
+        final ExecutorService executor;
+        if (threads > 1) {
+            LOG.info("{} Running {} code generators on {} threads", LOG_PREFIX, concurrent.size(), threads);
+            executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("yang-to-sources-%d").setDaemon(true).build());
+            concurrent.forEach(task -> futures.put(task, executor.submit(task)));
+        } else {
+            executor = null;
+        }
+
+        try {
+            for (Entry<GeneratorTask, Future<Collection<File>>> entry : futures.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    results.put(entry.getKey(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    results.put(entry.getKey(), e);
+                }
+            }
+
+            // Remaining generators are not known to be safe to run alongside others, hence they are run only after
+            // all concurrent generators have completed
+            for (GeneratorTask task : tasks) {
+                if (!futures.containsKey(task)) {
+                    try {
+                        results.put(task, task.call());
+                    } catch (Exception e) {
+                        results.put(task, e);
+                    }
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        return results;
+    }
+
+    private static boolean hasExclusiveDirectories(final GeneratorTask task, final Multiset<File> directories) {
+        final File outputDir = task.getOutputDir();
+        final File resourceBaseDir = task.getResourceBaseDir();
+        if (outputDir.equals(resourceBaseDir)) {
+            return directories.count(outputDir) == 2;
         }
+        return directories.count(outputDir) == 1 && directories.count(resourceBaseDir) == 1;
     }
 
     /**
-     * Instantiate generator from class and call required method.
+     * Instantiate generator from class and prepare it for execution. All interactions with the Maven project are
+     * performed here.
+     *
+     * @return Generator task, or empty if the generator output is up to date.
      */
-    private void generateSourcesWithOneGenerator(final ContextHolder context, final CodeGeneratorArg codeGeneratorCfg)
-            throws ClassNotFoundException, InstantiationException, IllegalAccessException, IOException {
+    private Optional<GeneratorTask> createGeneratorTask(final ContextHolder context,
+            final CodeGeneratorArg codeGeneratorCfg, final Optional<IncrementalBuildState> state,
+            final String fingerprint) throws ClassNotFoundException, InstantiationException, IllegalAccessException {
 
         codeGeneratorCfg.check();
 
+        final String generatorFingerprint;
+        if (state.isPresent()) {
+            generatorFingerprint = IncrementalBuildState.generatorFingerprint(fingerprint, codeGeneratorCfg, project);
+            final File outputDir = codeGeneratorCfg.getOutputBaseDir(project);
+            if (outputDir != null && state.get().isGeneratorUpToDate(outputDir,
+                    codeGeneratorCfg.getResourceBaseDir(project), generatorFingerprint)) {
+                reuseGeneratorOutput(codeGeneratorCfg, outputDir);
+                return Optional.empty();
+            }
+        } else {
+            generatorFingerprint = null;
+        }
+
         final BasicCodeGenerator g = getInstance(codeGeneratorCfg.getCodeGeneratorClass(), BasicCodeGenerator.class);
         LOG.info("{} Code generator instantiated from {}", LOG_PREFIX, codeGeneratorCfg.getCodeGeneratorClass());
 
@@ -295,14 +513,8 @@ class YangToSourcesProcessor {
         LOG.debug("{} Folder: {} marked as resources for generator: {}", LOG_PREFIX, resourceBaseDir,
                 codeGeneratorCfg.getCodeGeneratorClass());
 
-        if (outputDir.exists()) {
-            Files.walk(outputDir.toPath()).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
-            LOG.info("{} Succesfully deleted output directory {}", LOG_PREFIX, outputDir);
-        }
-        Collection<File> generated = g.generateSources(context.getContext(), outputDir, context.getYangModules(),
-            context::moduleToResourcePath);
-
-        LOG.info("{} Sources generated by {}: {}", LOG_PREFIX, codeGeneratorCfg.getCodeGeneratorClass(), generated);
+        return Optional.of(new GeneratorTask(codeGeneratorCfg, g, context, outputDir, resourceBaseDir,
+            generatorFingerprint));
     }
 
     /**
@@ -316,4 +528,42 @@ class YangToSourcesProcessor {
             baseType);
         return baseType.cast(clazz.newInstance());
     }
+
+    /**
+     * Files affecting YANG context: YANG files in current project and YANG sources found in dependencies.
+     */
+    private static final class ProcessorInputs {
+        final Collection<File> yangFilesInProject;
+        final Map<File, List<YangTextSchemaSource>> dependencies;
+
+        ProcessorInputs(final Collection<File> yangFilesInProject,
+                final Map<File, List<YangTextSchemaSource>> dependencies) {
+            this.yangFilesInProject = requireNonNull(yangFilesInProject);
+            this.dependencies = requireNonNull(dependencies);
+        }
+
+        Collection<File> allFiles() {
+            final Collection<File> allFiles = new ArrayList<>(yangFilesInProject);
+            allFiles.addAll(dependencies.keySet());
+            return allFiles;
+        }
+
+        List<YangTextSchemaSource> dependencySources() {
+            return dependencies.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        }
+
+        int size() {
+            return yangFilesInProject.size() + dependencies.size();
+        }
+
+        String fingerprint() throws IOException {
+            return IncrementalBuildState.inputFingerprint(yangFilesInProject, dependencySources());
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this).add("project", yangFilesInProject)
+                    .add("dependencies", dependencies.keySet()).toString();
+        }
+    }
 }
@@ -8,20 +8,42 @@
 package org.opendaylight.yangtools.yang2sources.plugin;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang2sources.plugin.ConfigArg.CodeGeneratorArg;
 import org.opendaylight.yangtools.yang2sources.plugin.GenerateSourcesTest.GeneratorMock;
+import org.opendaylight.yangtools.yang2sources.spi.BasicCodeGenerator;
 
 @RunWith(MockitoJUnitRunner.class)
 public class YangToSourcesProcessorTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
 
     private final File buildContext = Mockito.mock(File.class);
     private final List<File> yangFilesRootDir = ImmutableList.of(buildContext);
@@ -59,4 +81,236 @@ public class YangToSourcesProcessorTest {
         proc.execute();
     }
 
+    @Test
+    public void incrementalTest() throws Exception {
+        final File file = new File(getClass().getResource("/yang").getFile());
+        final File excludedYang = new File(getClass().getResource("/yang/excluded-file.yang").getFile());
+        final CodeGeneratorArg codeGeneratorArg = new CodeGeneratorArg(CountingGenerator.class.getName(),
+                "target/incremental-outputBaseDir");
+        final MavenProject mvnProject = Mockito.mock(MavenProject.class);
+        final Build build = new Build();
+        build.setDirectory(folder.newFolder("target").getPath());
+        Mockito.when(mvnProject.getBuild()).thenReturn(build);
+        Mockito.when(mvnProject.getBasedir()).thenReturn(folder.getRoot());
+
+        CountingGenerator.called = 0;
+        newIncrementalProcessor(file, excludedYang, codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(1, CountingGenerator.called);
+
+        // Nothing changed, generation should be skipped
+        newIncrementalProcessor(file, excludedYang, codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(1, CountingGenerator.called);
+
+        // Generated output was removed, generation should be performed
+        final File outputDir = codeGeneratorArg.getOutputBaseDir(mvnProject);
+        Files.delete(new File(outputDir, CountingGenerator.FILE_NAME).toPath());
+        newIncrementalProcessor(file, excludedYang, codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(2, CountingGenerator.called);
+
+        // Generator configuration has changed, generation should be performed
+        codeGeneratorArg.getAdditionalConfiguration().put("key", "value");
+        newIncrementalProcessor(file, excludedYang, codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(3, CountingGenerator.called);
+        newIncrementalProcessor(file, excludedYang, codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(3, CountingGenerator.called);
+
+        // Generated resources were modified, generation should be performed
+        final File resourceDir = codeGeneratorArg.getResourceBaseDir(mvnProject);
+        Files.createDirectories(resourceDir.toPath());
+        Files.write(new File(resourceDir, "stale.txt").toPath(), "stale".getBytes(StandardCharsets.UTF_8));
+        newIncrementalProcessor(file, excludedYang, codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(4, CountingGenerator.called);
+        newIncrementalProcessor(file, excludedYang, codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(4, CountingGenerator.called);
+    }
+
+    @Test
+    public void parsedSourceCacheTest() throws Exception {
+        final File yangDir = folder.newFolder("yang");
+        final File foo = new File(yangDir, "foo.yang");
+        final File bar = new File(yangDir, "bar.yang");
+        Files.write(foo.toPath(), "module foo { namespace foo; prefix foo; import bar { prefix bar; } }"
+            .getBytes(StandardCharsets.UTF_8));
+        Files.write(bar.toPath(), "module bar { namespace bar; prefix bar; container bar; }"
+            .getBytes(StandardCharsets.UTF_8));
+
+        final CodeGeneratorArg codeGeneratorArg = new CodeGeneratorArg(CountingGenerator.class.getName(),
+                "target/cache-outputBaseDir");
+        final MavenProject mvnProject = Mockito.mock(MavenProject.class);
+        final Build build = new Build();
+        build.setDirectory(folder.newFolder("target").getPath());
+        Mockito.when(mvnProject.getBuild()).thenReturn(build);
+        Mockito.when(mvnProject.getBasedir()).thenReturn(folder.getRoot());
+
+        CountingGenerator.called = 0;
+        newIncrementalProcessor(yangDir, foo, codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(1, CountingGenerator.called);
+        final File cacheDir = new File(new File(build.getDirectory(), "yang-maven-plugin"), "parsed-sources");
+        final Set<String> first = ImmutableSet.copyOf(cacheDir.list());
+        Assert.assertEquals(1, first.size());
+
+        // Changed source is parsed and cached, stale entry is pruned
+        newIncrementalProcessor(yangDir, ImmutableList.of(), codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(2, CountingGenerator.called);
+        final Set<String> second = ImmutableSet.copyOf(cacheDir.list());
+        Assert.assertEquals(2, second.size());
+        Assert.assertTrue(second.containsAll(first));
+
+        Files.write(foo.toPath(), ("module foo { namespace foo; prefix foo; import bar { prefix bar; } "
+            + "leaf foo { type string; } }").getBytes(StandardCharsets.UTF_8));
+        newIncrementalProcessor(yangDir, ImmutableList.of(), codeGeneratorArg, mvnProject).execute();
+        Assert.assertEquals(3, CountingGenerator.called);
+        final Set<String> third = ImmutableSet.copyOf(cacheDir.list());
+        Assert.assertEquals(2, third.size());
+        Assert.assertTrue(third.containsAll(first));
+        Assert.assertFalse(third.containsAll(second));
+    }
+
+    @Test
+    public void parallelTest() throws Exception {
+        final File file = new File(getClass().getResource("/yang").getFile());
+        final File excludedYang = new File(getClass().getResource("/yang/excluded-file.yang").getFile());
+        final MavenProject mvnProject = Mockito.mock(MavenProject.class);
+        final Build build = new Build();
+        build.setDirectory(folder.newFolder("target").getPath());
+        Mockito.when(mvnProject.getBuild()).thenReturn(build);
+        Mockito.when(mvnProject.getBasedir()).thenReturn(folder.getRoot());
+
+        // Both generators wait for each other, hence they complete only if run concurrently
+        ConcurrentGenerator.barrier = new CyclicBarrier(2);
+        final List<CodeGeneratorArg> codeGenerators = ImmutableList.of(
+            new CodeGeneratorArg(ConcurrentGenerator.class.getName(), "target/parallel-one",
+                "target/parallel-resources-one"),
+            new CodeGeneratorArg(ConcurrentGenerator.class.getName(), "target/parallel-two",
+                "target/parallel-resources-two"));
+        new YangToSourcesProcessor(file, ImmutableList.of(excludedYang), codeGenerators, mvnProject, false, false, 2,
+            YangProvider.getInstance()).execute();
+        Assert.assertEquals(0, ConcurrentGenerator.barrier.getNumberWaiting());
+        Assert.assertFalse(ConcurrentGenerator.barrier.isBroken());
+
+        // A single thread cannot satisfy the barrier and both failures are reported
+        ConcurrentGenerator.barrier = new CyclicBarrier(2);
+        try {
+            new YangToSourcesProcessor(file, ImmutableList.of(excludedYang), codeGenerators, mvnProject, false, false,
+                1, YangProvider.getInstance()).execute();
+            Assert.fail("Expected MojoFailureException");
+        } catch (MojoFailureException e) {
+            Assert.assertEquals(2, e.getSuppressed().length);
+        }
+
+        // Generators which are not thread-safe are run only after concurrent generators complete
+        ConcurrentGenerator.barrier = new CyclicBarrier(2);
+        new YangToSourcesProcessor(file, ImmutableList.of(excludedYang), ImmutableList.of(
+            new CodeGeneratorArg(ConcurrentGenerator.class.getName(), "target/parallel-one",
+                "target/parallel-resources-one"),
+            new CodeGeneratorArg(SequentialGenerator.class.getName(), "target/sequential"),
+            new CodeGeneratorArg(ConcurrentGenerator.class.getName(), "target/parallel-two",
+                "target/parallel-resources-two")), mvnProject, false, false, 2, YangProvider.getInstance()).execute();
+
+        // Generators sharing a resource directory are run sequentially
+        ConcurrentGenerator.barrier = new CyclicBarrier(2);
+        try {
+            new YangToSourcesProcessor(file, ImmutableList.of(excludedYang), ImmutableList.of(
+                new CodeGeneratorArg(ConcurrentGenerator.class.getName(), "target/parallel-one"),
+                new CodeGeneratorArg(ConcurrentGenerator.class.getName(), "target/parallel-two")), mvnProject,
+                false, false, 2, YangProvider.getInstance()).execute();
+            Assert.fail("Expected MojoFailureException");
+        } catch (MojoFailureException e) {
+            Assert.assertEquals(2, e.getSuppressed().length);
+        }
+    }
+
+    private static YangToSourcesProcessor newIncrementalProcessor(final File file, final File excludedYang,
+            final CodeGeneratorArg codeGeneratorArg, final MavenProject mvnProject) {
+        return newIncrementalProcessor(file, ImmutableList.of(excludedYang), codeGeneratorArg, mvnProject);
+    }
+
+    private static YangToSourcesProcessor newIncrementalProcessor(final File file, final Collection<File> excluded,
+            final CodeGeneratorArg codeGeneratorArg, final MavenProject mvnProject) {
+        return new YangToSourcesProcessor(file, excluded, ImmutableList.of(codeGeneratorArg), mvnProject, false, true,
+            0, YangProvider.getInstance());
+    }
+
+    public static class ConcurrentGenerator implements BasicCodeGenerator {
+        static final AtomicInteger RUNNING = new AtomicInteger();
+        static CyclicBarrier barrier;
+
+        @Override
+        public void setAdditionalConfig(final Map<String, String> additionalConfiguration) {
+            // No-op
+        }
+
+        @Override
+        public void setResourceBaseDir(final File resourceBaseDir) {
+            // No-op
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+        @Override
+        public Collection<File> generateSources(final SchemaContext context, final File outputBaseDir,
+                final Set<Module> currentModules, final Function<Module, Optional<String>> moduleResourcePathResolver)
+                throws IOException {
+            RUNNING.incrementAndGet();
+            try {
+                barrier.await(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                throw new IOException("Generators did not run concurrently", e);
+            } finally {
+                RUNNING.decrementAndGet();
+            }
+            return ImmutableList.of();
+        }
+    }
+
+    public static class SequentialGenerator implements BasicCodeGenerator {
+        @Override
+        public void setAdditionalConfig(final Map<String, String> additionalConfiguration) {
+            // No-op
+        }
+
+        @Override
+        public void setResourceBaseDir(final File resourceBaseDir) {
+            // No-op
+        }
+
+        @Override
+        public Collection<File> generateSources(final SchemaContext context, final File outputBaseDir,
+                final Set<Module> currentModules, final Function<Module, Optional<String>> moduleResourcePathResolver)
+                throws IOException {
+            if (ConcurrentGenerator.RUNNING.get() != 0) {
+                throw new IOException("Generator invoked while concurrent generators are running");
+            }
+            return ImmutableList.of();
+        }
+    }
+
+    public static class CountingGenerator implements BasicCodeGenerator {
+        static final String FILE_NAME = "generated.txt";
+        static int called = 0;
+
+        @Override
+        public void setAdditionalConfig(final Map<String, String> additionalConfiguration) {
+            // No-op
+        }
+
+        @Override
+        public void setResourceBaseDir(final File resourceBaseDir) {
+            // No-op
+        }
+
+        @Override
+        public Collection<File> generateSources(final SchemaContext context, final File outputBaseDir,
+                final Set<Module> currentModules, final Function<Module, Optional<String>> moduleResourcePathResolver)
+                throws IOException {
+            called++;
+            final File file = new File(outputBaseDir, FILE_NAME);
+            Files.createDirectories(outputBaseDir.toPath());
+            Files.write(file.toPath(), String.valueOf(currentModules).getBytes(StandardCharsets.UTF_8));
+            return ImmutableList.of(file);
+        }
+    }
 }
@@ -11,11 +11,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.base.MoreObjects.ToStringHelper;
-import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.io.File;
-import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileVisitResult;
@@ -24,12 +22,15 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.time.format.DateTimeParseException;
 import java.util.Collections;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
 import java.util.Optional;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.opendaylight.yangtools.yang.common.Revision;
@@ -44,7 +45,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Cache implementation that stores schemas in form of files under provided folder.
+ * Cache implementation that stores schemas in form of files under provided folder. Contents of the folder are indexed
+ * in memory, hence lookups do not touch the filesystem until the source is actually read and can proceed concurrently
+ * with each other. Newly-cached sources are written atomically, so a concurrent reader never observes partial
+ * content.
  */
 public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentation>
         extends AbstractSchemaSourceCache<T> {
@@ -59,6 +63,13 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
     private static final Pattern CACHED_FILE_PATTERN =
             Pattern.compile("(?<moduleName>[^@]+)" + "(@(?<revision>" + Revision.STRING_FORMAT_PATTERN + "))?");
 
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Index of cached files. Keyed by module name, each value holds the revisions known for that module. Revision-less
+     * sources sort before any revision.
+     */
+    private final ConcurrentMap<String, NavigableMap<Optional<Revision>, File>> index = new ConcurrentHashMap<>();
     private final Class<T> representation;
     private final File storageDirectory;
 
@@ -106,16 +117,16 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
             return;
         }
 
-        for (final SourceIdentifier cachedSchema : fileVisitor.getCachedSchemas()) {
-            register(cachedSchema);
+        for (final Entry<SourceIdentifier, File> cachedSchema : fileVisitor.getCachedSchemas().entrySet()) {
+            indexFile(cachedSchema.getKey(), cachedSchema.getValue());
+            register(cachedSchema.getKey());
         }
     }
 
     @Override
-    public synchronized ListenableFuture<? extends T> getSource(
-            final SourceIdentifier sourceIdentifier) {
-        final File file = sourceIdToFile(sourceIdentifier, storageDirectory);
-        if (file.exists() && file.canRead()) {
+    public ListenableFuture<? extends T> getSource(final SourceIdentifier sourceIdentifier) {
+        final File file = lookupFile(sourceIdentifier);
+        if (file != null && file.canRead()) {
             LOG.trace("Source {} found in cache as {}", sourceIdentifier, file);
             final SchemaSourceRepresentation restored = STORAGE_ADAPTERS.get(representation).restore(sourceIdentifier,
                     file);
@@ -126,78 +137,57 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
         return Futures.immediateFailedFuture(new MissingSchemaSourceException("Source not found", sourceIdentifier));
     }
 
+    /**
+     * Store a source. This method is synchronized to prevent concurrent writers from storing the same source, readers
+     * do not contend on this lock.
+     */
     @Override
     protected synchronized void offer(final T source) {
-        LOG.trace("Source {} offered to cache", source.getIdentifier());
-        final File file = sourceIdToFile(source);
+        final SourceIdentifier sourceIdentifier = source.getIdentifier();
+        LOG.trace("Source {} offered to cache", sourceIdentifier);
+        final File existing = lookupFile(sourceIdentifier);
+        if (existing != null && existing.exists()) {
+            LOG.debug("Source {} already in cache as {}", sourceIdentifier, existing);
+            return;
+        }
+
+        final File file = new File(storageDirectory, sourceIdentifier.toYangFilename());
         if (file.exists()) {
-            LOG.debug("Source {} already in cache as {}", source.getIdentifier(), file);
+            LOG.debug("Source {} already in cache as {}", sourceIdentifier, file);
             return;
         }
 
         storeSource(file, source);
-        register(source.getIdentifier());
-        LOG.trace("Source {} stored in cache as {}", source.getIdentifier(), file);
+        indexFile(sourceIdentifier, file);
+        register(sourceIdentifier);
+        LOG.trace("Source {} stored in cache as {}", sourceIdentifier, file);
     }
 
-    private File sourceIdToFile(final T source) {
-        return sourceIdToFile(source.getIdentifier(), storageDirectory);
+    private void indexFile(final SourceIdentifier sourceIdentifier, final File file) {
+        index.computeIfAbsent(sourceIdentifier.getName(),
+            name -> new ConcurrentSkipListMap<>(Revision::compare)).put(sourceIdentifier.getRevision(), file);
     }
 
-    static File sourceIdToFile(final SourceIdentifier identifier, final File storageDirectory) {
-        final Optional<Revision> rev = identifier.getRevision();
-        final File file;
-        if (!rev.isPresent()) {
-            // FIXME: this does not look right
-            file = findFileWithNewestRev(identifier, storageDirectory);
-        } else {
-            file = new File(storageDirectory, identifier.toYangFilename());
-        }
-        return file;
-    }
-
-    private static File findFileWithNewestRev(final SourceIdentifier identifier, final File storageDirectory) {
-        File[] files = storageDirectory.listFiles(new FilenameFilter() {
-            final Pattern pat = Pattern.compile(Pattern.quote(identifier.getName())
-                    + "(\\.yang|@\\d\\d\\d\\d-\\d\\d-\\d\\d.yang)");
-
-            @Override
-            public boolean accept(final File dir, final String name) {
-                return pat.matcher(name).matches();
-            }
-        });
-
-        if (files.length == 0) {
-            return new File(storageDirectory, identifier.toYangFilename());
-        }
-        if (files.length == 1) {
-            return files[0];
+    /**
+     * Look up the file backing a source identifier. If the identifier does not specify a revision, the file with
+     * the newest revision is returned.
+     *
+     * @param sourceIdentifier Source identifier
+     * @return Backing file, or null if the source is not cached
+     */
+    private File lookupFile(final SourceIdentifier sourceIdentifier) {
+        final NavigableMap<Optional<Revision>, File> revisions = index.get(sourceIdentifier.getName());
+        if (revisions == null) {
+            return null;
         }
 
-        File file = null;
-        TreeMap<Optional<Revision>, File> map = new TreeMap<>(Revision::compare);
-        for (File sorted : files) {
-            String fileName = sorted.getName();
-            Matcher match = Revision.STRING_FORMAT_PATTERN.matcher(fileName);
-            if (match.find()) {
-                String revStr = match.group();
-                Revision rev;
-                try {
-                    rev = Revision.of(revStr);
-                } catch (final DateTimeParseException e) {
-                    LOG.info("Unable to parse date from yang file name {}, falling back to not-present", fileName, e);
-                    rev = null;
-                }
-
-                map.put(Optional.ofNullable(rev), sorted);
-
-            } else {
-                map.put(Optional.empty(), sorted);
-            }
+        final Optional<Revision> rev = sourceIdentifier.getRevision();
+        if (rev.isPresent()) {
+            return revisions.get(rev);
         }
-        file = map.lastEntry().getValue();
 
-        return file;
+        final Entry<Optional<Revision>, File> newest = revisions.lastEntry();
+        return newest == null ? null : newest.getValue();
     }
 
     private void storeSource(final File file, final T schemaRepresentation) {
@@ -240,14 +230,30 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
 
         @Override
         protected void storeAsType(final File file, final YangTextSchemaSource cast) {
+            // Write to a temporary file first and then move it into place, so readers never observe partial content
+            final Path target = file.toPath();
+            Path tmp = null;
             try (InputStream castStream = cast.openStream()) {
-                Files.copy(castStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                tmp = Files.createTempFile(target.getParent(), file.getName(), TEMP_FILE_SUFFIX);
+                Files.copy(castStream, tmp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             } catch (final IOException e) {
+                deleteQuietly(tmp);
                 throw new IllegalStateException("Cannot store schema source " + cast.getIdentifier() + " to " + file,
                         e);
             }
         }
 
+        private static void deleteQuietly(final Path tmp) {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    LOG.debug("Failed to delete temporary file {}", tmp, e);
+                }
+            }
+        }
+
         @Override
         public YangTextSchemaSource restoreAsType(final SourceIdentifier sourceIdentifier, final File cachedSource) {
             return new YangTextSchemaSource(sourceIdentifier) {
@@ -266,18 +272,23 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
     }
 
     private static final class CachedModulesFileVisitor extends SimpleFileVisitor<Path> {
-        private final List<SourceIdentifier> cachedSchemas = Lists.newArrayList();
+        private final Map<SourceIdentifier, File> cachedSchemas = new LinkedHashMap<>();
 
         @Override
         public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
             final FileVisitResult fileVisitResult = super.visitFile(file, attrs);
             String fileName = file.toFile().getName();
+            if (fileName.endsWith(TEMP_FILE_SUFFIX)) {
+                LOG.debug("Removing incomplete cached file {}", file);
+                Files.deleteIfExists(file);
+                return fileVisitResult;
+            }
             fileName = com.google.common.io.Files.getNameWithoutExtension(fileName);
 
             final Optional<SourceIdentifier> si = getSourceIdentifier(fileName);
             if (si.isPresent()) {
                 LOG.trace("Restoring cached file {} as {}", file, si.get());
-                cachedSchemas.add(si.get());
+                cachedSchemas.put(si.get(), file.toFile());
             } else {
                 LOG.debug("Skipping cached file {}, cannot restore source identifier from filename: {},"
                         + " does not match {}", file, fileName, CACHED_FILE_PATTERN);
@@ -301,7 +312,7 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
             return FileVisitResult.CONTINUE;
         }
 
-        public List<SourceIdentifier> getCachedSchemas() {
+        public Map<SourceIdentifier, File> getCachedSchemas() {
             return cachedSchemas;
         }
     }
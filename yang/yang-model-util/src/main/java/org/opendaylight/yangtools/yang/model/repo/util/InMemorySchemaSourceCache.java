@@ -7,35 +7,136 @@
  */
 package org.opendaylight.yangtools.yang.model.repo.util;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
 import com.google.common.annotations.Beta;
 import com.google.common.base.FinalizablePhantomReference;
 import com.google.common.base.FinalizableReferenceQueue;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.yangtools.concepts.AbstractRegistration;
+import org.opendaylight.yangtools.concepts.Registration;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource.Costs;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * A {@link AbstractSchemaSourceCache} which retains sources in memory. Retention policy is determined by the
+ * {@link CacheBuilder} used to instantiate the cache: sources can be held via soft references, expire after a period
+ * of inactivity, or be evicted in least-recently-used order once the cache exceeds its maximum size or weight.
+ * Alternatively a size-bounded cache can delegate the choice of evicted sources to a
+ * {@link SchemaSourceEvictionPolicy}, such as {@link SchemaSourceEvictionPolicy#leastFrequentlyUsed()}.
+ *
+ * <p>
+ * Sources which are in use can be pinned, either explicitly via {@link #pin(SourceIdentifier)} or for the lifetime
+ * of a {@link SchemaContext} via {@link #pin(SchemaContext)}. Pinned sources remain available even if they are
+ * evicted from the cache.
+ *
+ * <p>
+ * A source is registered with the {@link SchemaSourceRegistry} for as long as it is available from this cache.
+ */
 @Beta
 public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> extends AbstractSchemaSourceCache<T>
         implements AutoCloseable {
-    private final List<FinalizablePhantomReference<T>> regs = Collections.synchronizedList(new ArrayList<>());
+    private final class PinnedSource {
+        final T source;
+
+        @GuardedBy("InMemorySchemaSourceCache.this")
+        int count = 1;
+
+        PinnedSource(final T source) {
+            this.source = requireNonNull(source);
+        }
+    }
+
+    /**
+     * A {@link Registration} of sources pinned for the lifetime of a {@link SchemaContext}.
+     */
+    public final class ContextRegistration extends AbstractRegistration {
+        private final FinalizablePhantomReference<SchemaContext> ref;
+        private final List<Registration> pins;
+        private final List<SourceIdentifier> unpinned;
+
+        ContextRegistration(final SchemaContext context, final List<Registration> pins,
+                final List<SourceIdentifier> unpinned) {
+            this.pins = ImmutableList.copyOf(pins);
+            this.unpinned = ImmutableList.copyOf(unpinned);
+            ref = new FinalizablePhantomReference<SchemaContext>(context, queue) {
+                @Override
+                public void finalizeReferent() {
+                    close();
+                }
+            };
+            refs.add(ref);
+        }
+
+        /**
+         * Return identifiers of sources which were not present in the cache at the time the SchemaContext was
+         * pinned and hence are not pinned by this registration.
+         *
+         * @return Identifiers of sources which are not pinned
+         */
+        public List<SourceIdentifier> getUnpinnedSources() {
+            return unpinned;
+        }
+
+        @Override
+        protected void removeRegistration() {
+            refs.remove(ref);
+            ref.clear();
+            pins.forEach(Registration::close);
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(InMemorySchemaSourceCache.class);
+
+    private final Set<FinalizablePhantomReference<?>> refs = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<SourceIdentifier, PinnedSource> pinned = new ConcurrentHashMap<>();
+    @GuardedBy("this")
+    private final Map<SourceIdentifier, SchemaSourceRegistration<T>> registrations = new HashMap<>();
     private final FinalizableReferenceQueue queue = new FinalizableReferenceQueue();
     private final Cache<SourceIdentifier, T> cache;
+    private final SchemaSourceEvictionPolicy policy;
+    private final long maximumSize;
 
     protected InMemorySchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation,
             final CacheBuilder<Object, Object> builder) {
+        this(consumer, representation, builder, null, Long.MAX_VALUE);
+    }
+
+    private InMemorySchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation,
+            final CacheBuilder<Object, Object> builder, @Nullable final SchemaSourceEvictionPolicy policy,
+            final long maximumSize) {
         super(consumer, representation, Costs.IMMEDIATE);
-        cache = builder.build();
+        cache = builder.recordStats().<SourceIdentifier, T>removalListener(this::sourceRemoved).build();
+        this.policy = policy;
+        this.maximumSize = maximumSize;
     }
 
     public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createSoftCache(
@@ -50,43 +151,240 @@ public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> ext
                 .expireAfterAccess(lifetime, units));
     }
 
+    /**
+     * Create a cache which holds at most specified number of sources. When the limit is exceeded, least recently used
+     * sources which are not pinned are evicted and unregistered.
+     *
+     * @param consumer Registry where sources should be registered
+     * @param representation Source representation
+     * @param maximumSize Maximum number of sources
+     * @return A new cache
+     * @throws IllegalArgumentException if maximumSize is negative
+     */
+    public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createBoundedCache(
+            final SchemaSourceRegistry consumer, final Class<R> representation, final long maximumSize) {
+        checkArgument(maximumSize >= 0, "Invalid maximum size %s", maximumSize);
+        return new InMemorySchemaSourceCache<>(consumer, representation,
+            CacheBuilder.newBuilder().maximumSize(maximumSize));
+    }
+
+    /**
+     * Create a cache which holds at most specified number of sources. When the limit is exceeded, sources selected
+     * by the specified policy are evicted and unregistered, unless they are pinned.
+     *
+     * @param consumer Registry where sources should be registered
+     * @param representation Source representation
+     * @param maximumSize Maximum number of sources
+     * @param policy Eviction policy, which must not be shared with other caches
+     * @return A new cache
+     * @throws IllegalArgumentException if maximumSize is not positive
+     */
+    public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createBoundedCache(
+            final SchemaSourceRegistry consumer, final Class<R> representation, final long maximumSize,
+            final SchemaSourceEvictionPolicy policy) {
+        checkArgument(maximumSize > 0, "Invalid maximum size %s", maximumSize);
+        return new InMemorySchemaSourceCache<>(consumer, representation, CacheBuilder.newBuilder(),
+            requireNonNull(policy), maximumSize);
+    }
+
+    /**
+     * Create a cache which holds sources up to a specified total weight, for example the size of source text. When
+     * the limit is exceeded, least recently used sources which are not pinned are evicted and unregistered.
+     *
+     * @param consumer Registry where sources should be registered
+     * @param representation Source representation
+     * @param maximumWeight Maximum total weight of sources
+     * @param weigher Weigher computing the weight of a source, invoked once when the source is offered
+     * @return A new cache
+     * @throws IllegalArgumentException if maximumWeight is negative
+     */
+    public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createBoundedCache(
+            final SchemaSourceRegistry consumer, final Class<R> representation, final long maximumWeight,
+            final Weigher<? super SourceIdentifier, ? super R> weigher) {
+        checkArgument(maximumWeight >= 0, "Invalid maximum weight %s", maximumWeight);
+        requireNonNull(weigher);
+        return new InMemorySchemaSourceCache<>(consumer, representation, CacheBuilder.newBuilder()
+            .maximumWeight(maximumWeight)
+            .<Object, Object>weigher((id, source) -> weigher.weigh((SourceIdentifier) id,
+                representation.cast(source))));
+    }
+
     @Override
     public ListenableFuture<? extends T> getSource(final SourceIdentifier sourceIdentifier) {
         final T present = cache.getIfPresent(sourceIdentifier);
         if (present != null) {
+            if (policy != null) {
+                policy.sourceAccessed(sourceIdentifier);
+            }
             return Futures.immediateFuture(present);
         }
 
+        final PinnedSource pin = pinned.get(sourceIdentifier);
+        if (pin != null) {
+            return Futures.immediateFuture(pin.source);
+        }
+
         return Futures.immediateFailedFuture(new MissingSchemaSourceException("Source not found", sourceIdentifier));
     }
 
+    /**
+     * Pin a source, so it remains available until the returned registration is closed.
+     *
+     * @param sourceIdentifier Source identifier
+     * @return A registration, which needs to be closed to release the pin, or empty if the source is not present
+     */
+    public synchronized Optional<Registration> pin(final SourceIdentifier sourceIdentifier) {
+        final PinnedSource existing = pinned.get(sourceIdentifier);
+        if (existing != null) {
+            existing.count++;
+        } else {
+            final T source = cache.asMap().get(sourceIdentifier);
+            if (source == null) {
+                return Optional.empty();
+            }
+            pinned.put(sourceIdentifier, new PinnedSource(source));
+        }
+
+        return Optional.of(new AbstractRegistration() {
+            @Override
+            protected void removeRegistration() {
+                unpin(sourceIdentifier);
+            }
+        });
+    }
+
+    /**
+     * Pin all sources of modules and submodules present in a {@link SchemaContext}. The pins are released when the
+     * returned registration is closed or when the SchemaContext becomes unreachable, whichever happens first. Sources
+     * which are not present in this cache cannot be pinned, they are logged and reported via
+     * {@link ContextRegistration#getUnpinnedSources()}.
+     *
+     * @param context SchemaContext
+     * @return A registration covering all pinned sources
+     */
+    public ContextRegistration pin(final SchemaContext context) {
+        final List<Registration> pins = new ArrayList<>();
+        final List<SourceIdentifier> unpinned = new ArrayList<>();
+        for (Module module : context.getModules()) {
+            pinModule(module, pins, unpinned);
+            for (Module submodule : module.getSubmodules()) {
+                pinModule(submodule, pins, unpinned);
+            }
+        }
+
+        if (!unpinned.isEmpty()) {
+            LOG.warn("Sources {} are not present in cache, they will not be pinned", unpinned);
+        }
+        return new ContextRegistration(context, pins, unpinned);
+    }
+
+    /**
+     * Return statistics of this cache. Hits and misses are counted for lookups of sources retained by the cache
+     * itself, lookups satisfied from pinned sources which have been evicted are counted as misses. Evictions selected
+     * by a {@link SchemaSourceEvictionPolicy} are not counted as evictions.
+     *
+     * @return Cache statistics
+     */
+    public CacheStats getStatistics() {
+        return cache.stats();
+    }
+
     @Override
-    protected void offer(final T source) {
-        final T present = cache.getIfPresent(source.getIdentifier());
-        if (present == null) {
-            cache.put(source.getIdentifier(), source);
+    protected synchronized void offer(final T source) {
+        final SourceIdentifier sourceIdentifier = source.getIdentifier();
+        if (cache.asMap().containsKey(sourceIdentifier)) {
+            return;
+        }
 
-            final SchemaSourceRegistration<T> reg = register(source.getIdentifier());
-            final FinalizablePhantomReference<T> ref = new FinalizablePhantomReference<T>(source, queue) {
-                @Override
-                public void finalizeReferent() {
-                    reg.close();
-                    regs.remove(this);
+        // Make room before adding the source, so the policy never selects it before it has had a chance to be used
+        if (policy != null) {
+            while (cache.size() >= maximumSize) {
+                final SourceIdentifier victim = policy.selectVictim();
+                if (victim == null) {
+                    break;
                 }
-            };
+                cache.invalidate(victim);
+            }
+        }
+
+        // The source may still be registered if it has been evicted while pinned
+        final SchemaSourceRegistration<T> reg = registrations.computeIfAbsent(sourceIdentifier, this::register);
+        refs.add(new FinalizablePhantomReference<T>(source, queue) {
+            @Override
+            public void finalizeReferent() {
+                sourceCollected(sourceIdentifier, reg);
+                refs.remove(this);
+            }
+        });
 
-            regs.add(ref);
+        cache.put(sourceIdentifier, source);
+        if (policy != null) {
+            policy.sourceAdded(sourceIdentifier);
         }
     }
 
     @Override
     public void close() {
-        while (!regs.isEmpty()) {
-            final FinalizablePhantomReference<?> ref = regs.get(0);
+        for (FinalizablePhantomReference<?> ref : refs) {
             ref.finalizeReferent();
         }
 
         cache.invalidateAll();
+        synchronized (this) {
+            pinned.clear();
+            registrations.values().forEach(SchemaSourceRegistration::close);
+            registrations.clear();
+        }
         queue.close();
     }
+
+    private void pinModule(final Module module, final List<Registration> pins,
+            final List<SourceIdentifier> unpinned) {
+        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create(module.getName(),
+            module.getRevision());
+        final Optional<Registration> pin = pin(sourceIdentifier);
+        if (pin.isPresent()) {
+            pins.add(pin.get());
+        } else {
+            unpinned.add(sourceIdentifier);
+        }
+    }
+
+    private synchronized void unpin(final SourceIdentifier sourceIdentifier) {
+        final PinnedSource pin = pinned.get(sourceIdentifier);
+        if (pin != null && --pin.count == 0) {
+            pinned.remove(sourceIdentifier);
+            unregisterIfAbsent(sourceIdentifier);
+        }
+    }
+
+    private synchronized void sourceRemoved(final RemovalNotification<SourceIdentifier, T> notification) {
+        final SourceIdentifier sourceIdentifier = notification.getKey();
+        if (sourceIdentifier != null) {
+            if (policy != null) {
+                policy.sourceRemoved(sourceIdentifier);
+            }
+            if (!pinned.containsKey(sourceIdentifier)) {
+                unregisterIfAbsent(sourceIdentifier);
+            }
+        }
+    }
+
+    private synchronized void sourceCollected(final SourceIdentifier sourceIdentifier,
+            final SchemaSourceRegistration<T> reg) {
+        if (registrations.get(sourceIdentifier) == reg && !pinned.containsKey(sourceIdentifier)) {
+            unregisterIfAbsent(sourceIdentifier);
+        }
+    }
+
+    @GuardedBy("this")
+    private void unregisterIfAbsent(final SourceIdentifier sourceIdentifier) {
+        // Notifications may be delivered after the source has been offered again, in which case it has to stay
+        if (!cache.asMap().containsKey(sourceIdentifier)) {
+            final SchemaSourceRegistration<T> reg = registrations.remove(sourceIdentifier);
+            if (reg != null) {
+                reg.close();
+            }
+        }
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.repo.util;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+
+/**
+ * A {@link SchemaSourceEvictionPolicy} evicting the least frequently used source. Sources are kept ordered by their
+ * access count and insertion order, so that all operations complete in logarithmic time.
+ */
+@ThreadSafe
+final class LeastFrequentlyUsedPolicy implements SchemaSourceEvictionPolicy {
+    private static final class Entry {
+        final SourceIdentifier sourceIdentifier;
+        final long sequence;
+        long frequency;
+
+        Entry(final SourceIdentifier sourceIdentifier, final long sequence) {
+            this.sourceIdentifier = requireNonNull(sourceIdentifier);
+            this.sequence = sequence;
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingLong(entry -> entry.frequency)
+            .thenComparingLong(entry -> entry.sequence);
+
+    @GuardedBy("this")
+    private final Map<SourceIdentifier, Entry> entries = new HashMap<>();
+    @GuardedBy("this")
+    private final NavigableSet<Entry> order = new TreeSet<>(ORDER);
+    @GuardedBy("this")
+    private long sequence;
+
+    @Override
+    public synchronized void sourceAdded(final SourceIdentifier sourceIdentifier) {
+        if (!entries.containsKey(sourceIdentifier)) {
+            final Entry entry = new Entry(sourceIdentifier, sequence++);
+            entries.put(sourceIdentifier, entry);
+            order.add(entry);
+        }
+    }
+
+    @Override
+    public synchronized void sourceAccessed(final SourceIdentifier sourceIdentifier) {
+        final Entry entry = entries.get(sourceIdentifier);
+        if (entry != null) {
+            // Entry has to be re-inserted, as its position depends on frequency
+            order.remove(entry);
+            entry.frequency++;
+            order.add(entry);
+        }
+    }
+
+    @Override
+    public synchronized void sourceRemoved(final SourceIdentifier sourceIdentifier) {
+        final Entry entry = entries.remove(sourceIdentifier);
+        if (entry != null) {
+            order.remove(entry);
+        }
+    }
+
+    @Override
+    public synchronized SourceIdentifier selectVictim() {
+        final Entry entry = order.pollFirst();
+        if (entry == null) {
+            return null;
+        }
+        entries.remove(entry.sourceIdentifier);
+        return entry.sourceIdentifier;
+    }
+}
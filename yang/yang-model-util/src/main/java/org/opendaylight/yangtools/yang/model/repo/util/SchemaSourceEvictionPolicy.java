@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.repo.util;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+
+/**
+ * Policy selecting which source should be evicted from a size-bounded {@link InMemorySchemaSourceCache}. The cache
+ * reports all sources it holds and all accesses to them, and asks the policy for a victim whenever it exceeds its
+ * maximum size. Implementations are required to be thread-safe, as accesses are reported concurrently.
+ */
+@Beta
+public interface SchemaSourceEvictionPolicy {
+    /**
+     * Invoked when a source is added to the cache.
+     *
+     * @param sourceIdentifier Source identifier
+     */
+    void sourceAdded(SourceIdentifier sourceIdentifier);
+
+    /**
+     * Invoked when a source held by the cache is looked up.
+     *
+     * @param sourceIdentifier Source identifier
+     */
+    void sourceAccessed(SourceIdentifier sourceIdentifier);
+
+    /**
+     * Invoked when a source is removed from the cache for any reason other than being selected by
+     * {@link #selectVictim()}. Implementations should ignore sources they do not track.
+     *
+     * @param sourceIdentifier Source identifier
+     */
+    void sourceRemoved(SourceIdentifier sourceIdentifier);
+
+    /**
+     * Select a source to evict and stop tracking it.
+     *
+     * @return Source to evict, or null if no source is tracked
+     */
+    @Nullable SourceIdentifier selectVictim();
+
+    /**
+     * Return a policy which evicts the least frequently used source. Ties are broken by evicting the source which
+     * has been added first.
+     *
+     * @return A new least-frequently-used policy
+     */
+    static SchemaSourceEvictionPolicy leastFrequentlyUsed() {
+        return new LeastFrequentlyUsedPolicy();
+    }
+}
@@ -11,6 +11,7 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.ImmutableRangeSet;
 import com.google.common.collect.RangeSet;
+import java.util.Objects;
 import java.util.Optional;
 import org.opendaylight.yangtools.yang.model.api.ConstraintMetaDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.LengthConstraint;
@@ -48,4 +49,23 @@ final class ResolvedLengthConstraint implements LengthConstraint {
     public RangeSet<Integer> getAllowedRanges() {
         return ranges;
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getDescription(), getErrorAppTag(), getErrorMessage(), getReference(), ranges);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ResolvedLengthConstraint)) {
+            return false;
+        }
+        final ResolvedLengthConstraint other = (ResolvedLengthConstraint) obj;
+        return ranges.equals(other.ranges) && getDescription().equals(other.getDescription())
+                && getErrorAppTag().equals(other.getErrorAppTag())
+                && getErrorMessage().equals(other.getErrorMessage()) && getReference().equals(other.getReference());
+    }
 }
@@ -11,6 +11,7 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.ImmutableRangeSet;
 import com.google.common.collect.RangeSet;
+import java.util.Objects;
 import java.util.Optional;
 import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.yang.model.api.ConstraintMetaDefinition;
@@ -49,4 +50,23 @@ final class ResolvedRangeConstraint<T extends Number & Comparable<T>> implements
     public RangeSet<T> getAllowedRanges() {
         return ranges;
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getDescription(), getErrorAppTag(), getErrorMessage(), getReference(), ranges);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ResolvedRangeConstraint)) {
+            return false;
+        }
+        final ResolvedRangeConstraint<?> other = (ResolvedRangeConstraint<?>) obj;
+        return ranges.equals(other.ranges) && getDescription().equals(other.getDescription())
+                && getErrorAppTag().equals(other.getErrorAppTag())
+                && getErrorMessage().equals(other.getErrorMessage()) && getReference().equals(other.getReference());
+    }
 }
@@ -143,48 +143,35 @@ public class FilesystemSchemaSourceCacheTest {
             any(PotentialSchemaSource.class));
     }
 
-    @Test
-    public void sourceIdToFileEmptyRevWithEmptyDir() {
-        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test");
-        final File sourceIdToFile = FilesystemSchemaSourceCache.sourceIdToFile(sourceIdentifier, this.storageDir);
+    @Test(expected = ExecutionException.class)
+    public void getSourceEmptyRevWithEmptyDir() throws Exception {
         final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
-                YangTextSchemaSource.class, sourceIdToFile);
-        Assert.assertNotNull(cache);
-        final List<File> storedFiles = Arrays.asList(sourceIdToFile.listFiles());
-        assertEquals(0, storedFiles.size());
+                YangTextSchemaSource.class, this.storageDir);
+        assertEquals(0, getFilesFromCache().size());
+        cache.getSource(RevisionSourceIdentifier.create("test")).get();
     }
 
     @Test
-    public void sourceIdToFileEmptyRevWithOneItemInDir() {
+    public void getSourceEmptyRevWithOneItemInDir() throws Exception {
         final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
                 YangTextSchemaSource.class, this.storageDir);
-        final String content = "content1";
-        final YangTextSchemaSource source = new TestingYangSource("test", "2013-12-12", content);
-        cache.offer(source);
+        cache.offer(new TestingYangSource("test", "2013-12-12", "content1"));
 
-        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test");
-        final File sourceIdToFile = FilesystemSchemaSourceCache.sourceIdToFile(sourceIdentifier,
-                this.storageDir);
-        Assert.assertNotNull(sourceIdToFile);
-        final List<File> storedFiles = Arrays.asList(this.storageDir.listFiles());
-        assertEquals(1, storedFiles.size());
+        final YangTextSchemaSource source = cache.getSource(RevisionSourceIdentifier.create("test")).get();
+        assertEquals("content1", source.asCharSource(StandardCharsets.UTF_8).read());
+        assertEquals(1, getFilesFromCache().size());
     }
 
     @Test
-    public void sourceIdToFileEmptyRevWithMoreItemsInDir() {
+    public void getSourceEmptyRevWithMoreItemsInDir() throws Exception {
         final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
                 YangTextSchemaSource.class, this.storageDir);
-        final String content = "content1";
-        final YangTextSchemaSource source = new TestingYangSource("test", "2012-12-12", content);
-        final YangTextSchemaSource source2 = new TestingYangSource("test", "2013-12-12", content);
-        cache.offer(source);
-        cache.offer(source2);
+        cache.offer(new TestingYangSource("test", "2012-12-12", "content1"));
+        cache.offer(new TestingYangSource("test", "2013-12-12", "content2"));
 
-        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test");
-        final File sourceIdToFile = FilesystemSchemaSourceCache.sourceIdToFile(sourceIdentifier, this.storageDir);
-        Assert.assertNotNull(sourceIdToFile);
-        final List<File> storedFiles = Arrays.asList(this.storageDir.listFiles());
-        assertEquals(2, storedFiles.size());
+        final YangTextSchemaSource source = cache.getSource(RevisionSourceIdentifier.create("test")).get();
+        assertEquals("content2", source.asCharSource(StandardCharsets.UTF_8).read());
+        assertEquals(2, getFilesFromCache().size());
     }
 
     @Test
@@ -203,6 +190,24 @@ public class FilesystemSchemaSourceCacheTest {
         Assert.assertTrue(checked.isDone());
     }
 
+    @Test
+    public void testGetSourceFromRestoredCache() throws Exception {
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir);
+        cache.offer(new TestingYangSource("test", "2012-12-12", "content1"));
+        cache.offer(new TestingYangSource("test", "2013-12-12", "content2"));
+
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> restored = new FilesystemSchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, this.storageDir);
+        final YangTextSchemaSource exact = restored.getSource(
+            RevisionSourceIdentifier.create("test", Revision.of("2012-12-12"))).get();
+        assertEquals("content1", exact.asCharSource(StandardCharsets.UTF_8).read());
+
+        // No revision resolves to the newest revision
+        final YangTextSchemaSource newest = restored.getSource(RevisionSourceIdentifier.create("test")).get();
+        assertEquals("content2", newest.asCharSource(StandardCharsets.UTF_8).read());
+    }
+
     @Test(expected = ExecutionException.class)
     public void test1() throws Exception {
 
@@ -9,13 +9,19 @@ package org.opendaylight.yangtools.yang.model.repo.util;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
@@ -24,7 +30,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.yangtools.concepts.Registration;
 import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
@@ -34,6 +44,7 @@ import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceProvider;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
+import org.opendaylight.yangtools.yang.model.repo.util.InMemorySchemaSourceCache.ContextRegistration;
 
 @RunWith(MockitoJUnitRunner.class)
 public class InMemorySchemaSourceCacheTest {
@@ -123,6 +134,121 @@ public class InMemorySchemaSourceCacheTest {
         inMemorySchemaSourceCache2.close();
     }
 
+    @Test
+    public void inMemorySchemaSourceCacheBoundedTest() throws Exception {
+        final InMemorySchemaSourceCache<YangSchemaSourceRepresentation> inMemorySchemaSourceCache =
+            InMemorySchemaSourceCache.createBoundedCache(this.registry, REPRESENTATION, 1);
+
+        final YangTextSchemaSource source = new TestingYangSource("test", "2012-12-12", "content");
+        final SourceIdentifier sourceIdentifier = source.getIdentifier();
+        inMemorySchemaSourceCache.offer(source);
+        Assert.assertSame(source, inMemorySchemaSourceCache.getSource(sourceIdentifier).get());
+
+        // Evicts the first source, which should be unregistered
+        inMemorySchemaSourceCache.offer(new TestingYangSource("test2", "2012-12-12", "content"));
+        verify(this.registration).close();
+        try {
+            inMemorySchemaSourceCache.getSource(sourceIdentifier).get();
+            Assert.fail("Evicted source should not be available");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof MissingSchemaSourceException);
+        }
+
+        Assert.assertEquals(1, inMemorySchemaSourceCache.getStatistics().hitCount());
+        Assert.assertEquals(1, inMemorySchemaSourceCache.getStatistics().evictionCount());
+        inMemorySchemaSourceCache.close();
+    }
+
+    @Test
+    public void inMemorySchemaSourceCacheLeastFrequentlyUsedTest() throws Exception {
+        final InMemorySchemaSourceCache<YangSchemaSourceRepresentation> inMemorySchemaSourceCache =
+            InMemorySchemaSourceCache.createBoundedCache(this.registry, REPRESENTATION, 2,
+                SchemaSourceEvictionPolicy.leastFrequentlyUsed());
+
+        final YangTextSchemaSource frequent = new TestingYangSource("frequent", "2012-12-12", "content");
+        final YangTextSchemaSource rare = new TestingYangSource("rare", "2012-12-12", "content");
+        inMemorySchemaSourceCache.offer(frequent);
+        inMemorySchemaSourceCache.offer(rare);
+        for (int i = 0; i < 3; ++i) {
+            inMemorySchemaSourceCache.getSource(frequent.getIdentifier()).get();
+        }
+        inMemorySchemaSourceCache.getSource(rare.getIdentifier()).get();
+
+        // Evicts the less frequently used source, even though it has been used most recently
+        final YangTextSchemaSource third = new TestingYangSource("third", "2012-12-12", "content");
+        inMemorySchemaSourceCache.offer(third);
+        verify(this.registration).close();
+        Assert.assertSame(frequent, inMemorySchemaSourceCache.getSource(frequent.getIdentifier()).get());
+        Assert.assertSame(third, inMemorySchemaSourceCache.getSource(third.getIdentifier()).get());
+        try {
+            inMemorySchemaSourceCache.getSource(rare.getIdentifier()).get();
+            Assert.fail("Evicted source should not be available");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof MissingSchemaSourceException);
+        }
+        inMemorySchemaSourceCache.close();
+    }
+
+    @Test
+    public void inMemorySchemaSourceCachePinTest() throws Exception {
+        final InMemorySchemaSourceCache<YangSchemaSourceRepresentation> inMemorySchemaSourceCache =
+            InMemorySchemaSourceCache.createBoundedCache(this.registry, REPRESENTATION, 15,
+                (id, src) -> id.getName().length());
+
+        final YangTextSchemaSource source = new TestingYangSource("test", "2012-12-12", "content");
+        final SourceIdentifier sourceIdentifier = source.getIdentifier();
+        Assert.assertFalse(inMemorySchemaSourceCache.pin(sourceIdentifier).isPresent());
+
+        inMemorySchemaSourceCache.offer(source);
+        final Optional<Registration> pin = inMemorySchemaSourceCache.pin(sourceIdentifier);
+        Assert.assertTrue(pin.isPresent());
+
+        // Evicts the first source, but it is pinned
+        inMemorySchemaSourceCache.offer(new TestingYangSource("testtesttest", "2012-12-12", "content"));
+        verify(this.registration, never()).close();
+        Assert.assertSame(source, inMemorySchemaSourceCache.getSource(sourceIdentifier).get());
+
+        pin.get().close();
+        verify(this.registration).close();
+        inMemorySchemaSourceCache.close();
+    }
+
+    @Test
+    public void inMemorySchemaSourceCacheContextPinTest() throws Exception {
+        final InMemorySchemaSourceCache<YangSchemaSourceRepresentation> inMemorySchemaSourceCache =
+            InMemorySchemaSourceCache.createBoundedCache(this.registry, REPRESENTATION, 15,
+                (id, src) -> id.getName().length());
+
+        final YangTextSchemaSource source = new TestingYangSource("test", "2012-12-12", "content");
+        inMemorySchemaSourceCache.offer(source);
+
+        final SchemaContext context = mock(SchemaContext.class);
+        final Module cached = mockModule("test", "2012-12-12");
+        final Module missing = mockModule("missing", "2012-12-12");
+        doReturn(ImmutableSet.of(cached, missing)).when(context).getModules();
+
+        final ContextRegistration pin = inMemorySchemaSourceCache.pin(context);
+        Assert.assertEquals(ImmutableList.of(RevisionSourceIdentifier.create("missing", Revision.of("2012-12-12"))),
+            pin.getUnpinnedSources());
+
+        // Evicts the first source, but it is pinned by the context
+        inMemorySchemaSourceCache.offer(new TestingYangSource("testtesttest", "2012-12-12", "content"));
+        verify(this.registration, never()).close();
+        Assert.assertSame(source, inMemorySchemaSourceCache.getSource(source.getIdentifier()).get());
+
+        pin.close();
+        verify(this.registration).close();
+        inMemorySchemaSourceCache.close();
+    }
+
+    private static Module mockModule(final String name, final String revision) {
+        final Module module = mock(Module.class);
+        doReturn(name).when(module).getName();
+        doReturn(Revision.ofNullable(revision)).when(module).getRevision();
+        doReturn(ImmutableSet.of()).when(module).getSubmodules();
+        return module;
+    }
+
     private class TestingYangSource extends YangTextSchemaSource {
 
         private final String content;
@@ -13,6 +13,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.AsyncFunction;
@@ -20,6 +21,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -27,6 +29,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nonnull;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
@@ -51,10 +55,8 @@ import org.slf4j.LoggerFactory;
 final class SharedSchemaContextFactory implements SchemaContextFactory {
     private static final Logger LOG = LoggerFactory.getLogger(SharedSchemaContextFactory.class);
 
-    private final Cache<Collection<SourceIdentifier>, SchemaContext> revisionCache = CacheBuilder.newBuilder()
-            .weakValues().build();
-    private final Cache<Collection<SourceIdentifier>, SchemaContext> semVerCache = CacheBuilder.newBuilder()
-            .weakValues().build();
+    private final ContextCache revisionCache = new ContextCache();
+    private final ContextCache semVerCache = new ContextCache();
     private final SchemaRepository repository;
     private final SchemaContextFactoryConfiguration config;
 
@@ -90,17 +92,34 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
     }
 
     private ListenableFuture<SchemaContext> createSchemaContext(final Collection<SourceIdentifier> requiredSources,
-            final Cache<Collection<SourceIdentifier>, SchemaContext> cache,
-            final AsyncFunction<List<ASTSchemaSource>, SchemaContext> assembleSources) {
+            final ContextCache cache, final AsyncFunction<List<ASTSchemaSource>, SchemaContext> assembleSources) {
         // Make sources unique
         final List<SourceIdentifier> uniqueSourceIdentifiers = deDuplicateSources(requiredSources);
 
-        final SchemaContext existing = cache.getIfPresent(uniqueSourceIdentifiers);
+        // The resulting context does not depend on the order in which sources are requested
+        final Set<SourceIdentifier> key = ImmutableSet.copyOf(uniqueSourceIdentifiers);
+        final SchemaContext existing = cache.contexts.getIfPresent(key);
         if (existing != null) {
             LOG.debug("Returning cached context {}", existing);
             return Futures.immediateFuture(existing);
         }
 
+        // Coalesce concurrent requests for the same set of sources, so the reactor is run only once
+        final SettableFuture<SchemaContext> future = SettableFuture.create();
+        final ListenableFuture<SchemaContext> inflight = cache.inflight.putIfAbsent(key, future);
+        if (inflight != null) {
+            LOG.debug("Returning in-progress context for {}", key);
+            return Futures.nonCancellationPropagating(inflight);
+        }
+
+        // A concurrent assembly may have completed between the lookup and registration
+        final SchemaContext raced = cache.contexts.getIfPresent(key);
+        if (raced != null) {
+            cache.inflight.remove(key, future);
+            future.set(raced);
+            return future;
+        }
+
         // Request all sources be loaded
         ListenableFuture<List<ASTSchemaSource>> sf = Futures.allAsList(Collections2.transform(uniqueSourceIdentifiers,
             this::requestSource));
@@ -115,20 +134,25 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
         final ListenableFuture<SchemaContext> cf = Futures.transformAsync(sf, assembleSources,
             MoreExecutors.directExecutor());
 
-        // Populate cache when successful
+        // Populate cache when successful, making sure the result is visible before the in-flight future goes away
         Futures.addCallback(cf, new FutureCallback<SchemaContext>() {
             @Override
             public void onSuccess(final SchemaContext result) {
-                cache.put(uniqueSourceIdentifiers, result);
+                cache.contexts.put(key, result);
+                cache.inflight.remove(key, future);
+                future.set(result);
             }
 
             @Override
             public void onFailure(@Nonnull final Throwable cause) {
                 LOG.debug("Failed to assemble sources", cause);
+                cache.inflight.remove(key, future);
+                future.setException(cause);
             }
         }, MoreExecutors.directExecutor());
 
-        return cf;
+        // The assembly is shared with concurrent requests, hence a caller must not be able to cancel it
+        return Futures.nonCancellationPropagating(future);
     }
 
     private ListenableFuture<ASTSchemaSource> requestSource(final SourceIdentifier identifier) {
@@ -245,4 +269,13 @@ final class SharedSchemaContextFactory implements SchemaContextFactory {
             return Futures.immediateFuture(schemaContext);
         }
     }
+
+    /**
+     * Assembled contexts, keyed by the set of sources they were built from, and assemblies which are in progress.
+     */
+    private static final class ContextCache {
+        final Cache<Set<SourceIdentifier>, SchemaContext> contexts = CacheBuilder.newBuilder().weakValues().build();
+        final ConcurrentMap<Set<SourceIdentifier>, ListenableFuture<SchemaContext>> inflight =
+                new ConcurrentHashMap<>();
+    }
 }
@@ -97,8 +97,23 @@ public final class YangTextSchemaContextResolver implements AutoCloseable, Schem
     public YangTextSchemaSourceRegistration registerSource(@Nonnull final YangTextSchemaSource source)
             throws SchemaSourceException, IOException, YangSyntaxErrorException {
         checkArgument(source != null);
+        return registerSource(source, TextToASTTransformer.transformText(source));
+    }
 
-        final ASTSchemaSource ast = TextToASTTransformer.transformText(source);
+    /**
+     * Register a {@link YangTextSchemaSource} along with its already-parsed AST representation. This allows callers
+     * which maintain their own cache of parsed sources to avoid parsing unchanged text again. The caller is
+     * responsible for ensuring the AST corresponds to the text.
+     *
+     * @param source YANG text source
+     * @param ast AST representation of the source
+     * @return a YangTextSchemaSourceRegistration
+     */
+    @Beta
+    public YangTextSchemaSourceRegistration registerSource(@Nonnull final YangTextSchemaSource source,
+            @Nonnull final ASTSchemaSource ast) {
+        checkArgument(source != null);
+        checkArgument(ast != null);
         LOG.trace("Resolved source {} to source {}", source, ast);
 
         // AST carries an accurate identifier, check if it matches the one supplied by the source. If it
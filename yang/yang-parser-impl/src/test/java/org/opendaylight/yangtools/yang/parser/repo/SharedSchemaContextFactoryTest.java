@@ -7,7 +7,10 @@
  */
 package org.opendaylight.yangtools.yang.parser.repo;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -64,6 +67,41 @@ public class SharedSchemaContextFactoryTest {
         assertNotNull(schemaContext.get());
     }
 
+    @Test
+    public void testCreateSchemaContextReusesContext() throws InterruptedException, ExecutionException {
+        final SharedSchemaContextFactory sharedSchemaContextFactory = new SharedSchemaContextFactory(repository,
+            filter);
+        final SchemaContext first = sharedSchemaContextFactory.createSchemaContext(Arrays.asList(s1, s2)).get();
+        assertNotNull(first);
+
+        // Order of sources must not matter
+        assertSame(first, sharedSchemaContextFactory.createSchemaContext(Arrays.asList(s2, s1)).get());
+        assertSame(first, sharedSchemaContextFactory.createSchemaContext(Arrays.asList(s2, s1, s2)).get());
+    }
+
+    @Test
+    public void testCancelDoesNotAffectCoalescedRequest() throws Exception {
+        final SettableSchemaProvider<ASTSchemaSource> provider =
+                SharedSchemaRepositoryTest.getImmediateYangSourceProviderFromResource(
+                    "/ietf/ietf-inet-types@2010-09-24.yang");
+        provider.register(repository);
+
+        final SharedSchemaContextFactory sharedSchemaContextFactory = new SharedSchemaContextFactory(repository,
+            filter);
+        final ListenableFuture<SchemaContext> first =
+                sharedSchemaContextFactory.createSchemaContext(Arrays.asList(provider.getId()));
+        final ListenableFuture<SchemaContext> second =
+                sharedSchemaContextFactory.createSchemaContext(Arrays.asList(provider.getId()));
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+
+        // Cancelling one request must not cancel the assembly shared with the other
+        assertTrue(first.cancel(true));
+        provider.setResult();
+        assertNotNull(second.get());
+        assertSame(second.get(), sharedSchemaContextFactory.createSchemaContext(Arrays.asList(provider.getId())).get());
+    }
+
     @Test
     public void testSourceRegisteredWithDifferentSI() throws Exception {
         final YangTextSchemaSource source1 = YangTextSchemaSource.forResource("/ietf/ietf-inet-types@2010-09-24.yang");
@@ -10,10 +10,14 @@ package org.opendaylight.yangtools.yang.parser.rfc7950.repo;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.Beta;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
@@ -77,6 +81,37 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
         return new ASTSchemaSource(id, semVerId, tree, depInfo, symbolicName);
     }
 
+    /**
+     * Read an AST representation previously written by {@link #writeTo(DataOutput)}. Dependency information is
+     * re-extracted from the tree, hence the result is equivalent to parsing the original text again.
+     *
+     * @param identifier SourceIdentifier of YANG schema source.
+     * @param symbolicName Symbolic name
+     * @param in Data input
+     * @return A new representation instance.
+     * @throws IOException if the input cannot be read or is not a serialized AST
+     * @throws YangSyntaxErrorException if we fail to extract dependency information.
+     */
+    public static ASTSchemaSource readFrom(@Nonnull final SourceIdentifier identifier,
+            @Nullable final String symbolicName, @Nonnull final DataInput in)
+                    throws IOException, YangSyntaxErrorException {
+        return create(identifier, symbolicName, StatementContextSerializer.read(in));
+    }
+
+    /**
+     * Write this representation in a compact binary form, which can be read back by
+     * {@link #readFrom(SourceIdentifier, String, DataInput)}.
+     *
+     * @param out Data output
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if the underlying tree has not been produced by the YANG statement parser
+     */
+    public void writeTo(@Nonnull final DataOutput out) throws IOException {
+        if (!(tree instanceof StatementContext)) {
+            throw new IllegalStateException("Unsupported tree " + tree.getClass());
+        }
+        StatementContextSerializer.write((StatementContext) tree, out);
+    }
 
     @Override
     public SourceIdentifier getIdentifier() {
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.rfc7950.repo;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.hash.Hashing;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A directory holding snapshots of parsed sources, keyed by the SHA-256 of their text. A snapshot is used only if
+ * the text it has been produced from is identical to the text being transformed, hence stale snapshots are never
+ * used. Snapshots are written atomically, so concurrent users of the same directory observe either a complete
+ * snapshot or none at all.
+ */
+@ThreadSafe
+final class ASTSnapshotDirectory {
+    private static final Logger LOG = LoggerFactory.getLogger(ASTSnapshotDirectory.class);
+    private static final String SUFFIX = ".ast";
+
+    private final Path directory;
+
+    ASTSnapshotDirectory(final Path directory) {
+        this.directory = requireNonNull(directory);
+    }
+
+    ASTSchemaSource transform(final YangTextSchemaSource text) throws IOException, SchemaSourceException,
+            YangSyntaxErrorException {
+        final Path file = directory.resolve(text.hash(Hashing.sha256()) + SUFFIX);
+        if (Files.isRegularFile(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                final ASTSchemaSource ast = ASTSchemaSource.readFrom(text.getIdentifier(),
+                    text.getSymbolicName().orElse(null), in);
+                LOG.trace("Model {} loaded from snapshot {}", text, file);
+                return ast;
+            } catch (IOException | YangSyntaxErrorException e) {
+                LOG.debug("Failed to load snapshot {} of {}, parsing it again", file, text, e);
+            }
+        }
+
+        final ASTSchemaSource ast = TextToASTTransformer.transformText(text);
+        try {
+            Files.createDirectories(directory);
+            final Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(tmp)))) {
+                    ast.writeTo(out);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            LOG.debug("Failed to write snapshot {} of {}", file, text, e);
+        }
+        return ast;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("directory", directory).toString();
+    }
+}
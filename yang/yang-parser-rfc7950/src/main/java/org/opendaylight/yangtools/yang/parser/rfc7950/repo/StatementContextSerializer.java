@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.rfc7950.repo;
+
+import com.google.common.collect.ImmutableList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.ArgumentContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.KeywordContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+
+/**
+ * Compact binary form of a YANG statement tree, as produced by {@link YangStatementParser}. Only the parts of the tree
+ * consumed by {@link YangStatementParserListenerImpl} and {@link YangModelDependencyInfo} are retained: statement
+ * positions, keyword text, argument tokens and substatements. Separators, braces and semicolons are not written.
+ * Keywords are written only once and referenced by index afterwards.
+ */
+final class StatementContextSerializer {
+    private static final int MAGIC = 0x59414E47;
+    private static final int VERSION = 1;
+
+    private static final byte ARGUMENT_NONE = 0;
+    private static final byte ARGUMENT_IDENTIFIER = 1;
+    private static final byte ARGUMENT_STRINGS = 2;
+
+    private StatementContextSerializer() {
+        throw new UnsupportedOperationException();
+    }
+
+    static void write(final StatementContext root, final DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeStatement(root, out, new HashMap<>());
+    }
+
+    static StatementContext read(final DataInput in) throws IOException {
+        final int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException(String.format("Unexpected magic %08x", magic));
+        }
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version);
+        }
+        return readStatement(null, in, new ArrayList<>());
+    }
+
+    private static void writeStatement(final StatementContext stmt, final DataOutput out,
+            final Map<String, Integer> keywords) throws IOException {
+        out.writeInt(stmt.getStart().getLine());
+        out.writeInt(stmt.getStart().getCharPositionInLine());
+
+        final String keyword = stmt.keyword().getText();
+        final Integer index = keywords.get(keyword);
+        if (index != null) {
+            out.writeInt(index);
+        } else {
+            out.writeInt(-1);
+            writeString(keyword, out);
+            keywords.put(keyword, keywords.size());
+        }
+
+        final ArgumentContext argument = stmt.argument();
+        if (argument == null) {
+            out.writeByte(ARGUMENT_NONE);
+        } else {
+            final List<TerminalNode> strings = argument.STRING();
+            if (strings.isEmpty()) {
+                out.writeByte(ARGUMENT_IDENTIFIER);
+                writeString(argument.IDENTIFIER().getText(), out);
+            } else {
+                out.writeByte(ARGUMENT_STRINGS);
+                out.writeInt(strings.size());
+                for (TerminalNode string : strings) {
+                    writeString(string.getText(), out);
+                }
+            }
+        }
+
+        final List<StatementContext> substatements = stmt.statement();
+        out.writeInt(substatements.size());
+        for (StatementContext substatement : substatements) {
+            writeStatement(substatement, out, keywords);
+        }
+    }
+
+    private static StatementContext readStatement(final ParserRuleContext parent, final DataInput in,
+            final List<String> keywords) throws IOException {
+        final StatementContext stmt = new StatementContext(parent, 0);
+        final CommonToken start = new CommonToken(YangStatementParser.IDENTIFIER);
+        start.setLine(in.readInt());
+        start.setCharPositionInLine(in.readInt());
+        stmt.start = start;
+
+        final int index = in.readInt();
+        final String keyword;
+        if (index == -1) {
+            keyword = readString(in);
+            keywords.add(keyword);
+        } else if (index >= 0 && index < keywords.size()) {
+            keyword = keywords.get(index);
+        } else {
+            throw new IOException("Invalid keyword index " + index);
+        }
+
+        // Keywords are lexed as a single identifier token, even if they are prefixed
+        final KeywordContext keywordCtx = new KeywordContext(stmt, 0);
+        keywordCtx.start = start;
+        keywordCtx.addChild(terminal(YangStatementParser.IDENTIFIER, keyword));
+        finish(keywordCtx);
+        stmt.addChild(keywordCtx);
+
+        final byte argumentType = in.readByte();
+        switch (argumentType) {
+            case ARGUMENT_NONE:
+                break;
+            case ARGUMENT_IDENTIFIER:
+                stmt.addChild(argument(stmt, YangStatementParser.IDENTIFIER, readString(in)));
+                break;
+            case ARGUMENT_STRINGS:
+                final int count = in.readInt();
+                if (count < 1) {
+                    throw new IOException("Invalid argument string count " + count);
+                }
+                final ArgumentContext argumentCtx = new ArgumentContext(stmt, 0);
+                for (int i = 0; i < count; ++i) {
+                    argumentCtx.addChild(terminal(YangStatementParser.STRING, readString(in)));
+                }
+                finish(argumentCtx);
+                stmt.addChild(argumentCtx);
+                break;
+            default:
+                throw new IOException("Invalid argument type " + argumentType);
+        }
+
+        final int substatements = in.readInt();
+        if (substatements < 0) {
+            throw new IOException("Invalid substatement count " + substatements);
+        }
+        for (int i = 0; i < substatements; ++i) {
+            stmt.addChild(readStatement(stmt, in, keywords));
+        }
+        finish(stmt);
+        return stmt;
+    }
+
+    private static ArgumentContext argument(final StatementContext parent, final int type, final String text) {
+        final ArgumentContext ret = new ArgumentContext(parent, 0);
+        ret.addChild(terminal(type, text));
+        finish(ret);
+        return ret;
+    }
+
+    private static TerminalNode terminal(final int type, final String text) {
+        return new TerminalNodeImpl(new CommonToken(type, text));
+    }
+
+    // Mirrors what YangStatementStreamSource does to parsed trees
+    private static void finish(final ParserRuleContext ctx) {
+        final List<ParseTree> children = ctx.children;
+        ctx.children = children == null ? ImmutableList.of() : ImmutableList.copyOf(children);
+    }
+
+    private static void writeString(final String str, final DataOutput out) throws IOException {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInput in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -11,6 +11,7 @@ package org.opendaylight.yangtools.yang.parser.rfc7950.repo;
 import com.google.common.annotations.Beta;
 import com.google.common.util.concurrent.Futures;
 import java.io.IOException;
+import java.nio.file.Path;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
@@ -34,10 +35,30 @@ public final class TextToASTTransformer extends SchemaSourceTransformer<YangText
             input -> Futures.immediateFuture(transformText(input)));
     }
 
+    private TextToASTTransformer(final SchemaRepository provider, final SchemaSourceRegistry consumer,
+            final ASTSnapshotDirectory snapshots) {
+        super(provider, YangTextSchemaSource.class, consumer, ASTSchemaSource.class,
+            input -> Futures.immediateFuture(snapshots.transform(input)));
+    }
+
     public static TextToASTTransformer create(final SchemaRepository provider, final SchemaSourceRegistry consumer) {
         return new TextToASTTransformer(provider, consumer);
     }
 
+    /**
+     * Create a transformer which persists parsed sources in a directory and reuses them across restarts. A source is
+     * parsed only if the directory does not hold a snapshot produced from identical text.
+     *
+     * @param provider Schema repository providing text sources
+     * @param consumer Schema source registry receiving AST sources
+     * @param snapshotDirectory Directory holding snapshots, created if it does not exist
+     * @return A new transformer
+     */
+    public static TextToASTTransformer create(final SchemaRepository provider, final SchemaSourceRegistry consumer,
+            final Path snapshotDirectory) {
+        return new TextToASTTransformer(provider, consumer, new ASTSnapshotDirectory(snapshotDirectory));
+    }
+
     public static ASTSchemaSource transformText(final YangTextSchemaSource text) throws SchemaSourceException,
             IOException, YangSyntaxErrorException {
         final YangStatementStreamSource src = YangStatementStreamSource.create(text);
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.rfc7950.repo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc7950.reactor.RFC7950Reactors;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor.BuildAction;
+
+public class ASTSchemaSourceTest {
+    private static final String[] RESOURCES = {
+        "/ietf/ietf-inet-types@2010-09-24.yang",
+        "/ietf/network-topology@2013-10-21.yang",
+        "/semantic-statement-parser/ext-typedef.yang",
+        "/semantic-statement-parser/ext-use.yang",
+    };
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        for (String resource : RESOURCES) {
+            final ASTSchemaSource parsed = TextToASTTransformer.transformText(
+                YangTextSchemaSource.forResource(resource));
+            final byte[] bytes = serialize(parsed);
+            final ASTSchemaSource restored = deserialize(parsed, bytes);
+
+            assertEquals(parsed.getIdentifier(), restored.getIdentifier());
+            assertEquals(parsed.getSemVerIdentifier(), restored.getSemVerIdentifier());
+            assertEquals(parsed.getSymbolicName(), restored.getSymbolicName());
+            assertEquals(parsed.getDependencyInformation(), restored.getDependencyInformation());
+            assertArrayEquals(resource, bytes, serialize(restored));
+        }
+    }
+
+    @Test
+    public void testQuotedStringConcatenation() throws Exception {
+        final ASTSchemaSource parsed = TextToASTTransformer.transformText(
+            YangTextSchemaSource.forResource("/bugs/bug5200/foo.yang"));
+        final byte[] bytes = serialize(parsed);
+        assertArrayEquals(bytes, serialize(deserialize(parsed, bytes)));
+    }
+
+    @Test
+    public void testBuildFromRestored() throws Exception {
+        final List<ASTSchemaSource> parsed = new ArrayList<>();
+        final List<ASTSchemaSource> restored = new ArrayList<>();
+        for (String resource : RESOURCES) {
+            final ASTSchemaSource source = TextToASTTransformer.transformText(
+                YangTextSchemaSource.forResource(resource));
+            parsed.add(source);
+            restored.add(deserialize(source, serialize(source)));
+        }
+
+        final SchemaContext expected = buildEffective(parsed);
+        final SchemaContext actual = buildEffective(restored);
+        assertEquals(expected.getModules().size(), actual.getModules().size());
+        for (Module module : expected.getModules()) {
+            final Module other = actual.findModule(module.getQNameModule()).get();
+            assertEquals(module.getChildNodes().size(), other.getChildNodes().size());
+            assertEquals(module.getTypeDefinitions().size(), other.getTypeDefinitions().size());
+            assertEquals(module.getUnknownSchemaNodes().size(), other.getUnknownSchemaNodes().size());
+        }
+    }
+
+    private static SchemaContext buildEffective(final List<ASTSchemaSource> sources) throws ReactorException {
+        final BuildAction build = RFC7950Reactors.defaultReactor().newBuild();
+        for (ASTSchemaSource source : sources) {
+            build.addSource(YangStatementStreamSource.create(source.getIdentifier(),
+                (StatementContext) source.getAST(), source.getSymbolicName().orElse(null)));
+        }
+        return build.buildEffective();
+    }
+
+    private static byte[] serialize(final ASTSchemaSource source) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            source.writeTo(out);
+        }
+        return bos.toByteArray();
+    }
+
+    private static ASTSchemaSource deserialize(final ASTSchemaSource original, final byte[] bytes) throws Exception {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return ASTSchemaSource.readFrom(original.getIdentifier(), original.getSymbolicName().orElse(null), in);
+        }
+    }
+}
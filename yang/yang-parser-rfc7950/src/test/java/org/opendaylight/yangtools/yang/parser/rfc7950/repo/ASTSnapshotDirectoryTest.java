@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2018 Pantheon Technologies, s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.rfc7950.repo;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+
+public class ASTSnapshotDirectoryTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSnapshotReuse() throws Exception {
+        final Path dir = folder.getRoot().toPath().resolve("snapshots");
+        final ASTSnapshotDirectory snapshots = new ASTSnapshotDirectory(dir);
+        final YangTextSchemaSource foo = YangTextSchemaSource.forResource("/ietf/ietf-inet-types@2010-09-24.yang");
+
+        assertEquals("ietf-inet-types", snapshots.transform(foo).getIdentifier().getName());
+        final File[] files = dir.toFile().listFiles();
+        assertEquals(1, files.length);
+
+        // Replace the snapshot with a different module, which must be picked up instead of the text
+        final ASTSchemaSource bar = TextToASTTransformer.transformText(
+            YangTextSchemaSource.forResource("/ietf/ietf-yang-types@2010-09-24.yang"));
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(files[0].toPath()))) {
+            bar.writeTo(out);
+        }
+        assertEquals("ietf-yang-types", snapshots.transform(foo).getIdentifier().getName());
+
+        // A corrupted snapshot is ignored and replaced
+        Files.write(files[0].toPath(), "garbage".getBytes(StandardCharsets.UTF_8));
+        assertEquals("ietf-inet-types", snapshots.transform(foo).getIdentifier().getName());
+        assertEquals("ietf-inet-types", snapshots.transform(foo).getIdentifier().getName());
+        assertEquals(1, dir.toFile().listFiles().length);
+    }
+}